@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.channel;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelHandlerAdapter;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+
+/**
+ * Measures the delivery of inbound messages through {@link FluxReceive}, either on the
+ * fast path (unbounded demand) or through the receiver queue (demand of one message at
+ * a time).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class FluxReceiveBenchmark {
+
+	static final int BATCH = 128;
+
+	@Param({"fastPath", "queuedPath"})
+	String path;
+
+	EmbeddedChannel         channel;
+	ChannelOperations<?, ?> ops;
+	ChannelHandlerContext   ctx;
+	ByteBuf                 payload;
+	long                    received;
+
+	@Setup
+	public void setup() {
+		channel = new EmbeddedChannel(new ChannelHandlerAdapter() {});
+		ctx = channel.pipeline().firstContext();
+		ops = new ChannelOperations<>(Connection.from(channel), ConnectionObserver.emptyListener());
+		payload = PooledByteBufAllocator.DEFAULT.directBuffer(256)
+		                                        .writeZero(256);
+		boolean unbounded = "fastPath".equals(path);
+		ops.receiveObject()
+		   .subscribe(new BaseSubscriber<Object>() {
+			   @Override
+			   protected void hookOnSubscribe(Subscription subscription) {
+				   subscription.request(unbounded ? Long.MAX_VALUE : 1);
+			   }
+
+			   @Override
+			   protected void hookOnNext(Object value) {
+				   received++;
+				   if (!unbounded) {
+					   request(1);
+				   }
+			   }
+		   });
+	}
+
+	@TearDown
+	public void tearDown() {
+		ops.dispose();
+		payload.release();
+		channel.finishAndReleaseAll();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public long receive() {
+		for (int i = 0; i < BATCH; i++) {
+			ops.onInboundNext(ctx, payload.retainedDuplicate());
+		}
+		return received;
+	}
+}
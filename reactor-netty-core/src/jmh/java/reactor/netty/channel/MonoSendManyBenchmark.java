@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.channel;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+/**
+ * Measures the cost of writing and flushing a stream of {@link ByteBuf} with
+ * {@link MonoSendMany}, synchronous ({@code Fuseable.SYNC}) and asynchronous sources.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class MonoSendManyBenchmark {
+
+	@Param({"16", "256", "4096"})
+	int messages;
+
+	@Param({"64", "8192"})
+	int messageSize;
+
+	EmbeddedChannel channel;
+	ByteBuf         payload;
+
+	@Setup
+	public void setup() {
+		channel = new EmbeddedChannel(new ChannelHandlerAdapter() {});
+		payload = PooledByteBufAllocator.DEFAULT.directBuffer(messageSize)
+		                                        .writeZero(messageSize);
+	}
+
+	@TearDown
+	public void tearDown() {
+		payload.release();
+		channel.finishAndReleaseAll();
+	}
+
+	@Benchmark
+	public void syncSource(Blackhole bh) {
+		send(Flux.range(0, messages)
+		         .map(i -> payload.retainedDuplicate()), bh);
+	}
+
+	@Benchmark
+	public void asyncSource(Blackhole bh) {
+		send(Flux.range(0, messages)
+		         .map(i -> payload.retainedDuplicate())
+		         .hide(), bh);
+	}
+
+	void send(Flux<ByteBuf> source, Blackhole bh) {
+		MonoSendMany.byteBufSource(source, channel, b -> false)
+		            .subscribe();
+		channel.runPendingTasks();
+		Object msg;
+		while ((msg = channel.readOutbound()) != null) {
+			bh.consume(msg);
+			ReferenceCountUtil.release(msg);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.resources;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.handler.logging.LoggingHandler;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.resolver.DefaultAddressResolverGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.DisposableServer;
+import reactor.netty.channel.ChannelMetricsRecorder;
+import reactor.netty.tcp.TcpServer;
+import reactor.netty.transport.ClientTransportConfig;
+
+/**
+ * Measures a pooled connection acquire/release cycle against a loopback server, the
+ * connections being established during the first iterations only.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class PooledConnectionProviderBenchmark {
+
+	@Param({"fifo", "lifo"})
+	String leasingStrategy;
+
+	DisposableServer                  server;
+	LoopResources                     loops;
+	ConnectionProvider                provider;
+	ClientTransportConfigImpl         config;
+	Supplier<? extends SocketAddress> remoteAddress;
+
+	@Setup
+	public void setup() {
+		server = TcpServer.create()
+		                  .host("localhost")
+		                  .port(0)
+		                  .bindNow();
+
+		loops = LoopResources.create("benchmark", 2, true);
+		ConnectionProvider.Builder builder = ConnectionProvider.builder("benchmark")
+		                                                       .maxConnections(16);
+		provider = "lifo".equals(leasingStrategy) ? builder.lifo().build() : builder.fifo().build();
+
+		InetSocketAddress address = new InetSocketAddress("localhost", server.port());
+		remoteAddress = () -> address;
+		config = new ClientTransportConfigImpl(loops.onClient(true), provider, Collections.emptyMap(), remoteAddress);
+	}
+
+	@TearDown
+	public void tearDown() {
+		provider.disposeLater().block(Duration.ofSeconds(5));
+		loops.disposeLater().block(Duration.ofSeconds(5));
+		server.disposeNow();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Object acquireRelease() {
+		DefaultPooledConnectionProvider.PooledConnection connection =
+				(DefaultPooledConnectionProvider.PooledConnection)
+						provider.acquire(config, ConnectionObserver.emptyListener(), remoteAddress, DefaultAddressResolverGroup.INSTANCE)
+						        .block(Duration.ofSeconds(5));
+		if (connection != null) {
+			connection.onStateChange(connection, ConnectionObserver.State.DISCONNECTING);
+		}
+		return connection;
+	}
+
+	static final class ClientTransportConfigImpl extends ClientTransportConfig<ClientTransportConfigImpl> {
+
+		final EventLoopGroup group;
+
+		ClientTransportConfigImpl(EventLoopGroup group, ConnectionProvider connectionProvider,
+				Map<ChannelOption<?>, ?> options, Supplier<? extends SocketAddress> remoteAddress) {
+			super(connectionProvider, options, remoteAddress);
+			this.group = group;
+		}
+
+		@Override
+		protected LoggingHandler defaultLoggingHandler() {
+			return null;
+		}
+
+		@Override
+		protected LoopResources defaultLoopResources() {
+			return preferNative -> group;
+		}
+
+		@Override
+		protected ChannelMetricsRecorder defaultMetricsRecorder() {
+			return null;
+		}
+
+		@Override
+		protected EventLoopGroup eventLoopGroup() {
+			return group;
+		}
+
+		@Override
+		protected AddressResolverGroup<?> resolverInternal() {
+			return DefaultAddressResolverGroup.INSTANCE;
+		}
+	}
+}
@@ -92,6 +92,11 @@ public class Metrics {
 	 */
 	public static final String DATA_SENT = ".data.sent";
 
+	/**
+	 * Amount of the received data buffered when reading is suspended, in bytes
+	 */
+	public static final String DATA_RECEIVED_BUFFERED = ".data.received.buffered";
+
 	/**
 	 * Number of errors that occurred
 	 */
@@ -122,6 +127,21 @@ public class Metrics {
 	 */
 	public static final String RESPONSE_TIME = ".response.time";
 
+	/**
+	 * Number of the decoded HTTP/2 header values found in the intern cache, not the HPACK dynamic table hits
+	 */
+	public static final String HTTP2_HEADER_CACHE_HITS = ".http2.header.cache.hits";
+
+	/**
+	 * Number of the decoded HTTP/2 header values not found in the intern cache
+	 */
+	public static final String HTTP2_HEADER_CACHE_MISSES = ".http2.header.cache.misses";
+
+	/**
+	 * Number of the lookups of the HTTP client response cache
+	 */
+	public static final String RESPONSE_CACHE = ".response.cache";
+
 
 	// AddressResolverGroup Metrics
 	/**
@@ -213,6 +233,12 @@ public class Metrics {
 
 	public static final String ERROR = "ERROR";
 
+	public static final String HIT = "HIT";
+
+	public static final String MISS = "MISS";
+
+	public static final String REVALIDATED = "REVALIDATED";
+
 
 	@Nullable
 	public static String formatSocketAddress(@Nullable SocketAddress socketAddress) {
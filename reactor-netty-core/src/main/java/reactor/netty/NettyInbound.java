@@ -45,6 +45,22 @@ public interface NettyInbound {
 	 */
 	Flux<?> receiveObject();
 
+	/**
+	 * Bounds the inbound data buffered for {@link #receive()} and {@link #receiveObject()}
+	 * while the receiver does not keep up. Reading from the connection is suspended once
+	 * more than {@code highWaterMark} bytes are buffered and resumes only when the buffered
+	 * bytes are below {@code lowWaterMark} and the receiver requests more data.
+	 * By default, only the receiver demand controls the reading.
+	 *
+	 * @param lowWaterMark the buffered bytes below which reading can resume
+	 * @param highWaterMark the buffered bytes above which reading is suspended
+	 * @return this {@link NettyInbound}
+	 * @since 1.0.3
+	 */
+	default NettyInbound receiveBufferWaterMark(int lowWaterMark, int highWaterMark) {
+		return this;
+	}
+
 	/**
 	 * Calls the passed callback with a {@link Connection} to operate on the
 	 * underlying {@link Channel} state. This allows for chaining inbound API.
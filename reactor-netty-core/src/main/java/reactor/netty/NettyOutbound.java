@@ -24,6 +24,7 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.function.BiFunction;
@@ -35,10 +36,8 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.DefaultFileRegion;
-import io.netty.handler.stream.ChunkedNioFile;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
-import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -61,6 +60,39 @@ public interface NettyOutbound extends Publisher<Void> {
 	 */
 	ByteBufAllocator alloc();
 
+	/**
+	 * Configures how the writes of the subsequent {@link #send(Publisher)} and
+	 * {@link #sendObject(Publisher)} streams on this connection are coalesced before being flushed.
+	 * Written messages are flushed once {@code maxPendingBytes} are pending, once the channel
+	 * becomes unwritable, when the flush predicate matches, or when the stream terminates.
+	 * Otherwise messages that are written in the same batch are flushed when the batch ends,
+	 * or, when {@code maxFlushDelay} is positive, at most {@code maxFlushDelay} after the batch ends
+	 * so that the messages of the following batches are flushed together.
+	 * By default, the pending bytes are unbounded and the delay is {@link Duration#ZERO}.
+	 *
+	 * @param maxPendingBytes the number of written bytes that triggers a flush, must be strictly positive
+	 * @param maxFlushDelay the maximum time written messages wait for a flush, {@link Duration#ZERO}
+	 * flushes at the end of each batch
+	 * @return this {@link NettyOutbound}
+	 * @since 1.0.3
+	 */
+	default NettyOutbound flushThresholds(int maxPendingBytes, Duration maxFlushDelay) {
+		return this;
+	}
+
+	/**
+	 * Configures how the subsequent {@link #send(Publisher)} and {@link #sendObject(Publisher)}
+	 * streams on this connection request messages from their source, by default
+	 * {@link SendDemand#DEFAULT}.
+	 *
+	 * @param sendDemand the {@link SendDemand} strategy
+	 * @return this {@link NettyOutbound}
+	 * @since 1.0.3
+	 */
+	default NettyOutbound sendDemand(SendDemand sendDemand) {
+		return this;
+	}
+
 	/**
 	 * Returns a never completing {@link Mono} after this {@link NettyOutbound#then()} has
 	 * completed.
@@ -171,12 +203,7 @@ public interface NettyOutbound extends Publisher<Void> {
 				(c, fc) -> {
 					if (ReactorNetty.mustChunkFileTransfer(c, file)) {
 						ReactorNetty.addChunkedWriter(c);
-						try {
-							return new ChunkedNioFile(fc, position, count, 1024);
-						}
-						catch (Exception ioe) {
-							throw Exceptions.propagate(ioe);
-						}
+						return ReactorNetty.chunkedFile(fc, position, count);
 					}
 					return new DefaultFileRegion(fc, position, count);
 				},
@@ -203,12 +230,7 @@ public interface NettyOutbound extends Publisher<Void> {
 		return sendUsing(() -> FileChannel.open(file, StandardOpenOption.READ),
 				(c, fc) -> {
 					ReactorNetty.addChunkedWriter(c);
-					try {
-						return new ChunkedNioFile(fc, position, count, 1024);
-					}
-					catch (Exception e) {
-						throw Exceptions.propagate(e);
-					}
+					return ReactorNetty.chunkedFile(fc, position, count);
 				},
 				ReactorNetty.fileCloser);
 	}
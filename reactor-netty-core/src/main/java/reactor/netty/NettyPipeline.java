@@ -32,6 +32,7 @@ import io.netty.channel.ChannelInboundHandler;
  * -> proxy handler ? [ProxyHandler]
  * -> ssl log ? [SslLoggingHandler]
  * -> ssl handler ? [SslHandler]
+ * -> connection latency ? [ConnectionLatencyHandler]
  * -> log ? [LoggingHandler]
  * -> ssl reader ? [SslReader]
  * -> channel metrics ? [ChannelMetricsHandler]
@@ -67,6 +68,7 @@ import io.netty.channel.ChannelInboundHandler;
  * -> http access log ? [AccessLogHandler]
  * -> http/1.1 compression ? [CompressionHandler]
  * -> h2 to http/1.1 codec ? [H2ToHttp11Codec]
+ * -> http decompressor ? [HttpDecompressor]
  * -> http traffic handler ? [HttpTrafficHandler]
  * -> http metrics ? [HttpMetricsHandler]
  * -> http send file ? [ChunkedWriter]
@@ -91,6 +93,7 @@ public interface NettyPipeline {
 	String ChunkedWriter         = LEFT + "chunkedWriter";
 	String CompressionHandler    = LEFT + "compressionHandler";
 	String ConnectMetricsHandler = LEFT + "connectMetricsHandler";
+	String ConnectionLatencyHandler = LEFT + "connectionLatencyHandler";
 	String H2CUpgradeHandler     = LEFT + "h2cUpgradeHandler";
 	String H2MultiplexHandler    = LEFT + "h2MultiplexHandler";
 	String H2OrHttp11Codec       = LEFT + "h2OrHttp11Codec";
@@ -18,6 +18,7 @@ package reactor.netty;
 import java.net.SocketAddress;
 import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
@@ -40,6 +41,7 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.nio.NioEventLoop;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedInput;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
@@ -77,6 +79,12 @@ public final class ReactorNetty {
 	static final boolean LOG_CHANNEL_INFO =
 			Boolean.parseBoolean(System.getProperty("reactor.netty.logChannelInfo", "true"));
 
+	static final int SEND_FILE_CHUNK =
+			Integer.parseInt(System.getProperty(ReactorNetty.SEND_FILE_CHUNK_SIZE, "16384"));
+
+	static final int SEND_FILE_CHUNKS_READ_AHEAD =
+			Integer.parseInt(System.getProperty(ReactorNetty.SEND_FILE_READ_AHEAD, "4"));
+
 	/**
 	 * Default worker thread count, fallback to available processor
 	 * (but with a minimum value of 4)
@@ -129,10 +137,11 @@ public final class ReactorNetty {
 	 */
 	public static final String POOL_MAX_LIFE_TIME = "reactor.netty.pool.maxLifeTime";
 	/**
-	 * Default leasing strategy (fifo, lifo), fallback to fifo.
+	 * Default leasing strategy (fifo, lifo, lowest-latency), fallback to fifo.
 	 * <ul>
 	 *     <li>fifo - The connection selection is first in, first out</li>
 	 *     <li>lifo - The connection selection is last in, first out</li>
+	 *     <li>lowest-latency - The connection selection is the connection with the lowest recent latency</li>
 	 * </ul>
 	 */
 	public static final String POOL_LEASING_STRATEGY = "reactor.netty.pool.leasingStrategy";
@@ -154,11 +163,47 @@ public final class ReactorNetty {
 	public static final String SSL_SERVER_DEBUG = "reactor.netty.tcp.ssl.server.debug";
 
 
+	/**
+	 * Default chunk size (bytes) used when a file cannot be sent with zero-byte copy,
+	 * e.g. SSL/TLS or compression is enabled, fallback to 16384 bytes
+	 */
+	public static final String SEND_FILE_CHUNK_SIZE = "reactor.netty.sendFile.chunkSize";
+	/**
+	 * Default number of chunks that are read at once when a file cannot be sent with zero-byte copy,
+	 * fallback to 4 chunks
+	 */
+	public static final String SEND_FILE_READ_AHEAD = "reactor.netty.sendFile.readAhead";
+
+
 	/**
 	 * Specifies whether the Http Server access log will be enabled.
 	 * By default it is disabled.
 	 */
 	public static final String ACCESS_LOG_ENABLED = "reactor.netty.http.server.accessLogEnabled";
+	/**
+	 * Default maximum size (bytes) of the off-heap cache holding the compressed content of the files
+	 * served by the Http Server routes when compression is enabled, fallback to 16777216 bytes.
+	 * The routes of each server have their own cache.
+	 * {@code 0} disables the cache.
+	 */
+	public static final String HTTP_SERVER_COMPRESSED_FILE_CACHE_SIZE = "reactor.netty.http.server.compressedFileCacheSize";
+	/**
+	 * Whether the Http Server routes serve the pre-compressed sibling of a file ({@code file.br},
+	 * {@code file.gz}) when the client accepts its encoding, fallback to false.
+	 */
+	public static final String HTTP_SERVER_PRECOMPRESSED_FILES = "reactor.netty.http.server.precompressedFiles";
+	/**
+	 * Default maximum number of files whose metadata is cached by the Http Server routes,
+	 * fallback to 1024 files. {@code 0} disables the cache.
+	 */
+	public static final String HTTP_SERVER_FILE_CACHE_ENTRIES = "reactor.netty.http.server.fileCacheEntries";
+	/**
+	 * Default maximum size (bytes) of the off-heap cache holding the content of the files
+	 * served by the Http Server routes, fallback to 67108864 bytes.
+	 * The routes of each server have their own cache.
+	 * {@code 0} disables caching the content.
+	 */
+	public static final String HTTP_SERVER_FILE_CACHE_SIZE = "reactor.netty.http.server.fileCacheSize";
 
 
 	/**
@@ -342,6 +387,10 @@ public final class ReactorNetty {
 		}
 	}
 
+	static ChunkedInput<ByteBuf> chunkedFile(FileChannel fc, long position, long count) {
+		return new ReadAheadChunkedFile(fc, position, count, SEND_FILE_CHUNK, SEND_FILE_CHUNKS_READ_AHEAD);
+	}
+
 	static boolean mustChunkFileTransfer(Connection c, Path file) {
 		// if channel multiplexing a parent channel as an http2 stream
 		if (c.channel().parent() != null && c.channel().parent().pipeline().get(NettyPipeline.H2MultiplexHandler) != null) {
@@ -675,6 +724,18 @@ public final class ReactorNetty {
 			return source.withConnection(withConnection);
 		}
 
+		@Override
+		public NettyOutbound flushThresholds(int maxPendingBytes, Duration maxFlushDelay) {
+			source.flushThresholds(maxPendingBytes, maxFlushDelay);
+			return this;
+		}
+
+		@Override
+		public NettyOutbound sendDemand(SendDemand sendDemand) {
+			source.sendDemand(sendDemand);
+			return this;
+		}
+
 		@Override
 		public NettyOutbound send(Publisher<? extends ByteBuf> dataStream, Predicate<ByteBuf> predicate) {
 			return then(source.send(dataStream, predicate));
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+import reactor.util.annotation.Nullable;
+
+/**
+ * A {@link ChunkedInput} that fetches a region of a {@link FileChannel} chunk by chunk,
+ * reading several chunks at once into a direct buffer. Reads are aligned on the chunk size
+ * relatively to the beginning of the file.
+ * Compared to {@link io.netty.handler.stream.ChunkedNioFile}, a single read is issued for
+ * several chunks while the chunks remain small enough for SSL/TLS records and compression.
+ */
+final class ReadAheadChunkedFile implements ChunkedInput<ByteBuf> {
+
+	final FileChannel in;
+	final long        startOffset;
+	final long        endOffset;
+	final int         chunkSize;
+	final int         readAheadSize;
+
+	long offset;
+	long readOffset;
+	ByteBuf readAhead;
+
+	ReadAheadChunkedFile(FileChannel in, long offset, long length, int chunkSize, int readAhead) {
+		if (offset < 0) {
+			throw new IllegalArgumentException("offset: " + offset + " (expected: 0 or greater)");
+		}
+		if (length < 0) {
+			throw new IllegalArgumentException("length: " + length + " (expected: 0 or greater)");
+		}
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize: " + chunkSize + " (expected: a positive integer)");
+		}
+		if (readAhead <= 0) {
+			throw new IllegalArgumentException("readAhead: " + readAhead + " (expected: a positive integer)");
+		}
+		this.in = in;
+		this.startOffset = offset;
+		this.endOffset = offset + length;
+		this.chunkSize = chunkSize;
+		this.readAheadSize = (int) Math.min(Integer.MAX_VALUE, (long) chunkSize * readAhead);
+		this.offset = offset;
+		this.readOffset = offset;
+	}
+
+	@Override
+	public boolean isEndOfInput() {
+		return offset >= endOffset || !in.isOpen();
+	}
+
+	@Override
+	public void close() throws IOException {
+		releaseReadAhead();
+		in.close();
+	}
+
+	@Deprecated
+	@Override
+	@Nullable
+	public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+		return readChunk(ctx.alloc());
+	}
+
+	@Override
+	@Nullable
+	public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+		if (offset >= endOffset) {
+			return null;
+		}
+
+		ByteBuf buffer = readAhead;
+		if (buffer == null || !buffer.isReadable()) {
+			releaseReadAhead();
+			buffer = read(allocator);
+			if (buffer == null) {
+				return null;
+			}
+		}
+
+		int size = (int) Math.min(buffer.readableBytes(), chunkSize - offset % chunkSize);
+		offset += size;
+		return buffer.readRetainedSlice(size);
+	}
+
+	@Override
+	public long length() {
+		return endOffset - startOffset;
+	}
+
+	@Override
+	public long progress() {
+		return offset - startOffset;
+	}
+
+	@Nullable
+	ByteBuf read(ByteBufAllocator allocator) throws IOException {
+		// The first read stops at a chunk boundary so that the following ones are aligned
+		int size = (int) Math.min(endOffset - readOffset, readAheadSize - readOffset % chunkSize);
+		ByteBuf buffer = allocator.directBuffer(size);
+		boolean release = true;
+		try {
+			int read = 0;
+			while (read < size) {
+				int localRead = buffer.writeBytes(in, readOffset + read, size - read);
+				if (localRead < 0) {
+					break;
+				}
+				read += localRead;
+			}
+			if (read == 0) {
+				// The file has been truncated
+				offset = endOffset;
+				return null;
+			}
+			readOffset += read;
+			readAhead = buffer;
+			release = false;
+			return buffer;
+		}
+		finally {
+			if (release) {
+				buffer.release();
+			}
+		}
+	}
+
+	void releaseReadAhead() {
+		ByteBuf buffer = readAhead;
+		if (buffer != null) {
+			readAhead = null;
+			buffer.release();
+		}
+	}
+}
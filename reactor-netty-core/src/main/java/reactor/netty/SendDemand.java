@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty;
+
+import io.netty.channel.Channel;
+import io.netty.channel.WriteBufferWaterMark;
+import org.reactivestreams.Publisher;
+
+/**
+ * Describes how {@link NettyOutbound#send(Publisher)} and {@link NettyOutbound#sendObject(Publisher)}
+ * request messages from their source.
+ * <p>
+ * At most {@link #prefetch()} messages are requested and not yet written to the network.
+ * Further messages are requested once half of them have been written, provided that the
+ * bytes of the send that are pending to be written are below {@link #maxPendingBytes()} and,
+ * for {@link #writeBufferWaterMark(int)}, that the {@link Channel} is writable.
+ * Once everything requested has been written, further messages are requested regardless.
+ *
+ * @since 1.0.3
+ */
+public final class SendDemand {
+
+	/**
+	 * The default prefetch
+	 */
+	public static final int DEFAULT_PREFETCH = 128;
+
+	/**
+	 * The default demand strategy: {@link #DEFAULT_PREFETCH} messages regardless of their size.
+	 */
+	public static final SendDemand DEFAULT = new SendDemand(DEFAULT_PREFETCH, Long.MAX_VALUE, false);
+
+	/**
+	 * Requests up to {@code prefetch} messages regardless of their size.
+	 *
+	 * @param prefetch the maximum number of requested messages that are not yet written
+	 * @return a new {@link SendDemand}
+	 */
+	public static SendDemand fixed(int prefetch) {
+		return new SendDemand(prefetch, Long.MAX_VALUE, false);
+	}
+
+	/**
+	 * Requests up to {@code prefetch} messages, and only as many as can be expected to fit in
+	 * {@code maxPendingBytes} given the average size of the messages written so far.
+	 * A single message is requested first, and no more messages are requested while
+	 * {@code maxPendingBytes} of the send are pending to be written.
+	 *
+	 * @param prefetch the maximum number of requested messages that are not yet written
+	 * @param maxPendingBytes the bytes pending to be written above which no more messages are requested
+	 * @return a new {@link SendDemand}
+	 */
+	public static SendDemand byteBudget(int prefetch, long maxPendingBytes) {
+		if (maxPendingBytes <= 0) {
+			throw new IllegalArgumentException("maxPendingBytes must be strictly positive");
+		}
+		return new SendDemand(prefetch, maxPendingBytes, false);
+	}
+
+	/**
+	 * Requests up to {@code prefetch} messages while the {@link Channel} is writable, i.e. while the
+	 * bytes pending to be written on the connection did not exceed the high mark of the configured
+	 * {@link WriteBufferWaterMark}. Once the {@link Channel} becomes unwritable, no more messages are
+	 * requested until it drains below the low mark.
+	 *
+	 * @param prefetch the maximum number of requested messages that are not yet written
+	 * @return a new {@link SendDemand}
+	 */
+	public static SendDemand writeBufferWaterMark(int prefetch) {
+		return new SendDemand(prefetch, Long.MAX_VALUE, true);
+	}
+
+	final int     prefetch;
+	final long    maxPendingBytes;
+	final boolean writabilityDriven;
+
+	SendDemand(int prefetch, long maxPendingBytes, boolean writabilityDriven) {
+		if (prefetch <= 0) {
+			throw new IllegalArgumentException("prefetch must be strictly positive");
+		}
+		this.prefetch = prefetch;
+		this.maxPendingBytes = maxPendingBytes;
+		this.writabilityDriven = writabilityDriven;
+	}
+
+	/**
+	 * Returns the maximum number of requested messages that are not yet written.
+	 *
+	 * @return the maximum number of requested messages that are not yet written
+	 */
+	public int prefetch() {
+		return prefetch;
+	}
+
+	/**
+	 * Returns the bytes pending to be written above which no more messages are requested,
+	 * {@link Long#MAX_VALUE} when unbounded.
+	 *
+	 * @return the bytes pending to be written above which no more messages are requested
+	 */
+	public long maxPendingBytes() {
+		return maxPendingBytes;
+	}
+
+	/**
+	 * Returns whether no more messages are requested while the {@link Channel} is not writable.
+	 *
+	 * @return whether no more messages are requested while the {@link Channel} is not writable
+	 */
+	public boolean isWritabilityDriven() {
+		return writabilityDriven;
+	}
+
+	@Override
+	public String toString() {
+		return "SendDemand{" +
+				"prefetch=" + prefetch +
+				", maxPendingBytes=" + maxPendingBytes +
+				", writabilityDriven=" + writabilityDriven +
+				'}';
+	}
+}
@@ -76,4 +76,15 @@ public interface ChannelMetricsRecorder {
 	 * @param status the status of the operation
 	 */
 	void recordResolveAddressTime(SocketAddress remoteAddress, Duration time, String status);
+
+	/**
+	 * Records the amount of the received data that is buffered when reading from the connection
+	 * is suspended because the receiver does not keep up, in bytes
+	 *
+	 * @param remoteAddress The remote peer
+	 * @param bytes The amount of the received data that is buffered, in bytes
+	 * @since 1.0.3
+	 */
+	default void recordDataReceivedBuffered(SocketAddress remoteAddress, long bytes) {
+	}
 }
@@ -18,6 +18,7 @@ package reactor.netty.channel;
 
 import java.net.SocketAddress;
 import java.nio.channels.ClosedChannelException;
+import java.time.Duration;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BiFunction;
@@ -45,6 +46,7 @@ import reactor.netty.NettyInbound;
 import reactor.netty.NettyOutbound;
 import reactor.netty.NettyPipeline;
 import reactor.netty.ReactorNetty;
+import reactor.netty.SendDemand;
 import reactor.util.Logger;
 import reactor.util.Loggers;
 import reactor.util.annotation.Nullable;
@@ -119,11 +121,19 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 
 	volatile Subscription outboundSubscription;
 
+	int        flushMaxPendingBytes = Integer.MAX_VALUE;
+	long       flushMaxDelayNanos;
+	SendDemand sendDemand = SendDemand.DEFAULT;
+
 	protected ChannelOperations(ChannelOperations<INBOUND, OUTBOUND> replaced) {
 		this.connection = replaced.connection;
 		this.listener = replaced.listener;
 		this.onTerminate = replaced.onTerminate;
 		this.inbound = new FluxReceive(this);
+		this.inbound.bufferWaterMark(replaced.inbound.bufferLowWaterMark, replaced.inbound.bufferHighWaterMark);
+		this.flushMaxPendingBytes = replaced.flushMaxPendingBytes;
+		this.flushMaxDelayNanos = replaced.flushMaxDelayNanos;
+		this.sendDemand = replaced.sendDemand;
 	}
 
 	/**
@@ -264,6 +274,38 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 		                                                          .alloc());
 	}
 
+	@Override
+	public NettyInbound receiveBufferWaterMark(int lowWaterMark, int highWaterMark) {
+		if (lowWaterMark < 0) {
+			throw new IllegalArgumentException("lowWaterMark must be positive or zero");
+		}
+		if (highWaterMark < lowWaterMark) {
+			throw new IllegalArgumentException("highWaterMark must be greater than or equal to lowWaterMark");
+		}
+		inbound.bufferWaterMark(lowWaterMark, highWaterMark);
+		return this;
+	}
+
+	@Override
+	public NettyOutbound flushThresholds(int maxPendingBytes, Duration maxFlushDelay) {
+		requireNonNull(maxFlushDelay, "maxFlushDelay");
+		if (maxPendingBytes <= 0) {
+			throw new IllegalArgumentException("maxPendingBytes must be strictly positive");
+		}
+		if (maxFlushDelay.isNegative()) {
+			throw new IllegalArgumentException("maxFlushDelay must be positive or zero");
+		}
+		this.flushMaxPendingBytes = maxPendingBytes;
+		this.flushMaxDelayNanos = maxFlushDelay.toNanos();
+		return this;
+	}
+
+	@Override
+	public NettyOutbound sendDemand(SendDemand sendDemand) {
+		this.sendDemand = requireNonNull(sendDemand, "sendDemand");
+		return this;
+	}
+
 	@Override
 	public NettyOutbound send(Publisher<? extends ByteBuf> dataStream, Predicate<ByteBuf> predicate) {
 		requireNonNull(predicate, "predicate");
@@ -274,7 +316,7 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 			return then(((Mono<?>)dataStream).flatMap(m -> FutureMono.from(channel().writeAndFlush(m)))
 			                                 .doOnDiscard(ByteBuf.class, ByteBuf::release));
 		}
-		return then(MonoSendMany.byteBufSource(dataStream, channel(), predicate));
+		return then(MonoSendMany.byteBufSource(dataStream, channel(), predicate, flushMaxPendingBytes, flushMaxDelayNanos, sendDemand));
 	}
 
 	@Override
@@ -287,7 +329,7 @@ public class ChannelOperations<INBOUND extends NettyInbound, OUTBOUND extends Ne
 			return then(((Mono<?>)dataStream).flatMap(m -> FutureMono.from(channel().writeAndFlush(m)))
 			                                 .doOnDiscard(ReferenceCounted.class, ReferenceCounted::release));
 		}
-		return then(MonoSendMany.objectSource(dataStream, channel(), predicate));
+		return then(MonoSendMany.objectSource(dataStream, channel(), predicate, flushMaxPendingBytes, flushMaxDelayNanos, sendDemand));
 	}
 
 	@Override
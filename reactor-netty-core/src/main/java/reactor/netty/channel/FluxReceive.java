@@ -16,6 +16,7 @@
 
 package reactor.netty.channel;
 
+import java.net.SocketAddress;
 import java.nio.channels.ClosedChannelException;
 import java.util.ArrayDeque;
 import java.util.Queue;
@@ -25,6 +26,7 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufHolder;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.EventLoop;
 import io.netty.util.ReferenceCountUtil;
 import org.reactivestreams.Subscription;
@@ -32,6 +34,7 @@ import reactor.core.CoreSubscriber;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Operators;
+import reactor.netty.NettyPipeline;
 import reactor.util.Logger;
 import reactor.util.Loggers;
 import reactor.util.annotation.Nullable;
@@ -56,6 +59,12 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 
 	boolean needRead = true;
 
+	// A negative high water mark disables the inbound buffer limit
+	int     bufferLowWaterMark;
+	int     bufferHighWaterMark = -1;
+	long    bufferedBytes;
+	boolean bufferFull;
+
 	volatile boolean   inboundDone;
 	Throwable inboundError;
 
@@ -104,6 +113,23 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 		}
 	}
 
+	final void bufferWaterMark(int lowWaterMark, int highWaterMark) {
+		if (eventLoop.inEventLoop()) {
+			if (bufferHighWaterMark < 0 && highWaterMark >= 0 && receiverQueue != null) {
+				long bytes = 0;
+				for (Object msg : receiverQueue) {
+					bytes += sizeOf(msg);
+				}
+				bufferedBytes = bytes;
+			}
+			this.bufferLowWaterMark = lowWaterMark;
+			this.bufferHighWaterMark = highWaterMark;
+		}
+		else {
+			eventLoop.execute(() -> bufferWaterMark(lowWaterMark, highWaterMark));
+		}
+	}
+
 	final long getPending() {
 		return receiverQueue != null ? receiverQueue.size() : 0;
 	}
@@ -197,6 +223,7 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 	}
 
 	final void cleanQueue(@Nullable Queue<Object> q){
+		bufferedBytes = 0;
 		if (q != null) {
 			Object o;
 			while ((o = q.poll()) != null) {
@@ -252,6 +279,13 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				Object v = q != null ? q.poll() : null;
 				boolean empty = v == null;
 
+				if (!empty && bufferHighWaterMark >= 0) {
+					bufferedBytes -= sizeOf(v);
+					if (bufferFull && bufferedBytes < bufferLowWaterMark) {
+						bufferFull = false;
+					}
+				}
+
 				if (d && empty) {
 					terminateReceiver(q, a);
 					return;
@@ -291,7 +325,7 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 
 			if (r == Long.MAX_VALUE) {
 				receiverFastpath = true;
-				if (needRead) {
+				if (needRead && !bufferFull) {
 					needRead = false;
 					channel.config()
 					       .setAutoRead(true);
@@ -302,7 +336,7 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				}
 			}
 
-			if ((receiverDemand -= e) > 0L || (e > 0L && q.size() < QUEUE_LOW_LIMIT)) {
+			if (((receiverDemand -= e) > 0L || (e > 0L && q.size() < QUEUE_LOW_LIMIT)) && !bufferFull) {
 				if (needRead) {
 					needRead = false;
 					channel.config()
@@ -368,10 +402,37 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 				}
 			}
 			q.offer(msg);
+			if (bufferHighWaterMark >= 0) {
+				bufferedBytes += sizeOf(msg);
+				if (!bufferFull && bufferedBytes > bufferHighWaterMark) {
+					suspendRead();
+				}
+			}
 			drainReceiver();
 		}
 	}
 
+	final void suspendRead() {
+		bufferFull = true;
+		if (!needRead) {
+			needRead = true;
+			channel.config()
+			       .setAutoRead(false);
+		}
+		if (log.isDebugEnabled()) {
+			log.debug(format(channel, "{}: suspending read, {} bytes buffered"), this, bufferedBytes);
+		}
+		ChannelHandler handler = channel.pipeline().get(NettyPipeline.ChannelMetricsHandler);
+		if (handler instanceof ChannelMetricsHandler) {
+			ChannelMetricsHandler metricsHandler = (ChannelMetricsHandler) handler;
+			SocketAddress remoteAddress = metricsHandler.remoteAddress != null ?
+					metricsHandler.remoteAddress : channel.remoteAddress();
+			if (remoteAddress != null) {
+				metricsHandler.recorder.recordDataReceivedBuffered(remoteAddress, bufferedBytes);
+			}
+		}
+	}
+
 	final void onInboundComplete() {
 		if (inboundDone) {
 			return;
@@ -440,6 +501,8 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 		if (q != null) {
 			q.clear();
 		}
+		bufferedBytes = 0;
+		bufferFull = false;
 		Throwable ex = inboundError;
 		receiver = null;
 		if (ex != null) {
@@ -463,12 +526,23 @@ final class FluxReceive extends Flux<Object> implements Subscription, Disposable
 	public String toString() {
 		return "FluxReceive{" +
 				"pending=" + getPending() +
+				", bufferedBytes=" + bufferedBytes +
 				", cancelled=" + isCancelled() +
 				", inboundDone=" + inboundDone +
 				", inboundError=" + inboundError +
 				'}';
 	}
 
+	static int sizeOf(Object msg) {
+		if (msg instanceof ByteBuf) {
+			return ((ByteBuf) msg).readableBytes();
+		}
+		if (msg instanceof ByteBufHolder) {
+			return ((ByteBufHolder) msg).content().readableBytes();
+		}
+		return 0;
+	}
+
 	static final AtomicReferenceFieldUpdater<FluxReceive, Disposable> CANCEL =
 			AtomicReferenceFieldUpdater.newUpdater(FluxReceive.class,
 					Disposable.class,
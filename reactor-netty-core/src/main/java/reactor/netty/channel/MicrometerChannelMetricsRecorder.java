@@ -30,6 +30,7 @@ import java.util.concurrent.ConcurrentMap;
 import static reactor.netty.Metrics.ADDRESS_RESOLVER;
 import static reactor.netty.Metrics.CONNECT_TIME;
 import static reactor.netty.Metrics.DATA_RECEIVED;
+import static reactor.netty.Metrics.DATA_RECEIVED_BUFFERED;
 import static reactor.netty.Metrics.DATA_SENT;
 import static reactor.netty.Metrics.ERRORS;
 import static reactor.netty.Metrics.REGISTRY;
@@ -49,6 +50,9 @@ public class MicrometerChannelMetricsRecorder implements ChannelMetricsRecorder
 	final DistributionSummary.Builder dataReceivedBuilder;
 	final ConcurrentMap<String, DistributionSummary> dataReceivedCache = PlatformDependent.newConcurrentHashMap();
 
+	final DistributionSummary.Builder dataReceivedBufferedBuilder;
+	final ConcurrentMap<String, DistributionSummary> dataReceivedBufferedCache = PlatformDependent.newConcurrentHashMap();
+
 	final DistributionSummary.Builder dataSentBuilder;
 	final ConcurrentMap<String, DistributionSummary> dataSentCache = PlatformDependent.newConcurrentHashMap();
 
@@ -72,6 +76,12 @@ public class MicrometerChannelMetricsRecorder implements ChannelMetricsRecorder
 				                   .description("Amount of the data received, in bytes")
 				                   .tag(URI, protocol);
 
+		this.dataReceivedBufferedBuilder =
+				DistributionSummary.builder(name + DATA_RECEIVED_BUFFERED)
+				                   .baseUnit("bytes")
+				                   .description("Amount of the received data buffered when reading is suspended, in bytes")
+				                   .tag(URI, protocol);
+
 		this.dataSentBuilder =
 				DistributionSummary.builder(name + DATA_SENT)
 				                   .baseUnit("bytes")
@@ -107,6 +117,17 @@ public class MicrometerChannelMetricsRecorder implements ChannelMetricsRecorder
 		}
 	}
 
+	@Override
+	public void recordDataReceivedBuffered(SocketAddress remoteAddress, long bytes) {
+		String address = reactor.netty.Metrics.formatSocketAddress(remoteAddress);
+		DistributionSummary ds = dataReceivedBufferedCache.computeIfAbsent(address,
+				key -> filter(dataReceivedBufferedBuilder.tag(REMOTE_ADDRESS, address)
+				                                         .register(REGISTRY)));
+		if (ds != null) {
+			ds.record(bytes);
+		}
+	}
+
 	@Override
 	public void recordDataSent(SocketAddress remoteAddress, long bytes) {
 		String address = reactor.netty.Metrics.formatSocketAddress(remoteAddress);
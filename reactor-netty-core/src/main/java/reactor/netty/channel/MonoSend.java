@@ -56,10 +56,6 @@ abstract class MonoSend<I, O> extends Mono<Void> {
 		return (ToIntFunction) SIZE_OF;
 	}
 
-	static final int                    MAX_SIZE    = 128;
-
-	static final int                    REFILL_SIZE = MAX_SIZE / 2;
-
 	static final Function<ByteBuf, ByteBuf> TRANSFORMATION_FUNCTION_BB =
 		msg -> {
 			if (ReactorNetty.PREDICATE_GROUP_FLUSH.test(msg)) {
@@ -50,6 +50,7 @@ import reactor.core.Exceptions;
 import reactor.core.Fuseable;
 import reactor.core.Scannable;
 import reactor.core.publisher.Operators;
+import reactor.netty.SendDemand;
 import reactor.util.annotation.Nullable;
 import reactor.util.concurrent.Queues;
 import reactor.util.context.Context;
@@ -76,25 +77,54 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 	static MonoSendMany<ByteBuf, ByteBuf> byteBufSource(Publisher<? extends ByteBuf> source,
 			Channel channel,
 			Predicate<ByteBuf> predicate) {
-		return new MonoSendMany<>(source, channel, predicate, TRANSFORMATION_FUNCTION_BB, CONSUMER_NOCHECK_CLEANUP, SIZE_OF_BB);
+		return byteBufSource(source, channel, predicate, Integer.MAX_VALUE, 0, SendDemand.DEFAULT);
+	}
+
+	static MonoSendMany<ByteBuf, ByteBuf> byteBufSource(Publisher<? extends ByteBuf> source,
+			Channel channel,
+			Predicate<ByteBuf> predicate,
+			int flushMaxPendingBytes,
+			long flushMaxDelayNanos,
+			SendDemand demand) {
+		return new MonoSendMany<>(source, channel, predicate, TRANSFORMATION_FUNCTION_BB, CONSUMER_NOCHECK_CLEANUP, SIZE_OF_BB,
+				flushMaxPendingBytes, flushMaxDelayNanos, demand);
 	}
 
 	static MonoSendMany<?, ?> objectSource(Publisher<?> source, Channel channel, Predicate<Object> predicate) {
-		return new MonoSendMany<>(source, channel, predicate, TRANSFORMATION_FUNCTION, CONSUMER_NOCHECK_CLEANUP, SIZE_OF);
+		return objectSource(source, channel, predicate, Integer.MAX_VALUE, 0, SendDemand.DEFAULT);
+	}
+
+	static MonoSendMany<?, ?> objectSource(Publisher<?> source,
+			Channel channel,
+			Predicate<Object> predicate,
+			int flushMaxPendingBytes,
+			long flushMaxDelayNanos,
+			SendDemand demand) {
+		return new MonoSendMany<>(source, channel, predicate, TRANSFORMATION_FUNCTION, CONSUMER_NOCHECK_CLEANUP, SIZE_OF,
+				flushMaxPendingBytes, flushMaxDelayNanos, demand);
 	}
 
 	final Publisher<? extends I> source;
 	final Predicate<I> predicate;
+	final int flushMaxPendingBytes;
+	final long flushMaxDelayNanos;
+	final SendDemand demand;
 
 	MonoSendMany(Publisher<? extends I> source,
 			Channel channel,
 			Predicate<I> predicate,
 			Function<? super I, ? extends O> transformer,
 			Consumer<? super I> sourceCleanup,
-			ToIntFunction<O> sizeOf) {
+			ToIntFunction<O> sizeOf,
+			int flushMaxPendingBytes,
+			long flushMaxDelayNanos,
+			SendDemand demand) {
 		super(channel, transformer, sourceCleanup, sizeOf);
 		this.source = Objects.requireNonNull(source, "source publisher cannot be null");
 		this.predicate = Objects.requireNonNull(predicate, "predicate cannot be null");
+		this.flushMaxPendingBytes = flushMaxPendingBytes;
+		this.flushMaxDelayNanos = flushMaxDelayNanos;
+		this.demand = Objects.requireNonNull(demand, "demand cannot be null");
 	}
 
 	@Override
@@ -106,7 +136,7 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 	@Nullable
 	@SuppressWarnings("rawtypes")
 	public Object scanUnsafe(Attr key) {
-		if (key == Attr.PREFETCH) return MAX_SIZE;
+		if (key == Attr.PREFETCH) return demand.prefetch();
 		if (key == Attr.PARENT) return source;
 		return null;
 	}
@@ -121,6 +151,10 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 		final CoreSubscriber<? super Void> actual;
 		final Context                      actualContext;
 		final Runnable                     asyncFlush;
+		final int                          prefetch;
+		final int                          limit;
+		final long                         maxPendingBytes;
+		final boolean                      writabilityDriven;
 
 
 		@SuppressWarnings("unused")
@@ -134,6 +168,13 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 		int      requested;
 		int      sourceMode;
 		boolean  needFlush;
+		boolean  flushScheduled;
+		long     unflushedBytes;
+		long     averageSize;
+		long     pendingBytes;
+		int[]    pendingSizes;
+		int      pendingHead;
+		int      pendingTail;
 		Throwable terminalSignal;
 
 		int nextRequest;
@@ -142,7 +183,13 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 			this.parent = parent;
 			this.actual = actual;
 			this.actualContext = actual.currentContext();
-			this.requested = MAX_SIZE;
+			SendDemand demand = parent.demand;
+			this.prefetch = demand.prefetch();
+			this.limit = prefetch >> 1;
+			this.maxPendingBytes = demand.maxPendingBytes();
+			this.writabilityDriven = demand.isWritabilityDriven();
+			// Without any message size yet, a byte budget starts with a single message
+			this.requested = maxPendingBytes == Long.MAX_VALUE ? prefetch : 1;
 			this.ctx = parent.ctx;
 			this.eventLoop = ctx.channel().eventLoop();
 
@@ -240,14 +287,14 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 						sourceMode = Fuseable.ASYNC;
 						queue = f;
 						actual.onSubscribe(this);
-						s.request(MAX_SIZE);
+						s.request(requested);
 						return;
 					}
 				}
 
-				queue = Queues.<I>get(MAX_SIZE).get();
+				queue = Queues.<I>get(prefetch).get();
 				actual.onSubscribe(this);
-				s.request(MAX_SIZE);
+				s.request(requested);
 			}
 			else {
 				queue = Queues.<I>empty().get();
@@ -298,8 +345,7 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 						if (encodedMessage == null) {
 							if (parent.predicate.test(sourceMessage)) {
 								nextRequest++;
-								needFlush = false;
-								ctx.flush();
+								flush();
 							}
 							continue;
 						}
@@ -313,12 +359,20 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 							continue;
 						}
 						pending++;
+						if (maxPendingBytes != Long.MAX_VALUE) {
+							offerPendingSize(Math.max(readableBytes, 0));
+						}
 						//"FutureReturnValueIgnored" this is deliberate
 						ctx.write(encodedMessage, this);
+						if (readableBytes > 0) {
+							unflushedBytes += readableBytes;
+							averageSize = averageSize == 0 ? readableBytes : averageSize + (readableBytes - averageSize) / 8;
+						}
 
-						if (parent.predicate.test(sourceMessage) || !ctx.channel().isWritable() || readableBytes > ctx.channel().bytesBeforeUnwritable()) {
-							needFlush = false;
-							ctx.flush();
+						if (parent.predicate.test(sourceMessage) || !ctx.channel().isWritable() ||
+								readableBytes > ctx.channel().bytesBeforeUnwritable() ||
+								unflushedBytes >= parent.flushMaxPendingBytes) {
+							flush();
 						}
 						else {
 							needFlush = true;
@@ -326,8 +380,19 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 					}
 
 					if (needFlush && pending != 0) {
-						needFlush = false;
-						eventLoop.execute(asyncFlush);
+						if (parent.flushMaxDelayNanos == 0) {
+							needFlush = false;
+							unflushedBytes = 0;
+							eventLoop.execute(asyncFlush);
+						}
+						// The source terminated or the demand is exhausted, waiting for more messages is pointless
+						else if (terminalSignal != null || !queue.isEmpty()) {
+							flush();
+						}
+						else if (!flushScheduled) {
+							flushScheduled = true;
+							eventLoop.schedule(asyncFlush, parent.flushMaxDelayNanos, TimeUnit.NANOSECONDS);
+						}
 					}
 
 					if (Operators.cancelledSubscription() == s) {
@@ -396,6 +461,35 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 			}
 		}
 
+		void offerPendingSize(int size) {
+			int[] sizes = pendingSizes;
+			if (sizes == null) {
+				sizes = pendingSizes = new int[16];
+			}
+			else if (pendingTail - pendingHead == sizes.length) {
+				int[] grown = new int[sizes.length << 1];
+				for (int i = pendingHead; i != pendingTail; i++) {
+					grown[i & (grown.length - 1)] = sizes[i & (sizes.length - 1)];
+				}
+				sizes = pendingSizes = grown;
+			}
+			sizes[pendingTail++ & (sizes.length - 1)] = size;
+			pendingBytes += size;
+		}
+
+		void pollPendingSize() {
+			// Writes complete in the order they were issued
+			if (pendingHead != pendingTail) {
+				pendingBytes -= pendingSizes[pendingHead++ & (pendingSizes.length - 1)];
+			}
+		}
+
+		void flush() {
+			needFlush = false;
+			unflushedBytes = 0;
+			ctx.flush();
+		}
+
 		boolean checkTerminated() {
 			return pending == 0 && terminalSignal != null;
 		}
@@ -439,7 +533,7 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 			if (key == Attr.TERMINATED) return terminalSignal != null;
 			if (key == Attr.BUFFERED) return queue != null ? queue.size() : 0;
 			if (key == Attr.ERROR) return !hasOnComplete() ? terminalSignal : null;
-			if (key == Attr.PREFETCH) return MAX_SIZE;
+			if (key == Attr.PREFETCH) return prefetch;
 			return null;
 		}
 
@@ -557,14 +651,21 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 		public boolean trySuccess(Void result) {
 			requested--;
 			pending--;
+			if (maxPendingBytes != Long.MAX_VALUE) {
+				pollPendingSize();
+			}
 
 			if (checkTerminated()) {
 				trySchedule();
 				return true;
 			}
 
-			if (requested <= REFILL_SIZE) {
-				int u = MAX_SIZE - requested;
+			if (requested <= limit && canRequest()) {
+				int u = prefetch - requested;
+				if (maxPendingBytes != Long.MAX_VALUE && averageSize > 0) {
+					long budget = Math.max(maxPendingBytes - pendingBytes, averageSize);
+					u = (int) Math.min(u, budget / averageSize);
+				}
 				requested += u;
 				nextRequest += u;
 				trySchedule();
@@ -572,6 +673,17 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 			return true;
 		}
 
+		boolean canRequest() {
+			// Nothing of this send is pending to be written anymore, request regardless of the other writers
+			if (pending == 0) {
+				return true;
+			}
+			if (writabilityDriven && !ctx.channel().isWritable()) {
+				return false;
+			}
+			return pendingBytes < maxPendingBytes;
+		}
+
 		@Override
 		public boolean tryFailure(Throwable cause) {
 			if (Operators.terminate(SUBSCRIPTION, this)) {
@@ -754,7 +866,13 @@ final class MonoSendMany<I, O> extends MonoSend<I, O> implements Scannable {
 		final class AsyncFlush implements Runnable {
 			@Override
 			public void run() {
-				if (pending != 0) {
+				if (parent.flushMaxDelayNanos != 0) {
+					flushScheduled = false;
+					if (needFlush && pending != 0) {
+						flush();
+					}
+				}
+				else if (pending != 0) {
 					ctx.flush();
 				}
 			}
@@ -87,10 +87,18 @@ public interface ConnectionProvider extends Disposable {
 	String LEASING_STRATEGY_LIFO = "lifo";
 
 	/**
-	 * Default leasing strategy (fifo, lifo), fallback to fifo.
+	 * The connection selection is the connection with the lowest recent latency.
+	 *
+	 * @since 1.0.3
+	 */
+	String LEASING_STRATEGY_LOWEST_LATENCY = "lowest-latency";
+
+	/**
+	 * Default leasing strategy (fifo, lifo, lowest-latency), fallback to fifo.
 	 * <ul>
 	 *     <li>fifo - The connection selection is first in, first out</li>
 	 *     <li>lifo - The connection selection is last in, first out</li>
+	 *     <li>lowest-latency - The connection selection is the connection with the lowest recent latency</li>
 	 * </ul>
 	 */
 	String DEFAULT_POOL_LEASING_STRATEGY = System.getProperty(ReactorNetty.POOL_LEASING_STRATEGY, LEASING_STRATEGY_FIFO)
@@ -175,6 +183,27 @@ public interface ConnectionProvider extends Disposable {
 			@Nullable AddressResolverGroup<?> resolverGroup);
 
 
+	/**
+	 * Establish, in parallel, the connections missing to reach the minimum number of connections
+	 * of the connection pool for the given remote address, as configured with
+	 * {@link ConnectionPoolSpec#minConnections(int)}. The connections are then kept idle in the pool.
+	 * This is meant to be invoked before the application starts serving traffic, so that the first
+	 * requests do not pay the connection establishment latency.
+	 * <p>By default there is no connection pool and this is a noop.
+	 *
+	 * @param config the transport configuration
+	 * @param remoteAddress the {@link SocketAddress} to connect to
+	 * @param resolverGroup the resolver which will resolve the address of the unresolved named address
+	 * @return a {@link Mono} completing when the connections are established, or failing with the
+	 * first connection error
+	 * @since 1.0.3
+	 */
+	default Mono<Void> warmup(TransportConfig config,
+			Supplier<? extends SocketAddress> remoteAddress,
+			AddressResolverGroup<?> resolverGroup) {
+		return Mono.empty();
+	}
+
 	default void disposeWhen(SocketAddress address) {
 	}
 
@@ -211,6 +240,16 @@ public interface ConnectionProvider extends Disposable {
 		return -1;
 	}
 
+	/**
+	 * Returns the minimum number of connections kept in a connection pool
+	 *
+	 * @return the minimum number of connections kept in a connection pool
+	 * @since 1.0.3
+	 */
+	default int minConnections() {
+		return 0;
+	}
+
 	/**
 	 * Returns the maximum number of connections per host before starting pending
 	 *
@@ -296,11 +335,13 @@ public interface ConnectionProvider extends Disposable {
 
 		Duration evictionInterval       = EVICT_IN_BACKGROUND_DISABLED;
 		int      maxConnections         = DEFAULT_POOL_MAX_CONNECTIONS;
+		int      minConnections;
 		int      pendingAcquireMaxCount = PENDING_ACQUIRE_MAX_COUNT_NOT_SPECIFIED;
 		Duration pendingAcquireTimeout  = Duration.ofMillis(DEFAULT_POOL_ACQUIRE_TIMEOUT);
 		Duration maxIdleTime;
 		Duration maxLifeTime;
 		boolean  metricsEnabled;
+		boolean  perEventLoop;
 		String   leasingStrategy        = DEFAULT_POOL_LEASING_STRATEGY;
 		Supplier<? extends ConnectionProvider.MeterRegistrar> registrar;
 
@@ -346,6 +387,27 @@ public interface ConnectionProvider extends Disposable {
 			return get();
 		}
 
+		/**
+		 * Set the options to use for configuring {@link ConnectionProvider} minimum connections per connection pool.
+		 * The connections are established by {@link ConnectionProvider#warmup(TransportConfig, Supplier, AddressResolverGroup)}
+		 * and, when the background eviction is enabled with {@link #evictInBackground(Duration)}, the missing
+		 * connections are established again on each eviction run.
+		 * A value greater than the maximum number of connections is capped to the maximum number of connections.
+		 * Default to 0.
+		 *
+		 * @param minConnections the minimum number of connections (per connection pool)
+		 * @return {@literal this}
+		 * @throws IllegalArgumentException if minConnections is negative
+		 * @since 1.0.3
+		 */
+		public final SPEC minConnections(int minConnections) {
+			if (minConnections < 0) {
+				throw new IllegalArgumentException("Min Connections value must be positive");
+			}
+			this.minConnections = minConnections;
+			return get();
+		}
+
 		/**
 		 * Set the options to use for configuring {@link ConnectionProvider} the maximum number of registered
 		 * requests for acquire to keep in a pending queue
@@ -459,6 +521,43 @@ public interface ConnectionProvider extends Disposable {
 			return get();
 		}
 
+		/**
+		 * Configure the pool so that if there are idle connections (i.e. pool is under-utilized),
+		 * the next acquire operation will get the connection with the <b>lowest recent latency</b>,
+		 * the latency being the time between a write on the connection and the first read that follows,
+		 * weighted toward the most recent exchanges. A connection without any measure yet is selected first
+		 * and, in case of a tie, the least recently used connection is selected.
+		 * This favours the fastest remote peers, e.g. the least loaded backend instances behind a L4 load balancer.
+		 * <p>The HTTP/2 connection pools fall back to {@link #fifo()}.
+		 *
+		 * @return {@literal this}
+		 * @since 1.0.3
+		 */
+		public final SPEC lowestLatency() {
+			this.leasingStrategy = LEASING_STRATEGY_LOWEST_LATENCY;
+			return get();
+		}
+
+		/**
+		 * Whether to split the connection pool into one pool per event loop.
+		 * When enabled, each event loop of the {@link LoopResources} gets its own pool holding
+		 * connections registered on that event loop, and an acquire operation issued from an event loop
+		 * is served by that event loop's pool, without contention with the other event loops and without
+		 * handing the connection over to another thread.
+		 * {@link #maxConnections(int)} remains a global limit, spread evenly across the event loop pools.
+		 * When the pool of the current event loop has neither an idle connection nor room for a new one,
+		 * an idle connection is taken from the pool of another event loop, if any.
+		 * <p>By default this is not enabled.
+		 *
+		 * @param perEventLoop true enables one pool per event loop; false uses a single pool
+		 * @return {@literal this}
+		 * @since 1.0.3
+		 */
+		public final SPEC perEventLoop(boolean perEventLoop) {
+			this.perEventLoop = perEventLoop;
+			return get();
+		}
+
 		/**
 		 * Set the options to use for configuring {@link ConnectionProvider} background eviction.
 		 * When a background eviction is enabled, the connection pool is regularly checked for connections,
@@ -19,21 +19,31 @@ package reactor.netty.resources;
 import java.io.IOException;
 import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoop;
 import io.netty.resolver.AddressResolverGroup;
 import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.EventExecutor;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
 import reactor.core.Disposable;
 import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoSink;
 import reactor.core.publisher.Operators;
@@ -46,6 +56,7 @@ import reactor.netty.channel.ChannelOperations;
 import reactor.netty.transport.TransportConfig;
 import reactor.netty.transport.TransportConnector;
 import reactor.pool.InstrumentedPool;
+import reactor.pool.Pool;
 import reactor.pool.PooledRef;
 import reactor.pool.PooledRefMetadata;
 import reactor.util.Logger;
@@ -96,6 +107,9 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 			PoolFactory<PooledConnection> poolFactory,
 			SocketAddress remoteAddress,
 			AddressResolverGroup<?> resolverGroup) {
+		if (poolFactory.perEventLoop) {
+			return new PerEventLoopPool(config, poolFactory, remoteAddress, resolverGroup);
+		}
 		return new PooledConnectionAllocator(config, poolFactory, remoteAddress, resolverGroup).pool;
 	}
 
@@ -383,6 +397,9 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 
 		PooledRef<PooledConnection> pooledRef;
 
+		// Time between a write and the first read that follows, in nanoseconds, 0 until measured
+		volatile long latency;
+
 		PooledConnection(Channel channel, InstrumentedPool<PooledConnection> pool) {
 			this.channel = channel;
 			this.onTerminate = Sinks.unsafe().empty();
@@ -481,6 +498,16 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 			return "PooledConnection{" + "channel=" + channel + '}';
 		}
 
+		long latency() {
+			return latency;
+		}
+
+		void recordLatency(long sample) {
+			long latency = this.latency;
+			// Exponentially weighted moving average, each new sample weighs a quarter
+			this.latency = latency == 0 ? sample : latency - (latency >> 2) + (sample >> 2);
+		}
+
 		ConnectionObserver owner() {
 			ConnectionObserver obs;
 
@@ -506,6 +533,11 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 		final InstrumentedPool<PooledConnection> pool;
 		final SocketAddress remoteAddress;
 		final AddressResolverGroup<?> resolver;
+		@Nullable
+		final EventLoop eventLoop;
+		@Nullable
+		final ToLongFunction<PooledConnection> score;
+		final boolean measureLatency;
 
 		PooledConnectionAllocator(
 				TransportConfig config,
@@ -515,14 +547,39 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 			this.config = config;
 			this.remoteAddress = remoteAddress;
 			this.resolver = resolver;
-			this.pool = provider.newPool(connectChannel(), null, DEFAULT_DESTROY_HANDLER, DEFAULT_EVICTION_PREDICATE);
+			this.eventLoop = null;
+			this.score = score(provider.leasingStrategy);
+			this.measureLatency = LEASING_STRATEGY_LOWEST_LATENCY.equals(provider.leasingStrategy);
+			this.pool = provider.newPool(connectChannel(), null, DEFAULT_DESTROY_HANDLER, DEFAULT_EVICTION_PREDICATE,
+					provider.minConnections, provider.maxConnections, provider.pendingAcquireMaxCount, score);
+		}
+
+		PooledConnectionAllocator(
+				TransportConfig config,
+				PoolFactory<PooledConnection> provider,
+				SocketAddress remoteAddress,
+				AddressResolverGroup<?> resolver,
+				EventLoop eventLoop,
+				int minConnections,
+				int maxConnections,
+				int pendingAcquireMaxCount) {
+			this.config = config;
+			this.remoteAddress = remoteAddress;
+			this.resolver = resolver;
+			this.eventLoop = eventLoop;
+			this.score = score(provider.leasingStrategy);
+			this.measureLatency = LEASING_STRATEGY_LOWEST_LATENCY.equals(provider.leasingStrategy);
+			this.pool = provider.newPool(connectChannel(), null, DEFAULT_DESTROY_HANDLER, DEFAULT_EVICTION_PREDICATE,
+					minConnections, maxConnections, pendingAcquireMaxCount, score);
 		}
 
 		Publisher<PooledConnection> connectChannel() {
 			return Mono.create(sink -> {
 				PooledConnectionInitializer initializer = new PooledConnectionInitializer(sink);
-				TransportConnector.connect(config, remoteAddress, resolver, initializer)
-				                  .subscribe(initializer);
+				Mono<Channel> connect = eventLoop == null ?
+						TransportConnector.connect(config, remoteAddress, resolver, initializer) :
+						TransportConnector.connect(config, remoteAddress, resolver, initializer, eventLoop);
+				connect.subscribe(initializer);
 			});
 		}
 
@@ -553,6 +610,19 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 				ch.pipeline().remove(this);
 				ch.pipeline()
 				  .addFirst(config.channelInitializer(pooledConnection, remoteAddress, false));
+				if (measureLatency) {
+					// measure the request round trip, without the proxy and TLS handshakes
+					ConnectionLatencyHandler handler = new ConnectionLatencyHandler(pooledConnection);
+					if (ch.pipeline().get(NettyPipeline.SslHandler) != null) {
+						ch.pipeline().addAfter(NettyPipeline.SslHandler, NettyPipeline.ConnectionLatencyHandler, handler);
+					}
+					else if (ch.pipeline().get(NettyPipeline.ProxyHandler) != null) {
+						ch.pipeline().addAfter(NettyPipeline.ProxyHandler, NettyPipeline.ConnectionLatencyHandler, handler);
+					}
+					else {
+						ch.pipeline().addFirst(NettyPipeline.ConnectionLatencyHandler, handler);
+					}
+				}
 			}
 
 			@Override
@@ -576,6 +646,14 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 			}
 		}
 
+		@Nullable
+		static ToLongFunction<PooledConnection> score(String leasingStrategy) {
+			if (LEASING_STRATEGY_LOWEST_LATENCY.equals(leasingStrategy)) {
+				return PooledConnection::latency;
+			}
+			return null;
+		}
+
 		static final BiPredicate<PooledConnection, PooledRefMetadata> DEFAULT_EVICTION_PREDICATE =
 				(pooledConnection, metadata) -> !pooledConnection.channel.isActive() || !pooledConnection.isPersistent();
 
@@ -587,4 +665,216 @@ final class DefaultPooledConnectionProvider extends PooledConnectionProvider<Def
 					return FutureMono.from(pooledConnection.channel.close());
 				};
 	}
+
+	/**
+	 * Measures the time between a write on the connection and the first read that follows,
+	 * the connection being idle in between.
+	 */
+	static final class ConnectionLatencyHandler extends ChannelDuplexHandler {
+		final PooledConnection pooledConnection;
+
+		long writeNanos;
+
+		ConnectionLatencyHandler(PooledConnection pooledConnection) {
+			this.pooledConnection = pooledConnection;
+		}
+
+		@Override
+		public void channelRead(ChannelHandlerContext ctx, Object msg) {
+			if (writeNanos != 0) {
+				pooledConnection.recordLatency(Math.max(1, System.nanoTime() - writeNanos));
+				writeNanos = 0;
+			}
+			ctx.fireChannelRead(msg);
+		}
+
+		@Override
+		public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+			if (writeNanos == 0) {
+				writeNanos = System.nanoTime();
+			}
+			ctx.write(msg, promise);
+		}
+	}
+
+	/**
+	 * A pool made of one {@link PooledConnectionAllocator} pool per event loop, each of them
+	 * holding connections registered on its event loop. The maximum number of connections and of
+	 * pending acquire operations are spread across the event loop pools.
+	 */
+	static final class PerEventLoopPool implements InstrumentedPool<PooledConnection>, InstrumentedPool.PoolMetrics {
+		final EventLoop[]                              eventLoops;
+		final List<InstrumentedPool<PooledConnection>> pools;
+		final AtomicInteger                            next = new AtomicInteger();
+
+		PerEventLoopPool(
+				TransportConfig config,
+				PoolFactory<PooledConnection> poolFactory,
+				SocketAddress remoteAddress,
+				AddressResolverGroup<?> resolver) {
+			List<EventLoop> loops = new ArrayList<>();
+			for (EventExecutor executor : config.loopResources().onClient(config.isPreferNative())) {
+				if (executor instanceof EventLoop) {
+					loops.add((EventLoop) executor);
+				}
+			}
+			if (loops.isEmpty()) {
+				throw new IllegalStateException("No event loop available for " + remoteAddress);
+			}
+			this.eventLoops = loops.toArray(new EventLoop[0]);
+
+			// There cannot be more event loop pools than connections
+			int size = Math.min(eventLoops.length, poolFactory.maxConnections);
+			this.pools = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				pools.add(new PooledConnectionAllocator(config, poolFactory, remoteAddress, resolver, eventLoops[i],
+						share(poolFactory.minConnections, size, i),
+						share(poolFactory.maxConnections, size, i),
+						poolFactory.pendingAcquireMaxCount == -1 ? -1 :
+								Math.max(1, share(poolFactory.pendingAcquireMaxCount, size, i))).pool);
+			}
+		}
+
+		@Override
+		public Mono<Integer> warmup() {
+			return Flux.fromIterable(pools)
+			           .flatMap(Pool::warmup)
+			           .reduce(0, Integer::sum);
+		}
+
+		@Override
+		public Mono<PooledRef<PooledConnection>> acquire() {
+			return Mono.defer(() -> select().acquire());
+		}
+
+		@Override
+		public Mono<PooledRef<PooledConnection>> acquire(Duration timeout) {
+			return Mono.defer(() -> select().acquire(timeout));
+		}
+
+		@Override
+		public Mono<Void> disposeLater() {
+			List<Mono<Void>> disposals = new ArrayList<>(pools.size());
+			for (InstrumentedPool<PooledConnection> pool : pools) {
+				disposals.add(pool.disposeLater());
+			}
+			return Mono.when(disposals);
+		}
+
+		@Override
+		public boolean isDisposed() {
+			for (InstrumentedPool<PooledConnection> pool : pools) {
+				if (!pool.isDisposed()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public PoolMetrics metrics() {
+			return this;
+		}
+
+		@Override
+		public int acquiredSize() {
+			int size = 0;
+			for (InstrumentedPool<PooledConnection> pool : pools) {
+				size += pool.metrics().acquiredSize();
+			}
+			return size;
+		}
+
+		@Override
+		public int allocatedSize() {
+			int size = 0;
+			for (InstrumentedPool<PooledConnection> pool : pools) {
+				size += pool.metrics().allocatedSize();
+			}
+			return size;
+		}
+
+		@Override
+		public int idleSize() {
+			int size = 0;
+			for (InstrumentedPool<PooledConnection> pool : pools) {
+				size += pool.metrics().idleSize();
+			}
+			return size;
+		}
+
+		@Override
+		public int pendingAcquireSize() {
+			int size = 0;
+			for (InstrumentedPool<PooledConnection> pool : pools) {
+				size += pool.metrics().pendingAcquireSize();
+			}
+			return size;
+		}
+
+		@Override
+		public int getMaxAllocatedSize() {
+			long size = 0;
+			for (InstrumentedPool<PooledConnection> pool : pools) {
+				size += pool.metrics().getMaxAllocatedSize();
+			}
+			return (int) Math.min(size, Integer.MAX_VALUE);
+		}
+
+		@Override
+		public int getMaxPendingAcquireSize() {
+			long size = 0;
+			for (InstrumentedPool<PooledConnection> pool : pools) {
+				size += pool.metrics().getMaxPendingAcquireSize();
+			}
+			return (int) Math.min(size, Integer.MAX_VALUE);
+		}
+
+		/**
+		 * Select the pool of the current event loop, unless it has neither an idle connection
+		 * nor room for a new one while another event loop pool has an idle connection.
+		 * Callers that are not running on an event loop are spread across the pools.
+		 */
+		InstrumentedPool<PooledConnection> select() {
+			int index = -1;
+			for (int i = 0; i < eventLoops.length; i++) {
+				if (eventLoops[i].inEventLoop()) {
+					index = i % pools.size();
+					break;
+				}
+			}
+			if (index == -1) {
+				index = (next.getAndIncrement() & Integer.MAX_VALUE) % pools.size();
+			}
+
+			InstrumentedPool<PooledConnection> local = pools.get(index);
+			PoolMetrics metrics = local.metrics();
+			if (metrics.idleSize() > 0 || metrics.allocatedSize() < metrics.getMaxAllocatedSize()) {
+				return local;
+			}
+			for (int i = 1; i < pools.size(); i++) {
+				InstrumentedPool<PooledConnection> pool = pools.get((index + i) % pools.size());
+				if (pool.metrics().idleSize() > 0) {
+					if (log.isDebugEnabled()) {
+						log.debug("Event loop pool [{}] exhausted, acquiring from the pool of event loop [{}]",
+								eventLoops[index], eventLoops[(index + i) % pools.size()]);
+					}
+					return pool;
+				}
+			}
+			return local;
+		}
+
+		@Override
+		public String toString() {
+			return "PerEventLoopPool{pools=" + pools.size() + '}';
+		}
+
+		/**
+		 * Returns the part of {@code total} allocated to the pool at {@code index} out of {@code size} pools.
+		 */
+		static int share(int total, int size, int index) {
+			return total / size + (index < total % size ? 1 : 0);
+		}
+	}
 }
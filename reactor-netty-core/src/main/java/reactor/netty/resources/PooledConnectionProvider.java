@@ -20,6 +20,7 @@ import io.netty.util.internal.PlatformDependent;
 import org.reactivestreams.Publisher;
 import reactor.core.CoreSubscriber;
 import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoSink;
 import reactor.netty.Connection;
@@ -46,9 +47,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 import static reactor.netty.resources.ConnectionProvider.ConnectionPoolSpec.PENDING_ACQUIRE_MAX_COUNT_NOT_SPECIFIED;
@@ -64,6 +67,10 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 	final PoolFactory<T> defaultPoolFactory;
 
 	final ConcurrentMap<PoolKey, InstrumentedPool<T>> channelPools = PlatformDependent.newConcurrentHashMap();
+	/**
+	 * The periodic tasks establishing again the connections closed by the eviction, per pool of {@link #channelPools}.
+	 */
+	final ConcurrentMap<PoolKey, Disposable> warmupTasks = PlatformDependent.newConcurrentHashMap();
 	/**
 	 * This map keeps a weakref to the {@link InstrumentedPool#metrics() metrics} of created pools through the same PoolKey that is used in
 	 * {@link #channelPools}. This is so that metrics providing objects don't get garbage collected too early,
@@ -94,27 +101,8 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 		Objects.requireNonNull(resolverGroup, "resolverGroup");
 		return Mono.create(sink -> {
 			SocketAddress remoteAddress = Objects.requireNonNull(remote.get(), "Remote Address supplier returned null");
-			PoolKey holder = new PoolKey(remoteAddress, config.channelHash());
 			PoolFactory<T> poolFactory = poolFactory(remoteAddress);
-			InstrumentedPool<T> pool = channelPools.computeIfAbsent(holder, poolKey -> {
-				if (log.isDebugEnabled()) {
-					log.debug("Creating a new [{}] client pool [{}] for [{}]", name, poolFactory, remoteAddress);
-				}
-
-				InstrumentedPool<T> newPool = createPool(config, poolFactory, remoteAddress, resolverGroup);
-
-				if (poolFactory.metricsEnabled || config.metricsRecorder() != null) {
-					// registrar is null when metrics are enabled on HttpClient level or
-					// with the `metrics(boolean metricsEnabled)` method on ConnectionProvider
-					MeterRegistrar registrar = poolFactory.registrar != null ?
-							poolFactory.registrar.get() : MicrometerPooledConnectionProviderMeterRegistrar.INSTANCE;
-
-					DelegatingConnectionPoolMetrics metrics = new DelegatingConnectionPoolMetrics(newPool.metrics());
-					poolMetrics.put(poolKey, metrics);
-					registrar.registerMetrics(name, poolKey.hashCode() + "", remoteAddress, metrics);
-				}
-				return newPool;
-			});
+			InstrumentedPool<T> pool = getOrCreatePool(config, poolFactory, remoteAddress, resolverGroup);
 
 			pool.acquire(Duration.ofMillis(poolFactory.pendingAcquireTimeout))
 			    .subscribe(createDisposableAcquire(config, connectionObserver,
@@ -122,6 +110,89 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 		});
 	}
 
+	@Override
+	public final Mono<Void> warmup(
+			TransportConfig config,
+			Supplier<? extends SocketAddress> remote,
+			AddressResolverGroup<?> resolverGroup) {
+		Objects.requireNonNull(config, "config");
+		Objects.requireNonNull(remote, "remoteAddress");
+		Objects.requireNonNull(resolverGroup, "resolverGroup");
+		return Mono.defer(() -> {
+			SocketAddress remoteAddress = Objects.requireNonNull(remote.get(), "Remote Address supplier returned null");
+			PoolFactory<T> poolFactory = poolFactory(remoteAddress);
+			if (poolFactory.minConnections == 0) {
+				return Mono.empty();
+			}
+			return warmup(getOrCreatePool(config, poolFactory, remoteAddress, resolverGroup), remoteAddress);
+		});
+	}
+
+	/**
+	 * Establish the connections missing to reach the minimum number of connections of the given pool.
+	 * The new connections are added to the idle connections of the pool, the idle and the acquired
+	 * connections are left untouched.
+	 */
+	final Mono<Void> warmup(InstrumentedPool<T> pool, SocketAddress remoteAddress) {
+		return Mono.defer(() -> {
+			if (pool.isDisposed()) {
+				return Mono.empty();
+			}
+			return pool.warmup()
+			           .doOnNext(count -> {
+			               if (count > 0 && log.isDebugEnabled()) {
+			                   log.debug("Warmed up [{}] client pool for [{}], {} connections established", name, remoteAddress, count);
+			               }
+			           })
+			           .then();
+		});
+	}
+
+	InstrumentedPool<T> getOrCreatePool(
+			TransportConfig config,
+			PoolFactory<T> poolFactory,
+			SocketAddress remoteAddress,
+			AddressResolverGroup<?> resolverGroup) {
+		PoolKey holder = new PoolKey(remoteAddress, config.channelHash());
+		return channelPools.computeIfAbsent(holder, poolKey -> {
+			if (log.isDebugEnabled()) {
+				log.debug("Creating a new [{}] client pool [{}] for [{}]", name, poolFactory, remoteAddress);
+			}
+
+			InstrumentedPool<T> newPool = createPool(config, poolFactory, remoteAddress, resolverGroup);
+
+			if (poolFactory.metricsEnabled || config.metricsRecorder() != null) {
+				// registrar is null when metrics are enabled on HttpClient level or
+				// with the `metrics(boolean metricsEnabled)` method on ConnectionProvider
+				MeterRegistrar registrar = poolFactory.registrar != null ?
+						poolFactory.registrar.get() : MicrometerPooledConnectionProviderMeterRegistrar.INSTANCE;
+
+				DelegatingConnectionPoolMetrics metrics = new DelegatingConnectionPoolMetrics(newPool.metrics());
+				poolMetrics.put(poolKey, metrics);
+				registrar.registerMetrics(name, poolKey.hashCode() + "", remoteAddress, metrics);
+			}
+
+			if (poolFactory.minConnections > 0 && !poolFactory.evictionInterval.isZero()) {
+				// Establish again the connections closed by the eviction, until the pool is disposed
+				Disposable warmupTask =
+						Flux.interval(poolFactory.evictionInterval)
+						    .takeWhile(tick -> !newPool.isDisposed())
+						    .onBackpressureDrop()
+						    .concatMap(tick -> warmup(newPool, remoteAddress)
+						                              .onErrorResume(t -> {
+						                                  if (log.isDebugEnabled()) {
+						                                      log.debug("Failed to establish the min connections of [{}] client pool for [{}]",
+						                                              name, remoteAddress, t);
+						                                  }
+						                                  return Mono.empty();
+						                              }), 1)
+						    .subscribe();
+				warmupTasks.put(poolKey, warmupTask);
+			}
+			return newPool;
+		});
+	}
+
 	@Override
 	public final Mono<Void> disposeLater() {
 		return Mono.defer(() -> {
@@ -130,6 +201,9 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 			                    .stream()
 			                    .map(Pool::disposeLater)
 			                    .collect(Collectors.toList());
+			warmupTasks.values()
+			           .forEach(Disposable::dispose);
+			warmupTasks.clear();
 			if (pools.isEmpty()) {
 				return Mono.empty();
 			}
@@ -152,6 +226,10 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 				if (log.isDebugEnabled()) {
 					log.debug("ConnectionProvider[name={}]: Disposing pool for [{}]", name, e.getKey().fqdn);
 				}
+				Disposable warmupTask = warmupTasks.remove(e.getKey());
+				if (warmupTask != null) {
+					warmupTask.dispose();
+				}
 				e.getValue().dispose();
 			}
 		});
@@ -169,6 +247,11 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 		return defaultPoolFactory.maxConnections;
 	}
 
+	@Override
+	public int minConnections() {
+		return defaultPoolFactory.minConnections;
+	}
+
 	protected abstract CoreSubscriber<PooledRef<T>> createDisposableAcquire(
 			TransportConfig config,
 			ConnectionObserver connectionObserver,
@@ -208,9 +291,11 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 		final Duration evictionInterval;
 		final String leasingStrategy;
 		final int maxConnections;
+		final int minConnections;
 		final long maxIdleTime;
 		final long maxLifeTime;
 		final boolean metricsEnabled;
+		final boolean perEventLoop;
 		final int pendingAcquireMaxCount;
 		final long pendingAcquireTimeout;
 		final Supplier<? extends MeterRegistrar> registrar;
@@ -219,9 +304,11 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 			this.evictionInterval = conf.evictionInterval;
 			this.leasingStrategy = conf.leasingStrategy;
 			this.maxConnections = conf.maxConnections;
+			this.minConnections = Math.min(conf.minConnections, conf.maxConnections);
 			this.maxIdleTime = conf.maxIdleTime != null ? conf.maxIdleTime.toMillis() : -1;
 			this.maxLifeTime = conf.maxLifeTime != null ? conf.maxLifeTime.toMillis() : -1;
 			this.metricsEnabled = conf.metricsEnabled;
+			this.perEventLoop = conf.perEventLoop;
 			this.pendingAcquireMaxCount = conf.pendingAcquireMaxCount == PENDING_ACQUIRE_MAX_COUNT_NOT_SPECIFIED ?
 					2 * conf.maxConnections : conf.pendingAcquireMaxCount;
 			this.pendingAcquireTimeout = conf.pendingAcquireTimeout.toMillis();
@@ -233,22 +320,74 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 				@Nullable AllocationStrategy allocationStrategy,
 				Function<T, Publisher<Void>> destroyHandler,
 				BiPredicate<T, PooledRefMetadata> evictionPredicate) {
+			return newPool(allocator, allocationStrategy, destroyHandler, evictionPredicate,
+					minConnections, maxConnections, pendingAcquireMaxCount, null);
+		}
+
+		/**
+		 * Creates a new pool, selecting the idle connection with the lowest {@code score},
+		 * the least recently released one in case of a tie.
+		 *
+		 * @param allocator the publisher of new connections
+		 * @param destroyHandler the function closing the connections removed from the pool
+		 * @param evictionPredicate the predicate telling whether a connection must be removed from the pool
+		 * @param score the function scoring the idle connections, the lowest score being selected
+		 * @return a new pool
+		 * @since 1.0.3
+		 */
+		public InstrumentedPool<T> newPool(
+				Publisher<T> allocator,
+				Function<T, Publisher<Void>> destroyHandler,
+				BiPredicate<T, PooledRefMetadata> evictionPredicate,
+				ToLongFunction<T> score) {
+			return newPool(allocator, null, destroyHandler, evictionPredicate,
+					minConnections, maxConnections, pendingAcquireMaxCount, score);
+		}
+
+		/**
+		 * Creates a new pool, selecting the idle connection with the lowest {@code score} when
+		 * a score is given. Otherwise the idle connections are selected in the order of the
+		 * leasing strategy, lowest-latency falling back to fifo.
+		 */
+		InstrumentedPool<T> newPool(
+				Publisher<T> allocator,
+				@Nullable AllocationStrategy allocationStrategy,
+				Function<T, Publisher<Void>> destroyHandler,
+				BiPredicate<T, PooledRefMetadata> evictionPredicate,
+				int minConnections,
+				int maxConnections,
+				int pendingAcquireMaxCount,
+				@Nullable ToLongFunction<T> score) {
+			BiPredicate<T, PooledRefMetadata> predicate = evictionPredicate
+					.or((poolable, meta) -> (maxIdleTime != -1 && meta.idleTime() >= maxIdleTime)
+							|| (maxLifeTime != -1 && meta.lifeTime() >= maxLifeTime));
+			if (score != null) {
+				return new ScoringPool<>(allocator, destroyHandler, predicate, score, minConnections, maxConnections,
+						pendingAcquireMaxCount, evictionInterval);
+			}
+
 			PoolBuilder<T, PoolConfig<T>> poolBuilder =
 					PoolBuilder.from(allocator)
 					           .destroyHandler(destroyHandler)
-					           .evictionPredicate(evictionPredicate
-					                   .or((poolable, meta) -> (maxIdleTime != -1 && meta.idleTime() >= maxIdleTime)
-					                           || (maxLifeTime != -1 && meta.lifeTime() >= maxLifeTime)))
+					           .evictionPredicate(predicate)
 					           .maxPendingAcquire(pendingAcquireMaxCount)
 					           .sizeBetween(0, maxConnections)
 					           .evictInBackground(evictionInterval);
 			if (allocationStrategy != null) {
 				poolBuilder = poolBuilder.allocationStrategy(allocationStrategy);
 			}
+			else if (minConnections > 0) {
+				poolBuilder = poolBuilder.allocationStrategy(new WarmupAllocationStrategy(minConnections, maxConnections));
+			}
 			if (LEASING_STRATEGY_FIFO.equals(leasingStrategy)) {
 				return poolBuilder.idleResourceReuseLruOrder()
 				                  .buildPool();
 			}
+			if (LEASING_STRATEGY_LOWEST_LATENCY.equals(leasingStrategy)) {
+				// the pools without a score (e.g. HTTP/2) fall back to fifo
+				return poolBuilder.idleResourceReuseLruOrder()
+				                  .buildPool();
+			}
 			return poolBuilder.idleResourceReuseMruOrder()
 			                  .buildPool();
 		}
@@ -259,15 +398,87 @@ public abstract class PooledConnectionProvider<T extends Connection> implements
 					"evictionInterval=" + evictionInterval +
 					", leasingStrategy=" + leasingStrategy +
 					", maxConnections=" + maxConnections +
+					", minConnections=" + minConnections +
 					", maxIdleTime=" + maxIdleTime +
 					", maxLifeTime=" + maxLifeTime +
 					", metricsEnabled=" + metricsEnabled +
+					", perEventLoop=" + perEventLoop +
 					", pendingAcquireMaxCount=" + pendingAcquireMaxCount +
 					", pendingAcquireTimeout=" + pendingAcquireTimeout +
 					'}';
 		}
 	}
 
+	/**
+	 * A size based {@link AllocationStrategy} whose minimum is established only by {@link Pool#warmup()},
+	 * the acquire operations allocating the connections they need and no more, so that the warmup adds
+	 * the missing connections to the idle ones without acquiring any of them.
+	 */
+	static final class WarmupAllocationStrategy implements AllocationStrategy {
+		final int min;
+		final int max;
+
+		volatile int permits;
+		static final AtomicIntegerFieldUpdater<WarmupAllocationStrategy> PERMITS =
+				AtomicIntegerFieldUpdater.newUpdater(WarmupAllocationStrategy.class, "permits");
+
+		WarmupAllocationStrategy(int min, int max) {
+			this.min = min;
+			this.max = max;
+			this.permits = max;
+		}
+
+		@Override
+		public int estimatePermitCount() {
+			return permits;
+		}
+
+		@Override
+		public int getPermits(int desired) {
+			if (desired < 0) {
+				return 0;
+			}
+			for (;;) {
+				int p = permits;
+				// Pool#warmup asks for no permit, it gets the ones missing to reach the minimum
+				int target = desired == 0 ? min - (max - p) : desired;
+				int granted = Math.max(0, Math.min(target, p));
+				if (PERMITS.compareAndSet(this, p, p - granted)) {
+					return granted;
+				}
+			}
+		}
+
+		@Override
+		public int permitGranted() {
+			return max - permits;
+		}
+
+		@Override
+		public int permitMinimum() {
+			return min;
+		}
+
+		@Override
+		public int permitMaximum() {
+			return max;
+		}
+
+		@Override
+		public void returnPermits(int returned) {
+			for (;;) {
+				int p = permits;
+				if (p + returned > max) {
+					throw new IllegalArgumentException("Too many permits returned: returned=" + returned +
+							", would bring to " + (p + returned) + "/" + max);
+				}
+				if (PERMITS.compareAndSet(this, p, p + returned)) {
+					return;
+				}
+			}
+		}
+	}
+
 	static final class PoolKey {
 		final String fqdn;
 		final SocketAddress holder;
@@ -0,0 +1,624 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.resources;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.pool.InstrumentedPool;
+import reactor.pool.PoolAcquirePendingLimitException;
+import reactor.pool.PoolAcquireTimeoutException;
+import reactor.pool.PoolShutdownException;
+import reactor.pool.PooledRef;
+import reactor.pool.PooledRefMetadata;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+/**
+ * An {@link InstrumentedPool} handing out, among its idle resources, the one with the lowest score
+ * and, in case of a tie, the least recently released one. It backs the lowest-latency leasing strategy,
+ * reactor-pool only offering a LRU or a MRU ordering of the idle resources, without any way to plug
+ * a selection of its own.
+ * <p>
+ * The pool state is guarded by the pool monitor, the allocations, the deliveries and the
+ * destructions of resources happen outside of it. {@link #warmup()} establishes the resources missing
+ * to reach the minimum number of resources, {@link PooledConnectionProvider} invokes it periodically.
+ *
+ * @param <T> the type of the pooled resources
+ */
+final class ScoringPool<T> implements InstrumentedPool<T>, InstrumentedPool.PoolMetrics {
+
+	final Mono<T>                                allocator;
+	final Function<T, ? extends Publisher<Void>> destroyHandler;
+	final BiPredicate<T, PooledRefMetadata>      evictionPredicate;
+	final ToLongFunction<T>                      score;
+	final int                                    minConnections;
+	final int                                    maxConnections;
+	final int                                    maxPendingAcquire;
+	final Disposable                             evictionTask;
+
+	// idle resources in order of release, the least recently released first
+	final ArrayDeque<Ref<T>>      idle    = new ArrayDeque<>();
+	final ArrayDeque<Borrower<T>> pending = new ArrayDeque<>();
+
+	int acquired;
+	int allocated;
+	volatile boolean disposed;
+
+	/**
+	 * Creates a new pool.
+	 *
+	 * @param allocator the publisher of new resources
+	 * @param destroyHandler the function closing the resources removed from the pool
+	 * @param evictionPredicate the predicate telling whether a resource must be removed from the pool
+	 * @param score the function scoring the idle resources, the lowest score being selected
+	 * @param minConnections the minimum number of resources established by {@link #warmup()}
+	 * @param maxConnections the maximum number of resources
+	 * @param maxPendingAcquire the maximum number of pending acquire operations, a negative value for no limit
+	 * @param evictionInterval the interval of the background eviction, {@link Duration#ZERO} to disable it
+	 */
+	ScoringPool(
+			Publisher<? extends T> allocator,
+			Function<T, ? extends Publisher<Void>> destroyHandler,
+			BiPredicate<T, PooledRefMetadata> evictionPredicate,
+			ToLongFunction<T> score,
+			int minConnections,
+			int maxConnections,
+			int maxPendingAcquire,
+			Duration evictionInterval) {
+		this.allocator = Mono.from(allocator);
+		this.destroyHandler = destroyHandler;
+		this.evictionPredicate = evictionPredicate;
+		this.score = score;
+		this.minConnections = minConnections;
+		this.maxConnections = maxConnections;
+		this.maxPendingAcquire = maxPendingAcquire;
+		this.evictionTask = evictionInterval.isZero() ? Disposables.disposed() :
+				Schedulers.parallel()
+				          .schedulePeriodically(this::evictInBackground, evictionInterval.toMillis(),
+				                  evictionInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public Mono<Integer> warmup() {
+		return Mono.defer(() -> {
+			int count;
+			synchronized (this) {
+				count = disposed ? 0 : Math.max(0, minConnections - allocated);
+				allocated += count;
+			}
+			if (count == 0) {
+				return Mono.just(0);
+			}
+			return Flux.range(0, count)
+			           .flatMap(i -> allocator.doOnNext(this::offer)
+			                                  .doOnError(t -> allocationFailed()))
+			           .count()
+			           .map(Long::intValue);
+		});
+	}
+
+	@Override
+	public Mono<PooledRef<T>> acquire() {
+		return acquire(Duration.ZERO);
+	}
+
+	@Override
+	public Mono<PooledRef<T>> acquire(Duration timeout) {
+		return Mono.create(sink -> {
+			Borrower<T> borrower = new Borrower<>(this, sink, timeout);
+			sink.onCancel(borrower);
+			acquire(borrower);
+		});
+	}
+
+	@Override
+	public Mono<Void> disposeLater() {
+		return Mono.defer(() -> {
+			List<Ref<T>> refs;
+			List<Borrower<T>> borrowers;
+			synchronized (this) {
+				if (disposed) {
+					return Mono.empty();
+				}
+				disposed = true;
+				refs = new ArrayList<>(idle);
+				borrowers = new ArrayList<>(pending);
+				allocated -= idle.size();
+				idle.clear();
+				pending.clear();
+			}
+
+			evictionTask.dispose();
+			for (Borrower<T> borrower : borrowers) {
+				borrower.fail(new PoolShutdownException());
+			}
+			return Flux.fromIterable(refs)
+			           .flatMap(ref -> Mono.from(destroyHandler.apply(ref.poolable))
+			                               .onErrorResume(t -> {
+			                                   log.debug("Failed to destroy [{}]", ref.poolable, t);
+			                                   return Mono.empty();
+			                               }))
+			           .then();
+		});
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed;
+	}
+
+	@Override
+	public PoolMetrics metrics() {
+		return this;
+	}
+
+	@Override
+	public synchronized int acquiredSize() {
+		return acquired;
+	}
+
+	@Override
+	public synchronized int allocatedSize() {
+		return allocated;
+	}
+
+	@Override
+	public synchronized int idleSize() {
+		return idle.size();
+	}
+
+	@Override
+	public synchronized int pendingAcquireSize() {
+		return pending.size();
+	}
+
+	@Override
+	public int getMaxAllocatedSize() {
+		return maxConnections;
+	}
+
+	@Override
+	public int getMaxPendingAcquireSize() {
+		return maxPendingAcquire < 0 ? Integer.MAX_VALUE : maxPendingAcquire;
+	}
+
+	@Override
+	public String toString() {
+		return "ScoringPool{maxConnections=" + maxConnections + ", maxPendingAcquire=" + maxPendingAcquire + '}';
+	}
+
+	void acquire(Borrower<T> borrower) {
+		List<Ref<T>> evicted = null;
+		Ref<T> ref;
+		boolean allocate = false;
+		Throwable error = null;
+		synchronized (this) {
+			if (borrower.isDisposed()) {
+				// Cancelled before being registered
+				return;
+			}
+			if (disposed) {
+				ref = null;
+				error = new PoolShutdownException();
+			}
+			else {
+				while ((ref = pollIdle()) != null && evictionPredicate.test(ref.poolable, ref)) {
+					allocated--;
+					if (evicted == null) {
+						evicted = new ArrayList<>();
+					}
+					evicted.add(ref);
+				}
+
+				if (ref != null) {
+					acquired++;
+				}
+				else if (allocated < maxConnections) {
+					allocated++;
+					allocate = true;
+				}
+				else if (maxPendingAcquire >= 0 && pending.size() >= maxPendingAcquire) {
+					error = new PoolAcquirePendingLimitException(maxPendingAcquire);
+				}
+				else {
+					pending.offer(borrower);
+				}
+			}
+		}
+
+		destroy(evicted);
+		if (error != null) {
+			borrower.fail(error);
+		}
+		else if (ref != null) {
+			borrower.deliver(ref);
+		}
+		else if (allocate) {
+			allocate(borrower);
+		}
+		else {
+			borrower.startTimeout();
+		}
+	}
+
+	void allocate(Borrower<T> borrower) {
+		allocator.subscribe(
+				poolable -> {
+					Ref<T> ref = new Ref<>(this, poolable);
+					boolean disposed;
+					synchronized (this) {
+						disposed = this.disposed;
+						if (disposed) {
+							allocated--;
+						}
+						else {
+							acquired++;
+						}
+					}
+					if (disposed) {
+						destroy(ref);
+						borrower.fail(new PoolShutdownException());
+					}
+					else {
+						borrower.deliver(ref);
+					}
+				},
+				t -> {
+					allocationFailed();
+					borrower.fail(t);
+				});
+	}
+
+	/**
+	 * Add a resource established by {@link #warmup()}, either to a pending acquire operation or
+	 * to the idle resources.
+	 */
+	void offer(T poolable) {
+		Ref<T> ref = new Ref<>(this, poolable);
+		Borrower<T> next = null;
+		boolean destroy = false;
+		synchronized (this) {
+			if (disposed) {
+				allocated--;
+				destroy = true;
+			}
+			else if ((next = pending.poll()) != null) {
+				acquired++;
+			}
+			else {
+				idle.offer(ref);
+			}
+		}
+
+		if (destroy) {
+			destroy(ref);
+		}
+		else if (next != null) {
+			next.deliver(ref);
+		}
+	}
+
+	void allocationFailed() {
+		Borrower<T> next;
+		synchronized (this) {
+			allocated--;
+			next = pollPendingForAllocation();
+		}
+		if (next != null) {
+			allocate(next);
+		}
+	}
+
+	/**
+	 * Give back a resource that was acquired, either to a pending acquire operation or to
+	 * the idle resources. A new {@link Ref} is created, so that the previous one cannot
+	 * release or invalidate the resource anymore.
+	 */
+	void recycle(Ref<T> released) {
+		Ref<T> ref = new Ref<>(released);
+		Borrower<T> next;
+		boolean destroy = false;
+		boolean allocate = false;
+		synchronized (this) {
+			acquired--;
+			if (disposed || evictionPredicate.test(ref.poolable, ref)) {
+				allocated--;
+				destroy = true;
+				next = pollPendingForAllocation();
+				allocate = next != null;
+			}
+			else if ((next = pending.poll()) != null) {
+				acquired++;
+			}
+			else {
+				idle.offer(ref);
+			}
+		}
+
+		if (destroy) {
+			destroy(ref);
+		}
+		if (allocate) {
+			allocate(next);
+		}
+		else if (next != null) {
+			next.deliver(ref);
+		}
+	}
+
+	Mono<Void> invalidate(Ref<T> ref) {
+		Borrower<T> next;
+		synchronized (this) {
+			acquired--;
+			allocated--;
+			next = pollPendingForAllocation();
+		}
+		if (next != null) {
+			allocate(next);
+		}
+		return Mono.from(destroyHandler.apply(ref.poolable));
+	}
+
+	void evictInBackground() {
+		List<Ref<T>> evicted = null;
+		synchronized (this) {
+			for (Iterator<Ref<T>> it = idle.iterator(); it.hasNext(); ) {
+				Ref<T> ref = it.next();
+				if (evictionPredicate.test(ref.poolable, ref)) {
+					it.remove();
+					allocated--;
+					if (evicted == null) {
+						evicted = new ArrayList<>();
+					}
+					evicted.add(ref);
+				}
+			}
+		}
+		destroy(evicted);
+	}
+
+	void removePending(Borrower<T> borrower) {
+		synchronized (this) {
+			pending.remove(borrower);
+		}
+	}
+
+	/**
+	 * Remove from the idle resources the one with the lowest score, the least recently
+	 * released one in case of a tie. Must be invoked while holding the pool monitor.
+	 */
+	@Nullable
+	Ref<T> pollIdle() {
+		Ref<T> selected = null;
+		long selectedScore = Long.MAX_VALUE;
+		for (Ref<T> ref : idle) {
+			long score = this.score.applyAsLong(ref.poolable);
+			if (selected == null || score < selectedScore) {
+				selected = ref;
+				selectedScore = score;
+			}
+		}
+		if (selected != null) {
+			idle.remove(selected);
+		}
+		return selected;
+	}
+
+	/**
+	 * Returns the next pending acquire operation if a new resource can be allocated for it.
+	 * Must be invoked while holding the pool monitor.
+	 */
+	@Nullable
+	Borrower<T> pollPendingForAllocation() {
+		if (disposed || allocated >= maxConnections) {
+			return null;
+		}
+		Borrower<T> next = pending.poll();
+		if (next != null) {
+			allocated++;
+		}
+		return next;
+	}
+
+	void destroy(@Nullable List<Ref<T>> refs) {
+		if (refs != null) {
+			for (Ref<T> ref : refs) {
+				destroy(ref);
+			}
+		}
+	}
+
+	void destroy(Ref<T> ref) {
+		Mono.from(destroyHandler.apply(ref.poolable))
+		    .subscribe(null, t -> log.debug("Failed to destroy [{}]", ref.poolable, t));
+	}
+
+	static final Logger log = Loggers.getLogger(ScoringPool.class);
+
+	static final class Borrower<T> extends AtomicBoolean implements Runnable, Disposable {
+
+		final ScoringPool<T>         pool;
+		final MonoSink<PooledRef<T>> sink;
+		final Duration               timeout;
+
+		Disposable timeoutTask = Disposables.disposed();
+
+		Borrower(ScoringPool<T> pool, MonoSink<PooledRef<T>> sink, Duration timeout) {
+			this.pool = pool;
+			this.sink = sink;
+			this.timeout = timeout;
+		}
+
+		void deliver(Ref<T> ref) {
+			if (compareAndSet(false, true)) {
+				timeoutTask.dispose();
+				ref.acquireCount++;
+				Ref.STATE.set(ref, Ref.ACQUIRED);
+				sink.success(ref);
+			}
+			else {
+				// Cancelled or timed out in the meantime
+				pool.recycle(ref);
+			}
+		}
+
+		void fail(Throwable t) {
+			if (compareAndSet(false, true)) {
+				timeoutTask.dispose();
+				sink.error(t);
+			}
+		}
+
+		void startTimeout() {
+			if (!timeout.isZero()) {
+				timeoutTask = Schedulers.parallel()
+				                        .schedule(this, timeout.toMillis(), TimeUnit.MILLISECONDS);
+			}
+		}
+
+		@Override
+		public void run() {
+			if (compareAndSet(false, true)) {
+				pool.removePending(this);
+				sink.error(new PoolAcquireTimeoutException(timeout));
+			}
+		}
+
+		@Override
+		public void dispose() {
+			if (compareAndSet(false, true)) {
+				timeoutTask.dispose();
+				pool.removePending(this);
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return get();
+		}
+	}
+
+	static final class Ref<T> implements PooledRef<T>, PooledRefMetadata {
+
+		static final int IDLE     = 0;
+		static final int ACQUIRED = 1;
+		static final int INVALID  = 2;
+
+		final ScoringPool<T> pool;
+		final T              poolable;
+		final long           allocationTimestamp;
+
+		volatile int  state;
+		volatile long releaseTimestamp;
+		volatile int  acquireCount;
+
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<Ref> STATE =
+				AtomicIntegerFieldUpdater.newUpdater(Ref.class, "state");
+
+		Ref(ScoringPool<T> pool, T poolable) {
+			this.pool = pool;
+			this.poolable = poolable;
+			this.allocationTimestamp = System.currentTimeMillis();
+		}
+
+		Ref(Ref<T> released) {
+			this.pool = released.pool;
+			this.poolable = released.poolable;
+			this.allocationTimestamp = released.allocationTimestamp;
+			this.acquireCount = released.acquireCount;
+			this.releaseTimestamp = System.currentTimeMillis();
+		}
+
+		@Override
+		public T poolable() {
+			return poolable;
+		}
+
+		@Override
+		public PooledRefMetadata metadata() {
+			return this;
+		}
+
+		@Override
+		public Mono<Void> invalidate() {
+			return Mono.defer(() -> {
+				if (STATE.compareAndSet(this, ACQUIRED, INVALID)) {
+					return pool.invalidate(this);
+				}
+				return Mono.empty();
+			});
+		}
+
+		@Override
+		public Mono<Void> release() {
+			return Mono.fromRunnable(() -> {
+				if (STATE.compareAndSet(this, ACQUIRED, IDLE)) {
+					pool.recycle(this);
+				}
+			});
+		}
+
+		@Override
+		public int acquireCount() {
+			return acquireCount;
+		}
+
+		@Override
+		public long idleTime() {
+			long timestamp = releaseTimestamp;
+			return System.currentTimeMillis() - (timestamp != 0 ? timestamp : allocationTimestamp);
+		}
+
+		@Override
+		public long lifeTime() {
+			return System.currentTimeMillis() - allocationTimestamp;
+		}
+
+		@Override
+		public long releaseTimestamp() {
+			return releaseTimestamp;
+		}
+
+		@Override
+		public long allocationTimestamp() {
+			return allocationTimestamp;
+		}
+
+		@Override
+		public String toString() {
+			return "ScoringPool.Ref{poolable=" + poolable + ", state=" + state + '}';
+		}
+	}
+}
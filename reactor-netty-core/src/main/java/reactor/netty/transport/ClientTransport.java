@@ -191,6 +191,50 @@ public abstract class ClientTransport<T extends ClientTransport<T, CONF>,
 		return dup;
 	}
 
+	/**
+	 * Enables or disables the Happy Eyeballs v2 connection racing (RFC 8305) with the default connection attempt
+	 * delay of {@code 250ms}. See {@link #happyEyeballs(Duration)}.
+	 *
+	 * @param enable true enables the connection racing, false disables it
+	 * @return a new {@link ClientTransport} reference
+	 * @since 1.0.3
+	 */
+	public final T happyEyeballs(boolean enable) {
+		if (enable) {
+			return happyEyeballs(ClientTransportConfig.DEFAULT_HAPPY_EYEBALLS_ATTEMPT_DELAY);
+		}
+		if (configuration().happyEyeballsAttemptDelay == null) {
+			@SuppressWarnings("unchecked")
+			T dup = (T) this;
+			return dup;
+		}
+		T dup = duplicate();
+		dup.configuration().happyEyeballsAttemptDelay = null;
+		return dup;
+	}
+
+	/**
+	 * Enables the Happy Eyeballs v2 connection racing (RFC 8305) when connecting to a named address:
+	 * all the addresses are resolved, the IPv6 and IPv4 addresses are interleaved, then a connection attempt is
+	 * started every connection attempt delay, or as soon as the previous attempt fails, until one of them
+	 * connects. The first connected channel is used, the other attempts are closed.
+	 * The connection racing is not applied when a proxy is configured.
+	 *
+	 * @param connectionAttemptDelay the delay before starting the next connection attempt
+	 * @return a new {@link ClientTransport} reference
+	 * @since 1.0.3
+	 */
+	public final T happyEyeballs(Duration connectionAttemptDelay) {
+		Objects.requireNonNull(connectionAttemptDelay, "connectionAttemptDelay");
+		if (connectionAttemptDelay.isNegative()) {
+			throw new IllegalArgumentException("connectionAttemptDelay: " + connectionAttemptDelay +
+					" (expected: positive or zero)");
+		}
+		T dup = duplicate();
+		dup.configuration().happyEyeballsAttemptDelay = connectionAttemptDelay;
+		return dup;
+	}
+
 	/**
 	 * The host to which this client should connect.
 	 *
@@ -16,6 +16,7 @@
 package reactor.netty.transport;
 
 import java.net.SocketAddress;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
@@ -90,6 +91,17 @@ public abstract class ClientTransportConfig<CONF extends TransportConfig> extend
 		return doOnDisconnected;
 	}
 
+	/**
+	 * Return the connection attempt delay of the Happy Eyeballs connection racing or null when it is disabled
+	 *
+	 * @return the connection attempt delay of the Happy Eyeballs connection racing or null
+	 * @since 1.0.3
+	 */
+	@Nullable
+	public final Duration happyEyeballsAttemptDelay() {
+		return happyEyeballsAttemptDelay;
+	}
+
 	/**
 	 * Return true if that {@link ClientTransportConfig} is configured with a proxy
 	 *
@@ -150,6 +162,7 @@ public abstract class ClientTransportConfig<CONF extends TransportConfig> extend
 	Consumer<? super Connection>                doOnResolve;
 	BiConsumer<? super Connection, ? super SocketAddress> doAfterResolve;
 	BiConsumer<? super Connection, ? super Throwable> doOnResolveError;
+	Duration                                 happyEyeballsAttemptDelay;
 	NameResolverProvider                     nameResolverProvider;
 	ProxyProvider                            proxyProvider;
 	Supplier<? extends SocketAddress>        remoteAddress;
@@ -173,6 +186,7 @@ public abstract class ClientTransportConfig<CONF extends TransportConfig> extend
 		this.doOnResolve = parent.doOnResolve;
 		this.doAfterResolve = parent.doAfterResolve;
 		this.doOnResolveError = parent.doOnResolveError;
+		this.happyEyeballsAttemptDelay = parent.happyEyeballsAttemptDelay;
 		this.nameResolverProvider = parent.nameResolverProvider;
 		this.proxyProvider = parent.proxyProvider;
 		this.remoteAddress = parent.remoteAddress;
@@ -236,6 +250,11 @@ public abstract class ClientTransportConfig<CONF extends TransportConfig> extend
 
 	static final NameResolverProvider DEFAULT_NAME_RESOLVER_PROVIDER = NameResolverProvider.builder().build();
 
+	/**
+	 * The connection attempt delay recommended by RFC 8305.
+	 */
+	static final Duration DEFAULT_HAPPY_EYEBALLS_ATTEMPT_DELAY = Duration.ofMillis(250);
+
 	static final class ClientTransportChannelInitializer implements ChannelPipelineConfigurer {
 
 		final ProxyProvider proxyProvider;
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.transport;
+
+import java.net.Inet6Address;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoop;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ScheduledFuture;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.netty.Connection;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+import static reactor.netty.ReactorNetty.format;
+
+/**
+ * Connects to the remote peer with the Happy Eyeballs v2 algorithm (RFC 8305) enabled with
+ * {@link ClientTransport#happyEyeballs(Duration)}.
+ * <p>
+ * All the addresses of the remote peer are resolved, the address families are interleaved starting with the
+ * family of the first address, then the connection attempts are started one after the other, every
+ * connection attempt delay or as soon as the previous attempt fails. The first connected channel wins,
+ * the other attempts are closed. The channels of the attempts are registered on the same event loop with
+ * an empty pipeline, the pipeline of the winner is initialized once connected, before it becomes active.
+ */
+final class HappyEyeballsConnector {
+
+	static boolean isEnabled(TransportConfig config, SocketAddress remoteAddress) {
+		if (!(config instanceof ClientTransportConfig)) {
+			return false;
+		}
+		ClientTransportConfig<?> clientConfig = (ClientTransportConfig<?>) config;
+		return clientConfig.happyEyeballsAttemptDelay != null && !clientConfig.hasProxy() &&
+				remoteAddress instanceof InetSocketAddress && ((InetSocketAddress) remoteAddress).isUnresolved();
+	}
+
+	@SuppressWarnings({"unchecked", "FutureReturnValueIgnored"})
+	static Mono<Channel> connect(ClientTransportConfig<?> config, SocketAddress remoteAddress,
+			AddressResolverGroup<?> resolverGroup, ChannelInitializer<Channel> channelInitializer,
+			@Nullable EventLoop eventLoop) {
+		return TransportConnector.doInitAndRegister(config, AttemptInitializer.INSTANCE, false, eventLoop)
+				.flatMap(channel -> {
+					AddressResolver<SocketAddress> resolver;
+					try {
+						resolver = (AddressResolver<SocketAddress>) resolverGroup.getResolver(channel.eventLoop());
+					}
+					catch (Throwable t) {
+						// "FutureReturnValueIgnored" this is deliberate
+						channel.close();
+						return Mono.error(t);
+					}
+
+					if (!resolver.isSupported(remoteAddress) || resolver.isResolved(remoteAddress)) {
+						channel.pipeline().addLast(channelInitializer);
+						TransportConnector.MonoChannelPromise monoChannelPromise = new TransportConnector.MonoChannelPromise(channel);
+						TransportConnector.doConnect(remoteAddress, config.bindAddress(), monoChannelPromise);
+						return monoChannelPromise;
+					}
+
+					return Mono.create(sink ->
+							new Race(sink, config, channelInitializer, channel).resolve(resolver, remoteAddress));
+				});
+	}
+
+	/**
+	 * Returns the given addresses with the address families interleaved, starting with the family of the first
+	 * address, the order of the addresses of a family is kept.
+	 */
+	static List<SocketAddress> interleave(List<SocketAddress> addresses) {
+		if (addresses.size() < 3) {
+			return addresses;
+		}
+		boolean firstIsIpv6 = isIpv6(addresses.get(0));
+		List<SocketAddress> first = new ArrayList<>(addresses.size());
+		List<SocketAddress> second = new ArrayList<>(addresses.size());
+		for (SocketAddress address : addresses) {
+			(isIpv6(address) == firstIsIpv6 ? first : second).add(address);
+		}
+		List<SocketAddress> interleaved = new ArrayList<>(addresses.size());
+		for (int i = 0; i < first.size() || i < second.size(); i++) {
+			if (i < first.size()) {
+				interleaved.add(first.get(i));
+			}
+			if (i < second.size()) {
+				interleaved.add(second.get(i));
+			}
+		}
+		return interleaved;
+	}
+
+	static boolean isIpv6(SocketAddress address) {
+		return address instanceof InetSocketAddress && ((InetSocketAddress) address).getAddress() instanceof Inet6Address;
+	}
+
+	/**
+	 * The state of the connection attempts, accessed only by the event loop of the channels.
+	 */
+	static final class Race implements Runnable {
+
+		final MonoSink<Channel> sink;
+		final ClientTransportConfig<?> config;
+		final ChannelInitializer<Channel> channelInitializer;
+		final Channel first;
+		final EventLoop eventLoop;
+		final long attemptDelayNanos;
+		final List<Channel> attempts = new ArrayList<>();
+
+		List<SocketAddress> addresses;
+		int next;
+		int pending;
+		boolean done;
+		Throwable error;
+		ScheduledFuture<?> timer;
+
+		Race(MonoSink<Channel> sink, ClientTransportConfig<?> config, ChannelInitializer<Channel> channelInitializer,
+				Channel first) {
+			this.sink = sink;
+			this.config = config;
+			this.channelInitializer = channelInitializer;
+			this.first = first;
+			this.eventLoop = first.eventLoop();
+			this.attemptDelayNanos = config.happyEyeballsAttemptDelay.toNanos();
+			sink.onCancel(() -> execute(this::cancel));
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void resolve(AddressResolver<SocketAddress> resolver, SocketAddress remoteAddress) {
+			if (config.doOnResolve != null) {
+				config.doOnResolve.accept(Connection.from(first));
+			}
+
+			Future<List<SocketAddress>> resolveFuture = resolver.resolveAll(remoteAddress);
+			resolveFuture.addListener(future -> execute(() -> {
+				if (done) {
+					return;
+				}
+				Throwable cause = future.cause();
+				if (cause != null) {
+					if (config.doOnResolveError != null) {
+						config.doOnResolveError.accept(Connection.from(first), cause);
+					}
+					done = true;
+					// "FutureReturnValueIgnored" this is deliberate
+					first.close();
+					sink.error(cause);
+					return;
+				}
+
+				List<SocketAddress> resolved = resolveFuture.getNow();
+				if (config.doAfterResolve != null) {
+					config.doAfterResolve.accept(Connection.from(first), resolved.get(0));
+				}
+				addresses = interleave(resolved);
+				if (log.isDebugEnabled()) {
+					log.debug(format(first, "Racing the connection attempts to {}"), addresses);
+				}
+				attempt(first, nextAddress());
+			}));
+		}
+
+		@Override
+		public void run() {
+			timer = null;
+			nextAttempt();
+		}
+
+		SocketAddress nextAddress() {
+			SocketAddress address = addresses.get(next++);
+			pending++;
+			if (next < addresses.size()) {
+				timer = eventLoop.schedule(this, attemptDelayNanos, TimeUnit.NANOSECONDS);
+			}
+			return address;
+		}
+
+		void nextAttempt() {
+			if (done || next >= addresses.size()) {
+				return;
+			}
+			cancelTimer();
+			SocketAddress address = nextAddress();
+			TransportConnector.doInitAndRegister(config, AttemptInitializer.INSTANCE, false, eventLoop)
+			                  .subscribe(channel -> attempt(channel, address), t -> onFailure(null, t));
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void attempt(Channel channel, SocketAddress address) {
+			if (done) {
+				pending--;
+				// "FutureReturnValueIgnored" this is deliberate
+				channel.close();
+				return;
+			}
+			attempts.add(channel);
+			TransportConnector.MonoChannelPromise monoChannelPromise = new TransportConnector.MonoChannelPromise(channel);
+			TransportConnector.doConnect(address, config.bindAddress(), monoChannelPromise);
+			monoChannelPromise.subscribe(this::onConnected, t -> onFailure(channel, t));
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void onConnected(Channel channel) {
+			pending--;
+			if (done) {
+				// "FutureReturnValueIgnored" this is deliberate
+				channel.close();
+				return;
+			}
+			done = true;
+			cancelTimer();
+			for (Channel attempt : attempts) {
+				if (attempt != channel) {
+					// "FutureReturnValueIgnored" this is deliberate
+					attempt.close();
+				}
+			}
+			attempts.clear();
+			if (log.isDebugEnabled()) {
+				log.debug(format(channel, "Won the connection attempts to {}"), addresses);
+			}
+			// the connect promise is completed before the channel becomes active, the pipeline is
+			// initialized now so that its handlers observe the channel activation
+			channel.pipeline().addLast(channelInitializer);
+			sink.success(channel);
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void onFailure(@Nullable Channel channel, Throwable t) {
+			pending--;
+			if (channel != null) {
+				attempts.remove(channel);
+				// "FutureReturnValueIgnored" this is deliberate
+				channel.close();
+			}
+			if (done) {
+				return;
+			}
+			if (error == null) {
+				error = t;
+			}
+			else if (error != t) {
+				error.addSuppressed(t);
+			}
+			if (next < addresses.size()) {
+				nextAttempt();
+			}
+			else if (pending == 0) {
+				done = true;
+				sink.error(error);
+			}
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		void cancel() {
+			if (done) {
+				return;
+			}
+			done = true;
+			cancelTimer();
+			if (addresses == null) {
+				// "FutureReturnValueIgnored" this is deliberate
+				first.close();
+			}
+			for (Channel attempt : attempts) {
+				// "FutureReturnValueIgnored" this is deliberate
+				attempt.close();
+			}
+			attempts.clear();
+		}
+
+		void cancelTimer() {
+			ScheduledFuture<?> timer = this.timer;
+			if (timer != null) {
+				timer.cancel(false);
+				this.timer = null;
+			}
+		}
+
+		void execute(Runnable task) {
+			if (eventLoop.inEventLoop()) {
+				task.run();
+			}
+			else {
+				eventLoop.execute(task);
+			}
+		}
+	}
+
+	/**
+	 * The initializer of the channels of the connection attempts, which leaves the pipeline empty
+	 * until the winner is known.
+	 */
+	@ChannelHandler.Sharable
+	static final class AttemptInitializer extends ChannelInitializer<Channel> {
+
+		static final AttemptInitializer INSTANCE = new AttemptInitializer();
+
+		@Override
+		protected void initChannel(Channel ch) {
+		}
+	}
+
+	static final Logger log = Loggers.getLogger(HappyEyeballsConnector.class);
+}
@@ -85,6 +85,33 @@ public final class NameResolverProvider {
 		 */
 		NameResolverSpec cacheNegativeTimeToLive(Duration cacheNegativeTimeToLive);
 
+		/**
+		 * Enables the refresh-ahead cache of the DNS resource records.
+		 * The popular entries are resolved again in the background before their time to live expires,
+		 * the expired entries are served stale during {@link #cacheStaleGracePeriod(Duration)} while they are
+		 * resolved again, and the cache is shared by all the clients configured with an equal resolver
+		 * and running on the same {@link LoopResources}.
+		 * By default this is disabled.
+		 *
+		 * @param enable true enables the refresh-ahead cache
+		 * @return {@code this}
+		 * @since 1.0.3
+		 */
+		NameResolverSpec cacheRefreshAhead(boolean enable);
+
+		/**
+		 * Sets the period during which the expired DNS resource records are served from the refresh-ahead cache
+		 * while they are resolved again, when the DNS server is slow or unreachable.
+		 * Only applies when {@link #cacheRefreshAhead(boolean)} is enabled.
+		 * Default to {@link Build#DEFAULT_CACHE_STALE_GRACE_PERIOD}.
+		 *
+		 * @param cacheStaleGracePeriod the period during which the expired DNS resource records are served
+		 * @return {@code this}
+		 * @throws IllegalArgumentException if {@code cacheStaleGracePeriod} is negative
+		 * @since 1.0.3
+		 */
+		NameResolverSpec cacheStaleGracePeriod(Duration cacheStaleGracePeriod);
+
 		/**
 		 * Disables the automatic inclusion of an optional record that tries to hint the remote DNS server about
 		 * how much data the resolver can read per response. By default this is enabled.
@@ -247,6 +274,27 @@ public final class NameResolverProvider {
 		return cacheNegativeTimeToLive;
 	}
 
+	/**
+	 * Returns the configured period during which the expired DNS resource records are served from
+	 * the refresh-ahead cache.
+	 *
+	 * @return the configured period during which the expired DNS resource records are served
+	 * @since 1.0.3
+	 */
+	public Duration cacheStaleGracePeriod() {
+		return cacheStaleGracePeriod;
+	}
+
+	/**
+	 * Returns {@code true} if the refresh-ahead cache is enabled.
+	 *
+	 * @return {@code true} if the refresh-ahead cache is enabled
+	 * @since 1.0.3
+	 */
+	public boolean isCacheRefreshAhead() {
+		return cacheRefreshAhead;
+	}
+
 	/**
 	 * Returns {@code true} if an optional record inclusion is disabled.
 	 *
@@ -359,7 +407,8 @@ public final class NameResolverProvider {
 			return false;
 		}
 		NameResolverProvider that = (NameResolverProvider) o;
-		return disableRecursionDesired == that.disableRecursionDesired &&
+		return cacheRefreshAhead == that.cacheRefreshAhead &&
+				disableRecursionDesired == that.disableRecursionDesired &&
 				disableOptionalRecord == that.disableOptionalRecord &&
 				maxPayloadSize == that.maxPayloadSize &&
 				maxQueriesPerResolve == that.maxQueriesPerResolve &&
@@ -370,6 +419,7 @@ public final class NameResolverProvider {
 				cacheMaxTimeToLive.equals(that.cacheMaxTimeToLive) &&
 				cacheMinTimeToLive.equals(that.cacheMinTimeToLive) &&
 				cacheNegativeTimeToLive.equals(that.cacheNegativeTimeToLive) &&
+				cacheStaleGracePeriod.equals(that.cacheStaleGracePeriod) &&
 				Objects.equals(loopResources, that.loopResources) &&
 				queryTimeout.equals(that.queryTimeout) &&
 				resolvedAddressTypes == that.resolvedAddressTypes &&
@@ -379,13 +429,16 @@ public final class NameResolverProvider {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(cacheMaxTimeToLive, cacheMinTimeToLive, cacheNegativeTimeToLive, disableRecursionDesired,
-				disableOptionalRecord, loggingFactory, loopResources, maxPayloadSize, maxQueriesPerResolve, ndots,
-				preferNative, queryTimeout, resolvedAddressTypes, roundRobinSelection, searchDomains);
+		return Objects.hash(cacheMaxTimeToLive, cacheMinTimeToLive, cacheNegativeTimeToLive, cacheRefreshAhead,
+				cacheStaleGracePeriod, disableRecursionDesired, disableOptionalRecord, loggingFactory, loopResources,
+				maxPayloadSize, maxQueriesPerResolve, ndots, preferNative, queryTimeout, resolvedAddressTypes,
+				roundRobinSelection, searchDomains);
 	}
 
 	/**
 	 * Provides a new {@link DnsAddressResolverGroup}.
+	 * When the refresh-ahead cache is enabled, the {@link DnsAddressResolverGroup} is shared by the equal
+	 * {@link NameResolverProvider}s running on the same {@link LoopResources}.
 	 *
 	 * @param defaultLoopResources the default {@link LoopResources} when {@link LoopResources} is not specified
 	 * @return a new {@link DnsAddressResolverGroup}
@@ -393,18 +446,17 @@ public final class NameResolverProvider {
 	public DnsAddressResolverGroup newNameResolverGroup(LoopResources defaultLoopResources, boolean defaultPreferNative) {
 		Objects.requireNonNull(defaultLoopResources, "defaultLoopResources");
 		LoopResources loop;
-		EventLoopGroup group;
+		boolean effectivePreferNative;
 		if (loopResources == null) {
 			loop = defaultLoopResources;
-			group = loop.onClient(defaultPreferNative);
+			effectivePreferNative = defaultPreferNative;
 		}
 		else {
 			loop = loopResources;
-			group = loop.onClient(preferNative);
+			effectivePreferNative = preferNative;
 		}
+		EventLoopGroup group = loop.onClient(effectivePreferNative);
 		DnsNameResolverBuilder builder = new DnsNameResolverBuilder()
-				.ttl(Math.toIntExact(cacheMinTimeToLive.getSeconds()), Math.toIntExact(cacheMaxTimeToLive.getSeconds()))
-				.negativeTtl(Math.toIntExact(cacheNegativeTimeToLive.getSeconds()))
 				.optResourceEnabled(!disableOptionalRecord)
 				.recursionDesired(!disableRecursionDesired)
 				.maxPayloadSize(maxPayloadSize)
@@ -423,12 +475,20 @@ public final class NameResolverProvider {
 		if (searchDomains != null) {
 			builder.searchDomains(searchDomains);
 		}
+		if (cacheRefreshAhead) {
+			// the refresh-ahead cache applies the time to live itself
+			return RefreshAheadDnsCache.sharedResolverGroup(this, loop, effectivePreferNative, group, builder);
+		}
+		builder.ttl(Math.toIntExact(cacheMinTimeToLive.getSeconds()), Math.toIntExact(cacheMaxTimeToLive.getSeconds()))
+		       .negativeTtl(Math.toIntExact(cacheNegativeTimeToLive.getSeconds()));
 		return roundRobinSelection ? new RoundRobinDnsAddressResolverGroup(builder) : new DnsAddressResolverGroup(builder);
 	}
 
 	final Duration cacheMaxTimeToLive;
 	final Duration cacheMinTimeToLive;
 	final Duration cacheNegativeTimeToLive;
+	final boolean cacheRefreshAhead;
+	final Duration cacheStaleGracePeriod;
 	final boolean disableRecursionDesired;
 	final boolean disableOptionalRecord;
 	final DnsQueryLifecycleObserverFactory loggingFactory;
@@ -446,6 +506,8 @@ public final class NameResolverProvider {
 		this.cacheMaxTimeToLive = build.cacheMaxTimeToLive;
 		this.cacheMinTimeToLive = build.cacheMinTimeToLive;
 		this.cacheNegativeTimeToLive = build.cacheNegativeTimeToLive;
+		this.cacheRefreshAhead = build.cacheRefreshAhead;
+		this.cacheStaleGracePeriod = build.cacheStaleGracePeriod;
 		this.disableOptionalRecord = build.disableOptionalRecord;
 		this.disableRecursionDesired = build.disableRecursionDesired;
 		this.loggingFactory = build.loggingFactory;
@@ -464,6 +526,7 @@ public final class NameResolverProvider {
 		static final Duration DEFAULT_CACHE_MAX_TIME_TO_LIVE = Duration.ofSeconds(Integer.MAX_VALUE);
 		static final Duration DEFAULT_CACHE_MIN_TIME_TO_LIVE = Duration.ofSeconds(0);
 		static final Duration DEFAULT_CACHE_NEGATIVE_TIME_TO_LIVE = Duration.ofSeconds(0);
+		static final Duration DEFAULT_CACHE_STALE_GRACE_PERIOD = Duration.ofSeconds(0);
 		static final int DEFAULT_MAX_PAYLOAD_SIZE = 4096;
 		static final int DEFAULT_MAX_QUERIES_PER_RESOLVE = 16;
 		static final int DEFAULT_NDOTS = -1;
@@ -472,6 +535,8 @@ public final class NameResolverProvider {
 		Duration cacheMaxTimeToLive = DEFAULT_CACHE_MAX_TIME_TO_LIVE;
 		Duration cacheMinTimeToLive = DEFAULT_CACHE_MIN_TIME_TO_LIVE;
 		Duration cacheNegativeTimeToLive = DEFAULT_CACHE_NEGATIVE_TIME_TO_LIVE;
+		boolean cacheRefreshAhead;
+		Duration cacheStaleGracePeriod = DEFAULT_CACHE_STALE_GRACE_PERIOD;
 		boolean disableOptionalRecord;
 		boolean disableRecursionDesired;
 		DnsQueryLifecycleObserverFactory loggingFactory;
@@ -503,6 +568,22 @@ public final class NameResolverProvider {
 			return this;
 		}
 
+		@Override
+		public NameResolverSpec cacheRefreshAhead(boolean enable) {
+			this.cacheRefreshAhead = enable;
+			return this;
+		}
+
+		@Override
+		public NameResolverSpec cacheStaleGracePeriod(Duration cacheStaleGracePeriod) {
+			Objects.requireNonNull(cacheStaleGracePeriod, "cacheStaleGracePeriod");
+			if (cacheStaleGracePeriod.isNegative()) {
+				throw new IllegalArgumentException("cacheStaleGracePeriod must be positive or zero");
+			}
+			this.cacheStaleGracePeriod = cacheStaleGracePeriod;
+			return this;
+		}
+
 		@Override
 		public NameResolverSpec disableOptionalRecord(boolean disable) {
 			this.disableOptionalRecord = disable;
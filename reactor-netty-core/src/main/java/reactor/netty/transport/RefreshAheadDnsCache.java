@@ -0,0 +1,463 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.transport;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import io.netty.channel.ChannelFactory;
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.resolver.NameResolver;
+import io.netty.resolver.dns.DnsAddressResolverGroup;
+import io.netty.resolver.dns.DnsCache;
+import io.netty.resolver.dns.DnsCacheEntry;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.resolver.dns.DnsServerAddressStreamProvider;
+import io.netty.resolver.dns.RoundRobinDnsAddressResolverGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ScheduledFuture;
+import reactor.netty.resources.LoopResources;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+/**
+ * A {@link DnsCache} enabled with {@link NameResolverProvider.NameResolverSpec#cacheRefreshAhead(boolean)},
+ * shared by the {@link DnsNameResolver}s of all the event loops.
+ * <p>
+ * A popular entry, looked up at least {@link #POPULAR_HITS} times, is resolved again in the background once
+ * {@link #REFRESH_AHEAD_FACTOR} of its time to live has elapsed, the lookups keep being served from the cache
+ * while the query is in flight. An expired entry is served stale for the configured grace period while it is
+ * resolved again, so that a slow or unreachable DNS server does not fail the connections until the grace period
+ * is over.
+ */
+final class RefreshAheadDnsCache implements DnsCache {
+
+	/**
+	 * Returns the {@link DnsAddressResolverGroup} shared by the clients configured with an equal
+	 * {@link NameResolverProvider} and running on the same {@link LoopResources}.
+	 */
+	@SuppressWarnings("FutureReturnValueIgnored")
+	static DnsAddressResolverGroup sharedResolverGroup(NameResolverProvider provider, LoopResources loop,
+			boolean preferNative, EventLoopGroup group, DnsNameResolverBuilder builder) {
+		SharedKey key = new SharedKey(provider, loop, preferNative);
+		DnsAddressResolverGroup resolverGroup = SHARED_RESOLVER_GROUPS.get(key);
+		if (resolverGroup != null) {
+			return resolverGroup;
+		}
+		return SHARED_RESOLVER_GROUPS.computeIfAbsent(key, k -> {
+			RefreshAheadDnsCache cache = new RefreshAheadDnsCache(
+					Math.toIntExact(provider.cacheMinTimeToLive.getSeconds()),
+					Math.toIntExact(provider.cacheMaxTimeToLive.getSeconds()),
+					Math.toIntExact(provider.cacheNegativeTimeToLive.getSeconds()),
+					provider.cacheStaleGracePeriod);
+			builder.resolveCache(cache);
+			//"FutureReturnValueIgnored" this is deliberate
+			group.terminationFuture().addListener(f -> SHARED_RESOLVER_GROUPS.remove(k));
+			return provider.roundRobinSelection ? new RoundRobinResolverGroup(builder, cache) :
+					new ResolverGroup(builder, cache);
+		});
+	}
+
+	final int minTtl;
+	final int maxTtl;
+	final int negativeTtl;
+	final long staleGracePeriodNanos;
+	final ConcurrentMap<String, Entries> entries = new ConcurrentHashMap<>();
+	final ConcurrentMap<EventExecutor, DnsNameResolver> resolvers = new ConcurrentHashMap<>();
+
+	RefreshAheadDnsCache(int minTtl, int maxTtl, int negativeTtl, Duration staleGracePeriod) {
+		this.minTtl = minTtl;
+		this.maxTtl = maxTtl;
+		this.negativeTtl = negativeTtl;
+		this.staleGracePeriodNanos = staleGracePeriod.toNanos();
+	}
+
+	@Override
+	public void clear() {
+		for (Entries e : entries.values()) {
+			e.cancelExpiration();
+		}
+		entries.clear();
+	}
+
+	@Override
+	public boolean clear(String hostname) {
+		Objects.requireNonNull(hostname, "hostname");
+		Entries e = entries.remove(appendDot(hostname));
+		if (e != null) {
+			e.cancelExpiration();
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	@Nullable
+	public List<? extends DnsCacheEntry> get(String hostname, @Nullable DnsRecord[] additionals) {
+		Objects.requireNonNull(hostname, "hostname");
+		if (!isEmpty(additionals) || REFRESHING.get() != null) {
+			return null;
+		}
+		String key = appendDot(hostname);
+		Entries e = entries.get(key);
+		if (e == null) {
+			return null;
+		}
+		long now = System.nanoTime();
+		if (now - e.expireNanos >= 0) {
+			if (e.cause != null || now - e.expireNanos >= staleGracePeriodNanos) {
+				return null;
+			}
+			// served stale while it is resolved again
+			refresh(key, e, now);
+		}
+		else if (e.cause == null && Entries.HITS.incrementAndGet(e) >= POPULAR_HITS) {
+			refresh(key, e, now);
+		}
+		return e.list;
+	}
+
+	@Override
+	public DnsCacheEntry cache(String hostname, @Nullable DnsRecord[] additionals, InetAddress address,
+			long originalTtl, EventLoop loop) {
+		Objects.requireNonNull(hostname, "hostname");
+		Objects.requireNonNull(address, "address");
+		Objects.requireNonNull(loop, "loop");
+		Entry entry = new Entry(hostname, address, null);
+		if (maxTtl == 0 || !isEmpty(additionals)) {
+			return entry;
+		}
+		long ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(minTtl, (int) Math.min(maxTtl, originalTtl)));
+		String key = appendDot(hostname);
+		for (;;) {
+			Entries e = entries.get(key);
+			long now = System.nanoTime();
+			if (e != null && e.cause == null && e.refreshing == 0 && now - e.expireNanos < 0) {
+				synchronized (e) {
+					if (entries.get(key) == e) {
+						e.add(entry, now + ttlNanos);
+						return entry;
+					}
+				}
+				continue;
+			}
+			// a refresh or an expired entry starts a new list
+			Entries update = new Entries(Collections.singletonList(entry), null, now, ttlNanos);
+			if (e == null ? entries.putIfAbsent(key, update) == null : entries.replace(key, e, update)) {
+				if (e != null) {
+					e.cancelExpiration();
+				}
+				update.scheduleExpiration(entries, key, loop, ttlNanos + staleGracePeriodNanos);
+				return entry;
+			}
+		}
+	}
+
+	@Override
+	public DnsCacheEntry cache(String hostname, @Nullable DnsRecord[] additionals, Throwable cause, EventLoop loop) {
+		Objects.requireNonNull(hostname, "hostname");
+		Objects.requireNonNull(cause, "cause");
+		Objects.requireNonNull(loop, "loop");
+		Entry entry = new Entry(hostname, null, cause);
+		if (negativeTtl == 0 || !isEmpty(additionals)) {
+			return entry;
+		}
+		long ttlNanos = TimeUnit.SECONDS.toNanos(negativeTtl);
+		String key = appendDot(hostname);
+		Entries e = entries.get(key);
+		long now = System.nanoTime();
+		if (e != null && e.cause == null && now - e.expireNanos < staleGracePeriodNanos) {
+			// a failed refresh keeps the entry which can still be served
+			return entry;
+		}
+		Entries update = new Entries(Collections.singletonList(entry), cause, now, ttlNanos);
+		if (e == null ? entries.putIfAbsent(key, update) == null : entries.replace(key, e, update)) {
+			if (e != null) {
+				e.cancelExpiration();
+			}
+			update.scheduleExpiration(entries, key, loop, ttlNanos);
+		}
+		return entry;
+	}
+
+	@Override
+	public String toString() {
+		return "RefreshAheadDnsCache{minTtl=" + minTtl + ", maxTtl=" + maxTtl + ", negativeTtl=" + negativeTtl +
+				", staleGracePeriodNanos=" + staleGracePeriodNanos + ", entries=" + entries.size() + '}';
+	}
+
+	@SuppressWarnings("FutureReturnValueIgnored")
+	void refresh(String key, Entries e, long now) {
+		if (now - e.nextRefreshNanos < 0 || !Entries.REFRESH.compareAndSet(e, 0, 1)) {
+			return;
+		}
+		DnsNameResolver resolver = resolver();
+		if (resolver == null) {
+			e.refreshing = 0;
+			return;
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Refreshing the cached addresses of {}", key);
+		}
+		Future<List<InetAddress>> future;
+		// the cache is looked up synchronously by the resolver, it is bypassed so that the query is sent
+		REFRESHING.set(Boolean.TRUE);
+		try {
+			future = resolver.resolveAll(key);
+		}
+		finally {
+			REFRESHING.remove();
+		}
+		//"FutureReturnValueIgnored" this is deliberate
+		future.addListener(f -> {
+			if (!f.isSuccess() && log.isDebugEnabled()) {
+				log.debug("Failed to refresh the cached addresses of {}", key, f.cause());
+			}
+			e.nextRefreshNanos = System.nanoTime() + REFRESH_RETRY_NANOS;
+			e.refreshing = 0;
+		});
+	}
+
+	@Nullable
+	DnsNameResolver resolver() {
+		DnsNameResolver any = null;
+		for (Map.Entry<EventExecutor, DnsNameResolver> e : resolvers.entrySet()) {
+			if (e.getKey().inEventLoop()) {
+				return e.getValue();
+			}
+			any = e.getValue();
+		}
+		return any;
+	}
+
+	@SuppressWarnings("FutureReturnValueIgnored")
+	NameResolver<InetAddress> register(EventLoop eventLoop, NameResolver<InetAddress> resolver) {
+		if (resolver instanceof DnsNameResolver) {
+			DnsNameResolver dnsNameResolver = (DnsNameResolver) resolver;
+			resolvers.put(eventLoop, dnsNameResolver);
+			//"FutureReturnValueIgnored" this is deliberate
+			eventLoop.terminationFuture().addListener(f -> resolvers.remove(eventLoop, dnsNameResolver));
+		}
+		return resolver;
+	}
+
+	static String appendDot(String hostname) {
+		return hostname.endsWith(".") ? hostname : hostname + '.';
+	}
+
+	static boolean isEmpty(@Nullable DnsRecord[] additionals) {
+		return additionals == null || additionals.length == 0;
+	}
+
+	/**
+	 * The cached addresses of a host name, or the cause of the failed resolution.
+	 */
+	static final class Entries {
+
+		final Throwable cause;
+		final long createdNanos;
+
+		volatile List<Entry> list;
+		volatile long expireNanos;
+		volatile long nextRefreshNanos;
+		volatile int hits;
+		volatile int refreshing;
+
+		ScheduledFuture<?> expiration;
+
+		Entries(List<Entry> list, @Nullable Throwable cause, long now, long ttlNanos) {
+			this.list = list;
+			this.cause = cause;
+			this.createdNanos = now;
+			this.expireNanos = now + ttlNanos;
+			this.nextRefreshNanos = now + (long) (ttlNanos * REFRESH_AHEAD_FACTOR);
+		}
+
+		/**
+		 * Adds an address resolved by the same query, the entries expire with the shortest time to live.
+		 * Must be called while holding the lock of this instance.
+		 */
+		void add(Entry entry, long expireNanos) {
+			List<Entry> list = this.list;
+			for (Entry e : list) {
+				if (e.address.equals(entry.address)) {
+					return;
+				}
+			}
+			List<Entry> update = new ArrayList<>(list.size() + 1);
+			update.addAll(list);
+			update.add(entry);
+			this.list = update;
+			if (expireNanos - this.expireNanos < 0) {
+				this.expireNanos = expireNanos;
+				this.nextRefreshNanos = createdNanos + (long) ((expireNanos - createdNanos) * REFRESH_AHEAD_FACTOR);
+			}
+		}
+
+		@SuppressWarnings("FutureReturnValueIgnored")
+		synchronized void cancelExpiration() {
+			ScheduledFuture<?> expiration = this.expiration;
+			if (expiration != null) {
+				//"FutureReturnValueIgnored" this is deliberate
+				expiration.cancel(false);
+			}
+		}
+
+		/**
+		 * Removes these entries once they cannot be served anymore, even when they are not looked up again.
+		 */
+		synchronized void scheduleExpiration(ConcurrentMap<String, Entries> entries, String key, EventLoop loop,
+				long delayNanos) {
+			expiration = loop.schedule(() -> entries.remove(key, this), delayNanos, TimeUnit.NANOSECONDS);
+		}
+
+		static final AtomicIntegerFieldUpdater<Entries> HITS =
+				AtomicIntegerFieldUpdater.newUpdater(Entries.class, "hits");
+
+		static final AtomicIntegerFieldUpdater<Entries> REFRESH =
+				AtomicIntegerFieldUpdater.newUpdater(Entries.class, "refreshing");
+	}
+
+	static final class Entry implements DnsCacheEntry {
+
+		final String hostname;
+		final InetAddress address;
+		final Throwable cause;
+
+		Entry(String hostname, @Nullable InetAddress address, @Nullable Throwable cause) {
+			this.hostname = hostname;
+			this.address = address;
+			this.cause = cause;
+		}
+
+		@Override
+		@Nullable
+		public InetAddress address() {
+			return address;
+		}
+
+		@Override
+		@Nullable
+		public Throwable cause() {
+			return cause;
+		}
+
+		@Override
+		public String toString() {
+			return cause != null ? hostname + '/' + cause : String.valueOf(address);
+		}
+	}
+
+	static final class ResolverGroup extends DnsAddressResolverGroup {
+
+		final RefreshAheadDnsCache cache;
+
+		ResolverGroup(DnsNameResolverBuilder builder, RefreshAheadDnsCache cache) {
+			super(builder);
+			this.cache = cache;
+		}
+
+		@Override
+		protected NameResolver<InetAddress> newNameResolver(EventLoop eventLoop,
+				ChannelFactory<? extends DatagramChannel> channelFactory,
+				DnsServerAddressStreamProvider nameServerProvider) throws Exception {
+			return cache.register(eventLoop, super.newNameResolver(eventLoop, channelFactory, nameServerProvider));
+		}
+	}
+
+	static final class RoundRobinResolverGroup extends RoundRobinDnsAddressResolverGroup {
+
+		final RefreshAheadDnsCache cache;
+
+		RoundRobinResolverGroup(DnsNameResolverBuilder builder, RefreshAheadDnsCache cache) {
+			super(builder);
+			this.cache = cache;
+		}
+
+		@Override
+		protected NameResolver<InetAddress> newNameResolver(EventLoop eventLoop,
+				ChannelFactory<? extends DatagramChannel> channelFactory,
+				DnsServerAddressStreamProvider nameServerProvider) throws Exception {
+			return cache.register(eventLoop, super.newNameResolver(eventLoop, channelFactory, nameServerProvider));
+		}
+	}
+
+	static final class SharedKey {
+
+		final NameResolverProvider provider;
+		final LoopResources loop;
+		final boolean preferNative;
+
+		SharedKey(NameResolverProvider provider, LoopResources loop, boolean preferNative) {
+			this.provider = provider;
+			this.loop = loop;
+			this.preferNative = preferNative;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof SharedKey)) {
+				return false;
+			}
+			SharedKey that = (SharedKey) o;
+			return preferNative == that.preferNative &&
+					provider.equals(that.provider) &&
+					loop.equals(that.loop);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(provider, loop, preferNative);
+		}
+	}
+
+	/**
+	 * An entry is refreshed ahead once this fraction of its time to live has elapsed.
+	 */
+	static final double REFRESH_AHEAD_FACTOR = 0.8;
+
+	/**
+	 * The number of lookups which makes an entry popular enough to be refreshed ahead.
+	 */
+	static final int POPULAR_HITS = 2;
+
+	static final long REFRESH_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	static final FastThreadLocal<Boolean> REFRESHING = new FastThreadLocal<>();
+
+	static final ConcurrentMap<SharedKey, DnsAddressResolverGroup> SHARED_RESOLVER_GROUPS = new ConcurrentHashMap<>();
+
+	static final Logger log = Loggers.getLogger(RefreshAheadDnsCache.class);
+}
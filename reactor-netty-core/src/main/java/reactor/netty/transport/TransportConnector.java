@@ -74,7 +74,7 @@ public final class TransportConnector {
 		Objects.requireNonNull(bindAddress, "bindAddress");
 		Objects.requireNonNull(channelInitializer, "channelInitializer");
 
-		return doInitAndRegister(config, channelInitializer, isDomainSocket)
+		return doInitAndRegister(config, channelInitializer, isDomainSocket, null)
 				.flatMap(channel -> {
 					MonoChannelPromise promise = new MonoChannelPromise(channel);
 					// "FutureReturnValueIgnored" this is deliberate
@@ -99,7 +99,41 @@ public final class TransportConnector {
 		Objects.requireNonNull(resolverGroup, "resolverGroup");
 		Objects.requireNonNull(channelInitializer, "channelInitializer");
 
-		return doInitAndRegister(config, channelInitializer, remoteAddress instanceof DomainSocketAddress)
+		if (HappyEyeballsConnector.isEnabled(config, remoteAddress)) {
+			return HappyEyeballsConnector.connect((ClientTransportConfig<?>) config, remoteAddress, resolverGroup,
+					channelInitializer, null);
+		}
+
+		return doInitAndRegister(config, channelInitializer, remoteAddress instanceof DomainSocketAddress, null)
+				.flatMap(channel -> doResolveAndConnect(channel, config, remoteAddress, resolverGroup));
+	}
+
+	/**
+	 * Connect a {@link Channel} registered on the given {@link EventLoop} to the remote peer.
+	 * The {@link EventLoop} must belong to the {@link EventLoopGroup} of the transport configuration.
+	 *
+	 * @param config the transport configuration
+	 * @param remoteAddress the {@link SocketAddress} to connect to
+	 * @param resolverGroup the resolver which will resolve the address of the unresolved named address
+	 * @param channelInitializer the {@link ChannelInitializer} that will be used for initializing the channel pipeline
+	 * @param eventLoop the {@link EventLoop} the channel is registered on
+	 * @return a {@link Mono} of {@link Channel}
+	 * @since 1.0.3
+	 */
+	public static Mono<Channel> connect(TransportConfig config, SocketAddress remoteAddress,
+			AddressResolverGroup<?> resolverGroup, ChannelInitializer<Channel> channelInitializer, EventLoop eventLoop) {
+		Objects.requireNonNull(config, "config");
+		Objects.requireNonNull(remoteAddress, "remoteAddress");
+		Objects.requireNonNull(resolverGroup, "resolverGroup");
+		Objects.requireNonNull(channelInitializer, "channelInitializer");
+		Objects.requireNonNull(eventLoop, "eventLoop");
+
+		if (HappyEyeballsConnector.isEnabled(config, remoteAddress)) {
+			return HappyEyeballsConnector.connect((ClientTransportConfig<?>) config, remoteAddress, resolverGroup,
+					channelInitializer, eventLoop);
+		}
+
+		return doInitAndRegister(config, channelInitializer, remoteAddress instanceof DomainSocketAddress, eventLoop)
 				.flatMap(channel -> doResolveAndConnect(channel, config, remoteAddress, resolverGroup));
 	}
 
@@ -161,7 +195,8 @@ public final class TransportConnector {
 	static Mono<Channel> doInitAndRegister(
 			TransportConfig config,
 			ChannelInitializer<Channel> channelInitializer,
-			boolean isDomainSocket) {
+			boolean isDomainSocket,
+			@Nullable EventLoop eventLoop) {
 		EventLoopGroup elg = config.eventLoopGroup();
 
 		ChannelFactory<? extends Channel> channelFactory = config.connectionFactory(elg, isDomainSocket);
@@ -184,7 +219,7 @@ public final class TransportConnector {
 		}
 
 		MonoChannelPromise monoChannelPromise = new MonoChannelPromise(channel);
-		channel.unsafe().register(elg.next(), monoChannelPromise);
+		channel.unsafe().register(eventLoop != null ? eventLoop : elg.next(), monoChannelPromise);
 		Throwable cause = monoChannelPromise.cause();
 		if (cause != null) {
 			if (channel.isRegistered()) {
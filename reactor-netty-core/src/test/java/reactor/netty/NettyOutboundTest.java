@@ -47,7 +47,6 @@ import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
-import io.netty.handler.stream.ChunkedNioFile;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.util.CharsetUtil;
 import io.netty.util.ReferenceCountUtil;
@@ -224,18 +223,15 @@ public class NettyOutboundTest {
 			e.printStackTrace();
 		}
 
-		assertThat(messageWritten).containsExactly(Integer.class, ChunkedNioFile.class);
+		assertThat(messageWritten).containsExactly(Integer.class, ReadAheadChunkedFile.class);
 
+		// The file is smaller than the default chunk size
 		assertThat(clearMessages)
-				.hasSize(2)
+				.hasSize(1)
 				.element(0)
 				.asString()
 				.startsWith("This is an UTF-8 file that is larger than 1024 bytes. It contains accents like é. GARBAGE")
-				.endsWith("1024 mark here ->");
-		assertThat(clearMessages)
-				.element(1)
-				.asString()
-				.startsWith("<- 1024 mark here")
+				.contains("1024 mark here -><- 1024 mark here")
 				.endsWith("End of File");
 
 		assertThat(f.isSuccess()).isFalse();
@@ -308,19 +304,15 @@ public class NettyOutboundTest {
 		        .then().block();
 
 		assertThat(channel.inboundMessages()).isEmpty();
-		assertThat(messageWritten).containsExactly(Integer.class, ChunkedNioFile.class);
-
-		assertThat(channel.outboundMessages())
-				.hasSize(3)
-				.element(1)
-				.asString()
-				.startsWith("This is an UTF-8 file that is larger than 1024 bytes. It contains accents like é. GARBAGE")
-				.endsWith("1024 mark here ->");
+		assertThat(messageWritten).containsExactly(Integer.class, ReadAheadChunkedFile.class);
 
+		// The file is smaller than the default chunk size
 		assertThat(channel.outboundMessages())
+				.hasSize(2)
 				.last()
 				.asString()
-				.startsWith("<- 1024 mark here")
+				.startsWith("This is an UTF-8 file that is larger than 1024 bytes. It contains accents like é. GARBAGE")
+				.contains("1024 mark here -><- 1024 mark here")
 				.endsWith("End of File");
 
 		assertThat(f.isSuccess()).isTrue();
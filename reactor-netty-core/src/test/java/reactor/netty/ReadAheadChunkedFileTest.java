@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadAheadChunkedFileTest {
+
+	@Test
+	public void chunksAreAlignedOnTheChunkSize() throws Exception {
+		byte[] content = new byte[100];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) i;
+		}
+		Path file = Files.createTempFile(null, null);
+		Files.write(file, content);
+
+		List<Integer> sizes = new ArrayList<>();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ReadAheadChunkedFile input = new ReadAheadChunkedFile(FileChannel.open(file), 5, 90, 16, 3);
+		try {
+			while (!input.isEndOfInput()) {
+				ByteBuf chunk = input.readChunk(ByteBufAllocator.DEFAULT);
+				assertThat(chunk).isNotNull();
+				sizes.add(chunk.readableBytes());
+				chunk.readBytes(out, chunk.readableBytes());
+				chunk.release();
+			}
+			assertThat(input.progress()).isEqualTo(input.length());
+		}
+		finally {
+			input.close();
+			Files.delete(file);
+		}
+
+		assertThat(sizes).containsExactly(11, 16, 16, 16, 16, 15);
+		byte[] expected = new byte[90];
+		System.arraycopy(content, 5, expected, 0, 90);
+		assertThat(out.toByteArray()).isEqualTo(expected);
+		assertThat(input.readAhead).isNull();
+	}
+}
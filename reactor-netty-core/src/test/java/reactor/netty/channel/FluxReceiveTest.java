@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.channel;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class FluxReceiveTest {
+
+	@Test
+	public void readIsSuspendedAboveTheHighWaterMark() {
+		EmbeddedChannel channel = new EmbeddedChannel();
+		List<Long> buffered = new ArrayList<>();
+		ChannelOperations.addMetricsHandler(channel, new BufferedDataRecorder(buffered), null, true);
+		ChannelOperations<?, ?> ops = new ChannelOperations<>(Connection.from(channel), ConnectionObserver.emptyListener());
+		ops.receiveBufferWaterMark(16, 32);
+
+		SlowReceiver receiver = new SlowReceiver();
+		ops.receiveObject().subscribe(receiver);
+		ops.inbound.onInboundNext(Unpooled.wrappedBuffer(new byte[16]));
+		assertThat(receiver.received).isEqualTo(1);
+		assertThat(channel.config().isAutoRead()).isTrue();
+
+		// The remaining messages of the read operation are buffered
+		for (int i = 0; i < 3; i++) {
+			ops.inbound.onInboundNext(Unpooled.wrappedBuffer(new byte[16]));
+		}
+		assertThat(ops.inbound.bufferedBytes).isEqualTo(48);
+		assertThat(ops.inbound.bufferFull).isTrue();
+		assertThat(channel.config().isAutoRead()).isFalse();
+		assertThat(buffered).containsExactly(48L);
+
+		receiver.request(1);
+		receiver.request(1);
+		// Still above the low water mark
+		assertThat(ops.inbound.bufferedBytes).isEqualTo(16);
+		assertThat(channel.config().isAutoRead()).isFalse();
+
+		receiver.request(1);
+		assertThat(ops.inbound.bufferedBytes).isEqualTo(0);
+		assertThat(ops.inbound.bufferFull).isFalse();
+		assertThat(channel.config().isAutoRead()).isTrue();
+		assertThat(receiver.received).isEqualTo(4);
+
+		receiver.dispose();
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void readIsDrivenByTheDemandByDefault() {
+		EmbeddedChannel channel = new EmbeddedChannel();
+		ChannelOperations<?, ?> ops = new ChannelOperations<>(Connection.from(channel), ConnectionObserver.emptyListener());
+
+		SlowReceiver receiver = new SlowReceiver();
+		ops.receiveObject().subscribe(receiver);
+		for (int i = 0; i < 4; i++) {
+			ops.inbound.onInboundNext(Unpooled.wrappedBuffer(new byte[16]));
+		}
+		assertThat(ops.inbound.bufferFull).isFalse();
+		assertThat(ops.inbound.getPending()).isEqualTo(3);
+
+		receiver.request(1);
+		// Less than QUEUE_LOW_LIMIT messages are buffered
+		assertThat(channel.config().isAutoRead()).isTrue();
+
+		receiver.dispose();
+		channel.finishAndReleaseAll();
+	}
+
+	@Test
+	public void invalidWaterMarks() {
+		EmbeddedChannel channel = new EmbeddedChannel();
+		ChannelOperations<?, ?> ops = new ChannelOperations<>(Connection.from(channel), ConnectionObserver.emptyListener());
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> ops.receiveBufferWaterMark(-1, 32));
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> ops.receiveBufferWaterMark(32, 16));
+
+		channel.finishAndReleaseAll();
+	}
+
+	static final class SlowReceiver extends BaseSubscriber<Object> {
+
+		int received;
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			subscription.request(1);
+		}
+
+		@Override
+		protected void hookOnNext(Object value) {
+			received++;
+		}
+	}
+
+	static final class BufferedDataRecorder implements ChannelMetricsRecorder {
+
+		final List<Long> buffered;
+
+		BufferedDataRecorder(List<Long> buffered) {
+			this.buffered = buffered;
+		}
+
+		@Override
+		public void recordDataReceived(SocketAddress remoteAddress, long bytes) {
+		}
+
+		@Override
+		public void recordDataSent(SocketAddress remoteAddress, long bytes) {
+		}
+
+		@Override
+		public void incrementErrorsCount(SocketAddress remoteAddress) {
+		}
+
+		@Override
+		public void recordTlsHandshakeTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void recordConnectTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void recordResolveAddressTime(SocketAddress remoteAddress, Duration time, String status) {
+		}
+
+		@Override
+		public void recordDataReceivedBuffered(SocketAddress remoteAddress, long bytes) {
+			buffered.add(bytes);
+		}
+	}
+}
@@ -16,18 +16,25 @@
 package reactor.netty.channel;
 
 import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerAdapter;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import io.netty.util.ReferenceCountUtil;
@@ -40,6 +47,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Hooks;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
+import reactor.netty.SendDemand;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.TestPublisher;
 import reactor.test.util.RaceTestUtils;
@@ -250,6 +258,214 @@ public class MonoSendManyTest {
 		}
 	}
 
+	@Test
+	public void flushWhenPendingBytesThresholdIsReached() {
+		AtomicInteger flushes = new AtomicInteger();
+		//use an extra handler
+		EmbeddedChannel channel = new EmbeddedChannel(new FlushCounter(flushes), new ChannelHandlerAdapter() {});
+
+		Sinks.Many<ByteBuf> source = Sinks.many().unicast().onBackpressureBuffer();
+		Mono<Void> m = MonoSendMany.byteBufSource(source.asFlux(), channel, b -> false, 10, TimeUnit.MINUTES.toNanos(1),
+				SendDemand.DEFAULT);
+
+		StepVerifier.create(m)
+		            .then(() -> {
+		                source.emitNext(Unpooled.copyInt(1), Sinks.EmitFailureHandler.FAIL_FAST);
+		                source.emitNext(Unpooled.copyInt(2), Sinks.EmitFailureHandler.FAIL_FAST);
+		                assertThat(flushes.get()).isEqualTo(0);
+		                assertThat(channel.outboundMessages()).isEmpty();
+
+		                source.emitNext(Unpooled.copyInt(3), Sinks.EmitFailureHandler.FAIL_FAST);
+		                assertThat(flushes.get()).isEqualTo(1);
+		                assertThat(channel.outboundMessages()).hasSize(3);
+
+		                source.emitNext(Unpooled.copyInt(4), Sinks.EmitFailureHandler.FAIL_FAST);
+		                assertThat(flushes.get()).isEqualTo(1);
+		                source.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+		            })
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		assertThat(flushes.get()).isEqualTo(2);
+		for (int i = 1; i <= 4; i++) {
+			ByteBuf buf = channel.readOutbound();
+			assertThat(buf.readInt()).isEqualTo(i);
+			buf.release();
+		}
+	}
+
+	@Test
+	public void flushAfterMaxFlushDelay() throws Exception {
+		AtomicInteger flushes = new AtomicInteger();
+		//use an extra handler
+		EmbeddedChannel channel = new EmbeddedChannel(new FlushCounter(flushes), new ChannelHandlerAdapter() {});
+
+		Sinks.Many<ByteBuf> source = Sinks.many().unicast().onBackpressureBuffer();
+		Mono<Void> m = MonoSendMany.byteBufSource(source.asFlux(), channel, b -> false, Integer.MAX_VALUE,
+				TimeUnit.MILLISECONDS.toNanos(50), SendDemand.DEFAULT);
+
+		StepVerifier.create(m)
+		            .then(() -> {
+		                source.emitNext(Unpooled.copyInt(1), Sinks.EmitFailureHandler.FAIL_FAST);
+		                channel.runPendingTasks();
+		                source.emitNext(Unpooled.copyInt(2), Sinks.EmitFailureHandler.FAIL_FAST);
+		                channel.runPendingTasks();
+		                assertThat(flushes.get()).isEqualTo(0);
+		                assertThat(channel.outboundMessages()).isEmpty();
+		            })
+		            .thenAwait(Duration.ofMillis(100))
+		            .then(() -> {
+		                channel.runPendingTasks();
+		                assertThat(flushes.get()).isEqualTo(1);
+		                assertThat(channel.outboundMessages()).hasSize(2);
+		                source.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+		            })
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		assertThat(flushes.get()).isEqualTo(1);
+		channel.outboundMessages().forEach(ReferenceCountUtil::release);
+	}
+
+	@Test
+	public void flushWithoutDelayAtTheEndOfEachBatch() {
+		AtomicInteger flushes = new AtomicInteger();
+		//use an extra handler
+		EmbeddedChannel channel = new EmbeddedChannel(new FlushCounter(flushes), new ChannelHandlerAdapter() {});
+
+		Sinks.Many<ByteBuf> source = Sinks.many().unicast().onBackpressureBuffer();
+		Mono<Void> m = MonoSendMany.byteBufSource(source.asFlux(), channel, b -> false);
+
+		StepVerifier.create(m)
+		            .then(() -> {
+		                source.emitNext(Unpooled.copyInt(1), Sinks.EmitFailureHandler.FAIL_FAST);
+		                channel.runPendingTasks();
+		                assertThat(flushes.get()).isEqualTo(1);
+		                source.emitNext(Unpooled.copyInt(2), Sinks.EmitFailureHandler.FAIL_FAST);
+		                channel.runPendingTasks();
+		                assertThat(flushes.get()).isEqualTo(2);
+		                source.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+		            })
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		assertThat(channel.outboundMessages()).hasSize(2);
+		channel.outboundMessages().forEach(ReferenceCountUtil::release);
+	}
+
+	@Test
+	public void fixedDemandRefillsOnceHalfOfThePrefetchIsWritten() {
+		//use an extra handler
+		EmbeddedChannel channel = new EmbeddedChannel(new ChannelHandlerAdapter() {});
+
+		List<Long> requests = new ArrayList<>();
+		Sinks.Many<ByteBuf> source = Sinks.many().unicast().onBackpressureBuffer();
+		Mono<Void> m = MonoSendMany.byteBufSource(source.asFlux().doOnRequest(requests::add), channel, b -> false,
+				Integer.MAX_VALUE, 0, SendDemand.fixed(4));
+
+		StepVerifier.create(m)
+		            .then(() -> {
+		                assertThat(requests).containsExactly(4L);
+		                for (int i = 0; i < 4; i++) {
+		                    source.emitNext(Unpooled.copyInt(i), Sinks.EmitFailureHandler.FAIL_FAST);
+		                }
+		                channel.runPendingTasks();
+		                assertThat(requests).containsExactly(4L, 2L, 2L);
+		                source.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+		            })
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		assertThat(channel.outboundMessages()).hasSize(4);
+		channel.outboundMessages().forEach(ReferenceCountUtil::release);
+	}
+
+	@Test
+	public void byteBudgetDemandRequestsAccordingToTheMessageSize() {
+		//use an extra handler
+		EmbeddedChannel channel = new EmbeddedChannel(new ChannelHandlerAdapter() {});
+
+		List<Long> requests = new ArrayList<>();
+		Sinks.Many<ByteBuf> source = Sinks.many().unicast().onBackpressureBuffer();
+		Mono<Void> m = MonoSendMany.byteBufSource(source.asFlux().doOnRequest(requests::add), channel, b -> false,
+				Integer.MAX_VALUE, 0, SendDemand.byteBudget(128, 64));
+
+		StepVerifier.create(m)
+		            .then(() -> {
+		                assertThat(requests).containsExactly(1L);
+		                source.emitNext(Unpooled.wrappedBuffer(new byte[16]), Sinks.EmitFailureHandler.FAIL_FAST);
+		                channel.runPendingTasks();
+		                // 64 bytes budget, 16 bytes messages
+		                assertThat(requests).containsExactly(1L, 4L);
+		                source.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+		            })
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		channel.outboundMessages().forEach(ReferenceCountUtil::release);
+	}
+
+	@Test
+	public void writeBufferWaterMarkDemandWaitsForTheChannelToBeWritable() {
+		FlushGate gate = new FlushGate();
+		//use an extra handler
+		EmbeddedChannel channel = new EmbeddedChannel(gate, new ChannelHandlerAdapter() {});
+		// Netty accounts for 8 bytes messages plus the outbound buffer entry overhead
+		channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(150, 250));
+
+		List<Long> requests = new ArrayList<>();
+		Sinks.Many<ByteBuf> source = Sinks.many().unicast().onBackpressureBuffer();
+		Mono<Void> m = MonoSendMany.byteBufSource(source.asFlux().doOnRequest(requests::add), channel, b -> false,
+				Integer.MAX_VALUE, 0, SendDemand.writeBufferWaterMark(4));
+
+		StepVerifier.create(m)
+		            .then(() -> {
+		                assertThat(requests).containsExactly(4L);
+		                // The third message makes the channel unwritable
+		                for (int i = 0; i < 3; i++) {
+		                    source.emitNext(Unpooled.wrappedBuffer(new byte[8]), Sinks.EmitFailureHandler.FAIL_FAST);
+		                }
+		                assertThat(channel.isWritable()).isFalse();
+		                gate.open = true;
+		                channel.flush();
+		                // No refill until the channel is writable again
+		                assertThat(requests).containsExactly(4L, 3L);
+		                source.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+		            })
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		assertThat(channel.outboundMessages()).hasSize(3);
+		channel.outboundMessages().forEach(ReferenceCountUtil::release);
+	}
+
+	static final class FlushGate extends ChannelOutboundHandlerAdapter {
+
+		boolean open;
+
+		@Override
+		public void flush(ChannelHandlerContext ctx) {
+			if (open) {
+				ctx.flush();
+			}
+		}
+	}
+
+	static final class FlushCounter extends ChannelOutboundHandlerAdapter {
+
+		final AtomicInteger flushes;
+
+		FlushCounter(AtomicInteger flushes) {
+			this.flushes = flushes;
+		}
+
+		@Override
+		public void flush(ChannelHandlerContext ctx) {
+			flushes.incrementAndGet();
+			ctx.flush();
+		}
+	}
+
 	static void wait(WeakReference<Subscription> ref){
 		int duration = 5_000;
 		int spins = duration / 100;
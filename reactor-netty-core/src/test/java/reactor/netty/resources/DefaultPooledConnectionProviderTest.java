@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -35,16 +36,22 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.Supplier;
 
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.resolver.AddressResolverGroup;
+import io.netty.resolver.DefaultAddressResolverGroup;
+import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.EventExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Signal;
+import reactor.core.scheduler.Schedulers;
 import reactor.netty.Connection;
 import reactor.netty.ConnectionObserver;
 import reactor.netty.DisposableServer;
@@ -362,6 +369,261 @@ public class DefaultPooledConnectionProviderTest {
 		}
 	}
 
+	@Test
+	public void perEventLoopPoolsAcquireOnTheCallerEventLoop() throws Exception {
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .wiretap(true)
+				         .bindNow();
+		LoopResources loops = LoopResources.create("perEventLoop", 2, true);
+		DefaultPooledConnectionProvider provider =
+				(DefaultPooledConnectionProvider) ConnectionProvider.builder("perEventLoop")
+				                                                    .maxConnections(3)
+				                                                    .perEventLoop(true)
+				                                                    .build();
+		EventLoopGroup group = loops.onClient(false);
+		InetSocketAddress address = new InetSocketAddress("localhost", server.port());
+		ClientTransportConfigImpl config =
+				new ClientTransportConfigImpl(group, provider, Collections.emptyMap(), () -> address);
+		List<EventLoop> eventLoops = new ArrayList<>();
+		for (EventExecutor executor : group) {
+			eventLoops.add((EventLoop) executor);
+		}
+
+		try {
+			PooledConnection c1 = acquireOn(eventLoops.get(0), provider, config);
+			assertThat(c1.channel().eventLoop()).isSameAs(eventLoops.get(0));
+			PooledConnection c2 = acquireOn(eventLoops.get(1), provider, config);
+			assertThat(c2.channel().eventLoop()).isSameAs(eventLoops.get(1));
+
+			InstrumentedPool<PooledConnection> pool = provider.channelPools.values().iterator().next();
+			assertThat(pool).isInstanceOf(DefaultPooledConnectionProvider.PerEventLoopPool.class);
+			assertThat(pool.metrics().getMaxAllocatedSize()).isEqualTo(3);
+			assertThat(pool.metrics().acquiredSize()).isEqualTo(2);
+			assertThat(c1.pool).isNotSameAs(c2.pool);
+
+			// The pool of the second event loop is limited to one connection,
+			// an idle connection of the first event loop is taken instead of waiting
+			c1.onStateChange(c1, ConnectionObserver.State.DISCONNECTING);
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (pool.metrics().idleSize() == 0 && System.nanoTime() < deadline) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			}
+			PooledConnection c3 = acquireOn(eventLoops.get(1), provider, config);
+			assertThat(c3).isSameAs(c1);
+			assertThat(pool.metrics().allocatedSize()).isEqualTo(2);
+
+			c2.onStateChange(c2, ConnectionObserver.State.DISCONNECTING);
+			c3.onStateChange(c3, ConnectionObserver.State.DISCONNECTING);
+		}
+		finally {
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(5));
+			loops.disposeLater()
+			     .block(Duration.ofSeconds(5));
+			server.disposeNow();
+		}
+	}
+
+	@Test
+	public void perEventLoopPoolsDoNotExceedMaxConnections() {
+		DefaultPooledConnectionProvider.PerEventLoopPool pool =
+				new DefaultPooledConnectionProvider.PerEventLoopPool(
+						new ClientTransportConfigImpl(new NioEventLoopGroup(4), ConnectionProvider.newConnection(),
+								Collections.emptyMap(), () -> InetSocketAddress.createUnresolved("localhost", 80)),
+						new PooledConnectionProvider.PoolFactory<>(ConnectionProvider.builder("perEventLoop")
+						                                                             .maxConnections(3)
+						                                                             .pendingAcquireMaxCount(7)),
+						InetSocketAddress.createUnresolved("localhost", 80),
+						DefaultAddressResolverGroup.INSTANCE);
+
+		assertThat(pool.pools).hasSize(3);
+		assertThat(pool.metrics().getMaxAllocatedSize()).isEqualTo(3);
+		assertThat(pool.metrics().getMaxPendingAcquireSize()).isEqualTo(7);
+		pool.dispose();
+	}
+
+	@Test
+	public void warmupEstablishesMinConnections() throws Exception {
+		AtomicInteger accepted = new AtomicInteger();
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .doOnConnection(conn -> accepted.incrementAndGet())
+				         .wiretap(true)
+				         .bindNow();
+		DefaultPooledConnectionProvider provider =
+				(DefaultPooledConnectionProvider) ConnectionProvider.builder("warmupEstablishesMinConnections")
+				                                                    .maxConnections(4)
+				                                                    .minConnections(2)
+				                                                    .build();
+		InetSocketAddress address = new InetSocketAddress("localhost", server.port());
+		ClientTransportConfigImpl config =
+				new ClientTransportConfigImpl(new NioEventLoopGroup(2), provider, Collections.emptyMap(), () -> address);
+
+		try {
+			provider.warmup(config, config.remoteAddress(), config.resolverInternal())
+			        .block(Duration.ofSeconds(30));
+
+			InstrumentedPool<PooledConnection> pool = provider.channelPools.values().iterator().next();
+			assertThat(pool.metrics().allocatedSize()).isEqualTo(2);
+			assertThat(pool.metrics().idleSize()).isEqualTo(2);
+
+			// Already warm
+			provider.warmup(config, config.remoteAddress(), config.resolverInternal())
+			        .block(Duration.ofSeconds(30));
+			assertThat(pool.metrics().allocatedSize()).isEqualTo(2);
+
+			PooledConnection connection =
+					(PooledConnection) provider.acquire(config, ConnectionObserver.emptyListener(),
+					                                    config.remoteAddress(), config.resolverInternal())
+					                           .block(Duration.ofSeconds(30));
+			assertThat(connection).isNotNull();
+			assertThat(pool.metrics().allocatedSize()).isEqualTo(2);
+			assertThat(pool.metrics().acquiredSize()).isEqualTo(1);
+
+			// The idle connection is not acquired by the warmup
+			provider.warmup(config, config.remoteAddress(), config.resolverInternal())
+			        .block(Duration.ofSeconds(30));
+			assertThat(pool.metrics().acquiredSize()).isEqualTo(1);
+			assertThat(pool.metrics().idleSize()).isEqualTo(1);
+			connection.onStateChange(connection, ConnectionObserver.State.DISCONNECTING);
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (accepted.get() < 2 && System.nanoTime() < deadline) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			}
+			assertThat(accepted.get()).isEqualTo(2);
+		}
+		finally {
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(5));
+			server.disposeNow();
+		}
+	}
+
+	@Test
+	public void minConnectionsAreRestoredAfterEviction() throws Exception {
+		AtomicInteger accepted = new AtomicInteger();
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .doOnConnection(conn -> accepted.incrementAndGet())
+				         .wiretap(true)
+				         .bindNow();
+		DefaultPooledConnectionProvider provider =
+				(DefaultPooledConnectionProvider) ConnectionProvider.builder("minConnectionsAreRestoredAfterEviction")
+				                                                    .maxConnections(4)
+				                                                    .minConnections(2)
+				                                                    .maxIdleTime(Duration.ofMillis(100))
+				                                                    .evictInBackground(Duration.ofMillis(50))
+				                                                    .build();
+		InetSocketAddress address = new InetSocketAddress("localhost", server.port());
+		ClientTransportConfigImpl config =
+				new ClientTransportConfigImpl(new NioEventLoopGroup(2), provider, Collections.emptyMap(), () -> address);
+
+		try {
+			provider.warmup(config, config.remoteAddress(), config.resolverInternal())
+			        .block(Duration.ofSeconds(30));
+
+			InstrumentedPool<PooledConnection> pool = provider.channelPools.values().iterator().next();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (accepted.get() < 4 && System.nanoTime() < deadline) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+			}
+			assertThat(accepted.get()).as("idle connections evicted and established again").isGreaterThanOrEqualTo(4);
+			assertThat(pool.metrics().allocatedSize()).isLessThanOrEqualTo(2);
+			assertThat(provider.warmupTasks).hasSize(1);
+
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(5));
+			assertThat(provider.warmupTasks).isEmpty();
+		}
+		finally {
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(5));
+			server.disposeNow();
+		}
+	}
+
+	@Test
+	public void lowestLatencyLeasingSelectsTheFastestConnection() throws Exception {
+		DisposableServer server =
+				TcpServer.create()
+				         .port(0)
+				         .handle((in, out) -> out.send(
+				             in.receive()
+				               .retain()
+				               // The connection announcing itself as slow answers slowly
+				               .concatMap(buf -> buf.toString(CharsetUtil.UTF_8).startsWith("slow") ?
+				                       Mono.just(buf).delayElement(Duration.ofMillis(200)) : Mono.just(buf))))
+				         .wiretap(true)
+				         .bindNow();
+		DefaultPooledConnectionProvider provider =
+				(DefaultPooledConnectionProvider) ConnectionProvider.builder("lowestLatency")
+				                                                    .maxConnections(2)
+				                                                    .lowestLatency()
+				                                                    .build();
+		InetSocketAddress address = new InetSocketAddress("localhost", server.port());
+		ClientTransportConfigImpl config =
+				new ClientTransportConfigImpl(new NioEventLoopGroup(2), provider, Collections.emptyMap(), () -> address);
+
+		try {
+			PooledConnection slow = acquire(provider, config);
+			PooledConnection fast = acquire(provider, config);
+			InstrumentedPool<PooledConnection> pool = provider.channelPools.values().iterator().next();
+			assertThat(pool).isInstanceOf(ScoringPool.class);
+
+			slow.channel().writeAndFlush(Unpooled.copiedBuffer("slow", CharsetUtil.UTF_8));
+			fast.channel().writeAndFlush(Unpooled.copiedBuffer("fast", CharsetUtil.UTF_8));
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while ((slow.latency() == 0 || fast.latency() == 0) && System.nanoTime() < deadline) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			}
+			assertThat(slow.latency()).isGreaterThan(fast.latency());
+
+			// With lifo the slow connection, released last, would be selected
+			fast.onStateChange(fast, ConnectionObserver.State.DISCONNECTING);
+			while (pool.metrics().idleSize() < 1 && System.nanoTime() < deadline) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			}
+			slow.onStateChange(slow, ConnectionObserver.State.DISCONNECTING);
+			while (pool.metrics().idleSize() < 2 && System.nanoTime() < deadline) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			}
+
+			PooledConnection selected = acquire(provider, config);
+			assertThat(selected).isSameAs(fast);
+			assertThat(pool.metrics().allocatedSize()).isEqualTo(2);
+			selected.onStateChange(selected, ConnectionObserver.State.DISCONNECTING);
+		}
+		finally {
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(5));
+			server.disposeNow();
+		}
+	}
+
+	static PooledConnection acquire(DefaultPooledConnectionProvider provider, ClientTransportConfigImpl config) {
+		PooledConnection connection =
+				(PooledConnection) provider.acquire(config, ConnectionObserver.emptyListener(),
+				                                    config.remoteAddress(), config.resolverInternal())
+				                           .block(Duration.ofSeconds(30));
+		assertThat(connection).isNotNull();
+		return connection;
+	}
+
+	static PooledConnection acquireOn(EventLoop eventLoop, ConnectionProvider provider, ClientTransportConfigImpl config) {
+		PooledConnection connection =
+				(PooledConnection) Mono.defer(() -> provider.acquire(config, ConnectionObserver.emptyListener(),
+				                                            config.remoteAddress(), config.resolverInternal()))
+				                       .subscribeOn(Schedulers.fromExecutor(eventLoop))
+				                       .block(Duration.ofSeconds(30));
+		assertThat(connection).isNotNull();
+		return connection;
+	}
+
 	static final class PoolImpl extends AtomicInteger implements InstrumentedPool<PooledConnection> {
 
 		@Override
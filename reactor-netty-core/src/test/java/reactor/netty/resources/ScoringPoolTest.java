@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.resources;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.pool.PoolAcquirePendingLimitException;
+import reactor.pool.PoolAcquireTimeoutException;
+import reactor.pool.PoolShutdownException;
+import reactor.pool.PooledRef;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScoringPoolTest {
+
+	@Test
+	public void idleResourceWithTheLowestScoreIsSelected() {
+		AtomicInteger allocations = new AtomicInteger();
+		ScoringPool<Resource> pool = newPool(allocations, 3, -1);
+
+		PooledRef<Resource> ref1 = acquire(pool);
+		PooledRef<Resource> ref2 = acquire(pool);
+		PooledRef<Resource> ref3 = acquire(pool);
+		ref1.poolable().score = 5;
+		ref2.poolable().score = 1;
+		ref3.poolable().score = 1;
+
+		ref1.release().block();
+		ref3.release().block();
+		ref2.release().block();
+		assertThat(pool.metrics().idleSize()).isEqualTo(3);
+
+		// The lowest score first, the least recently released one in case of a tie
+		assertThat(acquire(pool).poolable()).isSameAs(ref3.poolable());
+		assertThat(acquire(pool).poolable()).isSameAs(ref2.poolable());
+		assertThat(acquire(pool).poolable()).isSameAs(ref1.poolable());
+		assertThat(allocations.get()).isEqualTo(3);
+		assertThat(pool.metrics().acquiredSize()).isEqualTo(3);
+		assertThat(pool.metrics().idleSize()).isEqualTo(0);
+
+		pool.dispose();
+	}
+
+	@Test
+	public void pendingAcquireIsServedOnRelease() {
+		AtomicInteger allocations = new AtomicInteger();
+		ScoringPool<Resource> pool = newPool(allocations, 1, 1);
+
+		PooledRef<Resource> ref = acquire(pool);
+
+		StepVerifier.create(pool.acquire(Duration.ofMillis(50)))
+		            .expectError(PoolAcquireTimeoutException.class)
+		            .verify(Duration.ofSeconds(5));
+		assertThat(pool.metrics().pendingAcquireSize()).isEqualTo(0);
+
+		AtomicReference<PooledRef<Resource>> pending = new AtomicReference<>();
+		pool.acquire().subscribe(pending::set);
+		assertThat(pool.metrics().pendingAcquireSize()).isEqualTo(1);
+
+		StepVerifier.create(pool.acquire())
+		            .expectError(PoolAcquirePendingLimitException.class)
+		            .verify(Duration.ofSeconds(5));
+
+		ref.release().block();
+		assertThat(pending.get()).isNotNull();
+		assertThat(pending.get().poolable()).isSameAs(ref.poolable());
+		assertThat(pending.get().metadata().acquireCount()).isEqualTo(2);
+		assertThat(pool.metrics().pendingAcquireSize()).isEqualTo(0);
+		assertThat(allocations.get()).isEqualTo(1);
+
+		// Released only once
+		ref.release().block();
+		assertThat(pool.metrics().acquiredSize()).isEqualTo(1);
+
+		pool.dispose();
+	}
+
+	@Test
+	public void evictedResourcesAreDestroyed() {
+		AtomicInteger allocations = new AtomicInteger();
+		ScoringPool<Resource> pool = newPool(allocations, 2, -1);
+
+		PooledRef<Resource> ref1 = acquire(pool);
+		PooledRef<Resource> ref2 = acquire(pool);
+		ref1.poolable().evict = true;
+		ref1.release().block();
+		assertThat(ref1.poolable().destroyed).isTrue();
+		assertThat(pool.metrics().allocatedSize()).isEqualTo(1);
+
+		ref2.release().block();
+		ref2.poolable().evict = true;
+		PooledRef<Resource> ref3 = acquire(pool);
+		assertThat(ref2.poolable().destroyed).isTrue();
+		assertThat(ref3.poolable().id).isEqualTo(3);
+
+		ref3.invalidate().block();
+		assertThat(ref3.poolable().destroyed).isTrue();
+		assertThat(pool.metrics().allocatedSize()).isEqualTo(0);
+		assertThat(pool.metrics().acquiredSize()).isEqualTo(0);
+
+		pool.dispose();
+	}
+
+	@Test
+	public void disposeDestroysIdleResourcesAndFailsPendingAcquire() {
+		AtomicInteger allocations = new AtomicInteger();
+		ScoringPool<Resource> pool = newPool(allocations, 2, -1);
+
+		PooledRef<Resource> ref1 = acquire(pool);
+		PooledRef<Resource> ref2 = acquire(pool);
+		ref1.release().block();
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		acquire(pool);
+		pool.acquire().subscribe(null, error::set);
+
+		pool.disposeLater().block(Duration.ofSeconds(5));
+		assertThat(pool.isDisposed()).isTrue();
+		assertThat(error.get()).isInstanceOf(PoolShutdownException.class);
+
+		ref2.release().block();
+		assertThat(ref2.poolable().destroyed).isTrue();
+
+		StepVerifier.create(pool.acquire())
+		            .expectError(PoolShutdownException.class)
+		            .verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void warmupEstablishesTheMissingResourcesOnly() {
+		AtomicInteger allocations = new AtomicInteger();
+		ScoringPool<Resource> pool = newPool(allocations, 3, 4, -1);
+
+		PooledRef<Resource> acquired = acquire(pool);
+		acquire(pool).release().block();
+
+		// The acquired and the idle resources count toward the minimum, none of them is acquired
+		assertThat(pool.warmup().block(Duration.ofSeconds(5))).isEqualTo(1);
+		assertThat(allocations.get()).isEqualTo(3);
+		assertThat(pool.metrics().allocatedSize()).isEqualTo(3);
+		assertThat(pool.metrics().acquiredSize()).isEqualTo(1);
+		assertThat(pool.metrics().idleSize()).isEqualTo(2);
+
+		assertThat(pool.warmup().block(Duration.ofSeconds(5))).isEqualTo(0);
+		assertThat(allocations.get()).isEqualTo(3);
+
+		acquired.invalidate().block();
+		assertThat(pool.warmup().block(Duration.ofSeconds(5))).isEqualTo(1);
+		assertThat(pool.metrics().allocatedSize()).isEqualTo(3);
+		assertThat(pool.metrics().idleSize()).isEqualTo(3);
+
+		pool.dispose();
+	}
+
+	static ScoringPool<Resource> newPool(AtomicInteger allocations, int maxConnections, int maxPendingAcquire) {
+		return newPool(allocations, 0, maxConnections, maxPendingAcquire);
+	}
+
+	static ScoringPool<Resource> newPool(AtomicInteger allocations, int minConnections, int maxConnections, int maxPendingAcquire) {
+		return new ScoringPool<>(Mono.fromSupplier(() -> new Resource(allocations.incrementAndGet())),
+				resource -> Mono.fromRunnable(() -> resource.destroyed = true),
+				(resource, metadata) -> resource.evict,
+				resource -> resource.score,
+				minConnections,
+				maxConnections,
+				maxPendingAcquire,
+				Duration.ZERO);
+	}
+
+	static PooledRef<Resource> acquire(ScoringPool<Resource> pool) {
+		PooledRef<Resource> ref = pool.acquire().block(Duration.ofSeconds(5));
+		assertThat(ref).isNotNull();
+		return ref;
+	}
+
+	static final class Resource {
+		final int id;
+
+		volatile long    score;
+		volatile boolean evict;
+		volatile boolean destroyed;
+
+		Resource(int id) {
+			this.id = id;
+		}
+	}
+}
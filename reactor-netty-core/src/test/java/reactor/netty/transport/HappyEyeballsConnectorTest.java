@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.transport;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.netty.channel.ChannelOption;
+import io.netty.resolver.AbstractAddressResolver;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Promise;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.TcpClient;
+import reactor.netty.tcp.TcpServer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HappyEyeballsConnectorTest {
+
+	@Test
+	void testInterleave() {
+		SocketAddress v4a = new InetSocketAddress("192.0.2.1", 80);
+		SocketAddress v4b = new InetSocketAddress("192.0.2.2", 80);
+		SocketAddress v4c = new InetSocketAddress("192.0.2.3", 80);
+		SocketAddress v6a = new InetSocketAddress("2001:db8::1", 80);
+		SocketAddress v6b = new InetSocketAddress("2001:db8::2", 80);
+
+		assertThat(HappyEyeballsConnector.interleave(Arrays.asList(v6a, v6b, v4a, v4b, v4c)))
+				.containsExactly(v6a, v4a, v6b, v4b, v4c);
+		assertThat(HappyEyeballsConnector.interleave(Arrays.asList(v4a, v4b, v4c, v6a)))
+				.containsExactly(v4a, v6a, v4b, v4c);
+		assertThat(HappyEyeballsConnector.interleave(Arrays.asList(v4a, v4b)))
+				.containsExactly(v4a, v4b);
+	}
+
+	@Test
+	void testConnectionRacing() {
+		DisposableServer server =
+				TcpServer.create()
+				         .host("127.0.0.1")
+				         .port(0)
+				         .handle((in, out) -> out.send(in.receive().retain()))
+				         .wiretap(true)
+				         .bindNow();
+
+		ConnectionProvider provider = ConnectionProvider.create("testConnectionRacing", 1);
+		AtomicReference<SocketAddress> afterResolve = new AtomicReference<>();
+		try {
+			// the first address is not routable, the connection must be established with the second one
+			// well before the connect timeout
+			List<SocketAddress> addresses =
+					Arrays.asList(new InetSocketAddress("192.0.2.1", server.port()),
+					              new InetSocketAddress("127.0.0.1", server.port()));
+
+			long start = System.nanoTime();
+			Connection connection =
+					TcpClient.create(provider)
+					         .remoteAddress(() -> InetSocketAddress.createUnresolved("happy-eyeballs.test", server.port()))
+					         .resolver(new TestAddressResolverGroup(addresses))
+					         .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 30000)
+					         .happyEyeballs(Duration.ofMillis(100))
+					         .doAfterResolve((conn, address) -> afterResolve.set(address))
+					         .wiretap(true)
+					         .connectNow(Duration.ofSeconds(30));
+
+			assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+			assertThat(((InetSocketAddress) connection.channel().remoteAddress()).getAddress().getHostAddress())
+					.isEqualTo("127.0.0.1");
+			assertThat(afterResolve.get()).isEqualTo(addresses.get(0));
+
+			String echo =
+					connection.outbound()
+					          .sendString(Mono.just("testConnectionRacing"))
+					          .then()
+					          .thenMany(connection.inbound()
+					                              .receive()
+					                              .asString())
+					          .next()
+					          .block(Duration.ofSeconds(30));
+
+			assertThat(echo).isEqualTo("testConnectionRacing");
+
+			connection.disposeNow();
+		}
+		finally {
+			server.disposeNow();
+			provider.disposeLater()
+			        .block(Duration.ofSeconds(30));
+		}
+	}
+
+	static final class TestAddressResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+
+		final List<SocketAddress> addresses;
+
+		TestAddressResolverGroup(List<SocketAddress> addresses) {
+			this.addresses = addresses;
+		}
+
+		@Override
+		protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+			return new AbstractAddressResolver<InetSocketAddress>(executor) {
+
+				@Override
+				protected boolean doIsResolved(InetSocketAddress address) {
+					return !address.isUnresolved();
+				}
+
+				@Override
+				protected void doResolve(InetSocketAddress unresolvedAddress, Promise<InetSocketAddress> promise) {
+					promise.setSuccess((InetSocketAddress) addresses.get(0));
+				}
+
+				@Override
+				@SuppressWarnings("unchecked")
+				protected void doResolveAll(InetSocketAddress unresolvedAddress, Promise<List<InetSocketAddress>> promise) {
+					promise.setSuccess((List<InetSocketAddress>) (List<?>) addresses);
+				}
+			};
+		}
+	}
+}
@@ -17,6 +17,7 @@ package reactor.netty.transport;
 
 import io.netty.handler.logging.LogLevel;
 import io.netty.resolver.ResolvedAddressTypes;
+import io.netty.resolver.dns.DnsAddressResolverGroup;
 import io.netty.resolver.dns.DnsServerAddressStreamProviders;
 import io.netty.resolver.dns.macos.MacOSDnsServerAddressStreamProvider;
 import org.junit.jupiter.api.BeforeEach;
@@ -35,6 +36,7 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static reactor.netty.transport.NameResolverProvider.Build.DEFAULT_CACHE_MAX_TIME_TO_LIVE;
 import static reactor.netty.transport.NameResolverProvider.Build.DEFAULT_CACHE_MIN_TIME_TO_LIVE;
 import static reactor.netty.transport.NameResolverProvider.Build.DEFAULT_CACHE_NEGATIVE_TIME_TO_LIVE;
+import static reactor.netty.transport.NameResolverProvider.Build.DEFAULT_CACHE_STALE_GRACE_PERIOD;
 import static reactor.netty.transport.NameResolverProvider.Build.DEFAULT_MAX_PAYLOAD_SIZE;
 import static reactor.netty.transport.NameResolverProvider.Build.DEFAULT_MAX_QUERIES_PER_RESOLVE;
 import static reactor.netty.transport.NameResolverProvider.Build.DEFAULT_NDOTS;
@@ -108,6 +110,55 @@ public class NameResolverProviderTest {
 				.isThrownBy(() -> builder.build().newNameResolverGroup(TcpResources.get(), LoopResources.DEFAULT_NATIVE));
 	}
 
+	@Test
+	public void cacheRefreshAhead() {
+		assertThat(builder.build().isCacheRefreshAhead()).isFalse();
+
+		builder.cacheRefreshAhead(true);
+		assertThat(builder.build().isCacheRefreshAhead()).isTrue();
+	}
+
+	@Test
+	public void cacheRefreshAheadSharedResolverGroup() {
+		LoopResources loop = LoopResources.create("cacheRefreshAheadSharedResolverGroup");
+		try {
+			builder.cacheRefreshAhead(true);
+			DnsAddressResolverGroup group1 = builder.build().newNameResolverGroup(loop, false);
+			DnsAddressResolverGroup group2 = builder.build().newNameResolverGroup(loop, false);
+			assertThat(group1).isSameAs(group2);
+			assertThat(group1).isNotSameAs(builder.build().newNameResolverGroup(loop, true));
+			assertThat(group1).isNotSameAs(builder.cacheStaleGracePeriod(Duration.ofSeconds(5))
+			                                      .build()
+			                                      .newNameResolverGroup(loop, false));
+			assertThat(group1).isNotSameAs(builder.cacheRefreshAhead(false)
+			                                      .build()
+			                                      .newNameResolverGroup(loop, false));
+		}
+		finally {
+			loop.disposeLater()
+			    .block(Duration.ofSeconds(5));
+		}
+	}
+
+	@Test
+	public void cacheStaleGracePeriod() {
+		assertThat(builder.build().cacheStaleGracePeriod()).isEqualTo(DEFAULT_CACHE_STALE_GRACE_PERIOD);
+
+		Duration cacheStaleGracePeriod = Duration.ofSeconds(5);
+		builder.cacheStaleGracePeriod(cacheStaleGracePeriod);
+		assertThat(builder.build().cacheStaleGracePeriod()).isEqualTo(cacheStaleGracePeriod);
+	}
+
+	@Test
+	public void cacheStaleGracePeriodBadValues() {
+		assertThatExceptionOfType(NullPointerException.class)
+				.isThrownBy(() -> builder.cacheStaleGracePeriod(null));
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.cacheStaleGracePeriod(Duration.ofSeconds(-1)))
+				.withMessage("cacheStaleGracePeriod must be positive or zero");
+	}
+
 	@Test
 	public void disableOptionalRecord() {
 		assertThat(builder.build().isDisableOptionalRecord()).isFalse();
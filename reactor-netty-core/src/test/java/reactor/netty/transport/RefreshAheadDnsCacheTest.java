@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.transport;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.resolver.dns.DnsCacheEntry;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.resolver.dns.SingletonDnsServerAddressStreamProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshAheadDnsCacheTest {
+
+	NioEventLoopGroup group;
+	EventLoop loop;
+
+	@BeforeEach
+	void setUp() {
+		group = new NioEventLoopGroup(1);
+		loop = group.next();
+	}
+
+	@AfterEach
+	void tearDown() {
+		group.shutdownGracefully(0, 0, TimeUnit.SECONDS)
+		     .syncUninterruptibly();
+	}
+
+	@Test
+	void testCache() throws Exception {
+		RefreshAheadDnsCache cache = new RefreshAheadDnsCache(0, 60, 0, Duration.ZERO);
+		InetAddress ipv4 = InetAddress.getByName("192.0.2.1");
+		InetAddress ipv6 = InetAddress.getByName("2001:db8::1");
+
+		assertThat(cache.get("example.test", null)).isNull();
+
+		cache.cache("example.test", null, ipv4, 30, loop);
+		cache.cache("example.test.", null, ipv6, 30, loop);
+		cache.cache("example.test", null, ipv4, 30, loop);
+		assertThat(addresses(cache.get("example.test", null))).containsExactly(ipv4, ipv6);
+		assertThat(addresses(cache.get("example.test.", null))).containsExactly(ipv4, ipv6);
+
+		// a failure does not replace the entries which can be served
+		RefreshAheadDnsCache negativeCache = new RefreshAheadDnsCache(0, 60, 30, Duration.ZERO);
+		negativeCache.cache("example.test", null, ipv4, 30, loop);
+		negativeCache.cache("example.test", null, new UnknownHostException(), loop);
+		assertThat(addresses(negativeCache.get("example.test", null))).containsExactly(ipv4);
+
+		negativeCache.cache("unknown.test", null, new UnknownHostException(), loop);
+		List<? extends DnsCacheEntry> entries = negativeCache.get("unknown.test", null);
+		assertThat(entries).hasSize(1);
+		assertThat(entries.get(0).cause()).isInstanceOf(UnknownHostException.class);
+
+		assertThat(cache.clear("example.test")).isTrue();
+		assertThat(cache.get("example.test", null)).isNull();
+	}
+
+	@Test
+	void testStaleGracePeriod() throws Exception {
+		InetAddress address = InetAddress.getByName("192.0.2.1");
+
+		RefreshAheadDnsCache cache = new RefreshAheadDnsCache(0, 60, 0, Duration.ZERO);
+		cache.cache("example.test", null, address, 0, loop);
+		assertThat(cache.get("example.test", null)).isNull();
+
+		cache = new RefreshAheadDnsCache(0, 60, 0, Duration.ofMillis(500));
+		cache.cache("example.test", null, address, 0, loop);
+		assertThat(addresses(cache.get("example.test", null))).containsExactly(address);
+
+		Thread.sleep(600);
+		assertThat(cache.get("example.test", null)).isNull();
+		assertThat(cache.entries).isEmpty();
+	}
+
+	@Test
+	void testRefreshAhead() throws Exception {
+		try (DatagramSocket dnsServer = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+			dnsServer.setSoTimeout(5000);
+			RefreshAheadDnsCache cache = new RefreshAheadDnsCache(1, 1, 0, Duration.ZERO);
+			DnsNameResolver resolver =
+					new DnsNameResolverBuilder(loop)
+							.channelType(NioDatagramChannel.class)
+							.nameServerProvider(new SingletonDnsServerAddressStreamProvider(
+									(InetSocketAddress) dnsServer.getLocalSocketAddress()))
+							.queryTimeoutMillis(500)
+							.resolveCache(cache)
+							.build();
+			try {
+				cache.register(loop, resolver);
+				InetAddress address = InetAddress.getByName("192.0.2.1");
+				cache.cache("example.test", null, address, 1, loop);
+
+				assertThat(addresses(cache.get("example.test", null))).containsExactly(address);
+				assertThat(addresses(cache.get("example.test", null))).containsExactly(address);
+
+				// the popular entry is refreshed once most of its time to live has elapsed
+				Thread.sleep(900);
+				assertThat(addresses(cache.get("example.test", null))).containsExactly(address);
+
+				DatagramPacket query = new DatagramPacket(new byte[512], 512);
+				dnsServer.receive(query);
+				assertThat(new String(query.getData(), 0, query.getLength(), "ISO-8859-1")).contains("example");
+			}
+			finally {
+				resolver.close();
+			}
+		}
+	}
+
+	static InetAddress[] addresses(List<? extends DnsCacheEntry> entries) {
+		assertThat(entries).isNotNull();
+		return entries.stream()
+		              .map(DnsCacheEntry::address)
+		              .toArray(InetAddress[]::new);
+	}
+}
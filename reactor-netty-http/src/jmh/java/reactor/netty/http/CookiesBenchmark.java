@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.cookie.ClientCookieDecoder;
+import io.netty.handler.codec.http.cookie.Cookie;
+import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the decoding of request and response cookies through {@link Cookies}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class CookiesBenchmark {
+
+	HttpHeaders requestHeaders;
+	HttpHeaders responseHeaders;
+
+	@Setup
+	public void setup() {
+		requestHeaders = new DefaultHttpHeaders()
+				.add(HttpHeaderNames.COOKIE, "session=5f2b8c3e9a1d4e6f; theme=dark; locale=en-US; " +
+						"tracking=ab12cd34ef56; consent=1");
+		responseHeaders = new DefaultHttpHeaders()
+				.add(HttpHeaderNames.SET_COOKIE, "session=5f2b8c3e9a1d4e6f; Path=/; Secure; HttpOnly")
+				.add(HttpHeaderNames.SET_COOKIE, "theme=dark; Path=/; Max-Age=31536000")
+				.add(HttpHeaderNames.SET_COOKIE, "locale=en-US; Domain=example.com; Path=/");
+	}
+
+	@Benchmark
+	public Map<CharSequence, Set<Cookie>> serverRequestCookies() {
+		return Cookies.newServerRequestHolder(requestHeaders, ServerCookieDecoder.STRICT)
+		              .getCachedCookies();
+	}
+
+	@Benchmark
+	public Map<CharSequence, Set<Cookie>> clientResponseCookies() {
+		return Cookies.newClientResponseHolder(responseHeaders, ClientCookieDecoder.STRICT)
+		              .getCachedCookies();
+	}
+}
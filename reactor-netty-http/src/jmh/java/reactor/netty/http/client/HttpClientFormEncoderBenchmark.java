@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.multipart.HttpPostRequestEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the encoding of a form with {@link HttpClientFormEncoder}, url-encoded or
+ * multipart.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class HttpClientFormEncoderBenchmark {
+
+	@Param({"false", "true"})
+	boolean multipart;
+
+	@Param({"4", "64"})
+	int attributes;
+
+	@Benchmark
+	public void encode(Blackhole bh) throws Exception {
+		HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/upload");
+		HttpClientFormEncoder encoder = new HttpClientFormEncoder(HttpClientOperations.SendForm.DEFAULT_FACTORY,
+				request,
+				multipart,
+				StandardCharsets.UTF_8,
+				HttpPostRequestEncoder.EncoderMode.RFC1738);
+		for (int i = 0; i < attributes; i++) {
+			encoder.attr("attribute" + i, "value of the attribute number " + i);
+		}
+		bh.consume(encoder.finalizeRequest());
+		if (encoder.isChunked()) {
+			HttpContent content;
+			while ((content = encoder.readChunk(ByteBufAllocator.DEFAULT)) != null) {
+				bh.consume(content);
+				content.release();
+				if (encoder.isEndOfInput()) {
+					break;
+				}
+			}
+		}
+		encoder.cleanFiles();
+	}
+}
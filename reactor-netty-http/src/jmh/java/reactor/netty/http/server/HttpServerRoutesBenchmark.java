@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+/**
+ * Measures the dispatch of a request through {@link DefaultHttpServerRoutes}, compared
+ * with testing the same {@link HttpPredicate} routes one after the other. The request
+ * targets the last declared route, the worst case for a linear scan.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class HttpServerRoutesBenchmark {
+
+	@Param({"10", "100", "400"})
+	int routes;
+
+	DefaultHttpServerRoutes serverRoutes;
+	List<HttpPredicate>     predicates;
+	HttpServerRequest       request;
+
+	@Setup
+	public void setup() {
+		serverRoutes = (DefaultHttpServerRoutes) HttpServerRoutes.newRoutes();
+		predicates = new ArrayList<>(routes);
+		for (int i = 0; i < routes; i++) {
+			String path = "/api/v1/resource" + i + "/{id}/items";
+			serverRoutes.get(path, (req, res) -> Mono.empty());
+			predicates.add((HttpPredicate) HttpPredicate.get(path));
+		}
+		request = request(HttpMethod.GET, "/api/v1/resource" + (routes - 1) + "/42/items?sort=asc");
+	}
+
+	@Benchmark
+	public Publisher<Void> dispatch() {
+		return serverRoutes.apply(request, null);
+	}
+
+	@Benchmark
+	public HttpPredicate linearScan() {
+		for (HttpPredicate predicate : predicates) {
+			if (predicate.test(request)) {
+				return predicate;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * A request stub answering only what routing needs.
+	 */
+	static HttpServerRequest request(HttpMethod method, String uri) {
+		return (HttpServerRequest) Proxy.newProxyInstance(HttpServerRequest.class.getClassLoader(),
+				new Class<?>[]{HttpServerRequest.class},
+				(proxy, m, args) -> {
+					switch (m.getName()) {
+						case "method":
+							return method;
+						case "uri":
+							return uri;
+						case "version":
+							return HttpVersion.HTTP_1_1;
+						case "paramsResolver":
+							return proxy;
+						default:
+							throw new UnsupportedOperationException(m.getName());
+					}
+				});
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.netty.http.server.HttpPredicate.UriPathTemplate;
+
+/**
+ * Measures {@link UriPathTemplate} matching and path parameter extraction, for a
+ * template matched segment by segment and for one requiring a regular expression.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class UriPathTemplateBenchmark {
+
+	@Param({"/users/{user}/orders/{order}", "/users/{user}/orders/{order}.json"})
+	String template;
+
+	UriPathTemplate uriPathTemplate;
+	String          uri;
+
+	@Setup
+	public void setup() {
+		uriPathTemplate = new UriPathTemplate(template);
+		uri = template.endsWith(".json") ? "/users/42/orders/1337.json?expand=true" : "/users/42/orders/1337?expand=true";
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return uriPathTemplate.matches(uri);
+	}
+
+	@Benchmark
+	public Map<String, String> match() {
+		return uriPathTemplate.match(uri);
+	}
+
+	@Benchmark
+	public String matchAndReadParam() {
+		return uriPathTemplate.match(uri).get("order");
+	}
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.ssl.util.SelfSignedCertificate;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * A macro benchmark running an {@link HttpServer} and an {@link HttpClient} over loopback.
+ * <p>
+ * The client is driven open loop at a fixed request rate: each request has an intended start
+ * time on a fixed schedule and its latency is measured from that time, not from the time it
+ * was actually sent. A stalled server or client therefore shows up in the latency of every
+ * request that should have been sent during the stall, which corrects for coordinated omission.
+ * The latency measured from the actual send time is reported alongside for comparison.
+ * <p>
+ * The harness is configured with system properties, see {@code ./gradlew :reactor-netty-http:loadTest}:
+ * <ul>
+ *     <li>{@code loadtest.transport}: {@code nio}, or {@code native}/{@code io_uring} to let the native
+ *     detection select the transport available on the classpath (default {@code native})</li>
+ *     <li>{@code loadtest.protocols}: comma separated {@code http11}, {@code h2c}, {@code h2} (default all)</li>
+ *     <li>{@code loadtest.rate}: requests per second (default 10000)</li>
+ *     <li>{@code loadtest.duration}: measured seconds (default 30)</li>
+ *     <li>{@code loadtest.warmup}: seconds run at the same rate before measuring (default 10)</li>
+ *     <li>{@code loadtest.connections}: maximum number of client connections (default 16)</li>
+ *     <li>{@code loadtest.payload}: response body size in bytes (default 128)</li>
+ *     <li>{@code loadtest.output}: the JSON result file, written to standard output if absent</li>
+ * </ul>
+ */
+public final class HttpLoadTest {
+
+	static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+	public static void main(String[] args) throws Exception {
+		String transport = System.getProperty("loadtest.transport", "native");
+		List<String> protocols = Arrays.asList(System.getProperty("loadtest.protocols", "http11,h2c,h2").split(","));
+		int rate = Integer.getInteger("loadtest.rate", 10_000);
+		int duration = Integer.getInteger("loadtest.duration", 30);
+		int warmup = Integer.getInteger("loadtest.warmup", 10);
+		int connections = Integer.getInteger("loadtest.connections", 16);
+		int payload = Integer.getInteger("loadtest.payload", 128);
+		String output = System.getProperty("loadtest.output");
+
+		List<Result> results = new ArrayList<>();
+		for (String protocol : protocols) {
+			HttpLoadTest loadTest = new HttpLoadTest(protocol.trim(), !"nio".equals(transport), connections, payload);
+			try {
+				loadTest.run(rate, warmup);
+				results.add(loadTest.run(rate, duration));
+			}
+			finally {
+				loadTest.dispose();
+			}
+		}
+
+		StringBuilder json = new StringBuilder();
+		json.append("{\n  \"transport\": \"").append(transport)
+		    .append("\",\n  \"rate\": ").append(rate)
+		    .append(",\n  \"durationSeconds\": ").append(duration)
+		    .append(",\n  \"warmupSeconds\": ").append(warmup)
+		    .append(",\n  \"connections\": ").append(connections)
+		    .append(",\n  \"payloadBytes\": ").append(payload)
+		    .append(",\n  \"results\": [");
+		for (int i = 0; i < results.size(); i++) {
+			json.append(i == 0 ? "\n" : ",\n");
+			results.get(i).toJson(json);
+		}
+		json.append("\n  ]\n}\n");
+
+		if (output == null) {
+			System.out.print(json);
+		}
+		else {
+			File file = new File(output);
+			File parent = file.getParentFile();
+			if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+				throw new IOException("Cannot create " + parent);
+			}
+			try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+				writer.write(json.toString());
+			}
+			System.out.println("Load test results written to " + file);
+		}
+	}
+
+	final String             protocol;
+	final LoopResources      loops;
+	final ConnectionProvider provider;
+	final DisposableServer   server;
+	final Mono<Integer>      request;
+
+	HttpLoadTest(String protocol, boolean preferNative, int connections, int payload) throws Exception {
+		this.protocol = protocol;
+		this.loops = LoopResources.create("loadtest");
+		this.provider = ConnectionProvider.builder("loadtest")
+		                                  .maxConnections(connections)
+		                                  .pendingAcquireMaxCount(-1)
+		                                  .pendingAcquireTimeout(Duration.ofMinutes(1))
+		                                  .build();
+
+		byte[] body = new byte[payload];
+		Arrays.fill(body, (byte) 'x');
+
+		HttpServer httpServer =
+				HttpServer.create()
+				          .host("127.0.0.1")
+				          .port(0)
+				          .runOn(loops, preferNative)
+				          .route(routes ->
+				              routes.get("/", (req, res) ->
+				                  res.header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(body.length))
+				                     .sendObject(Unpooled.wrappedBuffer(body))));
+		HttpClient httpClient =
+				HttpClient.create(provider)
+				          .runOn(loops, preferNative);
+
+		switch (protocol) {
+			case "http11":
+				break;
+			case "h2c":
+				httpServer = httpServer.protocol(HttpProtocol.H2C);
+				httpClient = httpClient.protocol(HttpProtocol.H2C);
+				break;
+			case "h2":
+				SelfSignedCertificate cert = new SelfSignedCertificate();
+				SslContextBuilder serverCtx = SslContextBuilder.forServer(cert.certificate(), cert.privateKey());
+				SslContextBuilder clientCtx = SslContextBuilder.forClient()
+				                                               .trustManager(InsecureTrustManagerFactory.INSTANCE);
+				httpServer = httpServer.protocol(HttpProtocol.H2)
+				                       .secure(spec -> spec.sslContext(serverCtx));
+				httpClient = httpClient.protocol(HttpProtocol.H2)
+				                       .secure(spec -> spec.sslContext(clientCtx));
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown protocol " + protocol + ", should be http11|h2c|h2");
+		}
+
+		this.server = httpServer.bindNow();
+		this.request =
+				httpClient.host("127.0.0.1")
+				          .port(server.port())
+				          .get()
+				          .uri("/")
+				          .responseSingle((res, content) -> content.then(Mono.just(res.status().code())));
+	}
+
+	/**
+	 * Send requests at the given rate for the given number of seconds, then wait for the
+	 * outstanding requests to complete.
+	 */
+	Result run(int rate, int seconds) throws InterruptedException {
+		Recorder corrected = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+		Recorder uncorrected = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+		AtomicLong completed = new AtomicLong();
+		AtomicLong errors = new AtomicLong();
+
+		long count = (long) rate * seconds;
+		double interval = TimeUnit.SECONDS.toNanos(1) / (double) rate;
+		long start = System.nanoTime();
+		for (long i = 0; i < count; i++) {
+			long intended = start + (long) (i * interval);
+			long now = System.nanoTime();
+			while (now < intended) {
+				LockSupport.parkNanos(intended - now);
+				now = System.nanoTime();
+			}
+			long sent = now;
+			request.subscribe(
+					status -> {
+						long end = System.nanoTime();
+						if (status == 200) {
+							corrected.recordValue(Math.min(micros(end - intended), HIGHEST_TRACKABLE_MICROS));
+							uncorrected.recordValue(Math.min(micros(end - sent), HIGHEST_TRACKABLE_MICROS));
+							completed.incrementAndGet();
+						}
+						else {
+							errors.incrementAndGet();
+						}
+					},
+					t -> errors.incrementAndGet());
+		}
+		long sendEnd = System.nanoTime();
+
+		long deadline = sendEnd + TimeUnit.MINUTES.toNanos(1);
+		while (completed.get() + errors.get() < count && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		long end = System.nanoTime();
+
+		return new Result(protocol, server.channel().getClass().getSimpleName(), count, completed.get(),
+				errors.get(), count - completed.get() - errors.get(), (sendEnd - start) / 1e9, (end - start) / 1e9,
+				corrected.getIntervalHistogram(), uncorrected.getIntervalHistogram());
+	}
+
+	void dispose() {
+		server.disposeNow();
+		provider.disposeLater()
+		        .block(Duration.ofSeconds(30));
+		loops.disposeLater()
+		     .block(Duration.ofSeconds(30));
+	}
+
+	static long micros(long nanos) {
+		return Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 1);
+	}
+
+	static final class Result {
+
+		final String    protocol;
+		final String    channel;
+		final long      sent;
+		final long      completed;
+		final long      errors;
+		final long      timeouts;
+		final double    sendSeconds;
+		final double    totalSeconds;
+		final Histogram corrected;
+		final Histogram uncorrected;
+
+		Result(String protocol, String channel, long sent, long completed, long errors, long timeouts,
+				double sendSeconds, double totalSeconds, Histogram corrected, Histogram uncorrected) {
+			this.protocol = protocol;
+			this.channel = channel;
+			this.sent = sent;
+			this.completed = completed;
+			this.errors = errors;
+			this.timeouts = timeouts;
+			this.sendSeconds = sendSeconds;
+			this.totalSeconds = totalSeconds;
+			this.corrected = corrected;
+			this.uncorrected = uncorrected;
+		}
+
+		void toJson(StringBuilder json) {
+			json.append("    {\n      \"protocol\": \"").append(protocol)
+			    .append("\",\n      \"channel\": \"").append(channel)
+			    .append("\",\n      \"sent\": ").append(sent)
+			    .append(",\n      \"completed\": ").append(completed)
+			    .append(",\n      \"errors\": ").append(errors)
+			    .append(",\n      \"timeouts\": ").append(timeouts)
+			    .append(",\n      \"offeredRate\": ").append(format(sent / sendSeconds))
+			    .append(",\n      \"throughput\": ").append(format(completed / totalSeconds))
+			    .append(",\n      \"latencyUnit\": \"us\"")
+			    .append(",\n      \"latency\": ");
+			latency(json, corrected);
+			json.append(",\n      \"uncorrectedLatency\": ");
+			latency(json, uncorrected);
+			json.append("\n    }");
+		}
+
+		static void latency(StringBuilder json, Histogram histogram) {
+			json.append("{ \"min\": ").append(histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue())
+			    .append(", \"mean\": ").append(format(histogram.getMean()))
+			    .append(", \"p50\": ").append(histogram.getValueAtPercentile(50))
+			    .append(", \"p90\": ").append(histogram.getValueAtPercentile(90))
+			    .append(", \"p99\": ").append(histogram.getValueAtPercentile(99))
+			    .append(", \"p99.9\": ").append(histogram.getValueAtPercentile(99.9))
+			    .append(", \"p99.99\": ").append(histogram.getValueAtPercentile(99.99))
+			    .append(", \"max\": ").append(histogram.getMaxValue())
+			    .append(" }");
+		}
+
+		static String format(double value) {
+			return String.format(Locale.ROOT, "%.2f", value);
+		}
+	}
+}
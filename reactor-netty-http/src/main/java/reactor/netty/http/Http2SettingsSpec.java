@@ -19,7 +19,11 @@ import io.netty.handler.codec.http2.Http2CodecUtil;
 import io.netty.handler.codec.http2.Http2Settings;
 import reactor.util.annotation.Nullable;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * A configuration builder to fine tune the {@link Http2Settings}.
@@ -78,6 +82,42 @@ public final class Http2SettingsSpec {
 		 */
 		Builder maxHeaderListSize(long maxHeaderListSize);
 
+		/**
+		 * Enables the auto-tuning of the flow-control windows and sets the size up to which they can grow.
+		 * The bandwidth-delay product of the connection is estimated with {@code PING} round-trips while
+		 * data is received, the stream windows and the connection window are grown when they are too small
+		 * to keep the link busy. By default the windows keep their initial size.
+		 *
+		 * @param maxWindowSize the maximum size of the stream and connection flow-control windows
+		 * @return {@code this}
+		 * @since 1.0.3
+		 */
+		Builder maxWindowSize(int maxWindowSize);
+
+		/**
+		 * Sets the maximum number of decoded header values interned per connection, the least recently used
+		 * ones are evicted first. The headers exchanged on every request share then the same instances and
+		 * their {@link String} representation instead of being copied on each request.
+		 * The values are interned once decoded, this cache is distinct from the HPACK dynamic table.
+		 * Default to 0, the header values are not interned.
+		 *
+		 * @param headerCacheSize the maximum number of header values interned per connection
+		 * @return {@code this}
+		 * @since 1.0.3
+		 */
+		Builder headerCacheSize(int headerCacheSize);
+
+		/**
+		 * Sets the names of the headers that are never indexed in the HPACK dynamic tables, e.g.
+		 * {@code authorization} or {@code cookie}, so that their values cannot be recovered by
+		 * compression-based attacks. Their values are never interned either.
+		 *
+		 * @param names the names of the sensitive headers
+		 * @return {@code this}
+		 * @since 1.0.3
+		 */
+		Builder sensitiveHeaders(String... names);
+
 		/**
 		 * Sets the {@code SETTINGS_ENABLE_PUSH} value.
 		 *
@@ -147,6 +187,38 @@ public final class Http2SettingsSpec {
 		return maxHeaderListSize;
 	}
 
+	/**
+	 * Returns the configured maximum size of the auto-tuned flow-control windows or null
+	 * when the auto-tuning is disabled.
+	 *
+	 * @return the configured maximum size of the auto-tuned flow-control windows or null
+	 * @since 1.0.3
+	 */
+	@Nullable
+	public Integer maxWindowSize() {
+		return maxWindowSize;
+	}
+
+	/**
+	 * Returns the configured maximum number of header values interned per connection.
+	 *
+	 * @return the configured maximum number of header values interned per connection
+	 * @since 1.0.3
+	 */
+	public int headerCacheSize() {
+		return headerCacheSize;
+	}
+
+	/**
+	 * Returns the names of the headers that are never indexed, in lower case.
+	 *
+	 * @return the names of the headers that are never indexed
+	 * @since 1.0.3
+	 */
+	public Set<String> sensitiveHeaders() {
+		return sensitiveHeaders;
+	}
+
 	/**
 	 * Returns the configured {@code SETTINGS_ENABLE_PUSH} value or null.
 	 *
@@ -171,12 +243,16 @@ public final class Http2SettingsSpec {
 				Objects.equals(maxConcurrentStreams, that.maxConcurrentStreams) &&
 				Objects.equals(maxFrameSize, that.maxFrameSize) &&
 				maxHeaderListSize.equals(that.maxHeaderListSize) &&
+				Objects.equals(maxWindowSize, that.maxWindowSize) &&
+				headerCacheSize == that.headerCacheSize &&
+				sensitiveHeaders.equals(that.sensitiveHeaders) &&
 				Objects.equals(pushEnabled, that.pushEnabled);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(headerTableSize, initialWindowSize, maxConcurrentStreams, maxFrameSize, maxHeaderListSize, pushEnabled);
+		return Objects.hash(headerTableSize, initialWindowSize, maxConcurrentStreams, maxFrameSize, maxHeaderListSize, maxWindowSize,
+				headerCacheSize, sensitiveHeaders, pushEnabled);
 	}
 
 	final Long headerTableSize;
@@ -184,6 +260,9 @@ public final class Http2SettingsSpec {
 	final Long maxConcurrentStreams;
 	final Integer maxFrameSize;
 	final Long maxHeaderListSize;
+	final Integer maxWindowSize;
+	final int headerCacheSize;
+	final Set<String> sensitiveHeaders;
 	final Boolean pushEnabled;
 
 	Http2SettingsSpec(Build build) {
@@ -193,11 +272,17 @@ public final class Http2SettingsSpec {
 		maxConcurrentStreams = settings.maxConcurrentStreams();
 		maxFrameSize = settings.maxFrameSize();
 		maxHeaderListSize = settings.maxHeaderListSize();
+		maxWindowSize = build.maxWindowSize;
+		headerCacheSize = build.headerCacheSize;
+		sensitiveHeaders = Collections.unmodifiableSet(new LinkedHashSet<>(build.sensitiveHeaders));
 		pushEnabled = settings.pushEnabled();
 	}
 
 	static final class Build implements Builder {
 		final Http2Settings http2Settings = Http2Settings.defaultSettings();
+		Integer maxWindowSize;
+		int headerCacheSize;
+		final Set<String> sensitiveHeaders = new LinkedHashSet<>();
 
 		@Override
 		public Http2SettingsSpec build() {
@@ -234,6 +319,35 @@ public final class Http2SettingsSpec {
 			return this;
 		}
 
+		@Override
+		public Builder maxWindowSize(int maxWindowSize) {
+			if (maxWindowSize < Http2CodecUtil.DEFAULT_WINDOW_SIZE || maxWindowSize > Http2CodecUtil.MAX_INITIAL_WINDOW_SIZE) {
+				throw new IllegalArgumentException("maxWindowSize: " + maxWindowSize + " (expected: " +
+						Http2CodecUtil.DEFAULT_WINDOW_SIZE + "-" + Http2CodecUtil.MAX_INITIAL_WINDOW_SIZE + ")");
+			}
+			this.maxWindowSize = maxWindowSize;
+			return this;
+		}
+
+		@Override
+		public Builder headerCacheSize(int headerCacheSize) {
+			if (headerCacheSize < 0) {
+				throw new IllegalArgumentException("headerCacheSize: " + headerCacheSize + " (expected: 0 or greater)");
+			}
+			this.headerCacheSize = headerCacheSize;
+			return this;
+		}
+
+		@Override
+		public Builder sensitiveHeaders(String... names) {
+			Objects.requireNonNull(names, "names");
+			for (String name : names) {
+				Objects.requireNonNull(name, "name");
+				sensitiveHeaders.add(name.toLowerCase(Locale.ROOT));
+			}
+			return this;
+		}
+
 		/*
 		@Override
 		public Builder pushEnabled(boolean pushEnabled) {
@@ -51,4 +51,17 @@ public interface HttpMetricsRecorder extends ChannelMetricsRecorder {
 	 * @param uri the requested URI
 	 */
 	void incrementErrorsCount(SocketAddress remoteAddress, String uri);
+
+	/**
+	 * Records the lookups of the header values in the cache interning the HTTP/2 headers of a connection
+	 * once they are decoded, the hit ratio is {@code hits / (hits + misses)}.
+	 * These are not the hits of the HPACK dynamic table. The lookups of all the connections are
+	 * recorded together, they are not tagged with the remote address.
+	 *
+	 * @param hits the number of the header values found in the cache
+	 * @param misses the number of the header values not found in the cache
+	 * @since 1.0.3
+	 */
+	default void recordHeaderCacheLookups(long hits, long misses) {
+	}
 }
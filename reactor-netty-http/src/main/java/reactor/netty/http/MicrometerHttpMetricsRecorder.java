@@ -31,6 +31,8 @@ import static reactor.netty.Metrics.DATA_RECEIVED_TIME;
 import static reactor.netty.Metrics.DATA_SENT;
 import static reactor.netty.Metrics.DATA_SENT_TIME;
 import static reactor.netty.Metrics.ERRORS;
+import static reactor.netty.Metrics.HTTP2_HEADER_CACHE_HITS;
+import static reactor.netty.Metrics.HTTP2_HEADER_CACHE_MISSES;
 import static reactor.netty.Metrics.REGISTRY;
 import static reactor.netty.Metrics.REMOTE_ADDRESS;
 import static reactor.netty.Metrics.RESPONSE_TIME;
@@ -62,6 +64,14 @@ public class MicrometerHttpMetricsRecorder extends MicrometerChannelMetricsRecor
 	protected final Counter.Builder errorsBuilder;
 	protected final ConcurrentMap<MeterKey, Counter> errorsCache = PlatformDependent.newConcurrentHashMap();
 
+	protected final Counter.Builder headerCacheHitsBuilder;
+	protected final ConcurrentMap<MeterKey, Counter> headerCacheHitsCache = PlatformDependent.newConcurrentHashMap();
+
+	protected final Counter.Builder headerCacheMissesBuilder;
+	protected final ConcurrentMap<MeterKey, Counter> headerCacheMissesCache = PlatformDependent.newConcurrentHashMap();
+
+	static final MeterKey HEADER_CACHE_KEY = new MeterKey(null, null, null, null);
+
 	protected MicrometerHttpMetricsRecorder(String name, String protocol) {
 		super(name, protocol);
 		this.dataReceivedTimeBuilder =
@@ -89,6 +99,14 @@ public class MicrometerHttpMetricsRecorder extends MicrometerChannelMetricsRecor
 		this.errorsBuilder =
 				Counter.builder(name + ERRORS)
 				       .description("Number of errors that occurred");
+
+		this.headerCacheHitsBuilder =
+				Counter.builder(name + HTTP2_HEADER_CACHE_HITS)
+				       .description("Number of the decoded HTTP/2 header values found in the intern cache, not the HPACK dynamic table hits");
+
+		this.headerCacheMissesBuilder =
+				Counter.builder(name + HTTP2_HEADER_CACHE_MISSES)
+				       .description("Number of the decoded HTTP/2 header values not found in the intern cache");
 	}
 
 	@Override
@@ -123,4 +141,23 @@ public class MicrometerHttpMetricsRecorder extends MicrometerChannelMetricsRecor
 			errors.increment();
 		}
 	}
+
+	@Override
+	public void recordHeaderCacheLookups(long hits, long misses) {
+		// The remote address is not a tag, the number of the meters does not grow with the connections
+		if (hits > 0) {
+			Counter headerCacheHits = headerCacheHitsCache.computeIfAbsent(HEADER_CACHE_KEY,
+					key -> filter(headerCacheHitsBuilder.register(REGISTRY)));
+			if (headerCacheHits != null) {
+				headerCacheHits.increment(hits);
+			}
+		}
+		if (misses > 0) {
+			Counter headerCacheMisses = headerCacheMissesCache.computeIfAbsent(HEADER_CACHE_KEY,
+					key -> filter(headerCacheMissesBuilder.register(REGISTRY)));
+			if (headerCacheMisses != null) {
+				headerCacheMisses.increment(misses);
+			}
+		}
+	}
 }
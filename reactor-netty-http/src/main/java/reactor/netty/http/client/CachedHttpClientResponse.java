@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.cookie.ClientCookieDecoder;
+import io.netty.handler.codec.http.cookie.Cookie;
+import reactor.netty.http.Cookies;
+import reactor.netty.http.HttpOperations;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An implementation of {@link HttpClientResponse} for the responses served from the
+ * {@link HttpResponseCache}, without a connection.
+ */
+final class CachedHttpClientResponse implements HttpClientResponse {
+
+	final ContextView         contextView;
+	final ClientCookieDecoder cookieDecoder;
+	final HttpHeaders         requestHeaders;
+	final String              path;
+	final String              resourceUrl;
+	final HttpHeaders         responseHeaders;
+	final HttpResponseStatus  status;
+	final String              uri;
+	final HttpVersion         version;
+
+	CachedHttpClientResponse(ContextView contextView, HttpClientConfig c, UriEndpoint endpoint,
+			HttpResponseStatus status, HttpVersion version, HttpHeaders responseHeaders) {
+		this.contextView = contextView;
+		this.cookieDecoder = c.cookieDecoder;
+		this.requestHeaders = c.headers;
+		this.uri = endpoint.getPathAndQuery();
+		this.path = HttpOperations.resolvePath(this.uri);
+		this.resourceUrl = endpoint.toExternalForm();
+		this.responseHeaders = responseHeaders;
+		this.status = status;
+		this.version = version;
+	}
+
+	@Override
+	public Map<CharSequence, Set<Cookie>> cookies() {
+		return Cookies.newClientResponseHolder(responseHeaders, cookieDecoder)
+		              .getCachedCookies();
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public Context currentContext() {
+		return Context.of(contextView);
+	}
+
+	@Override
+	public ContextView currentContextView() {
+		return contextView;
+	}
+
+	@Override
+	public String fullPath() {
+		return path;
+	}
+
+	@Override
+	public boolean isKeepAlive() {
+		return HttpUtil.isKeepAlive(new DefaultHttpResponse(version, status, responseHeaders));
+	}
+
+	@Override
+	public boolean isWebsocket() {
+		return false;
+	}
+
+	@Override
+	public HttpMethod method() {
+		return HttpMethod.GET;
+	}
+
+	@Override
+	public String[] redirectedFrom() {
+		return EMPTY;
+	}
+
+	@Override
+	public HttpHeaders requestHeaders() {
+		return requestHeaders;
+	}
+
+	@Override
+	public String resourceUrl() {
+		return resourceUrl;
+	}
+
+	@Override
+	public HttpHeaders responseHeaders() {
+		return responseHeaders;
+	}
+
+	@Override
+	public HttpResponseStatus status() {
+		return status;
+	}
+
+	@Override
+	public String uri() {
+		return uri;
+	}
+
+	@Override
+	public HttpVersion version() {
+		return version;
+	}
+
+	final static String[] EMPTY = new String[0];
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * An error for signalling that the deadline of a request configured with {@link HttpClient#deadline(java.time.Duration)}
+ * or {@link HttpClientRequest#deadline(java.time.Duration)} was exceeded.
+ *
+ * @since 1.0.3
+ */
+public final class DeadlineExceededException extends TimeoutException {
+
+	DeadlineExceededException(String message) {
+		super(message);
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		// omit stacktrace for this exception
+		return this;
+	}
+
+	private static final long serialVersionUID = 4817406218390123695L;
+}
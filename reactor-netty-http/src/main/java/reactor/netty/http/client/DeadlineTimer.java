@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import io.netty.util.concurrent.EventExecutor;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.concurrent.Queues;
+
+/**
+ * A hashed timing wheel driven by one {@link EventExecutor}, shared by the deadlines of the requests.
+ * <p>
+ * Scheduling a deadline enqueues it without touching the executor, the wheel ticks every {@link #TICK_NANOS}
+ * while it holds deadlines, a single task per tick instead of a scheduled task per request.
+ * Cancelled deadlines are unlinked when their bucket is visited.
+ */
+final class DeadlineTimer implements Runnable {
+
+	/**
+	 * Returns the {@link DeadlineTimer} of the given executor.
+	 *
+	 * @param executor the executor driving the timer
+	 * @return the {@link DeadlineTimer} of the given executor
+	 */
+	static DeadlineTimer of(EventExecutor executor) {
+		DeadlineTimer timer = TIMERS.get(executor);
+		if (timer != null) {
+			return timer;
+		}
+		return TIMERS.computeIfAbsent(executor, e -> {
+			e.terminationFuture().addListener(f -> TIMERS.remove(e));
+			return new DeadlineTimer(e);
+		});
+	}
+
+	final EventExecutor executor;
+	final long startNanos;
+	final Queue<Timeout> pending = Queues.<Timeout>unboundedMultiproducer().get();
+	final Timeout[] wheel = new Timeout[WHEEL_SIZE];
+
+	volatile int scheduled;
+
+	// accessed only by the executor
+	long tick;
+	int size;
+
+	DeadlineTimer(EventExecutor executor) {
+		this.executor = executor;
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Schedules the given task to run on the executor of this timer once the given {@link System#nanoTime()}
+	 * is reached, with a resolution of {@link #TICK_NANOS}.
+	 *
+	 * @param deadlineNanos the deadline as returned by {@link System#nanoTime()}
+	 * @param task the task to run
+	 * @return the {@link Timeout} which can be cancelled
+	 */
+	Timeout schedule(long deadlineNanos, Runnable task) {
+		Timeout timeout = new Timeout(deadlineNanos, task);
+		pending.offer(timeout);
+		if (SCHEDULED.compareAndSet(this, 0, 1)) {
+			scheduleTick();
+		}
+		return timeout;
+	}
+
+	@Override
+	public void run() {
+		long target = (System.nanoTime() - startNanos) / TICK_NANOS;
+
+		Timeout timeout;
+		while ((timeout = pending.poll()) != null) {
+			if (timeout.state == Timeout.PENDING) {
+				long expireTick = Math.max(tick, ceilTick(timeout.deadlineNanos));
+				int bucket = (int) (expireTick & MASK);
+				timeout.expireTick = expireTick;
+				timeout.next = wheel[bucket];
+				wheel[bucket] = timeout;
+				size++;
+			}
+		}
+
+		// after a pause longer than a rotation, visiting every bucket once expires all the due deadlines
+		for (long t = tick, last = Math.min(target, tick + MASK); t <= last; t++) {
+			expire((int) (t & MASK), target);
+		}
+		tick = target + 1;
+
+		if (size == 0) {
+			scheduled = 0;
+			if (pending.isEmpty() || !SCHEDULED.compareAndSet(this, 0, 1)) {
+				return;
+			}
+		}
+		scheduleTick();
+	}
+
+	void expire(int bucket, long target) {
+		Timeout previous = null;
+		Timeout timeout = wheel[bucket];
+		while (timeout != null) {
+			Timeout next = timeout.next;
+			if (timeout.state == Timeout.CANCELLED || timeout.expireTick <= target) {
+				if (previous == null) {
+					wheel[bucket] = next;
+				}
+				else {
+					previous.next = next;
+				}
+				timeout.next = null;
+				size--;
+				if (Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+					try {
+						timeout.task.run();
+					}
+					catch (Throwable t) {
+						log.warn("An exception has been raised by the deadline {}", timeout.task, t);
+					}
+				}
+			}
+			else {
+				previous = timeout;
+			}
+			timeout = next;
+		}
+	}
+
+	long ceilTick(long deadlineNanos) {
+		long elapsed = deadlineNanos - startNanos;
+		return elapsed <= 0 ? 0 : (elapsed + TICK_NANOS - 1) / TICK_NANOS;
+	}
+
+	@SuppressWarnings("FutureReturnValueIgnored")
+	void scheduleTick() {
+		try {
+			//"FutureReturnValueIgnored" this is deliberate
+			executor.schedule(this, TICK_NANOS, TimeUnit.NANOSECONDS);
+		}
+		catch (RejectedExecutionException e) {
+			scheduled = 0;
+			if (log.isDebugEnabled()) {
+				log.debug("The deadlines cannot be scheduled, the executor {} is shutting down", executor, e);
+			}
+		}
+	}
+
+	static final class Timeout {
+
+		static final int PENDING   = 0;
+		static final int CANCELLED = 1;
+		static final int EXPIRED   = 2;
+
+		final long deadlineNanos;
+		final Runnable task;
+
+		volatile int state;
+
+		// accessed only by the executor
+		long expireTick;
+		Timeout next;
+
+		Timeout(long deadlineNanos, Runnable task) {
+			this.deadlineNanos = deadlineNanos;
+			this.task = task;
+		}
+
+		/**
+		 * Cancels this timeout unless it already expired.
+		 *
+		 * @return true if this timeout was cancelled by this call
+		 */
+		boolean cancel() {
+			return STATE.compareAndSet(this, PENDING, CANCELLED);
+		}
+
+		static final AtomicIntegerFieldUpdater<Timeout> STATE =
+				AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+	}
+
+	/**
+	 * The duration of a tick, the resolution of the deadlines.
+	 */
+	static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	/**
+	 * The number of buckets, the wheel rotates every {@code WHEEL_SIZE * TICK_NANOS}.
+	 */
+	static final int WHEEL_SIZE = 512;
+
+	static final int MASK = WHEEL_SIZE - 1;
+
+	static final ConcurrentMap<EventExecutor, DeadlineTimer> TIMERS = new ConcurrentHashMap<>();
+
+	static final AtomicIntegerFieldUpdater<DeadlineTimer> SCHEDULED =
+			AtomicIntegerFieldUpdater.newUpdater(DeadlineTimer.class, "scheduled");
+
+	static final Logger log = Loggers.getLogger(DeadlineTimer.class);
+}
@@ -132,6 +132,11 @@ final class FailedHttpClientRequest implements HttpClientRequest {
 		return headers;
 	}
 
+	@Override
+	public HttpClientRequest deadline(Duration deadline) {
+		throw new UnsupportedOperationException("Should not add request deadline");
+	}
+
 	@Override
 	public HttpClientRequest responseTimeout(Duration timeout) {
 		throw new UnsupportedOperationException("Should not add request timeout");
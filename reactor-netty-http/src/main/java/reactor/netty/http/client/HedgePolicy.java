@@ -0,0 +1,592 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.Connection;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * The policy of the hedged requests enabled with {@link HttpClient#hedge(HedgePolicy)}.
+ * <p>
+ * When the response headers of an idempotent request without a body are not received within the hedging delay,
+ * the same request is sent again, on another connection of the pool, the first response received wins and
+ * the other request is cancelled, its connection is closed even if it is received concurrently.
+ * <p>
+ * The hedging delay is a percentile of the latencies of the last {@value #SAMPLES} responses received with
+ * this policy, bounded by the minimum and the maximum delays. The latencies are measured from the start of
+ * the original request: when the hedged request wins, both its own latency and the time elapsed since the
+ * original request was sent, a lower bound of the latency of the latter, are taken into account.
+ * Until enough latencies are measured, the maximum delay is used.
+ * <p>
+ * The hedged requests are limited by a budget: each request earns a fraction of a hedged request,
+ * each hedged request spends one, a burst of at most {@value #MAX_BUDGET_BALANCE} hedged requests is allowed.
+ *
+ * @since 1.0.3
+ */
+public final class HedgePolicy {
+
+	public interface Builder {
+
+		/**
+		 * Build a new {@link HedgePolicy}
+		 *
+		 * @return a new {@link HedgePolicy}
+		 */
+		HedgePolicy build();
+
+		/**
+		 * Sets the percentile of the response latencies used as the hedging delay, between 0 (exclusive)
+		 * and 1 (inclusive). Default to {@link #DEFAULT_PERCENTILE}.
+		 *
+		 * @param percentile the percentile of the response latencies, e.g. {@code 0.95}
+		 * @return {@code this}
+		 */
+		Builder percentile(double percentile);
+
+		/**
+		 * Sets the minimum hedging delay. Default to {@link #DEFAULT_MIN_DELAY}.
+		 *
+		 * @param minDelay the minimum hedging delay
+		 * @return {@code this}
+		 */
+		Builder minDelay(Duration minDelay);
+
+		/**
+		 * Sets the maximum hedging delay, also used until enough response latencies are measured.
+		 * Default to {@link #DEFAULT_MAX_DELAY}.
+		 *
+		 * @param maxDelay the maximum hedging delay
+		 * @return {@code this}
+		 */
+		Builder maxDelay(Duration maxDelay);
+
+		/**
+		 * Sets the ratio of hedged requests to requests allowed over time, between 0 and 1 (inclusive).
+		 * Default to {@link #DEFAULT_BUDGET}.
+		 *
+		 * @param budget the ratio of hedged requests to requests, e.g. {@code 0.1} for at most 10% extra requests
+		 * @return {@code this}
+		 */
+		Builder budget(double budget);
+	}
+
+	/**
+	 * Default percentile of the response latencies used as the hedging delay.
+	 */
+	public static final double DEFAULT_PERCENTILE = 0.95;
+
+	/**
+	 * Default minimum hedging delay.
+	 */
+	public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(10);
+
+	/**
+	 * Default maximum hedging delay.
+	 */
+	public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(1);
+
+	/**
+	 * Default ratio of hedged requests to requests.
+	 */
+	public static final double DEFAULT_BUDGET = 0.1;
+
+	/**
+	 * Creates a builder for {@link HedgePolicy}.
+	 *
+	 * @return a new {@link HedgePolicy.Builder}
+	 */
+	public static Builder builder() {
+		return new Build();
+	}
+
+	/**
+	 * Creates a {@link HedgePolicy} with a fixed hedging delay.
+	 *
+	 * @param delay the hedging delay
+	 * @return a new {@link HedgePolicy}
+	 */
+	public static HedgePolicy fixedDelay(Duration delay) {
+		return builder().minDelay(delay)
+		                .maxDelay(delay)
+		                .build();
+	}
+
+	/**
+	 * Returns the percentile of the response latencies used as the hedging delay.
+	 *
+	 * @return the percentile of the response latencies used as the hedging delay
+	 */
+	public double percentile() {
+		return percentile;
+	}
+
+	/**
+	 * Returns the minimum hedging delay.
+	 *
+	 * @return the minimum hedging delay
+	 */
+	public Duration minDelay() {
+		return minDelay;
+	}
+
+	/**
+	 * Returns the maximum hedging delay.
+	 *
+	 * @return the maximum hedging delay
+	 */
+	public Duration maxDelay() {
+		return maxDelay;
+	}
+
+	/**
+	 * Returns the ratio of hedged requests to requests allowed over time.
+	 *
+	 * @return the ratio of hedged requests to requests
+	 */
+	public double budget() {
+		return budget;
+	}
+
+	/**
+	 * Returns the current hedging delay.
+	 *
+	 * @return the current hedging delay
+	 */
+	public Duration delay() {
+		return Duration.ofNanos(delayNanos);
+	}
+
+	final double percentile;
+	final Duration minDelay;
+	final Duration maxDelay;
+	final long minDelayNanos;
+	final long maxDelayNanos;
+	final double budget;
+	final long depositUnits;
+
+	final long[] latencies = new long[SAMPLES];
+	int count;
+
+	/**
+	 * The balance of the budget, in thousandths of a hedged request.
+	 */
+	long balanceUnits = MAX_BUDGET_BALANCE * BUDGET_UNITS;
+
+	volatile long delayNanos;
+
+	HedgePolicy(Build build) {
+		if (build.minDelay.compareTo(build.maxDelay) > 0) {
+			throw new IllegalArgumentException("minDelay: " + build.minDelay + " (expected: less than or equal to maxDelay " +
+					build.maxDelay + ")");
+		}
+		percentile = build.percentile;
+		minDelay = build.minDelay;
+		maxDelay = build.maxDelay;
+		minDelayNanos = minDelay.toNanos();
+		maxDelayNanos = maxDelay.toNanos();
+		budget = build.budget;
+		depositUnits = Math.round(budget * BUDGET_UNITS);
+		delayNanos = maxDelayNanos;
+	}
+
+	static boolean isHedgeable(HttpClientConfig config) {
+		HttpMethod method = config.method;
+		return config.body == null && config.websocketClientSpec == null &&
+				(HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) ||
+						HttpMethod.OPTIONS.equals(method) || HttpMethod.TRACE.equals(method) ||
+						HttpMethod.PUT.equals(method) || HttpMethod.DELETE.equals(method));
+	}
+
+	/**
+	 * Returns a {@link Mono} subscribing to the given request and, when it has not emitted
+	 * within the hedging delay or when it has failed, subscribing to it again if the budget allows it.
+	 * The first emitted connection wins, the other subscription is cancelled and a connection it emits
+	 * nevertheless is disposed. When both fail, the error of the original request is propagated.
+	 */
+	Mono<Connection> hedge(Mono<Connection> request) {
+		return new MonoHedge(this, request);
+	}
+
+	synchronized void record(long latencyNanos) {
+		latencies[count++ % SAMPLES] = latencyNanos;
+		if (count % UPDATE_INTERVAL == 0) {
+			long[] sorted = Arrays.copyOf(latencies, Math.min(count, SAMPLES));
+			Arrays.sort(sorted);
+			int index = (int) Math.ceil(percentile * sorted.length) - 1;
+			long delay = sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+			delayNanos = Math.max(minDelayNanos, Math.min(delay, maxDelayNanos));
+		}
+		if (count == 2 * SAMPLES) {
+			count = SAMPLES;
+		}
+	}
+
+	/**
+	 * Earns the fraction of a hedged request granted to each request.
+	 */
+	synchronized void deposit() {
+		balanceUnits = Math.min(MAX_BUDGET_BALANCE * BUDGET_UNITS, balanceUnits + depositUnits);
+	}
+
+	/**
+	 * Spends a hedged request if the budget allows it.
+	 *
+	 * @return whether a hedged request can be sent
+	 */
+	synchronized boolean tryWithdraw() {
+		if (balanceUnits < BUDGET_UNITS) {
+			return false;
+		}
+		balanceUnits -= BUDGET_UNITS;
+		return true;
+	}
+
+	/**
+	 * The number of the last response latencies taken into account.
+	 */
+	static final int SAMPLES = 256;
+
+	/**
+	 * The hedging delay is computed again every {@code UPDATE_INTERVAL} responses.
+	 */
+	static final int UPDATE_INTERVAL = 32;
+
+	/**
+	 * The maximum number of hedged requests that can be sent in a burst.
+	 */
+	static final int MAX_BUDGET_BALANCE = 10;
+
+	static final long BUDGET_UNITS = 1000;
+
+	static final class Build implements Builder {
+		double percentile = DEFAULT_PERCENTILE;
+		Duration minDelay = DEFAULT_MIN_DELAY;
+		Duration maxDelay = DEFAULT_MAX_DELAY;
+		double budget = DEFAULT_BUDGET;
+
+		@Override
+		public HedgePolicy build() {
+			return new HedgePolicy(this);
+		}
+
+		@Override
+		public Builder percentile(double percentile) {
+			if (!(percentile > 0 && percentile <= 1)) {
+				throw new IllegalArgumentException("percentile: " + percentile + " (expected: 0 exclusive-1 inclusive)");
+			}
+			this.percentile = percentile;
+			return this;
+		}
+
+		@Override
+		public Builder minDelay(Duration minDelay) {
+			Objects.requireNonNull(minDelay, "minDelay");
+			if (minDelay.isNegative()) {
+				throw new IllegalArgumentException("minDelay: " + minDelay + " (expected: positive or zero)");
+			}
+			this.minDelay = minDelay;
+			return this;
+		}
+
+		@Override
+		public Builder maxDelay(Duration maxDelay) {
+			Objects.requireNonNull(maxDelay, "maxDelay");
+			if (maxDelay.isNegative()) {
+				throw new IllegalArgumentException("maxDelay: " + maxDelay + " (expected: positive or zero)");
+			}
+			this.maxDelay = maxDelay;
+			return this;
+		}
+
+		@Override
+		public Builder budget(double budget) {
+			if (!(budget >= 0 && budget <= 1)) {
+				throw new IllegalArgumentException("budget: " + budget + " (expected: 0 inclusive-1 inclusive)");
+			}
+			this.budget = budget;
+			return this;
+		}
+	}
+
+	static final class MonoHedge extends Mono<Connection> {
+
+		final HedgePolicy policy;
+		final Mono<Connection> request;
+
+		MonoHedge(HedgePolicy policy, Mono<Connection> request) {
+			this.policy = policy;
+			this.request = request;
+		}
+
+		@Override
+		public void subscribe(CoreSubscriber<? super Connection> actual) {
+			policy.deposit();
+			HedgeRace race = new HedgeRace(policy, request, actual);
+			actual.onSubscribe(race);
+			race.start();
+		}
+	}
+
+	/**
+	 * The race between the original request and the hedged request, the state is guarded by {@code this}.
+	 */
+	static final class HedgeRace implements Subscription {
+
+		final HedgePolicy policy;
+		final Mono<Connection> request;
+		final CoreSubscriber<? super Connection> actual;
+
+		HedgeAttempt original;
+		HedgeAttempt hedged;
+		Disposable timer;
+		Throwable error;
+		int pending;
+		/**
+		 * Whether the hedged request has been sent or denied by the budget.
+		 */
+		boolean hedgeDecided;
+		boolean done;
+
+		HedgeRace(HedgePolicy policy, Mono<Connection> request, CoreSubscriber<? super Connection> actual) {
+			this.policy = policy;
+			this.request = request;
+			this.actual = actual;
+		}
+
+		void start() {
+			HedgeAttempt attempt = new HedgeAttempt(this);
+			synchronized (this) {
+				if (done) {
+					return;
+				}
+				original = attempt;
+				pending = 1;
+			}
+			request.subscribe(attempt);
+			synchronized (this) {
+				if (!done && !hedgeDecided) {
+					timer = Schedulers.parallel().schedule(this::sendHedge, policy.delayNanos, TimeUnit.NANOSECONDS);
+				}
+			}
+		}
+
+		void sendHedge() {
+			HedgeAttempt attempt = null;
+			boolean terminate = false;
+			Throwable error;
+			synchronized (this) {
+				if (done || hedgeDecided) {
+					return;
+				}
+				hedgeDecided = true;
+				if (policy.tryWithdraw()) {
+					attempt = new HedgeAttempt(this);
+					hedged = attempt;
+					pending++;
+				}
+				else if (pending == 0) {
+					// The original request has failed and no hedged request can be sent
+					done = true;
+					terminate = true;
+				}
+				error = this.error;
+			}
+			if (attempt != null) {
+				request.subscribe(attempt);
+			}
+			else if (terminate) {
+				terminate(error);
+			}
+		}
+
+		void onNext(HedgeAttempt attempt, Connection connection) {
+			HedgeAttempt loser;
+			Disposable timer;
+			synchronized (this) {
+				if (done) {
+					loser = attempt;
+					timer = null;
+				}
+				else {
+					done = true;
+					loser = attempt == original ? hedged : original;
+					timer = this.timer;
+				}
+			}
+			if (loser == attempt) {
+				// Lost the race, or cancelled, while the connection was being established
+				connection.dispose();
+				return;
+			}
+			long now = System.nanoTime();
+			policy.record(now - attempt.startNanos);
+			if (attempt != original) {
+				// The original request would have taken at least this long
+				policy.record(now - original.startNanos);
+			}
+			if (timer != null) {
+				timer.dispose();
+			}
+			if (loser != null) {
+				loser.cancel();
+			}
+			actual.onNext(connection);
+			actual.onComplete();
+		}
+
+		void onError(HedgeAttempt attempt, @Nullable Throwable t) {
+			boolean hedgeNow = false;
+			boolean terminate = false;
+			Throwable error;
+			Disposable timer;
+			synchronized (this) {
+				if (done) {
+					if (t != null) {
+						Operators.onErrorDropped(t, actual.currentContext());
+					}
+					return;
+				}
+				if (t != null && (this.error == null || attempt == original)) {
+					this.error = t;
+				}
+				if (--pending == 0) {
+					if (hedgeDecided) {
+						done = true;
+						terminate = true;
+					}
+					else {
+						// The original request has failed before the hedging delay
+						hedgeNow = true;
+					}
+				}
+				error = this.error;
+				timer = this.timer;
+			}
+			if (hedgeNow) {
+				if (timer != null) {
+					timer.dispose();
+				}
+				sendHedge();
+			}
+			else if (terminate) {
+				terminate(error);
+			}
+		}
+
+		void terminate(@Nullable Throwable error) {
+			if (error != null) {
+				actual.onError(error);
+			}
+			else {
+				actual.onComplete();
+			}
+		}
+
+		@Override
+		public void request(long n) {
+			// A single connection is emitted
+		}
+
+		@Override
+		public void cancel() {
+			HedgeAttempt original;
+			HedgeAttempt hedged;
+			Disposable timer;
+			synchronized (this) {
+				if (done) {
+					return;
+				}
+				done = true;
+				original = this.original;
+				hedged = this.hedged;
+				timer = this.timer;
+			}
+			if (timer != null) {
+				timer.dispose();
+			}
+			if (original != null) {
+				original.cancel();
+			}
+			if (hedged != null) {
+				hedged.cancel();
+			}
+		}
+	}
+
+	static final class HedgeAttempt implements CoreSubscriber<Connection> {
+
+		final HedgeRace race;
+		final long startNanos = System.nanoTime();
+
+		volatile Subscription s;
+		static final AtomicReferenceFieldUpdater<HedgeAttempt, Subscription> S =
+				AtomicReferenceFieldUpdater.newUpdater(HedgeAttempt.class, Subscription.class, "s");
+
+		boolean hasValue;
+
+		HedgeAttempt(HedgeRace race) {
+			this.race = race;
+		}
+
+		@Override
+		public Context currentContext() {
+			return race.actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.setOnce(S, this, s)) {
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		@Override
+		public void onNext(Connection connection) {
+			hasValue = true;
+			race.onNext(this, connection);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			race.onError(this, t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (!hasValue) {
+				race.onError(this, null);
+			}
+		}
+
+		void cancel() {
+			Operators.terminate(S, this);
+		}
+	}
+}
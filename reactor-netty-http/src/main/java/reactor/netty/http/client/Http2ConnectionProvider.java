@@ -21,6 +21,7 @@ import io.netty.handler.codec.http2.Http2StreamChannel;
 import io.netty.handler.ssl.ApplicationProtocolNames;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.Attribute;
 import io.netty.util.AttributeKey;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
@@ -52,6 +53,7 @@ import java.io.IOException;
 import java.net.SocketAddress;
 import java.time.Duration;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -64,6 +66,11 @@ import static reactor.netty.http.client.HttpClientState.UPGRADE_SUCCESSFUL;
 
 /**
  * A HTTP/2 implementation for pooled {@link ConnectionProvider}.
+ * <p>
+ * The streams are opened on the connection with the fewest active streams. A connection on which
+ * the {@code SETTINGS_MAX_CONCURRENT_STREAMS} of the server is reached is kept out of the pool until
+ * one of its streams is closed, so that the new streams are opened on the other connections, on a new
+ * connection when the pool is not full, or wait for a stream to be closed.
  *
  * @author Violeta Georgieva
  * @since 1.0.0
@@ -114,9 +121,20 @@ final class Http2ConnectionProvider extends PooledConnectionProvider<Connection>
 
 	static void registerClose(Channel channel) {
 		ConnectionObserver owner = channel.attr(OWNER).get();
+		AtomicInteger activeStreams = activeStreams(channel.parent());
+		activeStreams.incrementAndGet();
 		channel.closeFuture()
 		       .addListener(f -> {
 		           Channel parent = channel.parent();
+		           activeStreams.decrementAndGet();
+		           DisposableAcquire saturated = parent.attr(SATURATED).getAndSet(null);
+		           if (saturated != null) {
+		               if (log.isDebugEnabled()) {
+		                   log.debug(format(parent, "Stream closed, the channel is given back to the pool"));
+		               }
+		               DisposableAcquire.release(saturated, parent);
+		           }
+
 		           Http2FrameCodec frameCodec = parent.pipeline().get(Http2FrameCodec.class);
 		           int numActiveStreams = frameCodec.connection().local().numActiveStreams();
 		           if (log.isDebugEnabled()) {
@@ -132,10 +150,34 @@ final class Http2ConnectionProvider extends PooledConnectionProvider<Connection>
 		       });
 	}
 
+	/**
+	 * Returns the number of streams opened on the connection and not closed yet, including the
+	 * streams whose headers are not sent yet and that are not active for the {@link Http2FrameCodec}.
+	 */
+	static AtomicInteger activeStreams(Channel channel) {
+		Attribute<AtomicInteger> attr = channel.attr(ACTIVE_STREAMS);
+		AtomicInteger activeStreams = attr.get();
+		if (activeStreams == null) {
+			activeStreams = new AtomicInteger();
+			AtomicInteger previous = attr.setIfAbsent(activeStreams);
+			if (previous != null) {
+				activeStreams = previous;
+			}
+		}
+		return activeStreams;
+	}
+
 	static final Logger log = Loggers.getLogger(Http2ConnectionProvider.class);
 
 	static final AttributeKey<ConnectionObserver> OWNER = AttributeKey.valueOf("http2ConnectionOwner");
 
+	static final AttributeKey<AtomicInteger> ACTIVE_STREAMS = AttributeKey.valueOf("http2ActiveStreams");
+
+	/**
+	 * The acquisition holding a connection out of the pool while its max active streams is reached.
+	 */
+	static final AttributeKey<DisposableAcquire> SATURATED = AttributeKey.valueOf("http2ConnectionSaturated");
+
 	static final class DelegatingConnectionObserver implements ConnectionObserver {
 
 		@Override
@@ -305,8 +347,12 @@ final class Http2ConnectionProvider extends PooledConnectionProvider<Connection>
 			Http2FrameCodec frameCodec = channel.pipeline().get(Http2FrameCodec.class);
 			if (future.isSuccess()) {
 				Http2StreamChannel ch = future.getNow();
+				// The opened stream is included
+				int activeStreams = activeStreams(channel).get();
+				int maxActiveStreams = frameCodec.connection().local().maxActiveStreams();
 
-				if (!frameCodec.connection().local().canOpenStream()) {
+				if (!frameCodec.connection().local().canOpenStream() || activeStreams > maxActiveStreams) {
+					ch.close();
 					if (!retried) {
 						if (log.isDebugEnabled()) {
 							log.debug(format(ch, "Immediately aborted pooled channel max active streams is reached, " +
@@ -328,8 +374,16 @@ final class Http2ConnectionProvider extends PooledConnectionProvider<Connection>
 
 					if (log.isDebugEnabled()) {
 						log.debug(format(ch, "Stream opened, now {} active streams, {} max active streams."),
-								frameCodec.connection().local().numActiveStreams(),
-								frameCodec.connection().local().maxActiveStreams());
+								activeStreams, maxActiveStreams);
+					}
+
+					if (activeStreams >= maxActiveStreams) {
+						if (log.isDebugEnabled()) {
+							log.debug(format(channel, "Max active streams is reached, the channel is kept out of the pool " +
+									"until a stream is closed"));
+						}
+						channel.attr(SATURATED).set(this);
+						return;
 					}
 				}
 			}
@@ -442,7 +496,8 @@ final class Http2ConnectionProvider extends PooledConnectionProvider<Connection>
 			this.config = (HttpClientConfig) config;
 			this.remoteAddress = remoteAddress;
 			this.resolver = resolver;
-			this.pool = poolFactory.newPool(connectChannel(), null, DEFAULT_DESTROY_HANDLER, DEFAULT_EVICTION_PREDICATE);
+			this.pool = poolFactory.newPool(connectChannel(), DEFAULT_DESTROY_HANDLER, DEFAULT_EVICTION_PREDICATE,
+					connection -> activeStreams(connection.channel()).get());
 		}
 
 		Publisher<Connection> connectChannel() {
@@ -57,6 +57,7 @@ final class Http2Resources extends TcpResources {
 		Builder builder =
 				ConnectionProvider.builder("http2")
 				                  .maxConnections(parent.maxConnections())
+				                  .minConnections(parent.minConnections())
 				                  .pendingAcquireMaxCount(-1);
 		if (parent.maxConnectionsPerHost() != null) {
 			parent.maxConnectionsPerHost()
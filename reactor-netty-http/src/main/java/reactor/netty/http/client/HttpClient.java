@@ -443,6 +443,51 @@ public abstract class HttpClient extends ClientTransport<HttpClient, HttpClientC
 		return dup;
 	}
 
+	/**
+	 * Enable an in-memory RFC 7234 private cache of the responses to the {@code GET} requests received with
+	 * {@link ResponseReceiver#responseSingle(BiFunction)}. The fresh responses are served without acquiring a
+	 * connection, the stale responses with validators are revalidated with a conditional request.
+	 * The cached bodies are kept off-heap, the least recently used responses are evicted first.
+	 * The cache is shared by the {@link HttpClient} instances derived from the returned one.
+	 *
+	 * @param cacheSpec configures {@link HttpResponseCacheSpec} before requesting
+	 * @return a new {@link HttpClient}
+	 * @since 1.0.3
+	 */
+	public final HttpClient cache(Consumer<HttpResponseCacheSpec.Builder> cacheSpec) {
+		Objects.requireNonNull(cacheSpec, "cacheSpec");
+		HttpResponseCacheSpec.Builder builder = HttpResponseCacheSpec.builder();
+		cacheSpec.accept(builder);
+		HttpResponseCacheSpec spec = builder.build();
+		HttpClient dup = duplicate();
+		dup.configuration().cacheSpec = spec;
+		dup.configuration().responseCache = new HttpResponseCache(spec.maxSize, spec.maxEntrySize);
+		return dup;
+	}
+
+	/**
+	 * Enables or disables the coalescing of the concurrent identical {@code GET} and {@code HEAD} requests
+	 * received with {@link ResponseReceiver#responseSingle(BiFunction)}: the identical requests share one
+	 * in-flight exchange and each of them receives the aggregated response body.
+	 * <p>The requests are identical when they have the same method, remote address, URI and headers.
+	 * The requests with a body, with a deferred URI, with deferred headers or with a
+	 * {@link #doOnRequest(BiConsumer)} callback are not coalesced. The {@link HttpClientResponse} is shared,
+	 * the response body is received only through the {@link ByteBufMono} given to the receiver, released
+	 * after the receiver unless retained.
+	 *
+	 * @param coalesceRequests true enables the coalescing of the requests, false disables it
+	 * @return a new {@link HttpClient}
+	 * @since 1.0.3
+	 */
+	public final HttpClient coalesceRequests(boolean coalesceRequests) {
+		if (!coalesceRequests && configuration().coalescer == null) {
+			return this;
+		}
+		HttpClient dup = duplicate();
+		dup.configuration().coalescer = coalesceRequests ? new HttpClientRequestCoalescer() : null;
+		return dup;
+	}
+
 	/**
 	 * Specifies whether GZip compression is enabled.
 	 *
@@ -565,6 +610,30 @@ public abstract class HttpClient extends ClientTransport<HttpClient, HttpClientC
 		return dup;
 	}
 
+	/**
+	 * Specifies the deadline of the requests: the connection must be acquired (including the connect and the
+	 * TLS handshake when a new connection is opened), the request sent and the response received until its
+	 * last content within the given duration, measured from the subscription, otherwise the request fails
+	 * with a {@link DeadlineExceededException}. The pending acquisition is cancelled, the connection of a
+	 * request already sent is closed.
+	 * <p>The deadlines are tracked by a timing wheel per event loop with a resolution of {@code 10ms}.
+	 * The deadline setting on {@link HttpClientRequest} level overrides the remaining deadline
+	 * on {@link HttpClient} level. The deadline does not apply to the websocket connections.
+	 *
+	 * @param deadline the deadline duration
+	 * @return a new {@link HttpClient}
+	 * @since 1.0.3
+	 */
+	public final HttpClient deadline(Duration deadline) {
+		Objects.requireNonNull(deadline, "deadline");
+		if (Objects.equals(deadline, configuration().deadline)) {
+			return this;
+		}
+		HttpClient dup = duplicate();
+		dup.configuration().deadline = deadline;
+		return dup;
+	}
+
 	/**
 	 * HTTP DELETE to connect the {@link HttpClient}.
 	 *
@@ -959,6 +1028,27 @@ public abstract class HttpClient extends ClientTransport<HttpClient, HttpClientC
 		return request(HttpMethod.HEAD);
 	}
 
+	/**
+	 * Enable the hedging of the idempotent requests without a body ({@code GET}, {@code HEAD}, {@code OPTIONS},
+	 * {@code TRACE}, {@code PUT} and {@code DELETE}): when the response headers are not received within the
+	 * hedging delay of the {@link HedgePolicy}, the same request is sent again on another connection, the first
+	 * response received wins and the other request is cancelled, its connection is closed.
+	 * <p>The hedging delay is derived from the latencies of the responses received with the given policy,
+	 * shared by the {@link HttpClient} instances using it, and the hedged requests are limited by its budget.
+	 * When the first request fails before the hedging delay, the hedged request is sent at once and the error
+	 * of the first request is propagated only if the hedged request fails too, or cannot be sent.
+	 *
+	 * @param hedgePolicy the {@link HedgePolicy} of the hedged requests
+	 * @return a new {@link HttpClient}
+	 * @since 1.0.3
+	 */
+	public final HttpClient hedge(HedgePolicy hedgePolicy) {
+		Objects.requireNonNull(hedgePolicy, "hedgePolicy");
+		HttpClient dup = duplicate();
+		dup.configuration().hedgePolicy = hedgePolicy;
+		return dup;
+	}
+
 	/**
 	 * Apply headers configuration.
 	 *
@@ -1344,6 +1434,21 @@ public abstract class HttpClient extends ClientTransport<HttpClient, HttpClientC
 		return tcpClient.httpClient;
 	}
 
+	/**
+	 * Establish, in parallel, the minimum number of connections configured with
+	 * {@link ConnectionProvider.ConnectionPoolSpec#minConnections(int)} to the remote host of this
+	 * {@link HttpClient}, as defined by {@link #baseUrl(String)} or {@link #remoteAddress(Supplier)}.
+	 * TLS handshakes are performed and, when HTTP/2 is configured with TLS, the protocol is negotiated,
+	 * so that the connections are ready to serve requests.
+	 * Subscribe to the returned {@link Mono} before the application starts serving traffic.
+	 *
+	 * @return a {@link Mono} completing when the connections are established
+	 * @since 1.0.3
+	 */
+	public final Mono<Void> warmup() {
+		return HttpClientConnect.warmup(configuration());
+	}
+
 	/**
 	 * HTTP Websocket to connect the {@link HttpClient}.
 	 *
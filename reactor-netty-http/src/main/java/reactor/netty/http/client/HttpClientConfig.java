@@ -72,6 +72,7 @@ import reactor.netty.channel.ChannelOperations;
 import reactor.netty.http.Http2SettingsSpec;
 import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.HttpResources;
+import reactor.netty.http.internal.Http2FrameCodecs;
 import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.resources.LoopResources;
 import reactor.netty.tcp.SslProvider;
@@ -112,6 +113,17 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 		return (ch, c, msg) -> new HttpClientOperations(ch, c, cookieEncoder, cookieDecoder);
 	}
 
+	/**
+	 * Return the response cache configuration or null.
+	 *
+	 * @return the response cache configuration or null
+	 * @since 1.0.3
+	 */
+	@Nullable
+	public HttpResponseCacheSpec cacheSpec() {
+		return cacheSpec;
+	}
+
 	/**
 	 * Return the configured {@link ClientCookieDecoder} or the default {@link ClientCookieDecoder#STRICT}.
 	 *
@@ -130,6 +142,17 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 		return cookieEncoder;
 	}
 
+	/**
+	 * Return the configured deadline of the requests or null
+	 *
+	 * @return the configured deadline of the requests or null
+	 * @since 1.0.3
+	 */
+	@Nullable
+	public Duration deadline() {
+		return deadline;
+	}
+
 	/**
 	 * Return the configured HTTP response decoder options or the default.
 	 *
@@ -158,6 +181,17 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 		return headers.copy();
 	}
 
+	/**
+	 * Return the {@link HedgePolicy} of the hedged requests or null.
+	 *
+	 * @return the {@link HedgePolicy} of the hedged requests or null
+	 * @since 1.0.3
+	 */
+	@Nullable
+	public HedgePolicy hedgePolicy() {
+		return hedgePolicy;
+	}
+
 	/**
 	 * Return the HTTP/2 configuration
 	 *
@@ -290,6 +324,10 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 	boolean acceptGzip;
 	String baseUrl;
 	BiFunction<? super HttpClientRequest, ? super NettyOutbound, ? extends Publisher<Void>> body;
+	HttpResponseCacheSpec cacheSpec;
+	HttpResponseCache responseCache;
+	HttpClientRequestCoalescer coalescer;
+	HedgePolicy hedgePolicy;
 	Function<? super Mono<? extends Connection>, ? extends Mono<? extends Connection>> connector;
 	ClientCookieDecoder cookieDecoder;
 	ClientCookieEncoder cookieEncoder;
@@ -311,6 +349,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 	BiConsumer<HttpHeaders, HttpClientRequest> redirectRequestBiConsumer;
 	Consumer<HttpClientRequest> redirectRequestConsumer;
 	Duration responseTimeout;
+	Duration deadline;
 	boolean retryDisabled;
 	SslProvider sslProvider;
 	URI uri;
@@ -337,6 +376,10 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 		this.acceptGzip = parent.acceptGzip;
 		this.baseUrl = parent.baseUrl;
 		this.body = parent.body;
+		this.cacheSpec = parent.cacheSpec;
+		this.responseCache = parent.responseCache;
+		this.coalescer = parent.coalescer;
+		this.hedgePolicy = parent.hedgePolicy;
 		this.connector = parent.connector;
 		this.cookieDecoder = parent.cookieDecoder;
 		this.cookieEncoder = parent.cookieEncoder;
@@ -358,6 +401,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 		this.redirectRequestBiConsumer = parent.redirectRequestBiConsumer;
 		this.redirectRequestConsumer = parent.redirectRequestConsumer;
 		this.responseTimeout = parent.responseTimeout;
+		this.deadline = parent.deadline;
 		this.retryDisabled = parent.retryDisabled;
 		this.sslProvider = parent.sslProvider;
 		this.uri = parent.uri;
@@ -450,6 +494,8 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 
 	Http2Settings http2Settings() {
 		Http2Settings settings = Http2Settings.defaultSettings();
+		// The server pushes are not handled
+		settings.pushEnabled(false);
 
 		if (http2Settings != null) {
 			Long headerTableSize = http2Settings.headerTableSize();
@@ -484,7 +530,8 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 	}
 
 	static void configureHttp2Pipeline(ChannelPipeline p, boolean acceptGzip, HttpResponseDecoderSpec decoder,
-			Http2Settings http2Settings, ConnectionObserver observer) {
+			Http2Settings http2Settings, @Nullable Http2SettingsSpec http2SettingsSpec,
+			@Nullable Supplier<? extends ChannelMetricsRecorder> metricsRecorder, ConnectionObserver observer) {
 		Http2FrameCodecBuilder http2FrameCodecBuilder =
 				Http2FrameCodecBuilder.forClient()
 				                      .validateHeaders(decoder.validateHeaders())
@@ -495,7 +542,8 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 					"reactor.netty.http.client.h2"));
 		}
 
-		p.addBefore(NettyPipeline.ReactiveBridge, NettyPipeline.HttpCodec, http2FrameCodecBuilder.build())
+		p.addBefore(NettyPipeline.ReactiveBridge, NettyPipeline.HttpCodec,
+				Http2FrameCodecs.build(http2FrameCodecBuilder, http2SettingsSpec, metricsRecorder))
 		 .addBefore(NettyPipeline.ReactiveBridge, NettyPipeline.H2MultiplexHandler, new Http2MultiplexHandler(new H2Codec(acceptGzip)))
 		 .addBefore(NettyPipeline.ReactiveBridge, NettyPipeline.HttpTrafficHandler, new HttpTrafficHandler(observer));
 	}
@@ -505,6 +553,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 			boolean acceptGzip,
 			HttpResponseDecoderSpec decoder,
 			Http2Settings http2Settings,
+			@Nullable Http2SettingsSpec http2SettingsSpec,
 			@Nullable Supplier<? extends ChannelMetricsRecorder> metricsRecorder,
 			ConnectionObserver observer,
 			ChannelOperations.OnSetup opsFactory,
@@ -529,7 +578,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 					"reactor.netty.http.client.h2"));
 		}
 
-		Http2FrameCodec http2FrameCodec = http2FrameCodecBuilder.build();
+		Http2FrameCodec http2FrameCodec = Http2FrameCodecs.build(http2FrameCodecBuilder, http2SettingsSpec, metricsRecorder);
 
 		Http2ClientUpgradeCodec upgradeCodec = new Http2ClientUpgradeCodec(http2FrameCodec,
 				new H2CleartextCodec(http2FrameCodec, opsFactory, acceptGzip));
@@ -703,6 +752,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 		final boolean                                    acceptGzip;
 		final HttpResponseDecoderSpec                    decoder;
 		final Http2Settings                              http2Settings;
+		final Http2SettingsSpec                          http2SettingsSpec;
 		final Supplier<? extends ChannelMetricsRecorder> metricsRecorder;
 		final ConnectionObserver                         observer;
 		final Function<String, String>                   uriTagValue;
@@ -711,6 +761,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 			this.acceptGzip = initializer.acceptGzip;
 			this.decoder = initializer.decoder;
 			this.http2Settings = initializer.http2Settings;
+			this.http2SettingsSpec = initializer.http2SettingsSpec;
 			this.metricsRecorder = initializer.metricsRecorder;
 			this.observer = observer;
 			this.uriTagValue = initializer.uriTagValue;
@@ -727,7 +778,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 				log.debug(format(ctx.channel(), "Negotiated application-level protocol [" + protocol + "]"));
 			}
 			if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
-				configureHttp2Pipeline(ctx.channel().pipeline(), acceptGzip, decoder, http2Settings, observer);
+				configureHttp2Pipeline(ctx.channel().pipeline(), acceptGzip, decoder, http2Settings, http2SettingsSpec, metricsRecorder, observer);
 			}
 			else if (ApplicationProtocolNames.HTTP_1_1.equals(protocol)) {
 				configureHttp11Pipeline(ctx.channel().pipeline(), acceptGzip, decoder, metricsRecorder, uriTagValue);
@@ -747,6 +798,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 		final boolean                                    acceptGzip;
 		final HttpResponseDecoderSpec                    decoder;
 		final Http2Settings                              http2Settings;
+		final Http2SettingsSpec                          http2SettingsSpec;
 		final Supplier<? extends ChannelMetricsRecorder> metricsRecorder;
 		final ChannelOperations.OnSetup                  opsFactory;
 		final int                                        protocols;
@@ -757,6 +809,7 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 			this.acceptGzip = config.acceptGzip;
 			this.decoder = config.decoder;
 			this.http2Settings = config.http2Settings();
+			this.http2SettingsSpec = config.http2Settings;
 			this.metricsRecorder = config.metricsRecorder();
 			this.opsFactory = config.channelOperationsProvider();
 			this.protocols = config._protocols;
@@ -778,18 +831,19 @@ public final class HttpClientConfig extends ClientTransportConfig<HttpClientConf
 					configureHttp11Pipeline(channel.pipeline(), acceptGzip, decoder, metricsRecorder, uriTagValue);
 				}
 				else if ((protocols & h2) == h2) {
-					configureHttp2Pipeline(channel.pipeline(), acceptGzip, decoder, http2Settings, observer);
+					configureHttp2Pipeline(channel.pipeline(), acceptGzip, decoder, http2Settings, http2SettingsSpec, metricsRecorder, observer);
 				}
 			}
 			else {
 				if ((protocols & h11orH2C) == h11orH2C) {
-					configureHttp11OrH2CleartextPipeline(channel.pipeline(), acceptGzip, decoder, http2Settings, metricsRecorder, observer, opsFactory, uriTagValue);
+					configureHttp11OrH2CleartextPipeline(channel.pipeline(), acceptGzip, decoder, http2Settings, http2SettingsSpec,
+							metricsRecorder, observer, opsFactory, uriTagValue);
 				}
 				else if ((protocols & h11) == h11) {
 					configureHttp11Pipeline(channel.pipeline(), acceptGzip, decoder, metricsRecorder, uriTagValue);
 				}
 				else if ((protocols & h2c) == h2c) {
-					configureHttp2Pipeline(channel.pipeline(), acceptGzip, decoder, http2Settings, observer);
+					configureHttp2Pipeline(channel.pipeline(), acceptGzip, decoder, http2Settings, http2SettingsSpec, metricsRecorder, observer);
 				}
 			}
 		}
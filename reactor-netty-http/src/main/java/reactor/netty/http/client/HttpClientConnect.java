@@ -33,6 +33,7 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
@@ -109,10 +110,10 @@ class HttpClientConnect extends HttpClient {
 		Mono<? extends Connection> mono;
 		if (config.deferredConf != null) {
 			return config.deferredConf.apply(Mono.just(config))
-			           .flatMap(MonoHttpConnect::new);
+			           .flatMap(c -> hedge(c, new MonoHttpConnect(c)));
 		}
 		else {
-			mono = new MonoHttpConnect(config);
+			mono = hedge(config, new MonoHttpConnect(config));
 		}
 
 		if (config.doOnConnect() != null) {
@@ -132,11 +133,33 @@ class HttpClientConnect extends HttpClient {
 		return mono;
 	}
 
+	static Mono<Connection> hedge(HttpClientConfig config, Mono<Connection> connect) {
+		return config.hedgePolicy != null && HedgePolicy.isHedgeable(config) ?
+				config.hedgePolicy.hedge(connect) : connect;
+	}
+
 	@Override
 	protected HttpClient duplicate() {
 		return new HttpClientConnect(new HttpClientConfig(config));
 	}
 
+	static Mono<Void> warmup(HttpClientConfig config) {
+		if (config.deferredConf != null) {
+			return config.deferredConf.apply(Mono.just(config))
+			                          .flatMap(HttpClientConnect::doWarmup);
+		}
+		return doWarmup(config);
+	}
+
+	static Mono<Void> doWarmup(HttpClientConfig config) {
+		return Mono.defer(() -> {
+			HttpClientHandler handler = new HttpClientHandler(config);
+			HttpClientConfig _config = MonoHttpConnect.connectConfig(config, handler.toURI.isSecure());
+			return _config.connectionProvider()
+			              .warmup(_config, handler, _config.resolverInternal());
+		});
+	}
+
 	@SuppressWarnings("unchecked")
 	static HttpClient applyTcpClientConfig(TcpClientConfig config) {
 		HttpClient httpClient =
@@ -204,53 +227,21 @@ class HttpClientConnect extends HttpClient {
 		public void subscribe(CoreSubscriber<? super Connection> actual) {
 			HttpClientHandler handler = new HttpClientHandler(config);
 
-			Mono.<Connection>create(sink -> {
-				HttpClientConfig _config = config;
-
-				//append secure handler if needed
-				if (handler.toURI.isSecure()) {
-					if (_config.sslProvider == null) {
-						_config = new HttpClientConfig(config);
-						if (checkProtocol(_config, HttpClientConfig.h2c) && _config.protocols.length > 1) {
-							removeIncompatibleProtocol(_config, HttpProtocol.H2C);
-						}
-						_config.sslProvider = HttpClientSecure.defaultSslProvider(_config);
-					}
-
-					if (checkProtocol(_config, HttpClientConfig.h2c)) {
-						sink.error(new IllegalArgumentException(
-								"Configured H2 Clear-Text protocol with TLS. " +
-										"Use the non Clear-Text H2 protocol via HttpClient#protocol or disable TLS " +
-										"via HttpClient#noSSL()"));
-						return;
-					}
+			CoreSubscriber<? super Connection> subscriber = actual;
+			if (config.deadline != null && config.websocketClientSpec == null) {
+				EventLoop eventLoop = config.loopResources().onClient(config.isPreferNative()).next();
+				handler.deadline = new HttpClientDeadline(actual, config.deadline, DeadlineTimer.of(eventLoop));
+				subscriber = handler.deadline;
+			}
 
-					if (_config.sslProvider.getDefaultConfigurationType() == null) {
-						if (checkProtocol(_config, HttpClientConfig.h2)) {
-							_config.sslProvider = SslProvider.updateDefaultConfiguration(_config.sslProvider,
-									SslProvider.DefaultConfigurationType.H2);
-						}
-						else {
-							_config.sslProvider = SslProvider.updateDefaultConfiguration(_config.sslProvider,
-									SslProvider.DefaultConfigurationType.TCP);
-						}
-					}
+			Mono.<Connection>create(sink -> {
+				HttpClientConfig _config;
+				try {
+					_config = connectConfig(config, handler.toURI.isSecure());
 				}
-				else {
-					if (_config.sslProvider != null) {
-						_config = new HttpClientConfig(config);
-						if (checkProtocol(_config, HttpClientConfig.h2) && _config.protocols.length > 1) {
-							removeIncompatibleProtocol(_config, HttpProtocol.H2);
-						}
-						_config.sslProvider = null;
-					}
-
-					if (checkProtocol(_config, HttpClientConfig.h2)) {
-						sink.error(new IllegalArgumentException(
-								"Configured H2 protocol without TLS. Use H2 Clear-Text " +
-										"protocol via HttpClient#protocol or configure TLS via HttpClient#secure"));
-						return;
-					}
+				catch (IllegalArgumentException e) {
+					sink.error(e);
+					return;
 				}
 
 				ConnectionObserver observer =
@@ -266,10 +257,64 @@ class HttpClientConnect extends HttpClient {
 						.subscribe(new ClientTransportSubscriber(sink));
 
 			}).retryWhen(Retry.indefinitely().filter(handler))
-			  .subscribe(actual);
+			  .subscribe(subscriber);
+		}
+
+		/**
+		 * Returns the configuration to use for connecting to a secure or an insecure endpoint.
+		 *
+		 * @throws IllegalArgumentException if the configured protocols cannot be used with such an endpoint
+		 */
+		static HttpClientConfig connectConfig(HttpClientConfig config, boolean secure) {
+			HttpClientConfig _config = config;
+
+			//append secure handler if needed
+			if (secure) {
+				if (_config.sslProvider == null) {
+					_config = new HttpClientConfig(config);
+					if (checkProtocol(_config, HttpClientConfig.h2c) && _config.protocols.length > 1) {
+						removeIncompatibleProtocol(_config, HttpProtocol.H2C);
+					}
+					_config.sslProvider = HttpClientSecure.defaultSslProvider(_config);
+				}
+
+				if (checkProtocol(_config, HttpClientConfig.h2c)) {
+					throw new IllegalArgumentException(
+							"Configured H2 Clear-Text protocol with TLS. " +
+									"Use the non Clear-Text H2 protocol via HttpClient#protocol or disable TLS " +
+									"via HttpClient#noSSL()");
+				}
+
+				if (_config.sslProvider.getDefaultConfigurationType() == null) {
+					if (checkProtocol(_config, HttpClientConfig.h2)) {
+						_config.sslProvider = SslProvider.updateDefaultConfiguration(_config.sslProvider,
+								SslProvider.DefaultConfigurationType.H2);
+					}
+					else {
+						_config.sslProvider = SslProvider.updateDefaultConfiguration(_config.sslProvider,
+								SslProvider.DefaultConfigurationType.TCP);
+					}
+				}
+			}
+			else {
+				if (_config.sslProvider != null) {
+					_config = new HttpClientConfig(config);
+					if (checkProtocol(_config, HttpClientConfig.h2) && _config.protocols.length > 1) {
+						removeIncompatibleProtocol(_config, HttpProtocol.H2);
+					}
+					_config.sslProvider = null;
+				}
+
+				if (checkProtocol(_config, HttpClientConfig.h2)) {
+					throw new IllegalArgumentException(
+							"Configured H2 protocol without TLS. Use H2 Clear-Text " +
+									"protocol via HttpClient#protocol or configure TLS via HttpClient#secure");
+				}
+			}
+			return _config;
 		}
 
-		private void removeIncompatibleProtocol(HttpClientConfig config, HttpProtocol protocol) {
+		static void removeIncompatibleProtocol(HttpClientConfig config, HttpProtocol protocol) {
 			List<HttpProtocol> newProtocols = new ArrayList<>();
 			for (int i = 0; i < config.protocols.length; i++) {
 				if (config.protocols[i] != protocol) {
@@ -279,7 +324,7 @@ class HttpClientConnect extends HttpClient {
 			config.protocols(newProtocols.toArray(new HttpProtocol[0]));
 		}
 
-		private boolean checkProtocol(HttpClientConfig config, int protocol) {
+		static boolean checkProtocol(HttpClientConfig config, int protocol) {
 			return (config._protocols & protocol) == protocol;
 		}
 
@@ -421,6 +466,7 @@ class HttpClientConnect extends HttpClient {
 		final ProxyProvider           proxyProvider;
 		final Duration                responseTimeout;
 
+		HttpClientDeadline          deadline;
 		volatile UriEndpoint        toURI;
 		volatile UriEndpoint        fromURI;
 		volatile Supplier<String>[] redirectedFrom;
@@ -480,6 +526,10 @@ class HttpClientConnect extends HttpClient {
 			try {
 				ch.resourceUrl = toURI.toExternalForm();
 				ch.responseTimeout = responseTimeout;
+				if (deadline != null) {
+					ch.deadline = deadline;
+					deadline.bind(ch);
+				}
 
 				UriEndpoint uri = toURI;
 				HttpHeaders headers = ch.getNettyRequest()
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import io.netty.channel.EventLoop;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Operators;
+import reactor.netty.Connection;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * The deadline of a request, scheduled on a {@link DeadlineTimer}.
+ * <p>
+ * The deadline of {@link HttpClient#deadline(Duration)} starts with the subscription and covers the
+ * acquisition of the connection (including the connect and the TLS handshake), the request and the response
+ * until its last content. Until the request is bound to a connection, the expiry cancels the acquisition and
+ * signals the error, then the exchange is failed through its {@link HttpClientOperations}.
+ * The deadline of {@link HttpClientRequest#deadline(Duration)} starts with the request.
+ */
+final class HttpClientDeadline implements CoreSubscriber<Connection>, Subscription, Runnable {
+
+	@Nullable
+	final CoreSubscriber<? super Connection> actual;
+	final DeadlineTimer timer;
+
+	Subscription s;
+
+	volatile Duration budget;
+	volatile long deadlineNanos;
+	volatile DeadlineTimer.Timeout timeout;
+	volatile HttpClientOperations ops;
+	volatile int state;
+
+	HttpClientDeadline(CoreSubscriber<? super Connection> actual, Duration budget, DeadlineTimer timer) {
+		this.actual = actual;
+		this.budget = budget;
+		this.timer = timer;
+	}
+
+	HttpClientDeadline(HttpClientOperations ops) {
+		this.actual = null;
+		this.timer = DeadlineTimer.of(ops.channel().eventLoop());
+		this.ops = ops;
+	}
+
+	@Override
+	public Context currentContext() {
+		return actual != null ? actual.currentContext() : Context.empty();
+	}
+
+	@Override
+	public void onSubscribe(Subscription s) {
+		if (Operators.validate(this.s, s) && actual != null) {
+			this.s = s;
+			actual.onSubscribe(this);
+			reschedule(budget);
+		}
+	}
+
+	@Override
+	public void onNext(Connection connection) {
+		if (actual != null && STATE.compareAndSet(this, PENDING, RESPONDED)) {
+			actual.onNext(connection);
+		}
+		else {
+			connection.dispose();
+		}
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		if (actual != null && STATE.getAndSet(this, TERMINATED) != TERMINATED) {
+			cancelTimeout();
+			actual.onError(t);
+		}
+		else {
+			Operators.onErrorDropped(t, currentContext());
+		}
+	}
+
+	@Override
+	public void onComplete() {
+		int previous = STATE.getAndSet(this, TERMINATED);
+		if (previous == PENDING) {
+			cancelTimeout();
+		}
+		if (actual != null && previous != TERMINATED) {
+			actual.onComplete();
+		}
+	}
+
+	@Override
+	public void request(long n) {
+		s.request(n);
+	}
+
+	@Override
+	public void cancel() {
+		if (STATE.getAndSet(this, TERMINATED) == PENDING) {
+			cancelTimeout();
+		}
+		s.cancel();
+	}
+
+	/**
+	 * Binds this deadline to the given request, the expiry fails the exchange through it.
+	 */
+	void bind(HttpClientOperations ops) {
+		this.ops = ops;
+	}
+
+	/**
+	 * Cancels this deadline once the response is received.
+	 */
+	void complete() {
+		cancelTimeout();
+	}
+
+	/**
+	 * Moves this deadline to the given duration from now.
+	 */
+	void reschedule(Duration budget) {
+		this.budget = budget;
+		long deadlineNanos = System.nanoTime() + budget.toNanos();
+		this.deadlineNanos = deadlineNanos;
+		DeadlineTimer.Timeout previous = timeout;
+		timeout = timer.schedule(deadlineNanos, this);
+		if (previous != null) {
+			previous.cancel();
+		}
+	}
+
+	@Override
+	public void run() {
+		if (System.nanoTime() - deadlineNanos < 0) {
+			// rescheduled
+			return;
+		}
+		HttpClientOperations ops = this.ops;
+		if (ops == null) {
+			if (actual != null && STATE.compareAndSet(this, PENDING, TERMINATED)) {
+				s.cancel();
+				actual.onError(new DeadlineExceededException("Deadline of " + budget.toMillis() +
+						"ms exceeded while acquiring the connection"));
+			}
+			return;
+		}
+		EventLoop eventLoop = ops.channel().eventLoop();
+		if (eventLoop.inEventLoop()) {
+			ops.deadlineExceeded(budget);
+		}
+		else {
+			eventLoop.execute(() -> ops.deadlineExceeded(budget));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "HttpClientDeadline{budget=" + budget + ", ops=" + ops + '}';
+	}
+
+	void cancelTimeout() {
+		DeadlineTimer.Timeout timeout = this.timeout;
+		if (timeout != null) {
+			timeout.cancel();
+		}
+	}
+
+	static final int PENDING    = 0;
+	static final int RESPONDED  = 1;
+	static final int TERMINATED = 2;
+
+	static final AtomicIntegerFieldUpdater<HttpClientDeadline> STATE =
+			AtomicIntegerFieldUpdater.newUpdater(HttpClientDeadline.class, "state");
+}
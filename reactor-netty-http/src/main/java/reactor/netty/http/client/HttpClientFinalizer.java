@@ -17,6 +17,7 @@
 package reactor.netty.http.client;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -117,6 +118,21 @@ final class HttpClientFinalizer extends HttpClientConnect implements HttpClient.
 
 	@Override
 	public <V> Mono<V> responseSingle(BiFunction<? super HttpClientResponse, ? super ByteBufMono, ? extends Mono<V>> receiver) {
+		HttpResponseCache responseCache = configuration().responseCache;
+		if (responseCache != null) {
+			return responseCache.responseSingle(this, receiver);
+		}
+		return exchange(receiver);
+	}
+
+	<V> Mono<V> exchange(BiFunction<? super HttpClientResponse, ? super ByteBufMono, ? extends Mono<V>> receiver) {
+		HttpClientRequestCoalescer coalescer = configuration().coalescer;
+		if (coalescer != null) {
+			List<Object> key = coalescer.key(configuration());
+			if (key != null) {
+				return coalescer.coalesce(key, _connect(), receiver);
+			}
+		}
 		return _connect().flatMap(resp -> receiver.apply(resp, resp.receive().aggregate())
 		                                          .doFinally(s -> discard(resp)));
 	}
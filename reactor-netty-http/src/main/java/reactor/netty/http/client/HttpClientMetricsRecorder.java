@@ -58,4 +58,16 @@ public interface HttpClientMetricsRecorder extends HttpMetricsRecorder {
 	 * @param time the total time in nanoseconds for the request/response
 	 */
 	void recordResponseTime(SocketAddress remoteAddress, String uri, String method, String status, Duration time);
+
+	/**
+	 * Records a lookup of the response cache
+	 *
+	 * @param remoteAddress The remote peer
+	 * @param uri the requested URI
+	 * @param status the result of the lookup, {@link reactor.netty.Metrics#HIT}, {@link reactor.netty.Metrics#MISS}
+	 * or {@link reactor.netty.Metrics#REVALIDATED}
+	 * @since 1.0.3
+	 */
+	default void recordResponseCacheLookup(SocketAddress remoteAddress, String uri, String status) {
+	}
 }
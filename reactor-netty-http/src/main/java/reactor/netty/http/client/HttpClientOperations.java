@@ -52,6 +52,7 @@ import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpStatusClass;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.LastHttpContent;
@@ -107,11 +108,13 @@ class HttpClientOperations extends HttpOperations<NettyInbound, NettyOutbound>
 	String                      resourceUrl;
 	String                      path;
 	Duration                    responseTimeout;
+	HttpClientDeadline          deadline;
 
 	volatile ResponseState responseState;
 
 	boolean started;
 	boolean retrying;
+	boolean interimReceived;
 	RedirectClientException redirecting;
 
 	BiPredicate<HttpClientRequest, HttpClientResponse> followRedirectPredicate;
@@ -298,10 +301,34 @@ class HttpClientOperations extends HttpOperations<NettyInbound, NettyOutbound>
 			listener().onUncaughtException(this, redirecting);
 		}
 		else {
+			if (deadline != null) {
+				deadline.complete();
+			}
 			listener().onStateChange(this, HttpClientState.RESPONSE_COMPLETED);
 		}
 	}
 
+	/**
+	 * Fails the exchange once its deadline is exceeded and closes the connection.
+	 *
+	 * @param deadline the exceeded deadline
+	 */
+	@SuppressWarnings("FutureReturnValueIgnored")
+	void deadlineExceeded(Duration deadline) {
+		if (isInboundDisposed() || isInboundCancelled() || !channel().isActive()) {
+			return;
+		}
+		DeadlineExceededException error = new DeadlineExceededException("Deadline of " + deadline.toMillis() +
+				"ms exceeded " + (started ? "while receiving the response" : "before the response"));
+		// terminate the inbound first so that the closure is not reported as a premature close
+		onInboundError(error);
+		if (!started) {
+			listener().onUncaughtException(this, error);
+		}
+		//"FutureReturnValueIgnored" this is deliberate
+		channel().close();
+	}
+
 	@Override
 	public HttpClientRequest header(CharSequence name, CharSequence value) {
 		if (!hasSentHeaders()) {
@@ -331,6 +358,21 @@ class HttpClientOperations extends HttpOperations<NettyInbound, NettyOutbound>
 		return followRedirectPredicate != null && redirectedFrom.length <= MAX_REDIRECTS;
 	}
 
+	@Override
+	public HttpClientRequest deadline(Duration deadline) {
+		Objects.requireNonNull(deadline, "deadline");
+		if (!hasSentHeaders()) {
+			if (this.deadline == null) {
+				this.deadline = new HttpClientDeadline(this);
+			}
+			this.deadline.reschedule(deadline);
+		}
+		else {
+			throw new IllegalStateException("Status and headers already sent");
+		}
+		return this;
+	}
+
 	@Override
 	public HttpClientRequest responseTimeout(Duration timeout) {
 		if (!hasSentHeaders()) {
@@ -580,6 +622,16 @@ class HttpClientOperations extends HttpOperations<NettyInbound, NettyOutbound>
 				ReferenceCountUtil.release(msg);
 				return;
 			}
+			if (isInterim(response)) {
+				if (log.isDebugEnabled()) {
+					log.debug(format(channel(), "Received interim response {} : {}"),
+							response.status(), response.headers().toString());
+				}
+				// The empty content of an interim response is ignored as the response is not started
+				interimReceived = true;
+				ReferenceCountUtil.release(msg);
+				return;
+			}
 			if (started) {
 				if (log.isDebugEnabled()) {
 					log.debug(format(channel(), "HttpClientOperations cannot proceed more than one response {}"),
@@ -623,6 +675,16 @@ class HttpClientOperations extends HttpOperations<NettyInbound, NettyOutbound>
 				channel().config().setAutoRead(true);
 			}
 
+			if (interimReceived && HttpMethod.HEAD.equals(method())) {
+				// The decoder of HttpClientCodec pairs the method of the request with the interim response,
+				// the response to the HEAD request is decoded as a response with content which is never
+				// received, the connection cannot be reused
+				markPersistent(false);
+				ReferenceCountUtil.release(msg);
+				terminate();
+				return;
+			}
+
 			if (msg instanceof FullHttpResponse) {
 				FullHttpResponse request = (FullHttpResponse) msg;
 				if (request.content().readableBytes() > 0) {
@@ -637,6 +699,14 @@ class HttpClientOperations extends HttpOperations<NettyInbound, NettyOutbound>
 		}
 
 		if (msg instanceof LastHttpContent) {
+			if (!started && interimReceived) {
+				ReferenceCountUtil.release(msg);
+				// The final response is yet to be received
+				if (!channel().config().isAutoRead()) {
+					channel().read();
+				}
+				return;
+			}
 			if (!started) {
 				if (log.isDebugEnabled()) {
 					log.debug(format(channel(), "HttpClientOperations received an incorrect end " +
@@ -686,6 +756,16 @@ class HttpClientOperations extends HttpOperations<NettyInbound, NettyOutbound>
 		super.onInboundNext(ctx, msg);
 	}
 
+	/**
+	 * Returns whether the response is an interim response, e.g. {@code 103 Early Hints},
+	 * which precedes the final response. {@code 101 Switching Protocols} is a final response.
+	 */
+	static boolean isInterim(HttpResponse response) {
+		HttpResponseStatus status = response.status();
+		return status.codeClass() == HttpStatusClass.INFORMATIONAL &&
+				!HttpResponseStatus.SWITCHING_PROTOCOLS.equals(status);
+	}
+
 	@Override
 	protected HttpMessage outboundHttpMessage() {
 		return nettyRequest;
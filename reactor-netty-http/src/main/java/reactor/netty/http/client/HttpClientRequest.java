@@ -67,6 +67,19 @@ public interface HttpClientRequest extends HttpClientInfos {
 	 */
 	HttpClientRequest headers(HttpHeaders headers);
 
+	/**
+	 * Specifies the deadline of this request, measured from now: the request must be sent and the response
+	 * received until its last content within the given duration, otherwise the exchange fails with a
+	 * {@link DeadlineExceededException} and the connection is closed.
+	 * The deadline setting on {@link HttpClientRequest} level overrides the remaining deadline
+	 * set on {@link HttpClient} level.
+	 *
+	 * @param deadline the deadline duration
+	 * @return this outbound
+	 * @since 1.0.3
+	 */
+	HttpClientRequest deadline(Duration deadline);
+
 	/**
 	 * Return true if redirected will be followed
 	 *
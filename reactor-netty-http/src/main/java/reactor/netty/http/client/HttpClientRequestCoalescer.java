@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+import io.netty.handler.codec.http.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.ByteBufMono;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Shares one in-flight exchange between the concurrent identical {@code GET} and {@code HEAD}
+ * requests received with {@link HttpClient.ResponseReceiver#responseSingle(BiFunction)}.
+ * <p>
+ * The requests are identical when they have the same method, remote address, URI and headers, so that
+ * a response is never shared between requests with different credentials, cookies, conditional or range
+ * headers. The requests whose headers may be changed when they are sent are not coalesced.
+ * The response body is aggregated once, each request receives its own {@link ByteBufMono} of it,
+ * released after the receiver like the body of a request that is not coalesced.
+ * The exchange is forgotten once it terminates, the next identical request is sent.
+ */
+final class HttpClientRequestCoalescer {
+
+	final ConcurrentMap<List<Object>, Mono<CoalescedResponse>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the key of the request of the given configuration, or null when the request
+	 * cannot be coalesced.
+	 */
+	@Nullable
+	List<Object> key(HttpClientConfig config) {
+		if (config.body != null || config.deferredConf != null || config.doOnRequest != null ||
+				!(HttpMethod.GET.equals(config.method) || HttpMethod.HEAD.equals(config.method))) {
+			return null;
+		}
+		List<Object> key = new ArrayList<>(5);
+		key.add(config.method);
+		key.add(config.isSecure());
+		key.add(config.remoteAddress().get());
+		if (config.uri != null) {
+			key.add(config.uri.toString());
+		}
+		else if (config.baseUrl != null && config.uriStr != null && config.uriStr.startsWith("/")) {
+			key.add(config.baseUrl + config.uriStr);
+		}
+		else {
+			key.add(config.uriStr);
+		}
+		List<String> headers = new ArrayList<>(config.headers.size());
+		for (Map.Entry<String, String> header : config.headers) {
+			// The header names are case-insensitive and cannot contain ':'
+			headers.add(header.getKey().toLowerCase(Locale.ROOT) + ':' + header.getValue());
+		}
+		key.add(headers);
+		return key;
+	}
+
+	<V> Mono<V> coalesce(List<Object> key, Mono<HttpClientOperations> connect,
+			BiFunction<? super HttpClientResponse, ? super ByteBufMono, ? extends Mono<V>> receiver) {
+		return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> exchange(k, connect)))
+		           .flatMap(response -> receiver.apply(response.response, response.body()));
+	}
+
+	Mono<CoalescedResponse> exchange(List<Object> key, Mono<HttpClientOperations> connect) {
+		return connect.flatMap(resp -> resp.receive()
+		                                   .aggregate()
+		                                   .asByteArray()
+		                                   .map(body -> new CoalescedResponse(resp, body))
+		                                   .defaultIfEmpty(new CoalescedResponse(resp, null))
+		                                   .doFinally(s -> HttpClientFinalizer.discard(resp)))
+		              // Forgotten before the response is emitted, the next identical request is sent
+		              // even if it is issued as soon as this one has completed
+		              .doOnEach(s -> inFlight.remove(key))
+		              .cache();
+	}
+
+	static final class CoalescedResponse {
+
+		final HttpClientResponse response;
+		@Nullable
+		final byte[] body;
+
+		CoalescedResponse(HttpClientResponse response, @Nullable byte[] body) {
+			this.response = response;
+			this.body = body;
+		}
+
+		ByteBufMono body() {
+			return ByteBufFlux.fromInbound(Mono.justOrEmpty(body))
+			                  .aggregate();
+		}
+	}
+}
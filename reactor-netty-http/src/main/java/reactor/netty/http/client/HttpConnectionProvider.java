@@ -24,7 +24,8 @@ import reactor.netty.transport.TransportConfig;
 import reactor.util.annotation.Nullable;
 
 import java.net.SocketAddress;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
 
 /**
@@ -49,16 +50,41 @@ final class HttpConnectionProvider implements ConnectionProvider {
 		}
 	}
 
+	@Override
+	public Mono<Void> warmup(
+			TransportConfig config,
+			Supplier<? extends SocketAddress> remoteAddress,
+			AddressResolverGroup<?> resolverGroup) {
+		if (((HttpClientConfig) config)._protocols == HttpClientConfig.h11) {
+			return http1ConnectionProvider.warmup(config, remoteAddress, resolverGroup);
+		}
+		else {
+			return h2ConnectionProviderSupplier.get().warmup(config, remoteAddress, resolverGroup);
+		}
+	}
+
 	@Override
 	public void disposeWhen(SocketAddress address) {
 		http1ConnectionProvider.disposeWhen(address);
 	}
 
+	@Override
+	public Mono<Void> disposeLater() {
+		return Mono.defer(() -> {
+			ConnectionProvider h2ConnectionProvider = h2ConnectionProviders.remove(http1ConnectionProvider);
+			if (h2ConnectionProvider == null) {
+				return http1ConnectionProvider.disposeLater();
+			}
+			return Mono.when(http1ConnectionProvider.disposeLater(), h2ConnectionProvider.disposeLater());
+		});
+	}
+
 	final ConnectionProvider http1ConnectionProvider;
 	final Supplier<ConnectionProvider> h2ConnectionProviderSupplier;
 
 	HttpConnectionProvider(ConnectionProvider http1ConnectionProvider) {
-		this(http1ConnectionProvider, () -> getOrCreate(http1ConnectionProvider));
+		this.http1ConnectionProvider = http1ConnectionProvider;
+		this.h2ConnectionProviderSupplier = this::getOrCreateH2ConnectionProvider;
 	}
 
 	HttpConnectionProvider(ConnectionProvider http1ConnectionProvider, Supplier<ConnectionProvider> h2ConnectionProviderSupplier) {
@@ -66,23 +92,25 @@ final class HttpConnectionProvider implements ConnectionProvider {
 		this.h2ConnectionProviderSupplier = h2ConnectionProviderSupplier;
 	}
 
-	static ConnectionProvider getOrCreate(ConnectionProvider http1ConnectionProvider) {
-		ConnectionProvider provider = h2ConnectionProvider.get();
-		if (provider == null) {
+	ConnectionProvider getOrCreateH2ConnectionProvider() {
+		return h2ConnectionProviders.computeIfAbsent(http1ConnectionProvider, provider -> {
 			Builder builder =
 					ConnectionProvider.builder("http2")
 					                  .maxConnections(http1ConnectionProvider.maxConnections())
+					                  .minConnections(http1ConnectionProvider.minConnections())
 					                  .pendingAcquireMaxCount(-1);
 			if (http1ConnectionProvider.maxConnectionsPerHost() != null) {
 				http1ConnectionProvider.maxConnectionsPerHost()
 				                       .forEach((address, maxConn) -> builder.forRemoteHost(address, spec -> spec.maxConnections(maxConn)));
 			}
-			h2ConnectionProvider.compareAndSet(null,
-					new Http2ConnectionProvider(http1ConnectionProvider, builder));
-			provider = getOrCreate(http1ConnectionProvider);
-		}
-		return provider;
+			return new Http2ConnectionProvider(http1ConnectionProvider, builder);
+		});
 	}
 
-	static final AtomicReference<ConnectionProvider> h2ConnectionProvider = new AtomicReference<>();
+	/**
+	 * The HTTP/2 connection providers, each one is bound to an HTTP/1.1 connection provider and inherits its settings.
+	 * All the clients created with the same HTTP/1.1 connection provider share its HTTP/2 connections, they are
+	 * disposed together on {@link #disposeLater()}.
+	 */
+	static final ConcurrentMap<ConnectionProvider, ConnectionProvider> h2ConnectionProviders = new ConcurrentHashMap<>();
 }
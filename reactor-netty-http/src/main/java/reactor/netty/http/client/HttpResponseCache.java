@@ -0,0 +1,477 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.ByteBufMono;
+import reactor.netty.Metrics;
+import reactor.netty.channel.ChannelMetricsRecorder;
+import reactor.netty.http.HttpOperations;
+import reactor.util.annotation.Nullable;
+
+/**
+ * A private HTTP cache, as defined by RFC 7234, of the {@code GET} responses received with
+ * {@link HttpClient.ResponseReceiver#responseSingle(BiFunction)}.
+ * <p>
+ * The freshness of a response comes from its {@code Cache-Control: max-age} directive, its {@code Expires}
+ * header or, for the status codes cacheable by default, a tenth of the time since its {@code Last-Modified}
+ * date. A fresh response is served without acquiring a connection, a stale response with an {@code ETag} or a
+ * {@code Last-Modified} header is revalidated with a conditional request. The variants selected by the
+ * {@code Vary} header are matched against the request headers, one variant is kept per URI. The successful
+ * responses to the unsafe methods invalidate the response cached for their URI.
+ * <p>
+ * The bodies are kept in unpooled direct buffers, the least recently used responses are evicted when the
+ * total size of the bodies exceeds the maximum size of the cache.
+ */
+final class HttpResponseCache {
+
+	final long maxBytes;
+	final long maxEntryBytes;
+
+	final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	long bytes;
+
+	HttpResponseCache(long maxBytes, long maxEntryBytes) {
+		this.maxBytes = maxBytes;
+		this.maxEntryBytes = maxEntryBytes;
+	}
+
+	<V> Mono<V> responseSingle(HttpClientFinalizer finalizer,
+			BiFunction<? super HttpClientResponse, ? super ByteBufMono, ? extends Mono<V>> receiver) {
+		HttpClientConfig config = finalizer.configuration();
+		if (config.deferredConf != null) {
+			return finalizer.exchange(receiver);
+		}
+		if (!HttpMethod.GET.equals(config.method)) {
+			if (isSafe(config.method)) {
+				return finalizer.exchange(receiver);
+			}
+			String key = new HttpClientConnect.HttpClientHandler(config).toURI.toExternalForm();
+			return finalizer.exchange((res, body) -> {
+				if (res.status().code() < 400) {
+					remove(key);
+				}
+				return receiver.apply(res, body);
+			});
+		}
+
+		HttpHeaders requestHeaders = config.headers;
+		Map<String, String> requestDirectives = directives(requestHeaders);
+		if (config.body != null || requestDirectives.containsKey(NO_STORE) || isConditional(requestHeaders)) {
+			return finalizer.exchange(receiver);
+		}
+
+		UriEndpoint endpoint = new HttpClientConnect.HttpClientHandler(config).toURI;
+		String key = endpoint.toExternalForm();
+		return Mono.defer(() -> {
+			Entry entry = get(key, requestHeaders);
+			if (entry == null) {
+				recordLookup(config, endpoint, Metrics.MISS);
+				return fetch(finalizer, key, receiver);
+			}
+			if (entry.isFresh(System.currentTimeMillis(), requestDirectives, requestHeaders)) {
+				recordLookup(config, endpoint, Metrics.HIT);
+				return serve(entry, config, endpoint, receiver)
+				        .doFinally(s -> entry.content.release());
+			}
+			if (entry.eTag == null && entry.lastModified == null) {
+				entry.content.release();
+				recordLookup(config, endpoint, Metrics.MISS);
+				return fetch(finalizer, key, receiver);
+			}
+			return revalidate(finalizer, key, endpoint, entry, receiver)
+			        .doFinally(s -> entry.content.release());
+		});
+	}
+
+	<V> Mono<V> fetch(HttpClientFinalizer finalizer, String key,
+			BiFunction<? super HttpClientResponse, ? super ByteBufMono, ? extends Mono<V>> receiver) {
+		long requestTime = System.currentTimeMillis();
+		return finalizer.exchange((res, body) -> store(finalizer.configuration(), key, requestTime, res, body, receiver));
+	}
+
+	<V> Mono<V> revalidate(HttpClientFinalizer finalizer, String key, UriEndpoint endpoint, Entry entry,
+			BiFunction<? super HttpClientResponse, ? super ByteBufMono, ? extends Mono<V>> receiver) {
+		HttpClientFinalizer conditional = (HttpClientFinalizer) finalizer.headers(h -> {
+			if (entry.eTag != null) {
+				h.set(HttpHeaderNames.IF_NONE_MATCH, entry.eTag);
+			}
+			if (entry.lastModified != null) {
+				h.set(HttpHeaderNames.IF_MODIFIED_SINCE, entry.lastModified);
+			}
+		});
+		HttpClientConfig config = finalizer.configuration();
+		long requestTime = System.currentTimeMillis();
+		return conditional.exchange((res, body) -> {
+			if (res.status().code() != HttpResponseStatus.NOT_MODIFIED.code()) {
+				recordLookup(config, endpoint, Metrics.MISS);
+				return store(config, key, requestTime, res, body, receiver);
+			}
+			recordLookup(config, endpoint, Metrics.REVALIDATED);
+			Entry updated = entry.revalidated(res.responseHeaders(), requestTime, System.currentTimeMillis());
+			if (updated != null) {
+				put(key, updated);
+			}
+			return serve(updated != null ? updated : entry, config, endpoint, receiver);
+		});
+	}
+
+	<V> Mono<V> store(HttpClientConfig config, String key, long requestTime, HttpClientResponse res, ByteBufMono body,
+			BiFunction<? super HttpClientResponse, ? super ByteBufMono, ? extends Mono<V>> receiver) {
+		if (!isStorable(config.headers, res.status(), res.responseHeaders())) {
+			return receiver.apply(res, body);
+		}
+		return body.retain()
+		           .defaultIfEmpty(Unpooled.EMPTY_BUFFER)
+		           .flatMap(content -> {
+		               long responseTime = System.currentTimeMillis();
+		               int size = content.readableBytes();
+		               if (size <= maxEntryBytes) {
+		                   ByteBuf copy = Unpooled.directBuffer(size);
+		                   copy.writeBytes(content, content.readerIndex(), size);
+		                   put(key, new Entry(config.headers, res.status(), res.version(), res.responseHeaders(),
+		                           copy, requestTime, responseTime));
+		               }
+		               return receiver.apply(res, body(content))
+		                              .doFinally(s -> content.release());
+		           });
+	}
+
+	<V> Mono<V> serve(Entry entry, HttpClientConfig config, UriEndpoint endpoint,
+			BiFunction<? super HttpClientResponse, ? super ByteBufMono, ? extends Mono<V>> receiver) {
+		return Mono.deferContextual(ctx -> {
+			HttpHeaders headers = entry.headers.copy()
+			                                   .set(HttpHeaderNames.AGE, entry.currentAge(System.currentTimeMillis()) / 1000);
+			return receiver.apply(new CachedHttpClientResponse(ctx, config, endpoint, entry.status, entry.version, headers),
+					body(entry.content));
+		});
+	}
+
+	/**
+	 * Returns the entry matching the request headers, its content is retained and must be released by the caller.
+	 */
+	@Nullable
+	synchronized Entry get(String key, HttpHeaders requestHeaders) {
+		Entry entry = entries.get(key);
+		if (entry == null || !entry.matches(requestHeaders)) {
+			return null;
+		}
+		entry.content.retain();
+		return entry;
+	}
+
+	void put(String key, Entry entry) {
+		int size = entry.content.readableBytes();
+		synchronized (this) {
+			Entry previous = entries.put(key, entry);
+			if (previous != null) {
+				release(previous);
+			}
+			bytes += size;
+			Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+			while (bytes > maxBytes && it.hasNext()) {
+				Entry eldest = it.next().getValue();
+				it.remove();
+				release(eldest);
+			}
+		}
+	}
+
+	synchronized void remove(String key) {
+		Entry entry = entries.remove(key);
+		if (entry != null) {
+			release(entry);
+		}
+	}
+
+	synchronized void clear() {
+		for (Entry entry : entries.values()) {
+			release(entry);
+		}
+		entries.clear();
+	}
+
+	void release(Entry entry) {
+		bytes -= entry.content.readableBytes();
+		entry.content.release();
+	}
+
+	static ByteBufMono body(ByteBuf content) {
+		return ByteBufFlux.fromInbound(content.isReadable() ? Mono.just(content.duplicate()) : Mono.empty())
+		                  .aggregate();
+	}
+
+	static void recordLookup(HttpClientConfig config, UriEndpoint endpoint, String status) {
+		Supplier<? extends ChannelMetricsRecorder> metricsRecorder = config.metricsRecorder();
+		if (metricsRecorder == null) {
+			return;
+		}
+		ChannelMetricsRecorder recorder = metricsRecorder.get();
+		SocketAddress address = endpoint.getRemoteAddress();
+		if (recorder instanceof HttpClientMetricsRecorder && address != null) {
+			String path = HttpOperations.resolvePath(endpoint.getPathAndQuery());
+			Function<String, String> uriTagValue = config.uriTagValue;
+			((HttpClientMetricsRecorder) recorder).recordResponseCacheLookup(address,
+					uriTagValue != null ? uriTagValue.apply(path) : path, status);
+		}
+	}
+
+	static boolean isSafe(HttpMethod method) {
+		return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) ||
+				HttpMethod.OPTIONS.equals(method) || HttpMethod.TRACE.equals(method);
+	}
+
+	static boolean isConditional(HttpHeaders requestHeaders) {
+		return requestHeaders.contains(HttpHeaderNames.IF_NONE_MATCH) ||
+				requestHeaders.contains(HttpHeaderNames.IF_MODIFIED_SINCE) ||
+				requestHeaders.contains(HttpHeaderNames.IF_MATCH) ||
+				requestHeaders.contains(HttpHeaderNames.IF_UNMODIFIED_SINCE) ||
+				requestHeaders.contains(HttpHeaderNames.IF_RANGE) ||
+				requestHeaders.contains(HttpHeaderNames.RANGE);
+	}
+
+	static boolean isStorable(HttpHeaders requestHeaders, HttpResponseStatus status, HttpHeaders responseHeaders) {
+		Map<String, String> directives = directives(responseHeaders);
+		if (directives.containsKey(NO_STORE) || "*".equals(responseHeaders.get(HttpHeaderNames.VARY))) {
+			return false;
+		}
+		if (requestHeaders.contains(HttpHeaderNames.AUTHORIZATION) && !directives.containsKey(PUBLIC) &&
+				!directives.containsKey(MUST_REVALIDATE) && !directives.containsKey(S_MAXAGE)) {
+			return false;
+		}
+		if (directives.containsKey(MAX_AGE) || responseHeaders.contains(HttpHeaderNames.EXPIRES)) {
+			return true;
+		}
+		return isCacheableByDefault(status.code()) &&
+				(responseHeaders.contains(HttpHeaderNames.ETAG) || responseHeaders.contains(HttpHeaderNames.LAST_MODIFIED));
+	}
+
+	static boolean isCacheableByDefault(int status) {
+		switch (status) {
+			case 200:
+			case 203:
+			case 204:
+			case 300:
+			case 301:
+			case 404:
+			case 405:
+			case 410:
+			case 414:
+			case 501:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Returns the {@code Cache-Control} directives, the names in lower case and the values unquoted.
+	 */
+	static Map<String, String> directives(HttpHeaders headers) {
+		List<String> values = headers.getAll(HttpHeaderNames.CACHE_CONTROL);
+		if (values.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, String> directives = new LinkedHashMap<>();
+		for (String value : values) {
+			for (String directive : value.split(",")) {
+				int index = directive.indexOf('=');
+				String name = (index < 0 ? directive : directive.substring(0, index)).trim().toLowerCase(Locale.ROOT);
+				if (name.isEmpty()) {
+					continue;
+				}
+				String argument = index < 0 ? "" : directive.substring(index + 1).trim();
+				if (argument.length() > 1 && argument.charAt(0) == '"' && argument.charAt(argument.length() - 1) == '"') {
+					argument = argument.substring(1, argument.length() - 1);
+				}
+				directives.put(name, argument);
+			}
+		}
+		return directives;
+	}
+
+	/**
+	 * Returns the value of a delta-seconds directive or header in milliseconds, or -1 when it is missing or invalid.
+	 */
+	static long deltaMillis(@Nullable String seconds) {
+		if (seconds == null) {
+			return -1;
+		}
+		try {
+			long value = Long.parseLong(seconds.trim());
+			return value < 0 ? -1 : Math.min(value, Long.MAX_VALUE / 1000) * 1000;
+		}
+		catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns the value of an HTTP-date header in milliseconds, or -1 when it is missing or invalid.
+	 */
+	static long dateMillis(HttpHeaders headers, CharSequence name) {
+		String value = headers.get(name);
+		if (value == null) {
+			return -1;
+		}
+		Date date = DateFormatter.parseHttpDate(value);
+		return date != null ? date.getTime() : -1;
+	}
+
+	static final class Entry {
+
+		final HttpResponseStatus status;
+		final HttpVersion version;
+		final HttpHeaders headers;
+		final List<String> varyNames;
+		final List<List<String>> varyValues;
+		final ByteBuf content;
+		final long responseTime;
+		final long correctedInitialAge;
+		final long freshnessLifetime;
+		final boolean noCache;
+		@Nullable
+		final String eTag;
+		@Nullable
+		final String lastModified;
+
+		Entry(HttpHeaders requestHeaders, HttpResponseStatus status, HttpVersion version, HttpHeaders responseHeaders,
+				ByteBuf content, long requestTime, long responseTime) {
+			this.status = status;
+			this.version = version;
+			this.headers = new DefaultHttpHeaders().set(responseHeaders);
+			this.content = content;
+			this.responseTime = responseTime;
+			this.varyNames = new ArrayList<>();
+			this.varyValues = new ArrayList<>();
+			for (String vary : responseHeaders.getAll(HttpHeaderNames.VARY)) {
+				for (String name : vary.split(",")) {
+					name = name.trim();
+					if (!name.isEmpty()) {
+						varyNames.add(name);
+						varyValues.add(requestHeaders.getAll(name));
+					}
+				}
+			}
+
+			Map<String, String> directives = directives(responseHeaders);
+			long date = dateMillis(responseHeaders, HttpHeaderNames.DATE);
+			if (date < 0) {
+				date = responseTime;
+			}
+			long apparentAge = Math.max(0, responseTime - date);
+			long age = Math.max(0, deltaMillis(responseHeaders.get(HttpHeaderNames.AGE)));
+			this.correctedInitialAge = Math.max(apparentAge, age + (responseTime - requestTime));
+
+			long maxAge = deltaMillis(directives.get(MAX_AGE));
+			long expires = dateMillis(responseHeaders, HttpHeaderNames.EXPIRES);
+			long lastModified = dateMillis(responseHeaders, HttpHeaderNames.LAST_MODIFIED);
+			if (maxAge >= 0) {
+				this.freshnessLifetime = maxAge;
+			}
+			else if (responseHeaders.contains(HttpHeaderNames.EXPIRES)) {
+				// An invalid Expires date means already expired
+				this.freshnessLifetime = Math.max(0, expires - date);
+			}
+			else if (lastModified >= 0 && isCacheableByDefault(status.code())) {
+				this.freshnessLifetime = Math.max(0, date - lastModified) / 10;
+			}
+			else {
+				this.freshnessLifetime = 0;
+			}
+			this.noCache = directives.containsKey(NO_CACHE);
+			this.eTag = responseHeaders.get(HttpHeaderNames.ETAG);
+			this.lastModified = responseHeaders.get(HttpHeaderNames.LAST_MODIFIED);
+		}
+
+		long currentAge(long now) {
+			return correctedInitialAge + Math.max(0, now - responseTime);
+		}
+
+		boolean isFresh(long now, Map<String, String> requestDirectives, HttpHeaders requestHeaders) {
+			if (noCache || requestDirectives.containsKey(NO_CACHE) ||
+					(requestDirectives.isEmpty() && NO_CACHE.equals(requestHeaders.get(HttpHeaderNames.PRAGMA)))) {
+				return false;
+			}
+			long currentAge = currentAge(now);
+			long maxAge = deltaMillis(requestDirectives.get(MAX_AGE));
+			return freshnessLifetime > currentAge && (maxAge < 0 || currentAge <= maxAge);
+		}
+
+		boolean matches(HttpHeaders requestHeaders) {
+			for (int i = 0; i < varyNames.size(); i++) {
+				if (!varyValues.get(i).equals(requestHeaders.getAll(varyNames.get(i)))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns a new entry with the headers of the {@code 304 Not Modified} response and the content
+		 * of this entry, or null when the {@code 304 Not Modified} response is not storable.
+		 */
+		@Nullable
+		Entry revalidated(HttpHeaders notModifiedHeaders, long requestTime, long responseTime) {
+			if (directives(notModifiedHeaders).containsKey(NO_STORE)) {
+				return null;
+			}
+			HttpHeaders headers = this.headers.copy();
+			for (String name : notModifiedHeaders.names()) {
+				if (!HttpHeaderNames.CONTENT_LENGTH.contentEqualsIgnoreCase(name) &&
+						!HttpHeaderNames.TRANSFER_ENCODING.contentEqualsIgnoreCase(name)) {
+					headers.set(name, notModifiedHeaders.getAll(name));
+				}
+			}
+			HttpHeaders requestHeaders = new DefaultHttpHeaders();
+			for (int i = 0; i < varyNames.size(); i++) {
+				requestHeaders.add(varyNames.get(i), varyValues.get(i));
+			}
+			return new Entry(requestHeaders, status, version, headers, content.retain(), requestTime, responseTime);
+		}
+	}
+
+	static final String MAX_AGE = "max-age";
+	static final String MUST_REVALIDATE = "must-revalidate";
+	static final String NO_CACHE = "no-cache";
+	static final String NO_STORE = "no-store";
+	static final String PUBLIC = "public";
+	static final String S_MAXAGE = "s-maxage";
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import java.util.Objects;
+
+/**
+ * A configuration builder for the response cache enabled with {@link HttpClient#cache(java.util.function.Consumer)}.
+ *
+ * @since 1.0.3
+ */
+public final class HttpResponseCacheSpec {
+
+	public interface Builder {
+
+		/**
+		 * Build a new {@link HttpResponseCacheSpec}
+		 *
+		 * @return a new {@link HttpResponseCacheSpec}
+		 */
+		HttpResponseCacheSpec build();
+
+		/**
+		 * Sets the maximum size in bytes of the cached response bodies.
+		 * Default to {@link #DEFAULT_MAX_SIZE}.
+		 *
+		 * @param maxSize the maximum size in bytes of the cached response bodies
+		 * @return {@code this}
+		 */
+		Builder maxSize(long maxSize);
+
+		/**
+		 * Sets the maximum size in bytes of a cached response body, the larger responses are not cached.
+		 * Default to an eighth of the {@link #maxSize(long) maximum size} of the cache.
+		 *
+		 * @param maxEntrySize the maximum size in bytes of a cached response body
+		 * @return {@code this}
+		 */
+		Builder maxEntrySize(long maxEntrySize);
+	}
+
+	/**
+	 * Default maximum size in bytes of the cached response bodies.
+	 */
+	public static final long DEFAULT_MAX_SIZE = 32 * 1024 * 1024;
+
+	/**
+	 * Creates a builder for {@link HttpResponseCacheSpec}.
+	 *
+	 * @return a new {@link HttpResponseCacheSpec.Builder}
+	 */
+	public static Builder builder() {
+		return new Build();
+	}
+
+	/**
+	 * Returns the maximum size in bytes of the cached response bodies.
+	 *
+	 * @return the maximum size in bytes of the cached response bodies
+	 */
+	public long maxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns the maximum size in bytes of a cached response body.
+	 *
+	 * @return the maximum size in bytes of a cached response body
+	 */
+	public long maxEntrySize() {
+		return maxEntrySize;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof HttpResponseCacheSpec)) {
+			return false;
+		}
+		HttpResponseCacheSpec that = (HttpResponseCacheSpec) o;
+		return maxSize == that.maxSize &&
+				maxEntrySize == that.maxEntrySize;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(maxSize, maxEntrySize);
+	}
+
+	final long maxSize;
+	final long maxEntrySize;
+
+	HttpResponseCacheSpec(Build build) {
+		maxSize = build.maxSize;
+		maxEntrySize = build.maxEntrySize != null ? Math.min(build.maxEntrySize, maxSize) : maxSize >> 3;
+	}
+
+	static final class Build implements Builder {
+		long maxSize = DEFAULT_MAX_SIZE;
+		Long maxEntrySize;
+
+		@Override
+		public HttpResponseCacheSpec build() {
+			return new HttpResponseCacheSpec(this);
+		}
+
+		@Override
+		public Builder maxSize(long maxSize) {
+			if (maxSize < 0) {
+				throw new IllegalArgumentException("maxSize: " + maxSize + " (expected: 0 or greater)");
+			}
+			this.maxSize = maxSize;
+			return this;
+		}
+
+		@Override
+		public Builder maxEntrySize(long maxEntrySize) {
+			if (maxEntrySize < 0) {
+				throw new IllegalArgumentException("maxEntrySize: " + maxEntrySize + " (expected: 0 or greater)");
+			}
+			this.maxEntrySize = maxEntrySize;
+			return this;
+		}
+	}
+}
@@ -15,18 +15,22 @@
  */
 package reactor.netty.http.client;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
+import io.netty.util.internal.PlatformDependent;
 import reactor.netty.Metrics;
 import reactor.netty.channel.MeterKey;
 import reactor.netty.http.MicrometerHttpMetricsRecorder;
 
 import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.concurrent.ConcurrentMap;
 
 import static reactor.netty.Metrics.HTTP_CLIENT_PREFIX;
 import static reactor.netty.Metrics.METHOD;
 import static reactor.netty.Metrics.REGISTRY;
 import static reactor.netty.Metrics.REMOTE_ADDRESS;
+import static reactor.netty.Metrics.RESPONSE_CACHE;
 import static reactor.netty.Metrics.STATUS;
 import static reactor.netty.Metrics.URI;
 
@@ -38,8 +42,14 @@ final class MicrometerHttpClientMetricsRecorder extends MicrometerHttpMetricsRec
 
 	final static MicrometerHttpClientMetricsRecorder INSTANCE = new MicrometerHttpClientMetricsRecorder();
 
+	final Counter.Builder responseCacheBuilder;
+	final ConcurrentMap<MeterKey, Counter> responseCacheCache = PlatformDependent.newConcurrentHashMap();
+
 	private MicrometerHttpClientMetricsRecorder() {
 		super(HTTP_CLIENT_PREFIX, "http");
+		this.responseCacheBuilder =
+				Counter.builder(HTTP_CLIENT_PREFIX + RESPONSE_CACHE)
+				       .description("Number of the lookups of the response cache");
 	}
 
 	@Override
@@ -74,4 +84,15 @@ final class MicrometerHttpClientMetricsRecorder extends MicrometerHttpMetricsRec
 			responseTime.record(time);
 		}
 	}
+
+	@Override
+	public void recordResponseCacheLookup(SocketAddress remoteAddress, String uri, String status) {
+		String address = Metrics.formatSocketAddress(remoteAddress);
+		Counter responseCache = responseCacheCache.computeIfAbsent(new MeterKey(uri, address, null, status),
+				key -> filter(responseCacheBuilder.tags(REMOTE_ADDRESS, address, URI, uri, STATUS, status)
+				                                  .register(REGISTRY)));
+		if (responseCache != null) {
+			responseCache.increment();
+		}
+	}
 }
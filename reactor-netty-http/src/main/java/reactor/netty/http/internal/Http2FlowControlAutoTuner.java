@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http2.Http2ConnectionDecoder;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2FrameListener;
+import io.netty.handler.codec.http2.Http2FrameListenerDecorator;
+import io.netty.handler.codec.http2.Http2LocalFlowController;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2Stream;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import static reactor.netty.ReactorNetty.format;
+
+/**
+ * Grows the flow-control windows of an HTTP/2 connection up to the bandwidth-delay product of the link.
+ * <p>
+ * A {@code PING} is sent with the first {@code DATA} frame received after the previous estimation,
+ * the bytes received until its acknowledgement are a sample of the bandwidth-delay product.
+ * When a sample fills most of the current window while the bandwidth is the highest measured so far,
+ * the window limits the throughput: the stream windows, with {@code SETTINGS_INITIAL_WINDOW_SIZE},
+ * and the connection window, with a {@code WINDOW_UPDATE}, are grown to twice the sample, up to the
+ * configured maximum.
+ */
+final class Http2FlowControlAutoTuner extends Http2FrameListenerDecorator {
+
+	/**
+	 * Enables the auto-tuning of the flow-control windows of the connection of the given codec.
+	 *
+	 * @param codec the {@link Http2FrameCodec} of the connection
+	 * @param maxWindowSize the maximum size of the stream and connection windows
+	 */
+	static void install(Http2FrameCodec codec, int maxWindowSize) {
+		Http2ConnectionDecoder decoder = codec.decoder();
+		decoder.frameListener(new Http2FlowControlAutoTuner(decoder.frameListener(), codec, maxWindowSize));
+	}
+
+	final Http2FrameCodec codec;
+	final int maxWindowSize;
+
+	int     windowSize;
+	boolean pingPending;
+	long    pingSentNanos;
+	long    sample;
+	int     sampleCount;
+	double  rttNanos;
+	double  maxBandwidth;
+
+	Http2FlowControlAutoTuner(Http2FrameListener listener, Http2FrameCodec codec, int maxWindowSize) {
+		super(listener);
+		this.codec = codec;
+		this.maxWindowSize = maxWindowSize;
+	}
+
+	@Override
+	public int onDataRead(ChannelHandlerContext ctx, int streamId, ByteBuf data, int padding, boolean endOfStream)
+			throws Http2Exception {
+		if (windowSize == 0) {
+			windowSize = codec.connection().local().flowController().initialWindowSize();
+		}
+		if (windowSize < maxWindowSize) {
+			if (!pingPending) {
+				pingPending = true;
+				pingSentNanos = System.nanoTime();
+				sample = 0;
+				codec.encoder().writePing(ctx, false, PING_PAYLOAD, ctx.newPromise());
+			}
+			sample += data.readableBytes() + padding;
+		}
+		return super.onDataRead(ctx, streamId, data, padding, endOfStream);
+	}
+
+	@Override
+	public void onPingAckRead(ChannelHandlerContext ctx, long data) throws Http2Exception {
+		if (data != PING_PAYLOAD || !pingPending) {
+			super.onPingAckRead(ctx, data);
+			return;
+		}
+		pingPending = false;
+
+		long rtt = Math.max(System.nanoTime() - pingSentNanos, 1);
+		// Average of the first samples, then moving average
+		sampleCount++;
+		rttNanos += (rtt - rttNanos) / Math.min(sampleCount, RTT_SAMPLES);
+
+		double bandwidth = sample / rttNanos;
+		if (bandwidth < maxBandwidth) {
+			return;
+		}
+		maxBandwidth = bandwidth;
+
+		if (3 * sample >= 2L * windowSize && windowSize < maxWindowSize) {
+			int newWindowSize = (int) Math.min(2 * sample, maxWindowSize);
+			if (newWindowSize <= windowSize) {
+				return;
+			}
+
+			// The new stream windows apply once the settings are acknowledged
+			codec.encoder().writeSettings(ctx, new Http2Settings().initialWindowSize(newWindowSize), ctx.newPromise());
+
+			Http2LocalFlowController flowController = codec.connection().local().flowController();
+			Http2Stream connectionStream = codec.connection().connectionStream();
+			int delta = newWindowSize - flowController.initialWindowSize(connectionStream);
+			if (delta > 0) {
+				flowController.incrementWindowSize(connectionStream, delta);
+			}
+
+			if (log.isDebugEnabled()) {
+				log.debug(format(ctx.channel(), "Flow-control window grown from {} to {} bytes, " +
+						"{} bytes received during a round-trip of {} ns"), windowSize, newWindowSize, sample, rtt);
+			}
+			windowSize = newWindowSize;
+		}
+	}
+
+	static final Logger log = Loggers.getLogger(Http2FlowControlAutoTuner.class);
+
+	/**
+	 * The payload of the {@code PING} frames sent by the auto-tuning, "bdp-ping".
+	 */
+	static final long PING_PAYLOAD = 0x6264702d70696e67L;
+
+	static final int RTT_SAMPLES = 10;
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.internal;
+
+import java.util.function.Supplier;
+
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import reactor.netty.channel.ChannelMetricsRecorder;
+import reactor.netty.http.Http2SettingsSpec;
+import reactor.netty.http.HttpMetricsRecorder;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Builds the {@link Http2FrameCodec} of the HTTP client and server connections,
+ * with the header cache and the flow-control auto-tuning of their {@link Http2SettingsSpec}.
+ */
+public final class Http2FrameCodecs {
+
+	/**
+	 * Builds the {@link Http2FrameCodec} of a connection.
+	 *
+	 * @param http2FrameCodecBuilder the {@link Http2FrameCodecBuilder} configured with the initial settings
+	 * @param http2SettingsSpec the HTTP/2 settings, if any
+	 * @param metricsRecorder the metrics recorder, if any
+	 * @return the {@link Http2FrameCodec}
+	 */
+	public static Http2FrameCodec build(Http2FrameCodecBuilder http2FrameCodecBuilder,
+			@Nullable Http2SettingsSpec http2SettingsSpec,
+			@Nullable Supplier<? extends ChannelMetricsRecorder> metricsRecorder) {
+		if (http2SettingsSpec == null) {
+			return http2FrameCodecBuilder.build();
+		}
+
+		Http2HeaderCache.configure(http2FrameCodecBuilder, http2SettingsSpec);
+		Http2FrameCodec http2FrameCodec = http2FrameCodecBuilder.build();
+
+		ChannelMetricsRecorder channelMetricsRecorder = metricsRecorder != null ? metricsRecorder.get() : null;
+		Http2HeaderCache.install(http2FrameCodec, http2SettingsSpec,
+				channelMetricsRecorder instanceof HttpMetricsRecorder ? (HttpMetricsRecorder) channelMetricsRecorder : null);
+
+		Integer maxWindowSize = http2SettingsSpec.maxWindowSize();
+		if (maxWindowSize != null) {
+			Http2FlowControlAutoTuner.install(http2FrameCodec, maxWindowSize);
+		}
+		return http2FrameCodec;
+	}
+
+	private Http2FrameCodecs() {
+	}
+}
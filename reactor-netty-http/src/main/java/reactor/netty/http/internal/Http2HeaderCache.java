@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.internal;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http2.Http2ConnectionDecoder;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2FrameListener;
+import io.netty.handler.codec.http2.Http2FrameListenerDecorator;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.util.AsciiString;
+import reactor.netty.http.Http2SettingsSpec;
+import reactor.netty.http.HttpMetricsRecorder;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Interns the values of the decoded HTTP/2 headers in a bounded per-connection cache and keeps
+ * the sensitive headers out of the HPACK dynamic tables.
+ * <p>
+ * The HPACK decoder shares the instances of the headers indexed in its tables, the other header values
+ * are new {@link AsciiString} copies on every request. Interned, the values of the headers exchanged on
+ * every request keep their hash code and their {@link String} representation from one request to the next.
+ * The values of the sensitive headers, of the {@code :path} pseudo-header and the values longer than
+ * 256 characters are not interned.
+ */
+final class Http2HeaderCache extends Http2FrameListenerDecorator {
+
+	/**
+	 * Configures the {@link Http2FrameCodecBuilder} to never index the sensitive headers
+	 * of the given {@link Http2SettingsSpec}.
+	 *
+	 * @param builder the {@link Http2FrameCodecBuilder} of the connection
+	 * @param spec the HTTP/2 settings
+	 */
+	static void configure(Http2FrameCodecBuilder builder, Http2SettingsSpec spec) {
+		Set<AsciiString> sensitiveHeaders = sensitiveHeaders(spec);
+		if (!sensitiveHeaders.isEmpty()) {
+			builder.headerSensitivityDetector((name, value) -> sensitiveHeaders.contains(AsciiString.of(name)));
+		}
+	}
+
+	/**
+	 * Enables the interning of the decoded header values on the connection of the given codec,
+	 * when the header cache of the given {@link Http2SettingsSpec} is enabled.
+	 *
+	 * @param codec the {@link Http2FrameCodec} of the connection
+	 * @param spec the HTTP/2 settings
+	 * @param recorder the recorder of the header cache lookups, if any
+	 */
+	static void install(Http2FrameCodec codec, Http2SettingsSpec spec, @Nullable HttpMetricsRecorder recorder) {
+		if (spec.headerCacheSize() > 0) {
+			Http2ConnectionDecoder decoder = codec.decoder();
+			decoder.frameListener(new Http2HeaderCache(decoder.frameListener(), spec.headerCacheSize(),
+					sensitiveHeaders(spec), recorder));
+		}
+	}
+
+	static Set<AsciiString> sensitiveHeaders(Http2SettingsSpec spec) {
+		Set<AsciiString> sensitiveHeaders = new HashSet<>();
+		for (String name : spec.sensitiveHeaders()) {
+			sensitiveHeaders.add(AsciiString.cached(name));
+		}
+		return sensitiveHeaders;
+	}
+
+	final Map<AsciiString, AsciiString> cache;
+	final Set<AsciiString>              sensitiveHeaders;
+	@Nullable
+	final HttpMetricsRecorder           recorder;
+
+	Http2HeaderCache(Http2FrameListener listener, int maxSize, Set<AsciiString> sensitiveHeaders,
+			@Nullable HttpMetricsRecorder recorder) {
+		super(listener);
+		this.cache = new LinkedHashMap<AsciiString, AsciiString>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<AsciiString, AsciiString> eldest) {
+				return size() > maxSize;
+			}
+		};
+		this.sensitiveHeaders = sensitiveHeaders;
+		this.recorder = recorder;
+	}
+
+	@Override
+	public void onHeadersRead(ChannelHandlerContext ctx, int streamId, Http2Headers headers, int padding,
+			boolean endOfStream) throws Http2Exception {
+		intern(headers);
+		super.onHeadersRead(ctx, streamId, headers, padding, endOfStream);
+	}
+
+	@Override
+	public void onHeadersRead(ChannelHandlerContext ctx, int streamId, Http2Headers headers, int streamDependency,
+			short weight, boolean exclusive, int padding, boolean endOfStream) throws Http2Exception {
+		intern(headers);
+		super.onHeadersRead(ctx, streamId, headers, streamDependency, weight, exclusive, padding, endOfStream);
+	}
+
+	void intern(Http2Headers headers) {
+		long hits = 0;
+		long misses = 0;
+		for (Map.Entry<CharSequence, CharSequence> header : headers) {
+			CharSequence value = header.getValue();
+			if (!(value instanceof AsciiString) ||
+					value.length() > MAX_VALUE_LENGTH ||
+					Http2Headers.PseudoHeaderName.PATH.value().contentEquals(header.getKey()) ||
+					sensitiveHeaders.contains(AsciiString.of(header.getKey()))) {
+				continue;
+			}
+			AsciiString interned = cache.get(value);
+			if (interned == null) {
+				cache.put((AsciiString) value, (AsciiString) value);
+				misses++;
+			}
+			else {
+				if (interned != value) {
+					header.setValue(interned);
+				}
+				hits++;
+			}
+		}
+
+		if (recorder != null && hits + misses > 0) {
+			recorder.recordHeaderCacheLookups(hits, misses);
+		}
+	}
+
+	static final int MAX_VALUE_LENGTH = 256;
+}
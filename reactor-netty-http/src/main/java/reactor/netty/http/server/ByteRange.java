@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import io.netty.handler.codec.DateFormatter;
+import reactor.util.annotation.Nullable;
+
+/**
+ * A byte range of a representation as defined by
+ * <a href="https://tools.ietf.org/html/rfc7233">RFC 7233</a>.
+ */
+final class ByteRange {
+
+	static final String BYTES_UNIT = "bytes";
+
+	/**
+	 * Above this number of ranges, the {@code Range} header is ignored and the whole representation is sent
+	 */
+	static final int MAX_RANGES = 16;
+
+	/**
+	 * Parses the {@code Range} header value.
+	 *
+	 * @param range the {@code Range} header value
+	 * @param size the size of the representation
+	 * @return the satisfiable ranges in the requested order, coalesced in ascending order when some of them
+	 * overlap or are adjacent, an empty list when none of the ranges is satisfiable, or {@code null} when
+	 * the header is to be ignored
+	 */
+	@Nullable
+	static List<ByteRange> parse(String range, long size) {
+		if (!range.startsWith(BYTES_UNIT + "=")) {
+			return null;
+		}
+		String[] specs = range.substring(BYTES_UNIT.length() + 1).split(",");
+		if (specs.length > MAX_RANGES) {
+			return null;
+		}
+		List<ByteRange> ranges = new ArrayList<>(specs.length);
+		for (String s : specs) {
+			String spec = s.trim();
+			int dash = spec.indexOf('-');
+			if (dash == -1) {
+				return null;
+			}
+			long first;
+			long last;
+			try {
+				if (dash == 0) {
+					long suffixLength = Long.parseLong(spec.substring(1));
+					if (suffixLength <= 0) {
+						continue;
+					}
+					first = Math.max(0, size - suffixLength);
+					last = size - 1;
+				}
+				else {
+					first = Long.parseLong(spec.substring(0, dash));
+					if (dash == spec.length() - 1) {
+						last = size - 1;
+					}
+					else {
+						last = Long.parseLong(spec.substring(dash + 1));
+						if (last < first) {
+							return null;
+						}
+						last = Math.min(last, size - 1);
+					}
+					if (first < 0) {
+						return null;
+					}
+				}
+			}
+			catch (NumberFormatException e) {
+				return null;
+			}
+			if (first < size) {
+				ranges.add(new ByteRange(first, last));
+			}
+		}
+		if (ranges.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return ranges.size() > 1 ? coalesce(ranges) : ranges;
+	}
+
+	/**
+	 * Coalesces the overlapping and adjacent ranges so that no byte is sent more than once.
+	 *
+	 * @param ranges the satisfiable ranges in the requested order
+	 * @return the ranges as is when none of them overlaps or is adjacent to another one,
+	 * otherwise the coalesced ranges in ascending order
+	 */
+	static List<ByteRange> coalesce(List<ByteRange> ranges) {
+		List<ByteRange> sorted = new ArrayList<>(ranges);
+		sorted.sort(Comparator.comparingLong(r -> r.first));
+		List<ByteRange> coalesced = new ArrayList<>(sorted.size());
+		ByteRange current = sorted.get(0);
+		for (int i = 1; i < sorted.size(); i++) {
+			ByteRange next = sorted.get(i);
+			if (next.first <= current.last + 1) {
+				current = new ByteRange(current.first, Math.max(current.last, next.last));
+			}
+			else {
+				coalesced.add(current);
+				current = next;
+			}
+		}
+		coalesced.add(current);
+		return coalesced.size() == ranges.size() ? ranges : coalesced;
+	}
+
+	/**
+	 * Evaluates the {@code If-Range} header value against the validators of the representation.
+	 *
+	 * @param ifRange the {@code If-Range} header value, if any
+	 * @param etag the entity tag of the representation
+	 * @param lastModified the last modified time of the representation
+	 * @return whether the {@code Range} header applies
+	 */
+	static boolean ifRange(@Nullable String ifRange, String etag, long lastModified) {
+		if (ifRange == null) {
+			return true;
+		}
+		String value = ifRange.trim();
+		if (value.startsWith("\"")) {
+			// Strong comparison
+			return value.equals(etag);
+		}
+		if (value.startsWith("W/")) {
+			return false;
+		}
+		Date date = DateFormatter.parseHttpDate(value);
+		return date != null && date.getTime() / 1000 == lastModified / 1000;
+	}
+
+	final long first;
+	final long last;
+
+	ByteRange(long first, long last) {
+		this.first = first;
+		this.last = last;
+	}
+
+	long length() {
+		return last - first + 1;
+	}
+
+	String contentRange(long size) {
+		return BYTES_UNIT + " " + first + "-" + last + "/" + size;
+	}
+
+	@Override
+	public String toString() {
+		return first + "-" + last;
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import reactor.util.annotation.Nullable;
+
+/**
+ * An off-heap LRU cache of gzip compressed files, bounded by the total size of the compressed
+ * content. An entry is valid as long as the last modified time and the size of the file are unchanged.
+ * <p>
+ * The content is kept in direct buffers of the exact compressed size, allocated outside of the pooled
+ * allocator: long living entries do not retain pooled memory, and the memory of an entry is freed by the
+ * garbage collector once it is evicted and no longer sent, or once the routes owning the cache are gone.
+ */
+final class CompressedFileCache {
+
+	final long maxBytes;
+	final long maxEntryBytes;
+
+	final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	long bytes;
+
+	CompressedFileCache(long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("maxBytes: " + maxBytes + " (expected: 0 or greater)");
+		}
+		this.maxBytes = maxBytes;
+		// A single file cannot take more than an eighth of the cache
+		this.maxEntryBytes = maxBytes >> 3;
+	}
+
+	/**
+	 * Returns whether a file of the given size may be cached.
+	 *
+	 * @param size the size of the file
+	 * @return whether a file of the given size may be cached
+	 */
+	boolean accepts(long size) {
+		return size > 0 && size <= maxEntryBytes;
+	}
+
+	/**
+	 * Returns a retained duplicate of the compressed content of the file, or {@code null} when it is
+	 * not cached or the cached content is stale.
+	 *
+	 * @param path the file
+	 * @param lastModified the last modified time of the file
+	 * @param size the size of the file
+	 * @return a retained duplicate of the compressed content, to be released by the caller
+	 */
+	@Nullable
+	synchronized ByteBuf get(Path path, long lastModified, long size) {
+		Entry entry = entries.get(path);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.lastModified != lastModified || entry.size != size) {
+			entries.remove(path);
+			release(entry);
+			return null;
+		}
+		return entry.content.retainedDuplicate();
+	}
+
+	/**
+	 * Compresses the file and caches the result, evicting the least recently used entries as needed.
+	 * This is a blocking operation.
+	 *
+	 * @param path the file
+	 * @param lastModified the last modified time of the file
+	 * @param size the size of the file
+	 * @return a retained duplicate of the compressed content, to be released by the caller
+	 * @throws IOException when the file cannot be read
+	 */
+	ByteBuf compress(Path path, long lastModified, long size) throws IOException {
+		ByteBuf compressed = ByteBufAllocator.DEFAULT.directBuffer();
+		ByteBuf content;
+		try {
+			try (InputStream in = Files.newInputStream(path);
+			     GZIPOutputStream out = new GZIPOutputStream(new ByteBufOutputStream(compressed))) {
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					out.write(buffer, 0, read);
+				}
+			}
+			// The cached content takes exactly the compressed size
+			ByteBuffer copy = ByteBuffer.allocateDirect(compressed.readableBytes());
+			compressed.readBytes(copy);
+			copy.flip();
+			content = Unpooled.wrappedBuffer(copy);
+		}
+		finally {
+			compressed.release();
+		}
+		ByteBuf result = content.retainedDuplicate();
+		put(path, new Entry(content, lastModified, size));
+		return result;
+	}
+
+	synchronized void put(Path path, Entry entry) {
+		Entry previous = entries.put(path, entry);
+		if (previous != null) {
+			release(previous);
+		}
+		bytes += entry.content.readableBytes();
+		Iterator<Map.Entry<Path, Entry>> it = entries.entrySet().iterator();
+		while (bytes > maxBytes && it.hasNext()) {
+			Entry eldest = it.next().getValue();
+			it.remove();
+			release(eldest);
+		}
+	}
+
+	synchronized void clear() {
+		for (Entry entry : entries.values()) {
+			release(entry);
+		}
+		entries.clear();
+	}
+
+	void release(Entry entry) {
+		bytes -= entry.content.readableBytes();
+		entry.content.release();
+	}
+
+	static final class Entry {
+
+		final ByteBuf content;
+		final long    lastModified;
+		final long    size;
+
+		Entry(ByteBuf content, long lastModified, long size) {
+			this.content = content;
+			this.lastModified = lastModified;
+			this.size = size;
+		}
+	}
+}
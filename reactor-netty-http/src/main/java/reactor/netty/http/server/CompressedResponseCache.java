@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import reactor.util.annotation.Nullable;
+
+/**
+ * An off-heap LRU cache of compressed response bodies, keyed by the cache key supplied with
+ * {@link HttpServerResponse#compressionCacheKey(Object)} and the content coding, and bounded by the
+ * total size of the compressed content.
+ * The content is kept in unpooled direct buffers so that long living entries do not retain pooled memory.
+ */
+final class CompressedResponseCache {
+
+	final long maxBytes;
+	final long maxEntryBytes;
+
+	final LinkedHashMap<Key, ByteBuf> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	long bytes;
+
+	CompressedResponseCache(long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("maxBytes: " + maxBytes + " (expected: 0 or greater)");
+		}
+		this.maxBytes = maxBytes;
+		// A single response cannot take more than an eighth of the cache
+		this.maxEntryBytes = maxBytes >> 3;
+	}
+
+	/**
+	 * Returns a retained duplicate of the compressed body, or {@code null} when it is not cached.
+	 *
+	 * @param key the cache key of the response
+	 * @param contentEncoding the content coding
+	 * @return a retained duplicate of the compressed body, to be released by the caller
+	 */
+	@Nullable
+	synchronized ByteBuf get(Object key, String contentEncoding) {
+		ByteBuf content = entries.get(new Key(key, contentEncoding));
+		return content != null ? content.retainedDuplicate() : null;
+	}
+
+	/**
+	 * Caches a copy of the compressed body, evicting the least recently used entries as needed.
+	 * Bodies larger than an eighth of the cache are not cached.
+	 *
+	 * @param key the cache key of the response
+	 * @param contentEncoding the content coding
+	 * @param content the compressed body, not released by this method
+	 */
+	void put(Object key, String contentEncoding, ByteBuf content) {
+		int size = content.readableBytes();
+		if (size > maxEntryBytes) {
+			return;
+		}
+		ByteBuf copy = Unpooled.directBuffer(size);
+		copy.writeBytes(content, content.readerIndex(), size);
+		synchronized (this) {
+			ByteBuf previous = entries.put(new Key(key, contentEncoding), copy);
+			if (previous != null) {
+				release(previous);
+			}
+			bytes += size;
+			Iterator<Map.Entry<Key, ByteBuf>> it = entries.entrySet().iterator();
+			while (bytes > maxBytes && it.hasNext()) {
+				ByteBuf eldest = it.next().getValue();
+				it.remove();
+				release(eldest);
+			}
+		}
+	}
+
+	synchronized void clear() {
+		for (ByteBuf content : entries.values()) {
+			release(content);
+		}
+		entries.clear();
+	}
+
+	void release(ByteBuf content) {
+		bytes -= content.readableBytes();
+		content.release();
+	}
+
+	static final class Key {
+
+		final Object key;
+		final String contentEncoding;
+
+		Key(Object key, String contentEncoding) {
+			this.key = key;
+			this.contentEncoding = contentEncoding;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key that = (Key) o;
+			return key.equals(that.key) && contentEncoding.equals(that.contentEncoding);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(key, contentEncoding);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import io.netty.channel.ChannelHandler;
+
+/**
+ * A factory of encoders for a given HTTP content coding, used to compress the responses of
+ * the {@link HttpServer}.
+ * <p>
+ * The encoder is added to an {@link io.netty.channel.embedded.EmbeddedChannel}, it receives the
+ * {@link io.netty.buffer.ByteBuf} chunks of the response body and must write their encoded form.
+ * When the channel is closed, the encoder must write any pending data and the trailer of the
+ * content coding. The encoders of content codings that are not provided by Netty, such as
+ * {@code br} or {@code zstd}, can be plugged through this interface.
+ *
+ * @since 1.0.3
+ */
+public interface ContentEncoderFactory {
+
+	/**
+	 * Returns a factory of {@code gzip} encoders. The {@link java.util.zip.Deflater} instances are
+	 * pooled per thread and reused across responses.
+	 *
+	 * @return a factory of {@code gzip} encoders
+	 */
+	static ContentEncoderFactory gzip() {
+		return DeflaterEncoder.GZIP;
+	}
+
+	/**
+	 * Returns a factory of {@code deflate} encoders. The {@link java.util.zip.Deflater} instances are
+	 * pooled per thread and reused across responses.
+	 *
+	 * @return a factory of {@code deflate} encoders
+	 */
+	static ContentEncoderFactory deflate() {
+		return DeflaterEncoder.DEFLATE;
+	}
+
+	/**
+	 * Returns the content coding, as used in the {@code Accept-Encoding} and
+	 * {@code Content-Encoding} headers.
+	 *
+	 * @return the content coding
+	 */
+	String contentEncoding();
+
+	/**
+	 * Creates a new encoder for a single response.
+	 *
+	 * @param compressionLevel the compression level between 1 (fastest) and 9 (best compression),
+	 * to be mapped by the factory to the levels of the content coding
+	 * @return a new encoder
+	 */
+	ChannelHandler newEncoder(int compressionLevel);
+}
@@ -17,9 +17,7 @@
 package reactor.netty.http.server;
 
 import java.net.URI;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -30,6 +28,7 @@ import java.util.function.Predicate;
 import org.reactivestreams.Publisher;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
 import reactor.util.annotation.Nullable;
 
 /**
@@ -41,6 +40,21 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 	private final CopyOnWriteArrayList<HttpRouteHandler> handlers =
 			new CopyOnWriteArrayList<>();
 
+	/**
+	 * The routes compiled on first dispatch, compiled again if routes have been added since.
+	 */
+	private volatile HttpRouteIndex index;
+
+	final StaticFileHandler staticFiles;
+
+	DefaultHttpServerRoutes() {
+		this(new StaticFileHandler());
+	}
+
+	DefaultHttpServerRoutes(StaticFileHandler staticFiles) {
+		this.staticFiles = staticFiles;
+	}
+
 	@Override
 	public HttpServerRoutes directory(String uri, Path directory,
 			@Nullable Function<HttpServerResponse, HttpServerResponse> interceptor) {
@@ -55,20 +69,35 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 				prefix = prefix.substring(1);
 			}
 
-			Path p = directory.resolve(prefix);
-			if (Files.isReadable(p)) {
+			StaticFileCache.StaticFile file = staticFiles.files.get(directory.resolve(prefix));
+			if (file.exists()) {
 
 				if (interceptor != null) {
-					return interceptor.apply(resp)
-					                  .sendFile(p);
+					return staticFiles.sendFile(req, interceptor.apply(resp), file);
 				}
-				return resp.sendFile(p);
+				return staticFiles.sendFile(req, resp, file);
 			}
 
 			return resp.sendNotFound();
 		});
 	}
 
+	@Override
+	public HttpServerRoutes file(Predicate<HttpServerRequest> uri, Path path,
+			@Nullable Function<HttpServerResponse, HttpServerResponse> interceptor) {
+		Objects.requireNonNull(path, "path");
+		return route(uri, (req, resp) -> {
+			StaticFileCache.StaticFile file = staticFiles.files.get(path);
+			if (!file.exists()) {
+				return resp.send(ByteBufFlux.fromPath(path));
+			}
+			if (interceptor != null) {
+				return staticFiles.sendFile(req, interceptor.apply(resp), file);
+			}
+			return staticFiles.sendFile(req, resp, file);
+		});
+	}
+
 	@Override
 	public HttpServerRoutes route(Predicate<? super HttpServerRequest> condition,
 			BiFunction<? super HttpServerRequest, ? super HttpServerResponse, ? extends Publisher<Void>> handler) {
@@ -88,15 +117,10 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 
 	@Override
 	public Publisher<Void> apply(HttpServerRequest request, HttpServerResponse response) {
-		final Iterator<HttpRouteHandler> iterator = handlers.iterator();
-		HttpRouteHandler cursor;
-
 		try {
-			while (iterator.hasNext()) {
-				cursor = iterator.next();
-				if (cursor.test(request)) {
-					return cursor.apply(request, response);
-				}
+			Publisher<Void> result = index().apply(request, response);
+			if (result != null) {
+				return result;
 			}
 		}
 		catch (Throwable t) {
@@ -107,6 +131,16 @@ final class DefaultHttpServerRoutes implements HttpServerRoutes {
 		return response.sendNotFound();
 	}
 
+	HttpRouteIndex index() {
+		HttpRouteIndex index = this.index;
+		// routes are only ever added, a different size means the index is stale
+		if (index == null || index.size != handlers.size()) {
+			index = HttpRouteIndex.compile(handlers);
+			this.index = index;
+		}
+		return index;
+	}
+
 	/**
 	 */
 	static final class HttpRouteHandler
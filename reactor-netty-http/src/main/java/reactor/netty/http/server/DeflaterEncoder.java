@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.util.ArrayDeque;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * A {@code gzip} or {@code deflate} encoder, flushing the compressed data after each chunk.
+ * <p>
+ * Unlike {@link io.netty.handler.codec.compression.JdkZlibEncoder}, the {@link Deflater} is borrowed
+ * from a pool local to the current thread (i.e. the event loop) and given back once the response
+ * is complete, instead of allocating its native memory for each response.
+ */
+final class DeflaterEncoder extends MessageToByteEncoder<ByteBuf> {
+
+	static final ContentEncoderFactory GZIP = new Factory("gzip", true);
+
+	static final ContentEncoderFactory DEFLATE = new Factory("deflate", false);
+
+	/**
+	 * The maximum number of idle {@link Deflater} instances kept per thread and content coding
+	 */
+	static final int MAX_POOLED_DEFLATERS = 16;
+
+	static final FastThreadLocal<ArrayDeque<Deflater>> GZIP_DEFLATERS = new DeflaterPool();
+
+	static final FastThreadLocal<ArrayDeque<Deflater>> ZLIB_DEFLATERS = new DeflaterPool();
+
+	static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+	static Deflater acquire(boolean gzip, int level) {
+		Deflater deflater = (gzip ? GZIP_DEFLATERS : ZLIB_DEFLATERS).get().poll();
+		if (deflater == null) {
+			// gzip uses the raw deflate format, the header and the trailer are written by the encoder
+			return new Deflater(level, gzip);
+		}
+		deflater.setLevel(level);
+		return deflater;
+	}
+
+	static void release(Deflater deflater, boolean gzip) {
+		ArrayDeque<Deflater> deflaters = (gzip ? GZIP_DEFLATERS : ZLIB_DEFLATERS).get();
+		if (deflaters.size() < MAX_POOLED_DEFLATERS) {
+			deflater.reset();
+			deflaters.offer(deflater);
+		}
+		else {
+			deflater.end();
+		}
+	}
+
+	final boolean  gzip;
+	final CRC32    crc;
+	final Deflater deflater;
+
+	boolean writeHeader;
+	boolean finished;
+	boolean released;
+
+	DeflaterEncoder(boolean gzip, int level) {
+		if (level < 1 || level > 9) {
+			throw new IllegalArgumentException("compressionLevel: " + level + " (expected: 1-9)");
+		}
+		this.gzip = gzip;
+		this.crc = new CRC32();
+		this.deflater = acquire(gzip, level);
+		this.writeHeader = gzip;
+	}
+
+	@Override
+	protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) {
+		int sizeEstimate = (int) Math.ceil(msg.readableBytes() * 1.001) + 12;
+		if (writeHeader) {
+			sizeEstimate += GZIP_HEADER.length;
+		}
+		// The Deflater works on arrays
+		return ctx.alloc().heapBuffer(sizeEstimate);
+	}
+
+	@Override
+	protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) {
+		if (finished) {
+			out.writeBytes(in);
+			return;
+		}
+		int length = in.readableBytes();
+		if (length == 0) {
+			return;
+		}
+		if (writeHeader) {
+			writeHeader = false;
+			out.writeBytes(GZIP_HEADER);
+		}
+
+		byte[] array;
+		int offset;
+		if (in.hasArray()) {
+			array = in.array();
+			offset = in.arrayOffset() + in.readerIndex();
+		}
+		else {
+			array = new byte[length];
+			in.getBytes(in.readerIndex(), array);
+			offset = 0;
+		}
+		in.skipBytes(length);
+
+		if (gzip) {
+			crc.update(array, offset, length);
+		}
+		deflater.setInput(array, offset, length);
+		deflate(out, Deflater.SYNC_FLUSH);
+	}
+
+	@Override
+	public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+		if (!finished) {
+			finished = true;
+			ByteBuf footer = ctx.alloc().heapBuffer(64);
+			if (writeHeader) {
+				writeHeader = false;
+				footer.writeBytes(GZIP_HEADER);
+			}
+			deflater.finish();
+			while (!deflater.finished()) {
+				deflate(footer, Deflater.NO_FLUSH);
+			}
+			if (gzip) {
+				footer.writeIntLE((int) crc.getValue());
+				footer.writeIntLE((int) deflater.getBytesRead());
+			}
+			ctx.writeAndFlush(footer);
+		}
+		ctx.close(promise);
+	}
+
+	@Override
+	public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+		if (!released) {
+			released = true;
+			release(deflater, gzip);
+		}
+		super.handlerRemoved(ctx);
+	}
+
+	void deflate(ByteBuf out, int flush) {
+		for (;;) {
+			out.ensureWritable(64);
+			int writerIndex = out.writerIndex();
+			int writable = out.writableBytes();
+			int numBytes = deflater.deflate(out.array(), out.arrayOffset() + writerIndex, writable, flush);
+			out.writerIndex(writerIndex + numBytes);
+			// The output buffer being full, the deflater may have more to write
+			if (numBytes < writable && (deflater.needsInput() || deflater.finished())) {
+				return;
+			}
+		}
+	}
+
+	static final class DeflaterPool extends FastThreadLocal<ArrayDeque<Deflater>> {
+
+		@Override
+		protected ArrayDeque<Deflater> initialValue() {
+			return new ArrayDeque<>(MAX_POOLED_DEFLATERS);
+		}
+
+		@Override
+		protected void onRemoval(ArrayDeque<Deflater> deflaters) {
+			Deflater deflater;
+			while ((deflater = deflaters.poll()) != null) {
+				deflater.end();
+			}
+		}
+	}
+
+	static final class Factory implements ContentEncoderFactory {
+
+		final String  contentEncoding;
+		final boolean gzip;
+
+		Factory(String contentEncoding, boolean gzip) {
+			this.contentEncoding = contentEncoding;
+			this.gzip = gzip;
+		}
+
+		@Override
+		public String contentEncoding() {
+			return contentEncoding;
+		}
+
+		@Override
+		public ChannelHandler newEncoder(int compressionLevel) {
+			return new DeflaterEncoder(gzip, compressionLevel);
+		}
+
+		@Override
+		public String toString() {
+			return contentEncoding;
+		}
+	}
+}
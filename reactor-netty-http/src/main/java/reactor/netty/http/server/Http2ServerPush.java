@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.util.function.Consumer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2ConnectionDecoder;
+import io.netty.handler.codec.http2.Http2ConnectionEncoder;
+import io.netty.handler.codec.http2.Http2Error;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2FrameListener;
+import io.netty.handler.codec.http2.Http2FrameListenerDecorator;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.util.ReferenceCounted;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.FutureMono;
+
+import static reactor.netty.ReactorNetty.format;
+
+/**
+ * Writes a {@code PUSH_PROMISE} on the stream of a request and the pushed response on the
+ * promised stream.
+ * <p>
+ * The promised streams have no child channel, the {@link Http2FrameCodec} does not create them for
+ * the streams reserved by the server. The pushed response is therefore written with the
+ * {@link Http2ConnectionEncoder} of the connection, which applies the flow control of the promised
+ * stream, and the {@code RST_STREAM} and {@code WINDOW_UPDATE} frames received for the promised
+ * streams are not passed on to the {@link Http2FrameCodec}, which would fail to find their child
+ * channel.
+ */
+final class Http2ServerPush {
+
+	/**
+	 * Pushes a response on the connection of the given stream.
+	 *
+	 * @param stream the stream of the request
+	 * @param requestHeaders the headers of the promised request
+	 * @param responseHeaders the headers of the pushed response
+	 * @param content the body of the pushed response
+	 * @return a {@link Mono} completing once the pushed response is written, or without pushing
+	 * when the client does not accept more pushes, in which case the content is released
+	 */
+	static Mono<Void> push(Http2StreamChannel stream, Http2Headers requestHeaders, Http2Headers responseHeaders,
+			Publisher<? extends ByteBuf> content) {
+		ChannelHandlerContext ctx = stream.parent().pipeline().context(Http2FrameCodec.class);
+		if (ctx == null) {
+			return discard(content);
+		}
+		Http2FrameCodec codec = (Http2FrameCodec) ctx.handler();
+		return promise(ctx, codec, stream.stream().id(), requestHeaders)
+				.onErrorResume(t -> discard(content).then(Mono.error(t)))
+				.switchIfEmpty(discard(content))
+				.flatMap(promisedStreamId -> write(ctx, codec, promisedStreamId, responseHeaders, content));
+	}
+
+	/**
+	 * Releases the content of a response that is not pushed.
+	 *
+	 * @param content the body of the response
+	 * @return a {@link Mono} completing once the content is released
+	 */
+	static <T> Mono<T> discard(Publisher<? extends ByteBuf> content) {
+		return Flux.from(content)
+		           .doOnNext(ReferenceCounted::release)
+		           .then(Mono.empty());
+	}
+
+	static Mono<Integer> promise(ChannelHandlerContext ctx, Http2FrameCodec codec, int streamId, Http2Headers headers) {
+		return Mono.create(sink -> execute(ctx, () -> {
+			Http2Connection connection = codec.connection();
+			if (!connection.remote().allowPushTo() || !connection.local().canOpenStream()) {
+				if (HttpServerOperations.log.isDebugEnabled()) {
+					HttpServerOperations.log.debug(format(ctx.channel(), "Push of {} not accepted by the client"),
+							headers.path());
+				}
+				sink.success();
+				return;
+			}
+			Http2ConnectionDecoder decoder = codec.decoder();
+			if (!(decoder.frameListener() instanceof PushedStreamFrameListener)) {
+				decoder.frameListener(new PushedStreamFrameListener(decoder.frameListener(), connection));
+			}
+			int promisedStreamId = connection.local().incrementAndGetNextStreamId();
+			ChannelPromise promise = ctx.newPromise();
+			codec.encoder().writePushPromise(ctx, streamId, promisedStreamId, headers, 0, promise);
+			ctx.flush();
+			promise.addListener(f -> {
+				if (f.isSuccess()) {
+					sink.success(promisedStreamId);
+				}
+				else {
+					sink.error(f.cause());
+				}
+			});
+		}));
+	}
+
+	static Mono<Void> write(ChannelHandlerContext ctx, Http2FrameCodec codec, int streamId, Http2Headers headers,
+			Publisher<? extends ByteBuf> content) {
+		Http2ConnectionEncoder encoder = codec.encoder();
+		return FutureMono.deferFuture(() -> execute(ctx, p -> encoder.writeHeaders(ctx, streamId, headers, 0, false, p)))
+		                 .thenMany(Flux.from(content)
+		                               .concatMap(data -> FutureMono.deferFuture(() ->
+		                                       execute(ctx, p -> encoder.writeData(ctx, streamId, data, 0, false, p))), 1)
+		                               .doOnDiscard(ReferenceCounted.class, ReferenceCounted::release))
+		                 .then(FutureMono.deferFuture(() ->
+		                         execute(ctx, p -> encoder.writeData(ctx, streamId, Unpooled.EMPTY_BUFFER, 0, true, p))))
+		                 .doOnError(t -> execute(ctx, p -> {
+		                     if (codec.connection().stream(streamId) != null) {
+		                         encoder.writeRstStream(ctx, streamId, Http2Error.INTERNAL_ERROR.code(), p);
+		                     }
+		                     else {
+		                         p.setSuccess();
+		                     }
+		                 }));
+	}
+
+	static ChannelFuture execute(ChannelHandlerContext ctx, Consumer<ChannelPromise> write) {
+		ChannelPromise promise = ctx.newPromise();
+		execute(ctx, () -> {
+			write.accept(promise);
+			ctx.flush();
+		});
+		return promise;
+	}
+
+	static void execute(ChannelHandlerContext ctx, Runnable task) {
+		if (ctx.executor().inEventLoop()) {
+			task.run();
+		}
+		else {
+			ctx.executor().execute(task);
+		}
+	}
+
+	/**
+	 * Handles the frames received for the streams reserved by the server, all the other frames are
+	 * passed on to the {@link Http2FrameCodec}.
+	 */
+	static final class PushedStreamFrameListener extends Http2FrameListenerDecorator {
+
+		final Http2Connection connection;
+
+		PushedStreamFrameListener(Http2FrameListener listener, Http2Connection connection) {
+			super(listener);
+			this.connection = connection;
+		}
+
+		@Override
+		public void onRstStreamRead(ChannelHandlerContext ctx, int streamId, long errorCode) throws Http2Exception {
+			if (isPushedStream(streamId)) {
+				if (HttpServerOperations.log.isDebugEnabled()) {
+					HttpServerOperations.log.debug(format(ctx.channel(), "Pushed stream {} reset by the client: {}"),
+							streamId, errorCode);
+				}
+				return;
+			}
+			super.onRstStreamRead(ctx, streamId, errorCode);
+		}
+
+		@Override
+		public void onWindowUpdateRead(ChannelHandlerContext ctx, int streamId, int windowSizeIncrement) throws Http2Exception {
+			// The flow controller of the encoder is already updated
+			if (isPushedStream(streamId)) {
+				return;
+			}
+			super.onWindowUpdateRead(ctx, streamId, windowSizeIncrement);
+		}
+
+		boolean isPushedStream(int streamId) {
+			return streamId != 0 && connection.local().isValidStreamId(streamId);
+		}
+	}
+}
@@ -24,6 +24,8 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.DecoderResult;
+import io.netty.handler.codec.DecoderResultProvider;
 import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
@@ -49,6 +51,7 @@ final class Http2StreamBridgeServerHandler extends ChannelDuplexHandler {
 	final ServerCookieDecoder                                     cookieDecoder;
 	final ServerCookieEncoder                                     cookieEncoder;
 	final BiPredicate<HttpServerRequest, HttpServerResponse>      compress;
+	final HttpCompressionSettingsSpec                             compressionSettings;
 	final ConnectionObserver                                      listener;
 	final BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler;
 	final BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>>      mapHandle;
@@ -58,10 +61,12 @@ final class Http2StreamBridgeServerHandler extends ChannelDuplexHandler {
 
 	Http2StreamBridgeServerHandler(ConnectionObserver listener,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compress,
+			@Nullable HttpCompressionSettingsSpec compressionSettings,
 			@Nullable BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler,
 			ServerCookieEncoder encoder, ServerCookieDecoder decoder,
 			@Nullable BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>> mapHandle) {
 		this.compress = compress;
+		this.compressionSettings = compressionSettings;
 		this.cookieDecoder = decoder;
 		this.cookieEncoder = encoder;
 		this.listener = listener;
@@ -94,6 +99,7 @@ final class Http2StreamBridgeServerHandler extends ChannelDuplexHandler {
 				ops = new HttpServerOperations(Connection.from(ctx.channel()),
 						listener,
 						compress,
+						compressionSettings,
 						request,
 						ConnectionInfo.from(ctx.channel().parent(),
 						                    request,
@@ -112,6 +118,13 @@ final class Http2StreamBridgeServerHandler extends ChannelDuplexHandler {
 			ops.bind();
 			listener.onStateChange(ops, ConnectionObserver.State.CONFIGURED);
 		}
+		else if (msg instanceof DecoderResultProvider) {
+			DecoderResult decoderResult = ((DecoderResultProvider) msg).decoderResult();
+			if (decoderResult.isFailure()) {
+				HttpServerOperations.sendDecodingFailures(ctx, listener, secured, decoderResult.cause(), msg);
+				return;
+			}
+		}
 		ctx.fireChannelRead(msg);
 	}
 
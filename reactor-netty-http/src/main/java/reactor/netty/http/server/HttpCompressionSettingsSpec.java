@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import reactor.util.annotation.Nullable;
+
+/**
+ * A configuration builder to fine tune the response compression enabled with
+ * {@link HttpServer#compress(boolean)}, {@link HttpServer#compress(int)} or
+ * {@link HttpServer#compress(java.util.function.BiPredicate)}.
+ *
+ * @since 1.0.3
+ */
+public final class HttpCompressionSettingsSpec {
+
+	public interface Builder {
+
+		/**
+		 * Build a new {@link HttpCompressionSettingsSpec}
+		 *
+		 * @return a new {@link HttpCompressionSettingsSpec}
+		 */
+		HttpCompressionSettingsSpec build();
+
+		/**
+		 * Sets the supported content codings, in the order of preference of the server when the
+		 * client accepts several of them with the same weight.
+		 * Default to {@link ContentEncoderFactory#gzip()}, {@link ContentEncoderFactory#deflate()}.
+		 *
+		 * @param encoders the supported content codings
+		 * @return {@code this}
+		 */
+		Builder encoders(ContentEncoderFactory... encoders);
+
+		/**
+		 * Sets the default compression level between 1 (fastest) and 9 (best compression).
+		 * Default to {@link #DEFAULT_COMPRESSION_LEVEL}.
+		 *
+		 * @param compressionLevel the default compression level
+		 * @return {@code this}
+		 */
+		Builder compressionLevel(int compressionLevel);
+
+		/**
+		 * Sets the compression level of the responses with the given content type, the longest
+		 * matching prefix wins, e.g. {@code text/} or {@code image/svg+xml}.
+		 * A compression level of 0 disables the compression of these responses.
+		 *
+		 * @param contentType the content type or its prefix
+		 * @param compressionLevel the compression level between 0 (no compression) and 9 (best compression)
+		 * @return {@code this}
+		 */
+		Builder compressionLevel(String contentType, int compressionLevel);
+
+		/**
+		 * Sets the maximum size in bytes of the cache of the compressed bodies of the responses
+		 * that have a {@link HttpServerResponse#compressionCacheKey(Object) cache key}.
+		 * Default to 0, the cache is disabled.
+		 *
+		 * @param cacheMaxSize the maximum size in bytes of the cache
+		 * @return {@code this}
+		 */
+		Builder cacheMaxSize(long cacheMaxSize);
+	}
+
+	/**
+	 * Default compression level.
+	 */
+	public static final int DEFAULT_COMPRESSION_LEVEL = 6;
+
+	/**
+	 * Creates a builder for {@link HttpCompressionSettingsSpec}.
+	 *
+	 * @return a new {@link HttpCompressionSettingsSpec.Builder}
+	 */
+	public static Builder builder() {
+		return new Build();
+	}
+
+	/**
+	 * Returns the supported content codings, in the order of preference of the server.
+	 *
+	 * @return the supported content codings
+	 */
+	public List<ContentEncoderFactory> encoders() {
+		return encoders;
+	}
+
+	/**
+	 * Returns the default compression level.
+	 *
+	 * @return the default compression level
+	 */
+	public int compressionLevel() {
+		return compressionLevel;
+	}
+
+	/**
+	 * Returns the compression levels per content type.
+	 *
+	 * @return the compression levels per content type
+	 */
+	public Map<String, Integer> contentTypeCompressionLevels() {
+		return contentTypeCompressionLevels;
+	}
+
+	/**
+	 * Returns the maximum size in bytes of the cache of the compressed bodies.
+	 *
+	 * @return the maximum size in bytes of the cache of the compressed bodies
+	 */
+	public long cacheMaxSize() {
+		return cacheMaxSize;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof HttpCompressionSettingsSpec)) {
+			return false;
+		}
+		HttpCompressionSettingsSpec that = (HttpCompressionSettingsSpec) o;
+		return compressionLevel == that.compressionLevel &&
+				cacheMaxSize == that.cacheMaxSize &&
+				encoders.equals(that.encoders) &&
+				contentTypeCompressionLevels.equals(that.contentTypeCompressionLevels);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(encoders, compressionLevel, contentTypeCompressionLevels, cacheMaxSize);
+	}
+
+	/**
+	 * Returns the compression level of a response with the given content type.
+	 *
+	 * @param contentType the {@code Content-Type} header value, if any
+	 * @return the compression level, 0 when the response is not to be compressed
+	 */
+	int compressionLevel(@Nullable String contentType) {
+		if (contentType == null || contentTypeCompressionLevels.isEmpty()) {
+			return compressionLevel;
+		}
+		String type = contentType.toLowerCase(Locale.ROOT);
+		int level = compressionLevel;
+		int matchLength = -1;
+		for (Map.Entry<String, Integer> entry : contentTypeCompressionLevels.entrySet()) {
+			String prefix = entry.getKey();
+			if (prefix.length() > matchLength && type.startsWith(prefix)) {
+				level = entry.getValue();
+				matchLength = prefix.length();
+			}
+		}
+		return level;
+	}
+
+	final List<ContentEncoderFactory> encoders;
+	final int compressionLevel;
+	final Map<String, Integer> contentTypeCompressionLevels;
+	final long cacheMaxSize;
+
+	@Nullable
+	final CompressedResponseCache cache;
+
+	HttpCompressionSettingsSpec(Build build) {
+		encoders = Collections.unmodifiableList(new ArrayList<>(build.encoders));
+		compressionLevel = build.compressionLevel;
+		contentTypeCompressionLevels = Collections.unmodifiableMap(new LinkedHashMap<>(build.contentTypeCompressionLevels));
+		cacheMaxSize = build.cacheMaxSize;
+		cache = cacheMaxSize > 0 ? new CompressedResponseCache(cacheMaxSize) : null;
+	}
+
+	static final class Build implements Builder {
+		List<ContentEncoderFactory> encoders = Arrays.asList(ContentEncoderFactory.gzip(), ContentEncoderFactory.deflate());
+		int compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+		final Map<String, Integer> contentTypeCompressionLevels = new LinkedHashMap<>();
+		long cacheMaxSize;
+
+		@Override
+		public HttpCompressionSettingsSpec build() {
+			return new HttpCompressionSettingsSpec(this);
+		}
+
+		@Override
+		public Builder encoders(ContentEncoderFactory... encoders) {
+			Objects.requireNonNull(encoders, "encoders");
+			if (encoders.length == 0) {
+				throw new IllegalArgumentException("At least one encoder is required");
+			}
+			for (ContentEncoderFactory encoder : encoders) {
+				Objects.requireNonNull(encoder, "encoder");
+			}
+			this.encoders = Arrays.asList(encoders);
+			return this;
+		}
+
+		@Override
+		public Builder compressionLevel(int compressionLevel) {
+			if (compressionLevel < 1 || compressionLevel > 9) {
+				throw new IllegalArgumentException("compressionLevel: " + compressionLevel + " (expected: 1-9)");
+			}
+			this.compressionLevel = compressionLevel;
+			return this;
+		}
+
+		@Override
+		public Builder compressionLevel(String contentType, int compressionLevel) {
+			Objects.requireNonNull(contentType, "contentType");
+			if (compressionLevel < 0 || compressionLevel > 9) {
+				throw new IllegalArgumentException("compressionLevel: " + compressionLevel + " (expected: 0-9)");
+			}
+			contentTypeCompressionLevels.put(contentType.toLowerCase(Locale.ROOT), compressionLevel);
+			return this;
+		}
+
+		@Override
+		public Builder cacheMaxSize(long cacheMaxSize) {
+			if (cacheMaxSize < 0) {
+				throw new IllegalArgumentException("cacheMaxSize: " + cacheMaxSize + " (expected: 0 or greater)");
+			}
+			this.cacheMaxSize = cacheMaxSize;
+			return this;
+		}
+	}
+}
@@ -16,10 +16,14 @@
 
 package reactor.netty.http.server;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
@@ -227,6 +231,12 @@ final class HttpPredicate
 	 * Represents a URI template. A URI template is a URI-like String that contains
 	 * variables enclosed by braces (<code>{</code>, <code>}</code>), which can be
 	 * expanded to produce an actual URI.
+	 * <p>
+	 * Templates made only of literal, {@code {param}} and trailing {@code **} or
+	 * {@code {param}**} segments are matched segment by segment against the uri, recording
+	 * the offsets of the path parameters instead of copying them. Within literal segments
+	 * {@code '.'} matches any character but {@code '/'}. Any other template is compiled to a
+	 * regular expression.
 	 *
 	 * @author Arjen Poutsma
 	 * @author Juergen Hoeller
@@ -248,10 +258,30 @@ final class HttpPredicate
 		private static final Pattern URL_PATTERN            =
 				Pattern.compile("(?:(\\w+)://)?((?:\\[.+?])|(?<!\\[)(?:[^/?]+?))(?::(\\d{2,5}))?([/?].*)?");
 
+		private static final String SPLAT = "**";
+
 		private final List<String> pathVariables = new ArrayList<>();
 
 		private final Pattern uriPattern;
 
+		/**
+		 * The template segments, {@code null} when the template can only be matched with
+		 * {@link #uriPattern}.
+		 */
+		@Nullable
+		final String[] segments;
+
+		/**
+		 * The names of the variables indexed by segment, {@code null} for literal segments.
+		 */
+		@Nullable
+		final String[] variables;
+
+		/**
+		 * Whether the last segment matches the remaining of the path.
+		 */
+		final boolean splat;
+
 		private static String getNameSplatReplacement(String name) {
 			return "(?<" + name + ">.*)";
 		}
@@ -286,13 +316,88 @@ final class HttpPredicate
 			}
 		}
 
+		/**
+		 * Returns the index where the path ends in the given uri, i.e. the index of the
+		 * query or the uri length.
+		 */
+		static int pathEnd(String path) {
+			int query = path.lastIndexOf('?');
+			return query != -1 ? query : path.length();
+		}
+
+		/**
+		 * Returns the index of the next {@code '/'} from {@code start}, or {@code end}.
+		 */
+		static int segmentEnd(String path, int start, int end) {
+			for (int i = start; i < end; i++) {
+				if (path.charAt(i) == '/') {
+					return i;
+				}
+			}
+			return end;
+		}
+
+		/**
+		 * Returns whether the literal segment matches the path between {@code start} and
+		 * {@code end}, {@code '.'} matching any character.
+		 */
+		static boolean literalMatches(String literal, String path, int start, int end) {
+			if (literal.length() != end - start) {
+				return false;
+			}
+			for (int i = 0; i < literal.length(); i++) {
+				char c = literal.charAt(i);
+				if (c != '.' && c != path.charAt(start + i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		static boolean isVariable(String segment, int end) {
+			if (end < 3 || segment.charAt(0) != '{' || segment.charAt(end - 1) != '}') {
+				return false;
+			}
+			for (int i = 1; i < end - 1; i++) {
+				char c = segment.charAt(i);
+				if (c == '{' || c == '}') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		static boolean isLiteral(String segment) {
+			for (int i = 0; i < segment.length(); i++) {
+				switch (segment.charAt(i)) {
+					case '\\':
+					case '[':
+					case ']':
+					case '(':
+					case ')':
+					case '{':
+					case '}':
+					case '*':
+					case '+':
+					case '?':
+					case '^':
+					case '$':
+					case '|':
+						return false;
+					default:
+				}
+			}
+			return true;
+		}
+
 		/**
 		 * Creates a new {@code UriPathTemplate} from the given {@code uriPattern}.
 		 *
 		 * @param uriPattern The pattern to be used by the template
 		 */
 		UriPathTemplate(String uriPattern) {
-			String s = "^" + filterQueryParams(filterHostAndPort(uriPattern));
+			String path = filterQueryParams(filterHostAndPort(uriPattern));
+			String s = "^" + path;
 
 			Matcher m = NAME_SPLAT_PATTERN.matcher(s);
 			while (m.find()) {
@@ -321,6 +426,37 @@ final class HttpPredicate
 			}
 
 			this.uriPattern = Pattern.compile(s + "$");
+
+			String[] segments = null;
+			String[] variables = null;
+			boolean splat = false;
+			if (path.startsWith("/")) {
+				segments = path.substring(1).split("/", -1);
+				variables = new String[segments.length];
+				for (int i = 0; i < segments.length; i++) {
+					String segment = segments[i];
+					boolean last = i == segments.length - 1;
+					if (last && segment.equals(SPLAT)) {
+						splat = true;
+					}
+					else if (last && segment.endsWith(SPLAT) && isVariable(segment, segment.length() - SPLAT.length())) {
+						splat = true;
+						variables[i] = segment.substring(1, segment.length() - SPLAT.length() - 1);
+					}
+					else if (isVariable(segment, segment.length())) {
+						variables[i] = segment.substring(1, segment.length() - 1);
+					}
+					else if (!isLiteral(segment)) {
+						segments = null;
+						variables = null;
+						splat = false;
+						break;
+					}
+				}
+			}
+			this.segments = segments;
+			this.variables = variables;
+			this.splat = splat;
 		}
 
 		/**
@@ -332,6 +468,10 @@ final class HttpPredicate
 		 * @return {@code true} if there's a match, {@code false} otherwise
 		 */
 		public boolean matches(String uri) {
+			if (segments != null) {
+				String path = filterHostAndPort(uri);
+				return match(path, pathEnd(path), null);
+			}
 			return matcher(uri).matches();
 		}
 
@@ -345,6 +485,15 @@ final class HttpPredicate
 		 * @return the path parameters from the uri. Never {@code null}.
 		 */
 		final Map<String, String> match(String uri) {
+			if (segments != null) {
+				String path = filterHostAndPort(uri);
+				int[] offsets = new int[segments.length * 2];
+				if (match(path, pathEnd(path), offsets)) {
+					return new PathParams(path, pathVariables.size(), variables, offsets);
+				}
+				return Collections.emptyMap();
+			}
+
 			Map<String, String> pathParameters = new HashMap<>(pathVariables.size());
 
 			Matcher m = matcher(uri);
@@ -358,6 +507,43 @@ final class HttpPredicate
 			return pathParameters;
 		}
 
+		/**
+		 * Matches the segments of this template against the path up to {@code end},
+		 * recording the start and end offsets of each segment when {@code offsets} is
+		 * provided.
+		 *
+		 * @return {@code true} if there's a match, {@code false} otherwise
+		 */
+		boolean match(String path, int end, @Nullable int[] offsets) {
+			String[] segments = this.segments;
+			String[] variables = this.variables;
+			if (segments == null || variables == null) {
+				return false;
+			}
+
+			int start = 1;
+			int last = segments.length - 1;
+			for (int i = 0; i <= last; i++) {
+				int segmentEnd = splat && i == last ? end : segmentEnd(path, start, end);
+				if (variables[i] == null && !(splat && i == last) &&
+						!literalMatches(segments[i], path, start, segmentEnd)) {
+					return false;
+				}
+				if (offsets != null) {
+					offsets[2 * i] = start;
+					offsets[2 * i + 1] = segmentEnd;
+				}
+				if (i == last) {
+					return segmentEnd == end;
+				}
+				if (segmentEnd == end) {
+					return false;
+				}
+				start = segmentEnd + 1;
+			}
+			return false;
+		}
+
 		private Matcher matcher(String uri) {
 			uri = filterQueryParams(filterHostAndPort(uri));
 			return uriPattern.matcher(uri);
@@ -365,6 +551,80 @@ final class HttpPredicate
 
 	}
 
+	/**
+	 * The path parameters matched by an {@link UriPathTemplate}, recorded as offsets in the
+	 * matched path. A parameter value is copied out of the path the first time it is read.
+	 */
+	static final class PathParams extends AbstractMap<String, String> {
+
+		final String   path;
+		final int      size;
+		final String[] names;
+		final int[]    offsets;
+
+		String[] values;
+
+		PathParams(String path, int size, String[] names, int[] offsets) {
+			this.path = path;
+			this.size = size;
+			this.names = names;
+			this.offsets = offsets;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return indexOf(key) != -1;
+		}
+
+		@Override
+		@Nullable
+		public String get(Object key) {
+			int index = indexOf(key);
+			return index != -1 ? value(index) : null;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public Set<Entry<String, String>> entrySet() {
+			Map<String, String> params = new LinkedHashMap<>(size);
+			for (int i = 0; i < names.length; i++) {
+				if (names[i] != null) {
+					params.put(names[i], value(i));
+				}
+			}
+			return Collections.unmodifiableMap(params).entrySet();
+		}
+
+		int indexOf(@Nullable Object key) {
+			if (key != null) {
+				for (int i = 0; i < names.length; i++) {
+					if (key.equals(names[i])) {
+						return i;
+					}
+				}
+			}
+			return -1;
+		}
+
+		String value(int index) {
+			String[] values = this.values;
+			if (values == null) {
+				values = new String[names.length];
+				this.values = values;
+			}
+			String value = values[index];
+			if (value == null) {
+				value = path.substring(offsets[2 * index], offsets[2 * index + 1]);
+				values[index] = value;
+			}
+			return value;
+		}
+	}
+
 	static final class HttpPrefixPredicate implements Predicate<HttpServerRequest> {
 
 		final HttpMethod method;
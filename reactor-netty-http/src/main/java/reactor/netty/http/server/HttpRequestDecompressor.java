@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.util.List;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.DecoderResult;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Inflates the {@code gzip} and {@code deflate} encoded request bodies as the content arrives,
+ * the decompressed chunks are passed on as they are produced without aggregating the body.
+ * <p>
+ * When the decompressed size of a request body exceeds the configured maximum, the rest of the
+ * body is discarded and a {@link LastHttpContent} with a failed {@link DecoderResult} is passed on
+ * instead, so that the request is answered with {@code 413 Request Entity Too Large}.
+ */
+final class HttpRequestDecompressor extends HttpContentDecompressor {
+
+	final long maxDecompressedSize;
+
+	boolean decompressing;
+	long    decompressedSize;
+	boolean tooLarge;
+
+	HttpRequestDecompressor(long maxDecompressedSize) {
+		if (maxDecompressedSize < 0) {
+			throw new IllegalArgumentException("maxDecompressedSize: " + maxDecompressedSize + " (expected: 0 or greater)");
+		}
+		this.maxDecompressedSize = maxDecompressedSize;
+	}
+
+	@Override
+	protected void decode(ChannelHandlerContext ctx, HttpObject msg, List<Object> out) throws Exception {
+		if (msg instanceof HttpRequest) {
+			decompressing = isCompressed(((HttpRequest) msg).headers().get(HttpHeaderNames.CONTENT_ENCODING));
+			decompressedSize = 0;
+			tooLarge = false;
+		}
+		else if (tooLarge) {
+			// The message is released by MessageToMessageDecoder
+			return;
+		}
+
+		int index = out.size();
+		super.decode(ctx, msg, out);
+		if (!decompressing) {
+			return;
+		}
+
+		for (int i = index; i < out.size(); i++) {
+			Object decoded = out.get(i);
+			if (decoded instanceof HttpContent) {
+				decompressedSize += ((HttpContent) decoded).content().readableBytes();
+			}
+		}
+		if (decompressedSize > maxDecompressedSize) {
+			tooLarge = true;
+			for (int i = out.size() - 1; i >= index; i--) {
+				if (!(out.get(i) instanceof HttpRequest)) {
+					ReferenceCountUtil.release(out.remove(i));
+				}
+			}
+			LastHttpContent failure = new DefaultLastHttpContent(Unpooled.EMPTY_BUFFER);
+			failure.setDecoderResult(DecoderResult.failure(new TooLongFrameException(
+					"Decompressed request body is larger than " + maxDecompressedSize + " bytes.")));
+			out.add(failure);
+		}
+	}
+
+	static boolean isCompressed(@Nullable String contentEncoding) {
+		if (contentEncoding == null) {
+			return false;
+		}
+		String encoding = contentEncoding.trim();
+		return HttpHeaderValues.GZIP.contentEqualsIgnoreCase(encoding) ||
+				HttpHeaderValues.X_GZIP.contentEqualsIgnoreCase(encoding) ||
+				HttpHeaderValues.DEFLATE.contentEqualsIgnoreCase(encoding) ||
+				HttpHeaderValues.X_DEFLATE.contentEqualsIgnoreCase(encoding);
+	}
+}
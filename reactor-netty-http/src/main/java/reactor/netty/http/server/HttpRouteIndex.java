@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.http.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.reactivestreams.Publisher;
+import reactor.netty.http.server.DefaultHttpServerRoutes.HttpRouteHandler;
+import reactor.netty.http.server.HttpPredicate.UriPathTemplate;
+import reactor.util.annotation.Nullable;
+
+/**
+ * An immutable, compiled view of the routes registered on {@link DefaultHttpServerRoutes}.
+ * <p>
+ * Routes declared with an {@link HttpPredicate} whose template is made only of literal,
+ * {@code {param}} and trailing {@code **} or {@code {param}**} segments are indexed per
+ * {@link HttpMethod} in a segment tree, so that dispatch does not evaluate any regular
+ * expression and its cost does not grow with the number of routes. Any other route is kept
+ * in a fallback list that is evaluated in order.
+ * <p>
+ * The first route matching in order of declaration is always the one selected, whichever
+ * structure holds it. Path parameters are not extracted at dispatch, they are resolved by
+ * the {@link HttpPredicate} only if the handler reads them.
+ */
+final class HttpRouteIndex {
+
+	static final Node[]              EMPTY_NODES    = new Node[0];
+	static final Route[]             EMPTY_ROUTES   = new Route[0];
+	static final HttpRouteHandler[]  EMPTY_HANDLERS = new HttpRouteHandler[0];
+
+	/**
+	 * Compile the given routes, the position in the list being the declaration order.
+	 *
+	 * @param handlers the routes in order of declaration
+	 * @return a new {@link HttpRouteIndex}
+	 */
+	static HttpRouteIndex compile(List<HttpRouteHandler> handlers) {
+		Map<HttpMethod, Node> roots = new HashMap<>();
+		List<HttpRouteHandler> fallback = new ArrayList<>();
+		List<Integer> fallbackOrdinals = new ArrayList<>();
+
+		int ordinal = 0;
+		for (HttpRouteHandler handler : handlers) {
+			Route route = null;
+			if (handler.condition instanceof HttpPredicate) {
+				route = Route.compile(ordinal, handler, (HttpPredicate) handler.condition);
+			}
+
+			if (route != null) {
+				roots.computeIfAbsent(route.method, m -> new Node(null))
+				     .add(route, 0);
+			}
+			else {
+				fallback.add(handler);
+				fallbackOrdinals.add(ordinal);
+			}
+			ordinal++;
+		}
+
+		int[] ordinals = new int[fallbackOrdinals.size()];
+		for (int i = 0; i < ordinals.length; i++) {
+			ordinals[i] = fallbackOrdinals.get(i);
+		}
+		return new HttpRouteIndex(ordinal, roots, fallback.toArray(EMPTY_HANDLERS), ordinals);
+	}
+
+	final int                   size;
+	final Map<HttpMethod, Node> roots;
+	final HttpRouteHandler[]    fallback;
+	final int[]                 fallbackOrdinals;
+
+	HttpRouteIndex(int size, Map<HttpMethod, Node> roots, HttpRouteHandler[] fallback, int[] fallbackOrdinals) {
+		this.size = size;
+		this.roots = roots;
+		this.fallback = fallback;
+		this.fallbackOrdinals = fallbackOrdinals;
+	}
+
+	/**
+	 * Invoke the first route, in order of declaration, matching the given request.
+	 *
+	 * @param request the request to dispatch
+	 * @param response the response to pass to the selected route
+	 * @return the result of the selected route or {@code null} if no route matches
+	 */
+	@Nullable
+	Publisher<Void> apply(HttpServerRequest request, HttpServerResponse response) {
+		Route route = roots.isEmpty() ? null : find(request.method(), request.version(), request.uri());
+		int limit = route != null ? route.ordinal : Integer.MAX_VALUE;
+		for (int i = 0; i < fallback.length && fallbackOrdinals[i] < limit; i++) {
+			if (fallback[i].test(request)) {
+				return fallback[i].apply(request, response);
+			}
+		}
+		return route != null ? route.handler.apply(request, response) : null;
+	}
+
+	/**
+	 * Find the first indexed route, in order of declaration, matching the given
+	 * method, protocol version and uri.
+	 *
+	 * @param method the request method
+	 * @param version the request protocol version
+	 * @param uri the request uri
+	 * @return the first matching {@link Route} or {@code null}
+	 */
+	@Nullable
+	Route find(HttpMethod method, HttpVersion version, String uri) {
+		Node root = roots.get(method);
+		if (root == null) {
+			return null;
+		}
+		String path = uri.startsWith("/") ? uri : UriPathTemplate.filterHostAndPort(uri);
+		return root.match(path, 1, UriPathTemplate.pathEnd(path), version, null);
+	}
+
+	/**
+	 * A node of the segment tree. The children of a node describe the segment that follows
+	 * the path leading to that node.
+	 */
+	static final class Node {
+
+		@Nullable
+		final String literal;
+
+		// literal children without '.', in an open addressing table hashed like String
+		Node[]  exact    = EMPTY_NODES;
+		int     exactSize;
+		// literal children with '.', matched one after the other
+		Node[]  literals = EMPTY_NODES;
+		Node    variable;
+		Route[] routes   = EMPTY_ROUTES;
+		Route[] splats   = EMPTY_ROUTES;
+		int     min      = Integer.MAX_VALUE;
+
+		Node(@Nullable String literal) {
+			this.literal = literal;
+		}
+
+		void add(Route route, int index) {
+			min = Math.min(min, route.ordinal);
+			if (index == route.segments.length - 1 && route.splat) {
+				splats = append(splats, route);
+				return;
+			}
+
+			Node child;
+			if (route.variables[index] != null) {
+				if (variable == null) {
+					variable = new Node(null);
+				}
+				child = variable;
+			}
+			else {
+				child = literal(route.segments[index]);
+			}
+
+			if (index == route.segments.length - 1) {
+				child.min = Math.min(child.min, route.ordinal);
+				child.routes = append(child.routes, route);
+			}
+			else {
+				child.add(route, index + 1);
+			}
+		}
+
+		Node literal(String segment) {
+			if (segment.indexOf('.') != -1) {
+				for (Node node : literals) {
+					if (segment.equals(node.literal)) {
+						return node;
+					}
+				}
+				Node node = new Node(segment);
+				literals = Arrays.copyOf(literals, literals.length + 1);
+				literals[literals.length - 1] = node;
+				return node;
+			}
+
+			Node node = exact(segment, 0, segment.length());
+			if (node == null) {
+				node = new Node(segment);
+				if (++exactSize * 2 > exact.length) {
+					Node[] previous = exact;
+					exact = new Node[Math.max(4, exact.length * 2)];
+					for (Node n : previous) {
+						if (n != null) {
+							put(n);
+						}
+					}
+				}
+				put(node);
+			}
+			return node;
+		}
+
+		void put(Node node) {
+			int mask = exact.length - 1;
+			int i = spread(node.hash()) & mask;
+			while (exact[i] != null) {
+				i = (i + 1) & mask;
+			}
+			exact[i] = node;
+		}
+
+		/**
+		 * Returns the literal child without {@code '.'} equal to the path between
+		 * {@code start} and {@code end}, without copying the segment.
+		 */
+		@Nullable
+		Node exact(String path, int start, int end) {
+			Node[] exact = this.exact;
+			if (exact.length == 0) {
+				return null;
+			}
+			int hash = 0;
+			for (int i = start; i < end; i++) {
+				hash = 31 * hash + path.charAt(i);
+			}
+			int mask = exact.length - 1;
+			int length = end - start;
+			for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+				Node node = exact[i];
+				if (node == null) {
+					return null;
+				}
+				String literal = node.literal;
+				if (literal != null && literal.length() == length && node.hash() == hash &&
+						path.regionMatches(start, literal, 0, length)) {
+					return node;
+				}
+			}
+		}
+
+		int hash() {
+			return literal != null ? literal.hashCode() : 0;
+		}
+
+		static int spread(int hash) {
+			return hash ^ (hash >>> 16);
+		}
+
+		/**
+		 * Match the segment starting at {@code start}, and the ones after it, against the
+		 * children of this node.
+		 *
+		 * @return the matching route with the lowest ordinal, {@code best} if none is lower
+		 */
+		@Nullable
+		Route match(String path, int start, int end, HttpVersion version, @Nullable Route best) {
+			if (best != null && min >= best.ordinal) {
+				return best;
+			}
+
+			best = select(splats, version, best);
+
+			int segmentEnd = UriPathTemplate.segmentEnd(path, start, end);
+			Node exactNode = exact(path, start, segmentEnd);
+			if (exactNode != null) {
+				best = exactNode.next(path, segmentEnd, end, version, best);
+			}
+			for (Node node : literals) {
+				if (node.literal != null && UriPathTemplate.literalMatches(node.literal, path, start, segmentEnd)) {
+					best = node.next(path, segmentEnd, end, version, best);
+				}
+			}
+			if (variable != null) {
+				best = variable.next(path, segmentEnd, end, version, best);
+			}
+			return best;
+		}
+
+		@Nullable
+		Route next(String path, int segmentEnd, int end, HttpVersion version, @Nullable Route best) {
+			if (best != null && min >= best.ordinal) {
+				return best;
+			}
+			if (segmentEnd == end) {
+				return select(routes, version, best);
+			}
+			return match(path, segmentEnd + 1, end, version, best);
+		}
+
+		@Nullable
+		static Route select(Route[] routes, HttpVersion version, @Nullable Route best) {
+			for (Route route : routes) {
+				if (best != null && route.ordinal >= best.ordinal) {
+					return best;
+				}
+				if (route.protocol == null || route.protocol.equals(version)) {
+					return route;
+				}
+			}
+			return best;
+		}
+
+		static Route[] append(Route[] routes, Route route) {
+			Route[] result = Arrays.copyOf(routes, routes.length + 1);
+			result[routes.length] = route;
+			return result;
+		}
+	}
+
+	/**
+	 * An indexed {@link HttpPredicate} together with the handler it guards.
+	 */
+	static final class Route {
+
+		/**
+		 * Index the given {@link HttpPredicate}.
+		 *
+		 * @return a new {@link Route} or {@code null} if its template cannot be indexed
+		 */
+		@Nullable
+		static Route compile(int ordinal, HttpRouteHandler handler, HttpPredicate predicate) {
+			UriPathTemplate template = predicate.template;
+			if (template.segments == null || template.variables == null) {
+				return null;
+			}
+			return new Route(ordinal, handler, predicate.method, predicate.protocol, template);
+		}
+
+		final int              ordinal;
+		final HttpRouteHandler handler;
+		final HttpMethod       method;
+		@Nullable
+		final HttpVersion      protocol;
+		final UriPathTemplate  template;
+		final String[]         segments;
+		final String[]         variables;
+		final boolean          splat;
+
+		Route(int ordinal,
+				HttpRouteHandler handler,
+				HttpMethod method,
+				@Nullable HttpVersion protocol,
+				UriPathTemplate template) {
+			this.ordinal = ordinal;
+			this.handler = handler;
+			this.method = method;
+			this.protocol = protocol;
+			this.template = template;
+			this.segments = Objects.requireNonNull(template.segments, "segments");
+			this.variables = Objects.requireNonNull(template.variables, "variables");
+			this.splat = template.splat;
+		}
+	}
+}
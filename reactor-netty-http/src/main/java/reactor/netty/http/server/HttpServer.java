@@ -189,6 +189,63 @@ public abstract class HttpServer extends ServerTransport<HttpServer, HttpServerC
 		return dup;
 	}
 
+	/**
+	 * Specifies whether the {@code gzip} and {@code deflate} encoded request bodies are decompressed.
+	 * The body is decompressed as it is received, {@link HttpServerRequest#receive()} emits
+	 * the decompressed chunks.
+	 *
+	 * @param decompressionEnabled if true the request bodies are decompressed, otherwise disabled
+	 * @return a new {@link HttpServer}
+	 * @since 1.0.3
+	 */
+	public final HttpServer decompress(boolean decompressionEnabled) {
+		HttpServer dup = duplicate();
+		dup.configuration().maxDecompressedSize = decompressionEnabled ? Long.MAX_VALUE : -1;
+		return dup;
+	}
+
+	/**
+	 * Enable the decompression of the {@code gzip} and {@code deflate} encoded request bodies,
+	 * limiting the size of a decompressed body. The body is decompressed as it is received,
+	 * {@link HttpServerRequest#receive()} emits the decompressed chunks. A request whose decompressed
+	 * body exceeds the limit is answered with {@code 413 Request Entity Too Large}
+	 * and the connection is closed.
+	 *
+	 * @param maxDecompressedSize the maximum size in bytes of a decompressed request body
+	 * @return a new {@link HttpServer}
+	 * @since 1.0.3
+	 */
+	public final HttpServer decompress(long maxDecompressedSize) {
+		if (maxDecompressedSize < 0) {
+			throw new IllegalArgumentException("maxDecompressedSize must be positive");
+		}
+		HttpServer dup = duplicate();
+		dup.configuration().maxDecompressedSize = maxDecompressedSize;
+		return dup;
+	}
+
+	/**
+	 * Apply the response compression configuration: the supported content codings, the compression
+	 * levels and the cache of the compressed bodies. The compression itself is enabled with
+	 * {@link #compress(boolean)}, {@link #compress(int)} or {@link #compress(BiPredicate)}.
+	 *
+	 * @param compressionSettings configures {@link HttpCompressionSettingsSpec} before requesting
+	 * @return a new {@link HttpServer}
+	 * @since 1.0.3
+	 */
+	public final HttpServer compressionSettings(Consumer<HttpCompressionSettingsSpec.Builder> compressionSettings) {
+		Objects.requireNonNull(compressionSettings, "compressionSettings");
+		HttpCompressionSettingsSpec.Builder builder = HttpCompressionSettingsSpec.builder();
+		compressionSettings.accept(builder);
+		HttpCompressionSettingsSpec settings = builder.build();
+		if (settings.equals(configuration().compressionSettings)) {
+			return this;
+		}
+		HttpServer dup = duplicate();
+		dup.configuration().compressionSettings = settings;
+		return dup;
+	}
+
 	/**
 	 * Configure the
 	 * {@link ServerCookieEncoder}; {@link ServerCookieDecoder} will be
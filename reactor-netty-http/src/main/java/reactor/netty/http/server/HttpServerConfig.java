@@ -54,6 +54,7 @@ import reactor.netty.channel.ChannelOperations;
 import reactor.netty.http.Http2SettingsSpec;
 import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.HttpResources;
+import reactor.netty.http.internal.Http2FrameCodecs;
 import reactor.netty.http.server.logging.AccessLog;
 import reactor.netty.http.server.logging.AccessLogArgProvider;
 import reactor.netty.http.server.logging.AccessLogHandlerFactory;
@@ -94,6 +95,29 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		return compressPredicate;
 	}
 
+	/**
+	 * Return the configured {@link HttpCompressionSettingsSpec} or null.
+	 *
+	 * @return the configured {@link HttpCompressionSettingsSpec} or null
+	 * @since 1.0.3
+	 */
+	@Nullable
+	public HttpCompressionSettingsSpec compressionSettings() {
+		return compressionSettings;
+	}
+
+	/**
+	 * Returns the maximum size in bytes of a decompressed request body, or -1 when the request
+	 * decompression is disabled.
+	 *
+	 * @return the maximum size in bytes of a decompressed request body, or -1 when the request
+	 * decompression is disabled
+	 * @since 1.0.3
+	 */
+	public long maxDecompressedSize() {
+		return maxDecompressedSize;
+	}
+
 	/**
 	 * Return the configured {@link ServerCookieDecoder} or the default {@link ServerCookieDecoder#STRICT}.
 	 *
@@ -217,6 +241,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 
 	Function<AccessLogArgProvider, AccessLog>               accessLog;
 	BiPredicate<HttpServerRequest, HttpServerResponse>      compressPredicate;
+	HttpCompressionSettingsSpec                             compressionSettings;
+	long                                                    maxDecompressedSize;
 	ServerCookieDecoder                                     cookieDecoder;
 	ServerCookieEncoder                                     cookieEncoder;
 	HttpRequestDecoderSpec                                  decoder;
@@ -236,6 +262,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		this.cookieDecoder = ServerCookieDecoder.STRICT;
 		this.cookieEncoder = ServerCookieEncoder.STRICT;
 		this.decoder = new HttpRequestDecoderSpec();
+		this.maxDecompressedSize = -1;
 		this.minCompressionSize = -1;
 		this.protocols = new HttpProtocol[]{HttpProtocol.HTTP11};
 		this._protocols = h11;
@@ -246,6 +273,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		super(parent);
 		this.accessLog = parent.accessLog;
 		this.compressPredicate = parent.compressPredicate;
+		this.compressionSettings = parent.compressionSettings;
+		this.maxDecompressedSize = parent.maxDecompressedSize;
 		this.cookieDecoder = parent.cookieDecoder;
 		this.cookieEncoder = parent.cookieEncoder;
 		this.decoder = parent.decoder;
@@ -347,6 +376,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 
 	static void addStreamHandlers(Channel ch, ChannelOperations.OnSetup opsFactory, ConnectionObserver listener,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+			@Nullable HttpCompressionSettingsSpec compressionSettings,
+			long maxDecompressedSize,
 			@Nullable BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler,
 			ServerCookieEncoder encoder, ServerCookieDecoder decoder,
 			@Nullable BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>> mapHandle,
@@ -358,13 +389,18 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		}
 		pipeline.addLast(NettyPipeline.H2ToHttp11Codec, new Http2StreamFrameToHttpObjectCodec(true))
 		        .addLast(NettyPipeline.HttpTrafficHandler,
-		                 new Http2StreamBridgeServerHandler(listener, compressPredicate, forwardedHeaderHandler,
+		                 new Http2StreamBridgeServerHandler(listener, compressPredicate, compressionSettings, forwardedHeaderHandler,
 		                         encoder, decoder, mapHandle));
 
+		if (maxDecompressedSize >= 0) {
+			pipeline.addBefore(NettyPipeline.HttpTrafficHandler, NettyPipeline.HttpDecompressor,
+					new HttpRequestDecompressor(maxDecompressedSize));
+		}
+
 		boolean alwaysCompress = compressPredicate == null && minCompressionSize == 0;
 
 		if (alwaysCompress) {
-			pipeline.addLast(NettyPipeline.CompressionHandler, new SimpleCompressionHandler());
+			pipeline.addLast(NettyPipeline.CompressionHandler, new SimpleCompressionHandler(compressionSettings));
 		}
 
 		ChannelOperations.addReactiveBridge(ch, opsFactory, listener);
@@ -383,37 +419,64 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			return compressionPredicate;
 		}
 
-		BiPredicate<HttpServerRequest, HttpServerResponse> lengthPredicate =
-				(req, res) -> {
-					String length = res.responseHeaders()
-					                   .get(HttpHeaderNames.CONTENT_LENGTH);
-
-					if (length == null) {
-						return true;
-					}
-
-					try {
-						return Long.parseLong(length) >= minResponseSize;
-					}
-					catch (NumberFormatException nfe) {
-						return true;
-					}
-				};
-
-		if (compressionPredicate != null) {
-			lengthPredicate = lengthPredicate.and(compressionPredicate);
+		return new CompressionPredicate(minResponseSize, compressionPredicate);
+	}
+
+	/**
+	 * Accepts the responses whose content length is unknown or at least the minimum response size,
+	 * provided that the configured compression predicate, if any, accepts them too.
+	 */
+	static final class CompressionPredicate implements BiPredicate<HttpServerRequest, HttpServerResponse> {
+
+		final int minResponseSize;
+		@Nullable
+		final BiPredicate<HttpServerRequest, HttpServerResponse> compressionPredicate;
+
+		CompressionPredicate(int minResponseSize, @Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressionPredicate) {
+			this.minResponseSize = minResponseSize;
+			this.compressionPredicate = compressionPredicate;
+		}
+
+		@Override
+		public boolean test(HttpServerRequest req, HttpServerResponse res) {
+			String length = res.responseHeaders()
+			                   .get(HttpHeaderNames.CONTENT_LENGTH);
+
+			if (length == null) {
+				return test(req, res, -1);
+			}
+
+			try {
+				return test(req, res, Long.parseLong(length));
+			}
+			catch (NumberFormatException nfe) {
+				return test(req, res, -1);
+			}
+		}
+
+		/**
+		 * Tests the response with the given content length rather than the {@code Content-Length} header.
+		 *
+		 * @param contentLength the length of the response content, {@code -1} when unknown
+		 */
+		boolean test(HttpServerRequest req, HttpServerResponse res, long contentLength) {
+			return (contentLength < 0 || contentLength >= minResponseSize) &&
+					(compressionPredicate == null || compressionPredicate.test(req, res));
 		}
-		return lengthPredicate;
 	}
 
 	static void configureH2Pipeline(ChannelPipeline p,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+			@Nullable HttpCompressionSettingsSpec compressionSettings,
+			long maxDecompressedSize,
 			ServerCookieDecoder cookieDecoder,
 			ServerCookieEncoder cookieEncoder,
 			@Nullable BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler,
 			Http2Settings http2Settings,
+			@Nullable Http2SettingsSpec http2SettingsSpec,
 			ConnectionObserver listener,
 			@Nullable BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>> mapHandle,
+			@Nullable Supplier<? extends ChannelMetricsRecorder> metricsRecorder,
 			int minCompressionSize,
 			ChannelOperations.OnSetup opsFactory,
 			boolean validate,
@@ -430,19 +493,23 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 					"reactor.netty.http.server.h2"));
 		}
 
-		p.addLast(NettyPipeline.HttpCodec, http2FrameCodecBuilder.build())
+		p.addLast(NettyPipeline.HttpCodec, Http2FrameCodecs.build(http2FrameCodecBuilder, http2SettingsSpec, metricsRecorder))
 		 .addLast(NettyPipeline.H2MultiplexHandler,
-		          new Http2MultiplexHandler(new H2Codec(opsFactory, listener, compressPredicate, forwardedHeaderHandler,
-		                  cookieEncoder, cookieDecoder, mapHandle, minCompressionSize, accessLog)));
+		          new Http2MultiplexHandler(new H2Codec(opsFactory, listener, compressPredicate, compressionSettings,
+		                  maxDecompressedSize, forwardedHeaderHandler, cookieEncoder, cookieDecoder, mapHandle,
+		                  minCompressionSize, accessLog)));
 	}
 
 	static void configureHttp11OrH2CleartextPipeline(ChannelPipeline p,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+			@Nullable HttpCompressionSettingsSpec compressionSettings,
+			long maxDecompressedSize,
 			ServerCookieDecoder cookieDecoder,
 			ServerCookieEncoder cookieEncoder,
 			HttpRequestDecoderSpec decoder,
 			@Nullable BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler,
 			Http2Settings http2Settings,
+			@Nullable Http2SettingsSpec http2SettingsSpec,
 			ConnectionObserver listener,
 			@Nullable BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>> mapHandle,
 			@Nullable Supplier<? extends ChannelMetricsRecorder> metricsRecorder,
@@ -456,9 +523,9 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 						decoder.maxChunkSize(), decoder.validateHeaders(), decoder.initialBufferSize());
 
 		Http11OrH2CleartextCodec
-				upgrader = new Http11OrH2CleartextCodec(compressPredicate, cookieDecoder, cookieEncoder,
-						p.get(NettyPipeline.LoggingHandler) != null, forwardedHeaderHandler, http2Settings, listener,
-						mapHandle, minCompressionSize, opsFactory, decoder.validateHeaders(), accessLog);
+				upgrader = new Http11OrH2CleartextCodec(compressPredicate, compressionSettings, maxDecompressedSize, cookieDecoder, cookieEncoder,
+						p.get(NettyPipeline.LoggingHandler) != null, forwardedHeaderHandler, http2Settings, http2SettingsSpec, listener,
+						mapHandle, metricsRecorder, minCompressionSize, opsFactory, decoder.validateHeaders(), accessLog);
 
 		ChannelHandler http2ServerHandler = new H2CleartextCodec(upgrader);
 		CleartextHttp2ServerUpgradeHandler h2cUpgradeHandler = new CleartextHttp2ServerUpgradeHandler(
@@ -470,7 +537,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		            NettyPipeline.H2CUpgradeHandler, h2cUpgradeHandler)
 		 .addBefore(NettyPipeline.ReactiveBridge,
 		            NettyPipeline.HttpTrafficHandler,
-		            new HttpTrafficHandler(listener, forwardedHeaderHandler, compressPredicate, cookieEncoder,
+		            new HttpTrafficHandler(listener, forwardedHeaderHandler, compressPredicate, compressionSettings, cookieEncoder,
 		                    cookieDecoder, mapHandle, idleTimeout));
 
 		if (ACCESS_LOG) {
@@ -480,7 +547,11 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		boolean alwaysCompress = compressPredicate == null && minCompressionSize == 0;
 
 		if (alwaysCompress) {
-			p.addBefore(NettyPipeline.HttpTrafficHandler, NettyPipeline.CompressionHandler, new SimpleCompressionHandler());
+			p.addBefore(NettyPipeline.HttpTrafficHandler, NettyPipeline.CompressionHandler, new SimpleCompressionHandler(compressionSettings));
+		}
+
+		if (maxDecompressedSize >= 0) {
+			p.addBefore(NettyPipeline.HttpTrafficHandler, NettyPipeline.HttpDecompressor, new HttpRequestDecompressor(maxDecompressedSize));
 		}
 
 		if (metricsRecorder != null) {
@@ -499,6 +570,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 
 	static void configureHttp11Pipeline(ChannelPipeline p,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+			@Nullable HttpCompressionSettingsSpec compressionSettings,
+			long maxDecompressedSize,
 			ServerCookieDecoder cookieDecoder,
 			ServerCookieEncoder cookieEncoder,
 			HttpRequestDecoderSpec decoder,
@@ -516,7 +589,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		                    decoder.maxChunkSize(), decoder.validateHeaders(), decoder.initialBufferSize()))
 		 .addBefore(NettyPipeline.ReactiveBridge,
 		            NettyPipeline.HttpTrafficHandler,
-		            new HttpTrafficHandler(listener, forwardedHeaderHandler, compressPredicate, cookieEncoder,
+		            new HttpTrafficHandler(listener, forwardedHeaderHandler, compressPredicate, compressionSettings, cookieEncoder,
 		                    cookieDecoder, mapHandle, idleTimeout));
 
 		if (ACCESS_LOG) {
@@ -526,7 +599,11 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		boolean alwaysCompress = compressPredicate == null && minCompressionSize == 0;
 
 		if (alwaysCompress) {
-			p.addBefore(NettyPipeline.HttpTrafficHandler, NettyPipeline.CompressionHandler, new SimpleCompressionHandler());
+			p.addBefore(NettyPipeline.HttpTrafficHandler, NettyPipeline.CompressionHandler, new SimpleCompressionHandler(compressionSettings));
+		}
+
+		if (maxDecompressedSize >= 0) {
+			p.addBefore(NettyPipeline.HttpTrafficHandler, NettyPipeline.HttpDecompressor, new HttpRequestDecompressor(maxDecompressedSize));
 		}
 
 		if (metricsRecorder != null) {
@@ -585,6 +662,9 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			if (pipeline.get(NettyPipeline.CompressionHandler) != null) {
 				pipeline.remove(NettyPipeline.CompressionHandler);
 			}
+			if (pipeline.get(NettyPipeline.HttpDecompressor) != null) {
+				pipeline.remove(NettyPipeline.HttpDecompressor);
+			}
 			pipeline.remove(NettyPipeline.HttpTrafficHandler);
 			pipeline.remove(NettyPipeline.ReactiveBridge);
 		}
@@ -594,6 +674,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 
 		final Function<AccessLogArgProvider, AccessLog>               accessLog;
 		final BiPredicate<HttpServerRequest, HttpServerResponse>      compressPredicate;
+		final HttpCompressionSettingsSpec                             compressionSettings;
+		final long                                                    maxDecompressedSize;
 		final ServerCookieDecoder                                     cookieDecoder;
 		final ServerCookieEncoder                                     cookieEncoder;
 		final BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler;
@@ -604,6 +686,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 
 		H2Codec(ChannelOperations.OnSetup opsFactory, ConnectionObserver listener,
 				@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+				@Nullable HttpCompressionSettingsSpec compressionSettings,
+				long maxDecompressedSize,
 				@Nullable BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler,
 				ServerCookieEncoder encoder, ServerCookieDecoder decoder,
 				@Nullable BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>> mapHandle,
@@ -611,6 +695,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 				@Nullable Function<AccessLogArgProvider, AccessLog> accessLog) {
 			this.accessLog = accessLog;
 			this.compressPredicate = compressPredicate;
+			this.compressionSettings = compressionSettings;
+			this.maxDecompressedSize = maxDecompressedSize;
 			this.cookieDecoder = decoder;
 			this.cookieEncoder = encoder;
 			this.forwardedHeaderHandler = forwardedHeaderHandler;
@@ -623,8 +709,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		@Override
 		protected void initChannel(Channel ch) {
 			ch.pipeline().remove(this);
-			addStreamHandlers(ch, opsFactory, listener, compressPredicate, forwardedHeaderHandler, cookieEncoder,
-					cookieDecoder, mapHandle, minCompressionSize, accessLog);
+			addStreamHandlers(ch, opsFactory, listener, compressPredicate, compressionSettings, maxDecompressedSize,
+					forwardedHeaderHandler, cookieEncoder, cookieDecoder, mapHandle, minCompressionSize, accessLog);
 		}
 	}
 
@@ -633,6 +719,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 
 		final Function<AccessLogArgProvider, AccessLog>               accessLog;
 		final BiPredicate<HttpServerRequest, HttpServerResponse>      compressPredicate;
+		final HttpCompressionSettingsSpec                             compressionSettings;
+		final long                                                    maxDecompressedSize;
 		final ServerCookieDecoder                                     cookieDecoder;
 		final ServerCookieEncoder                                     cookieEncoder;
 		final BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler;
@@ -644,19 +732,25 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 
 		Http11OrH2CleartextCodec(
 				@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressPredicate,
+				@Nullable HttpCompressionSettingsSpec compressionSettings,
+				long maxDecompressedSize,
 				ServerCookieDecoder cookieDecoder,
 				ServerCookieEncoder cookieEncoder,
 				boolean debug,
 				@Nullable BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler,
 				Http2Settings http2Settings,
+				@Nullable Http2SettingsSpec http2SettingsSpec,
 				ConnectionObserver listener,
 				@Nullable BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>> mapHandle,
+				@Nullable Supplier<? extends ChannelMetricsRecorder> metricsRecorder,
 				int minCompressionSize,
 				ChannelOperations.OnSetup opsFactory,
 				boolean validate,
 				@Nullable Function<AccessLogArgProvider, AccessLog> accessLog) {
 			this.accessLog = accessLog;
 			this.compressPredicate = compressPredicate;
+			this.compressionSettings = compressionSettings;
+			this.maxDecompressedSize = maxDecompressedSize;
 			this.cookieDecoder = cookieDecoder;
 			this.cookieEncoder = cookieEncoder;
 			this.forwardedHeaderHandler = forwardedHeaderHandler;
@@ -670,7 +764,7 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 						LogLevel.DEBUG,
 						"reactor.netty.http.server.h2"));
 			}
-			this.http2FrameCodec = http2FrameCodecBuilder.build();
+			this.http2FrameCodec = Http2FrameCodecs.build(http2FrameCodecBuilder, http2SettingsSpec, metricsRecorder);
 			this.listener = listener;
 			this.mapHandle = mapHandle;
 			this.minCompressionSize = minCompressionSize;
@@ -683,8 +777,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		@Override
 		protected void initChannel(Channel ch) {
 			ch.pipeline().remove(this);
-			addStreamHandlers(ch, opsFactory, listener, compressPredicate, forwardedHeaderHandler, cookieEncoder,
-					cookieDecoder, mapHandle, minCompressionSize, accessLog);
+			addStreamHandlers(ch, opsFactory, listener, compressPredicate, compressionSettings, maxDecompressedSize,
+					forwardedHeaderHandler, cookieEncoder, cookieDecoder, mapHandle, minCompressionSize, accessLog);
 		}
 
 		@Override
@@ -703,11 +797,14 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 
 		final Function<AccessLogArgProvider, AccessLog>               accessLog;
 		final BiPredicate<HttpServerRequest, HttpServerResponse>      compressPredicate;
+		final HttpCompressionSettingsSpec                             compressionSettings;
+		final long                                                    maxDecompressedSize;
 		final ServerCookieDecoder                                     cookieDecoder;
 		final ServerCookieEncoder                                     cookieEncoder;
 		final HttpRequestDecoderSpec                                  decoder;
 		final BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler;
 		final Http2Settings                                           http2Settings;
+		final Http2SettingsSpec                                       http2SettingsSpec;
 		final Duration                                                idleTimeout;
 		final ConnectionObserver                                      listener;
 		final BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>>      mapHandle;
@@ -720,11 +817,14 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			super(ApplicationProtocolNames.HTTP_1_1);
 			this.accessLog = initializer.accessLog;
 			this.compressPredicate = compressPredicate(initializer.compressPredicate, initializer.minCompressionSize);
+			this.compressionSettings = initializer.compressionSettings;
+			this.maxDecompressedSize = initializer.maxDecompressedSize;
 			this.cookieDecoder = initializer.cookieDecoder;
 			this.cookieEncoder = initializer.cookieEncoder;
 			this.decoder = initializer.decoder;
 			this.forwardedHeaderHandler = initializer.forwardedHeaderHandler;
 			this.http2Settings = initializer.http2Settings;
+			this.http2SettingsSpec = initializer.http2SettingsSpec;
 			this.idleTimeout = initializer.idleTimeout;
 			this.listener = listener;
 			this.mapHandle = initializer.mapHandle;
@@ -743,14 +843,16 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 			ChannelPipeline p = ctx.pipeline();
 
 			if (ApplicationProtocolNames.HTTP_2.equals(protocol)) {
-				configureH2Pipeline(p, compressPredicate, cookieDecoder, cookieEncoder, forwardedHeaderHandler, http2Settings,
-						listener, mapHandle, minCompressionSize, opsFactory, decoder.validateHeaders(), accessLog);
+				configureH2Pipeline(p, compressPredicate, compressionSettings, maxDecompressedSize, cookieDecoder, cookieEncoder,
+						forwardedHeaderHandler, http2Settings, http2SettingsSpec, listener, mapHandle, metricsRecorder,
+						minCompressionSize, opsFactory, decoder.validateHeaders(), accessLog);
 				return;
 			}
 
 			if (ApplicationProtocolNames.HTTP_1_1.equals(protocol)) {
-				configureHttp11Pipeline(p, compressPredicate, cookieDecoder, cookieEncoder, decoder, forwardedHeaderHandler,
-						listener, mapHandle, metricsRecorder, minCompressionSize, uriTagValue, accessLog, idleTimeout);
+				configureHttp11Pipeline(p, compressPredicate, compressionSettings, maxDecompressedSize, cookieDecoder, cookieEncoder,
+						decoder, forwardedHeaderHandler, listener, mapHandle, metricsRecorder, minCompressionSize, uriTagValue,
+						accessLog, idleTimeout);
 				return;
 			}
 
@@ -762,11 +864,14 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 
 		final Function<AccessLogArgProvider, AccessLog>               accessLog;
 		final BiPredicate<HttpServerRequest, HttpServerResponse>      compressPredicate;
+		final HttpCompressionSettingsSpec                             compressionSettings;
+		final long                                                    maxDecompressedSize;
 		final ServerCookieDecoder                                     cookieDecoder;
 		final ServerCookieEncoder                                     cookieEncoder;
 		final HttpRequestDecoderSpec                                  decoder;
 		final BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler;
 		final Http2Settings                                           http2Settings;
+		final Http2SettingsSpec                                       http2SettingsSpec;
 		final Duration                                                idleTimeout;
 		final BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>>      mapHandle;
 		final Supplier<? extends ChannelMetricsRecorder>              metricsRecorder;
@@ -780,11 +885,14 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 		HttpServerChannelInitializer(HttpServerConfig config) {
 			this.accessLog = config.accessLog;
 			this.compressPredicate = config.compressPredicate;
+			this.compressionSettings = config.compressionSettings;
+			this.maxDecompressedSize = config.maxDecompressedSize;
 			this.cookieDecoder = config.cookieDecoder;
 			this.cookieEncoder = config.cookieEncoder;
 			this.decoder = config.decoder;
 			this.forwardedHeaderHandler = config.forwardedHeaderHandler;
 			this.http2Settings = config.http2Settings();
+			this.http2SettingsSpec = config.http2Settings;
 			this.idleTimeout = config.idleTimeout;
 			this.mapHandle = config.mapHandle;
 			this.metricsRecorder = config.metricsRecorder();
@@ -813,6 +921,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 					configureHttp11Pipeline(
 							channel.pipeline(),
 							compressPredicate(compressPredicate, minCompressionSize),
+							compressionSettings,
+							maxDecompressedSize,
 							cookieDecoder,
 							cookieEncoder,
 							decoder,
@@ -829,12 +939,16 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 					configureH2Pipeline(
 							channel.pipeline(),
 							compressPredicate(compressPredicate, minCompressionSize),
+							compressionSettings,
+							maxDecompressedSize,
 							cookieDecoder,
 							cookieEncoder,
 							forwardedHeaderHandler,
 							http2Settings,
+							http2SettingsSpec,
 							observer,
 							mapHandle,
+							metricsRecorder,
 							minCompressionSize,
 							opsFactory,
 							decoder.validateHeaders(),
@@ -846,11 +960,14 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 					configureHttp11OrH2CleartextPipeline(
 							channel.pipeline(),
 							compressPredicate(compressPredicate, minCompressionSize),
+							compressionSettings,
+							maxDecompressedSize,
 							cookieDecoder,
 							cookieEncoder,
 							decoder,
 							forwardedHeaderHandler,
 							http2Settings,
+							http2SettingsSpec,
 							observer,
 							mapHandle,
 							metricsRecorder,
@@ -864,6 +981,8 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 					configureHttp11Pipeline(
 							channel.pipeline(),
 							compressPredicate(compressPredicate, minCompressionSize),
+							compressionSettings,
+							maxDecompressedSize,
 							cookieDecoder,
 							cookieEncoder,
 							decoder,
@@ -880,12 +999,16 @@ public final class HttpServerConfig extends ServerTransportConfig<HttpServerConf
 					configureH2Pipeline(
 							channel.pipeline(),
 							compressPredicate(compressPredicate, minCompressionSize),
+							compressionSettings,
+							maxDecompressedSize,
 							cookieDecoder,
 							cookieEncoder,
 							forwardedHeaderHandler,
 							http2Settings,
+							http2SettingsSpec,
 							observer,
 							mapHandle,
+							metricsRecorder,
 							minCompressionSize,
 							opsFactory,
 							decoder.validateHeaders(),
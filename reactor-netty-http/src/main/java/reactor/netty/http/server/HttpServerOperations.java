@@ -18,19 +18,26 @@ package reactor.netty.http.server;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -50,6 +57,7 @@ import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.LastHttpContent;
@@ -58,6 +66,10 @@ import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
 import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketCloseStatus;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersFrame;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2StreamChannel;
 import io.netty.handler.codec.http2.HttpConversionUtil;
 import io.netty.util.AsciiString;
 import io.netty.util.ReferenceCountUtil;
@@ -104,10 +116,22 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 	final String scheme;
 
 	final BiPredicate<HttpServerRequest, HttpServerResponse> compressionPredicate;
+	final HttpCompressionSettingsSpec compressionSettings;
 
 	final BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>> mapHandle;
 
 	Function<? super String, Map<String, String>> paramsResolver;
+	Map<String, String> params;
+	boolean paramsResolved;
+	Object compressionCacheKey;
+	/**
+	 * Whether the response is sent as is, even when the compression predicate matches.
+	 */
+	boolean skipCompression;
+	/**
+	 * The failure to decode the request body, if any.
+	 */
+	Throwable decodingFailure;
 
 	HttpServerOperations(HttpServerOperations replaced) {
 		super(replaced);
@@ -119,6 +143,8 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		this.nettyRequest = replaced.nettyRequest;
 		this.path = replaced.path;
 		this.compressionPredicate = replaced.compressionPredicate;
+		this.compressionSettings = replaced.compressionSettings;
+		this.compressionCacheKey = replaced.compressionCacheKey;
 		this.cookieEncoder = replaced.cookieEncoder;
 		this.cookieDecoder = replaced.cookieDecoder;
 		this.mapHandle = replaced.mapHandle;
@@ -128,18 +154,20 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 	HttpServerOperations(Connection c,
 			ConnectionObserver listener,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressionPredicate,
+			@Nullable HttpCompressionSettingsSpec compressionSettings,
 			HttpRequest nettyRequest,
 			@Nullable ConnectionInfo connectionInfo,
 			ServerCookieEncoder encoder,
 			ServerCookieDecoder decoder,
 			@Nullable BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>> mapHandle,
 			boolean secured) {
-		this(c, listener, compressionPredicate, nettyRequest, connectionInfo, encoder, decoder, mapHandle, secured, true);
+		this(c, listener, compressionPredicate, compressionSettings, nettyRequest, connectionInfo, encoder, decoder, mapHandle, secured, true);
 	}
 
 	HttpServerOperations(Connection c,
 			ConnectionObserver listener,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compressionPredicate,
+			@Nullable HttpCompressionSettingsSpec compressionSettings,
 			HttpRequest nettyRequest,
 			@Nullable ConnectionInfo connectionInfo,
 			ServerCookieEncoder encoder,
@@ -159,6 +187,7 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		this.responseHeaders = nettyResponse.headers();
 		this.responseHeaders.set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
 		this.compressionPredicate = compressionPredicate;
+		this.compressionSettings = compressionSettings;
 		this.cookieHolder = Cookies.newServerRequestHolder(requestHeaders(), decoder);
 		this.connectionInfo = connectionInfo;
 		this.cookieEncoder = encoder;
@@ -304,22 +333,26 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 	@Nullable
 	public String param(CharSequence key) {
 		Objects.requireNonNull(key, "key");
-		Map<String, String> params = null;
-		if (paramsResolver != null) {
-			params = this.paramsResolver.apply(uri());
-		}
+		Map<String, String> params = params();
 		return null != params ? params.get(key.toString()) : null;
 	}
 
 	@Override
 	@Nullable
 	public Map<String, String> params() {
-		return null != paramsResolver ? paramsResolver.apply(uri()) : null;
+		// resolved once per resolver, the uri does not change
+		if (!paramsResolved && paramsResolver != null) {
+			params = paramsResolver.apply(uri());
+			paramsResolved = true;
+		}
+		return params;
 	}
 
 	@Override
 	public HttpServerRequest paramsResolver(Function<? super String, Map<String, String>> paramsResolver) {
 		this.paramsResolver = paramsResolver;
+		this.params = null;
+		this.paramsResolved = false;
 		return this;
 	}
 
@@ -414,6 +447,114 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		}
 	}
 
+	@Override
+	public NettyOutbound sendFileRange(Path file) {
+		Objects.requireNonNull(file, "file");
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			long lastModified = attributes.lastModifiedTime().toMillis();
+			return sendFileRange(file, attributes.size(), lastModified,
+					StaticFileCache.StaticFile.etag(lastModified, attributes.size()), null);
+		}
+		catch (IOException e) {
+			if (log.isDebugEnabled()) {
+				log.debug(format(channel(), "Path not resolved"), e);
+			}
+			return then(sendNotFound());
+		}
+	}
+
+	/**
+	 * Sends the ranges of the file requested with the {@code Range} header.
+	 *
+	 * @param file the file
+	 * @param size the size of the file
+	 * @param lastModified the last modified time of the file
+	 * @param etag the entity tag of the file
+	 * @param content the retained content of the file if it is available in memory, released by this method
+	 * @return a {@link NettyOutbound} successful on committed response
+	 */
+	NettyOutbound sendFileRange(Path file, long size, long lastModified, String etag, @Nullable ByteBuf content) {
+		responseHeaders.set(HttpHeaderNames.ACCEPT_RANGES, ByteRange.BYTES_UNIT);
+
+		List<ByteRange> ranges = null;
+		String range = requestHeaders().get(HttpHeaderNames.RANGE);
+		if (range != null && HttpMethod.GET.equals(method()) &&
+				ByteRange.ifRange(requestHeaders().get(HttpHeaderNames.IF_RANGE), etag, lastModified)) {
+			ranges = ByteRange.parse(range, size);
+		}
+
+		if (ranges == null) {
+			return content != null ? send(Mono.just(content)) : sendFile(file, 0, size);
+		}
+		if (ranges.isEmpty()) {
+			if (content != null) {
+				content.release();
+			}
+			return then(status(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+					.header(HttpHeaderNames.CONTENT_RANGE, ByteRange.BYTES_UNIT + " */" + size)
+					.send());
+		}
+
+		status(HttpResponseStatus.PARTIAL_CONTENT);
+		// A range of the compressed content cannot be served
+		skipCompression = true;
+		compression(false);
+
+		if (ranges.size() == 1) {
+			ByteRange r = ranges.get(0);
+			responseHeaders.set(HttpHeaderNames.CONTENT_RANGE, r.contentRange(size));
+			if (content != null) {
+				content.setIndex((int) r.first, (int) (r.last + 1));
+				return send(Mono.just(content));
+			}
+			return sendFile(file, r.first, r.length());
+		}
+
+		// The parts are delimited by small buffers, the ranges themselves are sent as file regions
+		String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong()) +
+				Long.toHexString(ThreadLocalRandom.current().nextLong());
+		String contentType = responseHeaders.get(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_OCTET_STREAM.toString());
+		byte[][] partHeaders = new byte[ranges.size()][];
+		long contentLength = 0;
+		for (int i = 0; i < partHeaders.length; i++) {
+			ByteRange r = ranges.get(i);
+			partHeaders[i] = ("\r\n--" + boundary +
+					"\r\n" + HttpHeaderNames.CONTENT_TYPE + ": " + contentType +
+					"\r\n" + HttpHeaderNames.CONTENT_RANGE + ": " + r.contentRange(size) +
+					"\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+			contentLength += partHeaders[i].length + r.length();
+		}
+		byte[] end = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+		contentLength += end.length;
+
+		responseHeaders.set(HttpHeaderNames.CONTENT_TYPE, MULTIPART_BYTERANGES + boundary)
+		               .remove(HttpHeaderNames.TRANSFER_ENCODING)
+		               .set(HttpHeaderNames.CONTENT_LENGTH, contentLength);
+
+		// Each part is appended to the headers explicitly, sending on the returned outbound
+		// would subscribe again to the previous parts. The buffers of the parts are created
+		// only when they are sent.
+		NettyOutbound outbound = sendHeaders();
+		for (int i = 0; i < partHeaders.length; i++) {
+			byte[] partHeader = partHeaders[i];
+			ByteRange r = ranges.get(i);
+			outbound = outbound.then(sendObject(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(partHeader))));
+			if (content != null) {
+				outbound = outbound.then(sendObject(Mono.fromSupplier(() -> content.retainedSlice((int) r.first, (int) r.length()))));
+			}
+			else {
+				outbound = outbound.then(sendFile(file, r.first, r.length()));
+			}
+		}
+		outbound = outbound.then(sendObject(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(end))));
+		if (content != null) {
+			return then(outbound.then()
+			                    .doFinally(s -> content.release()));
+		}
+		return outbound;
+	}
+
 	@Override
 	public Mono<Void> sendNotFound() {
 		return this.status(HttpResponseStatus.NOT_FOUND)
@@ -428,6 +569,78 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		           .send();
 	}
 
+	@Override
+	public Mono<Void> push(String path, HttpHeaders headers, Publisher<? extends ByteBuf> content) {
+		Objects.requireNonNull(path, "path");
+		Objects.requireNonNull(headers, "headers");
+		Objects.requireNonNull(content, "content");
+		if (!(channel() instanceof Http2StreamChannel)) {
+			return Http2ServerPush.discard(content);
+		}
+		Http2Headers requestHeaders = new DefaultHttp2Headers()
+				.method(HttpMethod.GET.asciiName())
+				.path(path)
+				.scheme(scheme());
+		String authority = requestHeaders().get(HttpHeaderNames.HOST);
+		if (authority != null) {
+			requestHeaders.authority(authority);
+		}
+		Http2Headers responseHeaders = new DefaultHttp2Headers().status(HttpResponseStatus.OK.codeAsText());
+		responseHeaders.add(HttpConversionUtil.toHttp2Headers(headers, true));
+		return Http2ServerPush.push((Http2StreamChannel) channel(), requestHeaders, responseHeaders, content);
+	}
+
+	@Override
+	public Mono<Void> sendEarlyHints(HttpHeaders headers) {
+		Objects.requireNonNull(headers, "headers");
+		if (hasSentHeaders()) {
+			return Mono.error(new IllegalStateException("Status and headers already sent"));
+		}
+		if (HttpVersion.HTTP_1_0.equals(version())) {
+			return Mono.empty();
+		}
+		return FutureMono.deferFuture(() -> {
+			if (isHttp2()) {
+				// The 103 response is not an interim response for Http2StreamFrameToHttpObjectCodec
+				Http2Headers http2Headers = new DefaultHttp2Headers().status(EARLY_HINTS.codeAsText());
+				http2Headers.add(HttpConversionUtil.toHttp2Headers(headers, true));
+				return channel().writeAndFlush(new DefaultHttp2HeadersFrame(http2Headers, false));
+			}
+			ChannelHandlerContext codec = channel().pipeline().context(HttpServerCodec.class);
+			if (codec == null) {
+				FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, EARLY_HINTS, EMPTY_BUFFER);
+				response.headers().set(headers);
+				return channel().writeAndFlush(response);
+			}
+			// The encoder of HttpServerCodec pairs each response with the method of a request, including
+			// the interim responses, the response to a HEAD request or to the next pipelined request
+			// would be encoded as the response to another request. The interim response is therefore
+			// encoded here and written bypassing the encoder.
+			return codec.writeAndFlush(encodeEarlyHints(codec.alloc(), headers));
+		});
+	}
+
+	static ByteBuf encodeEarlyHints(ByteBufAllocator alloc, HttpHeaders headers) {
+		ByteBuf buf = alloc.buffer();
+		ByteBufUtil.writeAscii(buf, HttpVersion.HTTP_1_1.text());
+		buf.writeByte(' ');
+		ByteBufUtil.writeAscii(buf, EARLY_HINTS.codeAsText());
+		buf.writeByte(' ');
+		ByteBufUtil.writeAscii(buf, EARLY_HINTS.reasonPhrase());
+		buf.writeShort(CRLF);
+		Iterator<Map.Entry<CharSequence, CharSequence>> it = headers.iteratorCharSequence();
+		while (it.hasNext()) {
+			Map.Entry<CharSequence, CharSequence> header = it.next();
+			ByteBufUtil.writeAscii(buf, header.getKey());
+			buf.writeByte(':');
+			buf.writeByte(' ');
+			ByteBufUtil.writeAscii(buf, header.getValue());
+			buf.writeShort(CRLF);
+		}
+		buf.writeShort(CRLF);
+		return buf;
+	}
+
 	/**
 	 * @return the Transfer setting SSE for this http connection (e.g. event-stream)
 	 */
@@ -484,6 +697,12 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		throw new IllegalStateException("request not parsed");
 	}
 
+	@Override
+	public HttpServerResponse compressionCacheKey(Object key) {
+		this.compressionCacheKey = Objects.requireNonNull(key, "key");
+		return this;
+	}
+
 	@Override
 	public HttpServerResponse compression(boolean compress) {
 		if (!compress) {
@@ -491,7 +710,7 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		}
 		else if (channel().pipeline()
 		                  .get(NettyPipeline.CompressionHandler) == null) {
-			SimpleCompressionHandler handler = new SimpleCompressionHandler();
+			SimpleCompressionHandler handler = new SimpleCompressionHandler(compressionSettings);
 			try {
 				List<Object> out = new ArrayList<>();
 				try {
@@ -557,13 +776,32 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		}
 	}
 
+	/**
+	 * Returns whether a response with the given content length would be compressed.
+	 *
+	 * @param contentLength the length of the content to be sent
+	 * @return whether a response with the given content length would be compressed
+	 */
+	boolean isCompressionEnabled(long contentLength) {
+		if (channel().pipeline().get(NettyPipeline.CompressionHandler) != null) {
+			return true;
+		}
+		if (compressionPredicate == null) {
+			return false;
+		}
+		if (compressionPredicate instanceof HttpServerConfig.CompressionPredicate) {
+			return ((HttpServerConfig.CompressionPredicate) compressionPredicate).test(this, this, contentLength);
+		}
+		return compressionPredicate.test(this, this);
+	}
+
 	@Override
 	protected void afterMarkSentHeaders(){
 		if (HttpResponseStatus.NOT_MODIFIED.equals(status())) {
 			responseHeaders.remove(HttpHeaderNames.TRANSFER_ENCODING)
 			               .remove(HttpHeaderNames.CONTENT_LENGTH);
 		}
-		if (compressionPredicate != null && compressionPredicate.test(this, this)) {
+		if (!skipCompression && compressionPredicate != null && compressionPredicate.test(this, this)) {
 			compression(true);
 		}
 	}
@@ -644,20 +882,56 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 
 		ReferenceCountUtil.release(msg);
 
-		HttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_0,
-				cause instanceof TooLongFrameException ? HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE:
-				                                         HttpResponseStatus.BAD_REQUEST);
+		if (!(msg instanceof HttpRequest)) {
+			ChannelOperations<?, ?> ops = ChannelOperations.get(ctx.channel());
+			if (ops instanceof HttpServerOperations) {
+				((HttpServerOperations) ops).onDecodingFailure(cause);
+			}
+			else {
+				// The response has been sent already
+				ctx.close();
+			}
+			return;
+		}
+
+		HttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_0, decodingFailureStatus(cause));
 		response.headers()
 		        .setInt(HttpHeaderNames.CONTENT_LENGTH, 0)
 		        .set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
 		ctx.writeAndFlush(response)
 		   .addListener(ChannelFutureListener.CLOSE);
 
-		HttpRequest request = null;
-		if (msg instanceof HttpRequest) {
-			request = (HttpRequest) msg;
+		listener.onStateChange(new FailedHttpServerRequest(conn, listener, (HttpRequest) msg, response, secure), REQUEST_DECODING_FAILED);
+	}
+
+	static HttpResponseStatus decodingFailureStatus(Throwable cause) {
+		return cause instanceof TooLongFrameException ? HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE :
+		                                                HttpResponseStatus.BAD_REQUEST;
+	}
+
+	/**
+	 * The request body cannot be decoded, the request has been handed to the handler already so
+	 * the inbound of this request fails and the handler decides of the response.
+	 * If the handler propagates the failure, the request is answered with the decoding failure status.
+	 *
+	 * @param cause the decoding failure
+	 */
+	final void onDecodingFailure(Throwable cause) {
+		decodingFailure = cause;
+		if (!hasSentHeaders()) {
+			keepAlive(false);
 		}
-		listener.onStateChange(new FailedHttpServerRequest(conn, listener, request, response, secure), REQUEST_DECODING_FAILED);
+		listener().onStateChange(this, REQUEST_DECODING_FAILED);
+		onInboundError(cause);
+	}
+
+	final boolean isDecodingFailure(Throwable err) {
+		for (Throwable t = err; t != null; t = t.getCause()) {
+			if (t == decodingFailure) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -674,20 +948,37 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 			return;
 		}
 
+		boolean decodingFailed = isDecodingFailure(err);
 		if (markSentHeaders()) {
-			log.error(format(channel(), "Error starting response. Replying error status"), err);
-
-			nettyResponse.setStatus(HttpResponseStatus.INTERNAL_SERVER_ERROR);
+			if (decodingFailed) {
+				if (log.isDebugEnabled()) {
+					log.debug(format(channel(), "Decoding failed. Replying error status"), err);
+				}
+				nettyResponse.setStatus(decodingFailureStatus(decodingFailure));
+			}
+			else {
+				log.error(format(channel(), "Error starting response. Replying error status"), err);
+				nettyResponse.setStatus(HttpResponseStatus.INTERNAL_SERVER_ERROR);
+			}
 			responseHeaders.remove(HttpHeaderNames.TRANSFER_ENCODING)
 			               .setInt(HttpHeaderNames.CONTENT_LENGTH, 0)
 			               .set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
-			channel().writeAndFlush(outboundHttpMessage())
+			// The last content ends the HTTP/2 stream before it is closed
+			channel().write(outboundHttpMessage());
+			channel().writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT)
 			         .addListener(ChannelFutureListener.CLOSE);
 			return;
 		}
 
 		markSentBody();
-		log.error(format(channel(), "Error finishing response. Closing connection"), err);
+		if (decodingFailed) {
+			if (log.isDebugEnabled()) {
+				log.debug(format(channel(), "Decoding failed. Closing connection"), err);
+			}
+		}
+		else {
+			log.error(format(channel(), "Error finishing response. Closing connection"), err);
+		}
 		channel().writeAndFlush(EMPTY_BUFFER)
 		         .addListener(ChannelFutureListener.CLOSE);
 	}
@@ -765,6 +1056,12 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 	static final Logger log = Loggers.getLogger(HttpServerOperations.class);
 	final static AsciiString      EVENT_STREAM = new AsciiString("text/event-stream");
 
+	final static String MULTIPART_BYTERANGES = "multipart/byteranges; boundary=";
+
+	static final HttpResponseStatus EARLY_HINTS = new HttpResponseStatus(103, "Early Hints");
+
+	static final int CRLF = ('\r' << 8) | '\n';
+
 	final static FullHttpResponse CONTINUE     =
 			new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
 					HttpResponseStatus.CONTINUE,
@@ -777,10 +1074,10 @@ class HttpServerOperations extends HttpOperations<HttpServerRequest, HttpServerR
 		FailedHttpServerRequest(
 				Connection c,
 				ConnectionObserver listener,
-				@Nullable HttpRequest nettyRequest,
+				HttpRequest nettyRequest,
 				HttpResponse nettyResponse,
 				boolean secure) {
-			super(c, listener, null, nettyRequest, null, ServerCookieEncoder.STRICT, ServerCookieDecoder.STRICT, null, secure, false);
+			super(c, listener, null, null, nettyRequest, null, ServerCookieEncoder.STRICT, ServerCookieDecoder.STRICT, null, secure, false);
 			this.customResponse = nettyResponse;
 		}
 
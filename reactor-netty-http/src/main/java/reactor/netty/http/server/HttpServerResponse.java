@@ -15,9 +15,11 @@
  */
 package reactor.netty.http.server;
 
+import java.nio.file.Path;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.cookie.Cookie;
@@ -77,6 +79,19 @@ public interface HttpServerResponse extends NettyOutbound, HttpInfos {
 	 */
 	HttpServerResponse compression(boolean compress);
 
+	/**
+	 * Sets the key under which the compressed body of this response is cached, when a cache of the
+	 * compressed bodies is configured with {@link HttpCompressionSettingsSpec.Builder#cacheMaxSize(long)}.
+	 * Only the responses sent at once, e.g. with a {@link reactor.core.publisher.Mono}, with status
+	 * {@link HttpResponseStatus#OK} and without {@code Content-Encoding} are cached. The key must
+	 * identify the body of the response, e.g. the path and the version of a resource.
+	 *
+	 * @param key the cache key of the compressed body
+	 * @return this {@link HttpServerResponse}
+	 * @since 1.0.3
+	 */
+	HttpServerResponse compressionCacheKey(Object key);
+
 	/**
 	 * Returns true if headers and status have been sent to the client
 	 *
@@ -117,6 +132,34 @@ public interface HttpServerResponse extends NettyOutbound, HttpInfos {
 	 */
 	HttpHeaders responseHeaders();
 
+	/**
+	 * Pushes the response to a {@code GET} request of the given path, with the scheme and the
+	 * authority of this request, using an HTTP/2 {@code PUSH_PROMISE} on the stream of this request.
+	 * The push is to be issued before the response referencing the pushed resource is sent.
+	 * The pushed response has the status {@link HttpResponseStatus#OK} and its content is sent as is.
+	 * Nothing is pushed when the connection is not HTTP/2, when the client disabled the server push
+	 * or when the client does not accept more concurrent streams, the content is then released.
+	 *
+	 * @param path the path of the promised request
+	 * @param headers the headers of the pushed response
+	 * @param content the content of the pushed response
+	 * @return a {@link Mono} completing once the pushed response is written, or without pushing
+	 * @since 1.0.3
+	 */
+	Mono<Void> push(String path, HttpHeaders headers, Publisher<? extends ByteBuf> content);
+
+	/**
+	 * Sends a {@code 103 Early Hints} interim response with the given headers, typically
+	 * {@code Link} headers, so that the client can preload resources while the response is prepared.
+	 * The interim response can be sent several times before the status and headers of the response
+	 * are sent. Nothing is sent to HTTP/1.0 clients.
+	 *
+	 * @param headers the headers of the interim response, e.g. {@code Link: </style.css>; rel=preload; as=style}
+	 * @return a {@link Mono} successful on flush confirmation
+	 * @since 1.0.3
+	 */
+	Mono<Void> sendEarlyHints(HttpHeaders headers);
+
 	/**
 	 * Sends the HTTP headers and empty content thus delimiting a full empty body http response.
 	 *
@@ -132,6 +175,20 @@ public interface HttpServerResponse extends NettyOutbound, HttpInfos {
 	 */
 	NettyOutbound sendHeaders();
 
+	/**
+	 * Sends the file, or the byte ranges of it requested with the {@code Range} header of the
+	 * request, provided that the {@code If-Range} precondition, if any, holds.
+	 * A single range is sent with {@link HttpResponseStatus#PARTIAL_CONTENT}, several ranges are
+	 * sent as a {@code multipart/byteranges} content, and unsatisfiable ranges are answered with
+	 * {@link HttpResponseStatus#REQUESTED_RANGE_NOT_SATISFIABLE}.
+	 * The ranges are transferred with zero-byte copy when possible, as {@link #sendFile(Path, long, long)}.
+	 *
+	 * @param file the file to send
+	 * @return a {@link NettyOutbound} successful on committed response
+	 * @since 1.0.3
+	 */
+	NettyOutbound sendFileRange(Path file);
+
 	/**
 	 * Sends 404 status {@link HttpResponseStatus#NOT_FOUND}.
 	 *
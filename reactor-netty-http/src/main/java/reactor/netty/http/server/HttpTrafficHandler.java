@@ -77,6 +77,7 @@ final class HttpTrafficHandler extends ChannelDuplexHandler
 	SocketAddress                                                 remoteAddress;
 	final BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler;
 	final BiPredicate<HttpServerRequest, HttpServerResponse>      compress;
+	final HttpCompressionSettingsSpec                             compressionSettings;
 	final ServerCookieEncoder                                     cookieEncoder;
 	final ServerCookieDecoder                                     cookieDecoder;
 	final Duration                                                idleTimeout;
@@ -97,12 +98,14 @@ final class HttpTrafficHandler extends ChannelDuplexHandler
 			ConnectionObserver listener,
 			@Nullable BiFunction<ConnectionInfo, HttpRequest, ConnectionInfo> forwardedHeaderHandler,
 			@Nullable BiPredicate<HttpServerRequest, HttpServerResponse> compress,
+			@Nullable HttpCompressionSettingsSpec compressionSettings,
 			ServerCookieEncoder encoder, ServerCookieDecoder decoder,
 			@Nullable BiFunction<? super Mono<Void>, ? super Connection, ? extends Mono<Void>> mapHandle,
 			@Nullable Duration idleTimeout) {
 		this.listener = listener;
 		this.forwardedHeaderHandler = forwardedHeaderHandler;
 		this.compress = compress;
+		this.compressionSettings = compressionSettings;
 		this.cookieEncoder = encoder;
 		this.cookieDecoder = decoder;
 		this.idleTimeout = idleTimeout;
@@ -188,7 +191,7 @@ final class HttpTrafficHandler extends ChannelDuplexHandler
 				try {
 					ops = new HttpServerOperations(Connection.from(ctx.channel()),
 							listener,
-							compress, request,
+							compress, compressionSettings, request,
 							ConnectionInfo.from(ctx.channel(),
 							                    request,
 							                    secure,
@@ -286,7 +289,7 @@ final class HttpTrafficHandler extends ChannelDuplexHandler
 				setKeepAlive(response, false);
 			}
 
-			if (response.status().equals(HttpResponseStatus.CONTINUE)) {
+			if (isInterim(response)) {
 				//"FutureReturnValueIgnored" this is deliberate
 				ctx.write(msg, promise);
 				return;
@@ -374,6 +377,7 @@ final class HttpTrafficHandler extends ChannelDuplexHandler
 				HttpServerOperations ops = new HttpServerOperations(Connection.from(ctx.channel()),
 						listener,
 						compress,
+						compressionSettings,
 						nextRequest,
 						ConnectionInfo.from(ctx.channel(),
 						                    nextRequest,
@@ -453,6 +457,19 @@ final class HttpTrafficHandler extends ChannelDuplexHandler
 		               .codeClass() == HttpStatusClass.INFORMATIONAL;
 	}
 
+	/**
+	 * Interim responses, e.g. {@code 100 Continue} or {@code 103 Early Hints}, precede the final
+	 * response and are written as they are.
+	 *
+	 * @param response The HttpResponse to check
+	 *
+	 * @return true if the response is an informational response other than {@code 101 Switching Protocols}
+	 */
+	static boolean isInterim(HttpResponse response) {
+		return isInformational(response) &&
+				!response.status().equals(HttpResponseStatus.SWITCHING_PROTOCOLS);
+	}
+
 	static boolean isNotModified(HttpResponse response) {
 		return HttpResponseStatus.NOT_MODIFIED.equals(response.status());
 	}
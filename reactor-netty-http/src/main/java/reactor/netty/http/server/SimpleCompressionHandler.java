@@ -16,19 +16,54 @@
 package reactor.netty.http.server;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.netty.channel.ChannelOperations;
+import reactor.util.annotation.Nullable;
 
 import java.util.List;
 
 /**
+ * When {@link HttpCompressionSettingsSpec} are configured, the content coding is negotiated
+ * among the configured encoders and the compression level depends on the content type.
+ * The compressed body of the full responses with a
+ * {@link HttpServerResponse#compressionCacheKey(Object) cache key} is cached.
+ *
  * @author Stephane Maldini
  */
 final class SimpleCompressionHandler extends HttpContentCompressor {
 
+	@Nullable
+	final HttpCompressionSettingsSpec compressionSettings;
+
+	ChannelHandlerContext ctx;
+
+	SimpleCompressionHandler() {
+		this(null);
+	}
+
+	SimpleCompressionHandler(@Nullable HttpCompressionSettingsSpec compressionSettings) {
+		this.compressionSettings = compressionSettings;
+	}
+
+	@Override
+	public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+		super.handlerAdded(ctx);
+		this.ctx = ctx;
+	}
+
 	@Override
 	public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise)
 			throws Exception {
@@ -36,6 +71,13 @@ final class SimpleCompressionHandler extends HttpContentCompressor {
 		if (msg instanceof ByteBuf) {
 			super.write(ctx, new DefaultHttpContent((ByteBuf)msg), promise);
 		}
+		else if (msg instanceof HttpResponse && HttpTrafficHandler.isInterim((HttpResponse) msg)) {
+			// Interim responses would consume the accepted encoding of the request
+			ctx.write(msg, promise);
+		}
+		else if (msg instanceof FullHttpResponse && compressionSettings != null && compressionSettings.cache != null) {
+			super.write(ctx, encodeCached(ctx, (FullHttpResponse) msg, compressionSettings, compressionSettings.cache), promise);
+		}
 		else {
 			super.write(ctx, msg, promise);
 		}
@@ -45,4 +87,110 @@ final class SimpleCompressionHandler extends HttpContentCompressor {
 	public void decode(ChannelHandlerContext ctx, HttpRequest msg, List<Object> out) throws Exception {
 		super.decode(ctx, msg, out);
 	}
+
+	@Override
+	@Nullable
+	protected Result beginEncode(HttpResponse response, String acceptEncoding) throws Exception {
+		HttpCompressionSettingsSpec settings = compressionSettings;
+		if (settings == null) {
+			return super.beginEncode(response, acceptEncoding);
+		}
+		if (response.headers().contains(HttpHeaderNames.CONTENT_ENCODING)) {
+			return null;
+		}
+		ContentEncoderFactory encoder = encoder(settings, acceptEncoding);
+		if (encoder == null) {
+			return null;
+		}
+		int level = settings.compressionLevel(response.headers().get(HttpHeaderNames.CONTENT_TYPE));
+		if (level == 0) {
+			return null;
+		}
+		Channel channel = ctx.channel();
+		return new Result(encoder.contentEncoding(),
+				new EmbeddedChannel(channel.id(), channel.metadata().hasDisconnect(), channel.config(),
+						encoder.newEncoder(level)));
+	}
+
+	/**
+	 * Replaces the body of a full response having a cache key with its compressed form, taken
+	 * from the cache or compressed and cached. The returned response has a {@code Content-Encoding}
+	 * and is not compressed again by {@link #beginEncode(HttpResponse, String)}.
+	 */
+	static FullHttpResponse encodeCached(ChannelHandlerContext ctx, FullHttpResponse response,
+			HttpCompressionSettingsSpec settings, CompressedResponseCache cache) {
+		ChannelOperations<?, ?> ops = ChannelOperations.get(ctx.channel());
+		if (!(ops instanceof HttpServerOperations)) {
+			return response;
+		}
+		HttpServerOperations serverOps = (HttpServerOperations) ops;
+		Object key = serverOps.compressionCacheKey;
+		HttpHeaders headers = response.headers();
+		if (key == null ||
+				!HttpResponseStatus.OK.equals(response.status()) ||
+				HttpMethod.HEAD.equals(serverOps.method()) ||
+				headers.contains(HttpHeaderNames.CONTENT_ENCODING) ||
+				!response.content().isReadable()) {
+			return response;
+		}
+		String acceptEncoding = serverOps.requestHeaders().get(HttpHeaderNames.ACCEPT_ENCODING);
+		if (acceptEncoding == null) {
+			return response;
+		}
+		ContentEncoderFactory encoder = encoder(settings, acceptEncoding);
+		if (encoder == null) {
+			return response;
+		}
+		int level = settings.compressionLevel(headers.get(HttpHeaderNames.CONTENT_TYPE));
+		if (level == 0) {
+			return response;
+		}
+
+		String contentEncoding = encoder.contentEncoding();
+		ByteBuf content = cache.get(key, contentEncoding);
+		if (content == null) {
+			content = encode(encoder, level, response.content());
+			cache.put(key, contentEncoding, content);
+		}
+		FullHttpResponse encoded = response.replace(content);
+		response.release();
+		encoded.headers()
+		       .set(HttpHeaderNames.CONTENT_ENCODING, contentEncoding)
+		       .set(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes())
+		       .remove(HttpHeaderNames.TRANSFER_ENCODING);
+		if (!encoded.headers().containsValue(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING, true)) {
+			encoded.headers().add(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+		}
+		return encoded;
+	}
+
+	static ByteBuf encode(ContentEncoderFactory encoder, int level, ByteBuf content) {
+		EmbeddedChannel channel = new EmbeddedChannel(encoder.newEncoder(level));
+		channel.writeOutbound(content.retainedDuplicate());
+		channel.finish();
+		CompositeByteBuf encoded = channel.alloc().compositeBuffer();
+		ByteBuf buf;
+		while ((buf = channel.readOutbound()) != null) {
+			encoded.addComponent(true, buf);
+		}
+		return encoded;
+	}
+
+	/**
+	 * Returns the encoder with the highest weight in the {@code Accept-Encoding} header value,
+	 * the order of the configured encoders breaks the ties.
+	 */
+	@Nullable
+	static ContentEncoderFactory encoder(HttpCompressionSettingsSpec settings, String acceptEncoding) {
+		ContentEncoderFactory selected = null;
+		float selectedWeight = 0f;
+		for (ContentEncoderFactory encoder : settings.encoders) {
+			float weight = StaticFileHandler.weight(acceptEncoding, encoder.contentEncoding());
+			if (weight > selectedWeight) {
+				selected = encoder;
+				selectedWeight = weight;
+			}
+		}
+		return selected;
+	}
 }
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.util.IllegalReferenceCountException;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+/**
+ * A cache of the metadata of the files served by the Http Server routes: size, last modified
+ * time and entity tag. The content of small files is copied in memory so that it is served without
+ * reading the file.
+ * <p>
+ * A cached entry is used only while the last modified time and the size of the file are unchanged,
+ * they are read again on each lookup. Files that do not exist are not cached. This single {@code stat}
+ * is preferred to a {@link java.nio.file.WatchService}: it needs neither a thread nor a watch key per
+ * directory, it sees the changes made through any path or mount, and the platforms without native
+ * file notifications poll the files anyway, with a delay during which stale content would be served.
+ * <p>
+ * The lookups are called on the event loop, hence they never read the content of a file. On a miss,
+ * the metadata is cached at once, the file is sent from the disk and its content is read in memory on
+ * {@link Schedulers#boundedElastic()} for the next requests. The content is kept in direct buffers of
+ * the exact file size, allocated outside of the pooled allocator and freed by the garbage collector
+ * once the entry is evicted and no longer sent.
+ * <p>
+ * The entries are held in a {@link ConcurrentHashMap}. When the cache is full, the least recently used
+ * entry is found by scanning the entries, which happens only when a new file is cached.
+ * Each {@link StaticFileHandler} has its own cache.
+ */
+final class StaticFileCache {
+
+	static final Logger log = Loggers.getLogger(StaticFileCache.class);
+
+	final int  maxEntries;
+	final long maxContentBytes;
+	final long maxContentFileSize;
+
+	final ConcurrentMap<Path, StaticFile> entries = new ConcurrentHashMap<>();
+	final AtomicLong                      contentBytes = new AtomicLong();
+
+	StaticFileCache(int maxEntries, long maxContentBytes) {
+		if (maxEntries < 0) {
+			throw new IllegalArgumentException("maxEntries: " + maxEntries + " (expected: 0 or greater)");
+		}
+		if (maxContentBytes < 0) {
+			throw new IllegalArgumentException("maxContentBytes: " + maxContentBytes + " (expected: 0 or greater)");
+		}
+		this.maxEntries = maxEntries;
+		this.maxContentBytes = maxContentBytes;
+		// A single file cannot take more than an eighth of the memory
+		this.maxContentFileSize = Math.min(maxContentBytes >> 3, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the metadata of the file. When it is not cached or when it has changed since it was
+	 * cached, its content is read in memory in the background.
+	 *
+	 * @param path the file
+	 * @return the metadata of the file, {@link StaticFile#exists()} is false when the file
+	 * does not exist or is not a readable regular file
+	 */
+	StaticFile get(Path path) {
+		BasicFileAttributes attributes;
+		try {
+			attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		}
+		catch (IOException e) {
+			if (maxEntries > 0) {
+				invalidate(path.toAbsolutePath());
+			}
+			return StaticFile.missing(path);
+		}
+		if (!attributes.isRegularFile()) {
+			return StaticFile.missing(path);
+		}
+		long size = attributes.size();
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		if (maxEntries == 0) {
+			return Files.isReadable(path) ? new StaticFile(path, size, lastModified, null) : StaticFile.missing(path);
+		}
+
+		Path absolutePath = path.toAbsolutePath();
+		StaticFile cached = entries.get(absolutePath);
+		if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+			cached.lastAccess = System.nanoTime();
+			return cached;
+		}
+		if (!Files.isReadable(path)) {
+			if (cached != null) {
+				remove(absolutePath, cached);
+			}
+			return StaticFile.missing(path);
+		}
+
+		StaticFile file = new StaticFile(absolutePath, size, lastModified, null);
+		boolean added = cached == null ? entries.putIfAbsent(absolutePath, file) == null :
+		                                 entries.replace(absolutePath, cached, file);
+		if (added) {
+			if (cached != null) {
+				release(cached);
+			}
+			evict();
+			if (size > 0 && size <= maxContentFileSize) {
+				Schedulers.boundedElastic().schedule(() -> loadContent(file));
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Reads the content of a cached file in memory, unless the entry has been replaced or evicted meanwhile.
+	 */
+	void loadContent(StaticFile file) {
+		if (entries.get(file.path) != file) {
+			return;
+		}
+		ByteBuf content = null;
+		try (FileChannel channel = FileChannel.open(file.path)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect((int) file.size);
+			int read;
+			do {
+				read = channel.read(buffer);
+			}
+			while (read != -1 && buffer.hasRemaining());
+			// The file may have been truncated meanwhile
+			if (!buffer.hasRemaining()) {
+				buffer.flip();
+				content = Unpooled.wrappedBuffer(buffer);
+			}
+		}
+		catch (IOException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Cannot read {}", file.path, e);
+			}
+		}
+		if (content == null) {
+			return;
+		}
+		StaticFile loaded = new StaticFile(file.path, file.size, file.lastModified, content);
+		loaded.missingVariants = file.missingVariants;
+		loaded.lastAccess = file.lastAccess;
+		if (entries.replace(file.path, file, loaded)) {
+			contentBytes.addAndGet(loaded.contentBytes());
+			evict();
+		}
+		else {
+			content.release();
+		}
+	}
+
+	/**
+	 * Removes the least recently used entries while the cache is full.
+	 */
+	void evict() {
+		while (entries.size() > maxEntries || contentBytes.get() > maxContentBytes) {
+			Map.Entry<Path, StaticFile> eldest = null;
+			for (Map.Entry<Path, StaticFile> entry : entries.entrySet()) {
+				if (eldest == null || entry.getValue().lastAccess - eldest.getValue().lastAccess < 0) {
+					eldest = entry;
+				}
+			}
+			if (eldest == null) {
+				return;
+			}
+			remove(eldest.getKey(), eldest.getValue());
+		}
+	}
+
+	void invalidate(Path path) {
+		StaticFile file = entries.remove(path);
+		if (file != null) {
+			release(file);
+		}
+	}
+
+	void remove(Path path, StaticFile file) {
+		if (entries.remove(path, file)) {
+			release(file);
+		}
+	}
+
+	void release(StaticFile file) {
+		contentBytes.addAndGet(-file.contentBytes());
+		file.release();
+	}
+
+	/**
+	 * The metadata of a file, and its content when it is held in memory.
+	 */
+	static final class StaticFile {
+
+		static StaticFile missing(Path path) {
+			return new StaticFile(path, -1, -1, null);
+		}
+
+		static String etag(long lastModified, long size) {
+			return '"' + Long.toHexString(lastModified) + '-' + Long.toHexString(size) + '"';
+		}
+
+		final Path    path;
+		final long    size;
+		final long    lastModified;
+		final String  etag;
+		final String  lastModifiedHeader;
+
+		@Nullable
+		final ByteBuf content;
+
+		volatile long lastAccess = System.nanoTime();
+
+		/**
+		 * The bit set of the pre-compressed variants of this file that do not exist.
+		 */
+		volatile int missingVariants;
+
+		StaticFile(Path path, long size, long lastModified, @Nullable ByteBuf content) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.content = content;
+			if (size < 0) {
+				this.etag = "";
+				this.lastModifiedHeader = "";
+			}
+			else {
+				this.etag = etag(lastModified, size);
+				this.lastModifiedHeader = DateFormatter.format(new Date(lastModified));
+			}
+		}
+
+		boolean exists() {
+			return size >= 0;
+		}
+
+		long contentBytes() {
+			return content != null ? size : 0;
+		}
+
+		/**
+		 * Returns a retained duplicate of the in-memory content of the file.
+		 *
+		 * @return a retained duplicate of the in-memory content, or {@code null} if the content is not held in memory
+		 */
+		@Nullable
+		ByteBuf retainedContent() {
+			ByteBuf content = this.content;
+			if (content == null) {
+				return null;
+			}
+			try {
+				return content.retainedDuplicate();
+			}
+			catch (IllegalReferenceCountException e) {
+				// Evicted meanwhile
+				return null;
+			}
+		}
+
+		void release() {
+			if (content != null) {
+				content.release();
+			}
+		}
+	}
+}
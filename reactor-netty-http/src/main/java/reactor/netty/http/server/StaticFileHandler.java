@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Date;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.ReactorNetty;
+import reactor.netty.http.server.StaticFileCache.StaticFile;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import static reactor.netty.ReactorNetty.format;
+
+/**
+ * Serves the files of {@link HttpServerRoutes#file(java.util.function.Predicate, Path, java.util.function.Function)}
+ * and {@link HttpServerRoutes#directory(String, Path, java.util.function.Function)}.
+ * <p>
+ * The metadata of the files is kept in a {@link StaticFileCache}, conditional requests
+ * ({@code If-None-Match}, {@code If-Modified-Since}) and range requests are answered from it,
+ * and the content of small files is served from memory.
+ * <p>
+ * When enabled with {@link ReactorNetty#HTTP_SERVER_PRECOMPRESSED_FILES} and the client accepts it,
+ * a pre-compressed variant of the file is sent as is: {@code file.br} or {@code file.gz}, provided that
+ * it is not older than the file. The variants that do not exist are remembered with the cached file, so that
+ * they are looked up again only once the file changes. Otherwise, when the response is to be compressed, the gzip compressed
+ * content is served from a {@link CompressedFileCache} instead of compressing the file for each request.
+ * <p>
+ * Each {@link DefaultHttpServerRoutes} has its own handler, hence its own cached files.
+ */
+final class StaticFileHandler {
+
+	static final Logger log = Loggers.getLogger(StaticFileHandler.class);
+
+	static final String[] PRECOMPRESSED_ENCODINGS = {"br", "gzip"};
+	static final String[] PRECOMPRESSED_EXTENSIONS = {".br", ".gz"};
+
+	final StaticFileCache     files;
+	final CompressedFileCache compressedFiles;
+	final boolean             precompressed;
+
+	StaticFileHandler() {
+		this(new StaticFileCache(
+				Integer.parseInt(System.getProperty(ReactorNetty.HTTP_SERVER_FILE_CACHE_ENTRIES, "1024")),
+				Long.parseLong(System.getProperty(ReactorNetty.HTTP_SERVER_FILE_CACHE_SIZE, "67108864"))),
+				new CompressedFileCache(
+				Long.parseLong(System.getProperty(ReactorNetty.HTTP_SERVER_COMPRESSED_FILE_CACHE_SIZE, "16777216"))),
+				Boolean.parseBoolean(System.getProperty(ReactorNetty.HTTP_SERVER_PRECOMPRESSED_FILES, "false")));
+	}
+
+	StaticFileHandler(StaticFileCache files, CompressedFileCache compressedFiles, boolean precompressed) {
+		this.files = files;
+		this.compressedFiles = compressedFiles;
+		this.precompressed = precompressed;
+	}
+
+	Publisher<Void> sendFile(HttpServerRequest request, HttpServerResponse response, StaticFile file) {
+		HttpServerOperations ops = response instanceof HttpServerOperations ? (HttpServerOperations) response : null;
+		boolean compressible = ops != null && ops.isCompressionEnabled(file.size);
+		if (compressible || precompressed) {
+			// The representation depends on the Accept-Encoding header, even when the file is sent as is
+			response.addHeader(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+		}
+
+		String acceptEncoding = request.requestHeaders().get(HttpHeaderNames.ACCEPT_ENCODING);
+		if (acceptEncoding == null) {
+			return send(request, response, file, file.etag, true);
+		}
+
+		if (precompressed) {
+			for (int i = 0; i < PRECOMPRESSED_ENCODINGS.length; i++) {
+				int variantBit = 1 << i;
+				if ((file.missingVariants & variantBit) == 0 && accepts(acceptEncoding, PRECOMPRESSED_ENCODINGS[i])) {
+					StaticFile variant = files.get(file.path.resolveSibling(file.path.getFileName() + PRECOMPRESSED_EXTENSIONS[i]));
+					if (variant.exists() && variant.lastModified >= file.lastModified) {
+						return send(request, encoded(response, PRECOMPRESSED_ENCODINGS[i]), variant, variant.etag, true);
+					}
+					// Not looked up again until the file changes
+					file.missingVariants |= variantBit;
+				}
+			}
+		}
+
+		if (!compressible || !compressedOnTheFly(ops, acceptEncoding)) {
+			return send(request, response, file, file.etag, true);
+		}
+		if (!accepts(acceptEncoding, HttpHeaderValues.GZIP.toString()) || !compressedFiles.accepts(file.size)) {
+			// Compressed on the fly, the entity tag of the file is weakened as the encoded content differs,
+			// and a range of the encoded content cannot be served
+			return send(request, response, file, "W/" + file.etag, false);
+		}
+
+		HttpServerResponse encoded = encoded(response, HttpHeaderValues.GZIP.toString());
+		String etag = file.etag.substring(0, file.etag.length() - 1) + "-gzip\"";
+		if (validators(request, encoded, file, etag)) {
+			return encoded.status(HttpResponseStatus.NOT_MODIFIED).send();
+		}
+		ByteBuf content = compressedFiles.get(file.path, file.lastModified, file.size);
+		if (content != null) {
+			return encoded.send(Mono.just(content));
+		}
+		return Mono.fromCallable(() -> compressedFiles.compress(file.path, file.lastModified, file.size))
+		           .subscribeOn(Schedulers.boundedElastic())
+		           .flatMap(buf -> encoded.send(Mono.just(buf)).then())
+		           .onErrorResume(IOException.class, e -> {
+		               if (log.isDebugEnabled()) {
+		                   log.debug(format(((HttpServerOperations) response).channel(), "Failed to compress {}"), file.path, e);
+		               }
+		               return Mono.from(response.sendFile(file.path));
+		           });
+	}
+
+	static Publisher<Void> send(HttpServerRequest request, HttpServerResponse response, StaticFile file,
+			String etag, boolean acceptRanges) {
+		if (validators(request, response, file, etag)) {
+			return response.status(HttpResponseStatus.NOT_MODIFIED).send();
+		}
+
+		ByteBuf content = file.retainedContent();
+		if (acceptRanges && response instanceof HttpServerOperations) {
+			return ((HttpServerOperations) response).sendFileRange(file.path, file.size, file.lastModified, etag, content);
+		}
+		if (content != null) {
+			return response.send(Mono.just(content));
+		}
+		return response.sendFile(file.path, 0, file.size);
+	}
+
+	/**
+	 * Sets the {@code ETag} and {@code Last-Modified} headers and evaluates the conditional
+	 * {@code If-None-Match} and {@code If-Modified-Since} request headers.
+	 *
+	 * @return whether the client already has the representation
+	 */
+	static boolean validators(HttpServerRequest request, HttpServerResponse response, StaticFile file, String etag) {
+		response.header(HttpHeaderNames.ETAG, etag)
+		        .header(HttpHeaderNames.LAST_MODIFIED, file.lastModifiedHeader);
+
+		HttpMethod method = request.method();
+		if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+			return false;
+		}
+		HttpHeaders headers = request.requestHeaders();
+		String ifNoneMatch = headers.get(HttpHeaderNames.IF_NONE_MATCH);
+		if (ifNoneMatch != null) {
+			return matches(ifNoneMatch, etag);
+		}
+		String ifModifiedSince = headers.get(HttpHeaderNames.IF_MODIFIED_SINCE);
+		if (ifModifiedSince != null) {
+			Date date = DateFormatter.parseHttpDate(ifModifiedSince);
+			// HTTP dates have a precision of one second
+			return date != null && file.lastModified / 1000 <= date.getTime() / 1000;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether the {@code If-None-Match} header value matches the entity tag,
+	 * using the weak comparison.
+	 */
+	static boolean matches(String ifNoneMatch, String etag) {
+		for (String part : ifNoneMatch.split(",")) {
+			String tag = part.trim();
+			if ("*".equals(tag)) {
+				return true;
+			}
+			if (opaqueTag(tag).equals(opaqueTag(etag))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static String opaqueTag(String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+
+	/**
+	 * Returns whether the compression handler of the response encodes it for the given
+	 * {@code Accept-Encoding} header value.
+	 *
+	 * @param ops the response
+	 * @param acceptEncoding the {@code Accept-Encoding} header value
+	 * @return whether one of the configured encoders is accepted
+	 */
+	static boolean compressedOnTheFly(HttpServerOperations ops, String acceptEncoding) {
+		if (ops.compressionSettings == null) {
+			return accepts(acceptEncoding, HttpHeaderValues.GZIP.toString()) ||
+					accepts(acceptEncoding, HttpHeaderValues.DEFLATE.toString());
+		}
+		for (ContentEncoderFactory encoder : ops.compressionSettings.encoders()) {
+			if (accepts(acceptEncoding, encoder.contentEncoding())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether the {@code Accept-Encoding} header value accepts the given content coding,
+	 * either explicitly or through {@code *}, with a non zero weight.
+	 *
+	 * @param acceptEncoding the {@code Accept-Encoding} header value
+	 * @param coding the content coding
+	 * @return whether the content coding is accepted
+	 */
+	static boolean accepts(String acceptEncoding, String coding) {
+		return weight(acceptEncoding, coding) > 0;
+	}
+
+	/**
+	 * Returns the weight of the given content coding in the {@code Accept-Encoding} header value,
+	 * either explicitly or through {@code *}.
+	 *
+	 * @param acceptEncoding the {@code Accept-Encoding} header value
+	 * @param coding the content coding
+	 * @return the weight of the content coding, 0 when it is not accepted
+	 */
+	static float weight(String acceptEncoding, String coding) {
+		float wildcard = 0f;
+		for (String part : acceptEncoding.split(",")) {
+			int paramsIndex = part.indexOf(';');
+			String name = (paramsIndex == -1 ? part : part.substring(0, paramsIndex)).trim();
+			if (name.equalsIgnoreCase(coding)) {
+				return weight(part, paramsIndex);
+			}
+			if ("*".equals(name)) {
+				wildcard = weight(part, paramsIndex);
+			}
+		}
+		return wildcard;
+	}
+
+	static float weight(String part, int paramsIndex) {
+		if (paramsIndex == -1) {
+			return 1f;
+		}
+		int qIndex = part.indexOf("q=", paramsIndex);
+		if (qIndex == -1) {
+			return 1f;
+		}
+		try {
+			return Float.parseFloat(part.substring(qIndex + 2).trim());
+		}
+		catch (NumberFormatException e) {
+			return 0f;
+		}
+	}
+
+	static HttpServerResponse encoded(HttpServerResponse response, String coding) {
+		return response.header(HttpHeaderNames.CONTENT_ENCODING, coding);
+	}
+}
@@ -24,6 +24,7 @@ import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpStatusClass;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.LastHttpContent;
 import reactor.util.annotation.Nullable;
@@ -64,7 +65,8 @@ final class AccessLogHandlerH1 extends BaseAccessLogHandler {
 			final HttpResponse response = (HttpResponse) msg;
 			final HttpResponseStatus status = response.status();
 
-			if (status.equals(HttpResponseStatus.CONTINUE)) {
+			if (status.codeClass() == HttpStatusClass.INFORMATIONAL &&
+					!status.equals(HttpResponseStatus.SWITCHING_PROTOCOLS)) {
 				//"FutureReturnValueIgnored" this is deliberate
 				ctx.write(msg, promise);
 				return;
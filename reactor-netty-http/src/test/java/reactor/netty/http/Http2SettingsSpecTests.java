@@ -126,6 +126,55 @@ public class Http2SettingsSpecTests {
 				.withMessage("Setting MAX_HEADER_LIST_SIZE is invalid: -1");
 	}
 
+	@Test
+	public void maxWindowSize() {
+		builder.maxWindowSize(1048576);
+		Http2SettingsSpec spec = builder.build();
+		assertThat(spec.headerTableSize()).isNull();
+		assertThat(spec.initialWindowSize()).isNull();
+		assertThat(spec.maxConcurrentStreams()).isNull();
+		assertThat(spec.maxFrameSize()).isNull();
+		assertThat(spec.maxHeaderListSize()).isEqualTo(Http2CodecUtil.DEFAULT_HEADER_LIST_SIZE);
+		assertThat(spec.maxWindowSize()).isEqualTo(1048576);
+		assertThat(spec.pushEnabled()).isNull();
+	}
+
+	@Test
+	public void maxWindowSizeBadValues() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.maxWindowSize(1024))
+				.withMessage("maxWindowSize: 1024 (expected: 65535-2147483647)");
+	}
+
+	@Test
+	public void headerCacheSize() {
+		builder.headerCacheSize(128);
+		Http2SettingsSpec spec = builder.build();
+		assertThat(spec.headerTableSize()).isNull();
+		assertThat(spec.initialWindowSize()).isNull();
+		assertThat(spec.maxConcurrentStreams()).isNull();
+		assertThat(spec.maxFrameSize()).isNull();
+		assertThat(spec.maxHeaderListSize()).isEqualTo(Http2CodecUtil.DEFAULT_HEADER_LIST_SIZE);
+		assertThat(spec.headerCacheSize()).isEqualTo(128);
+		assertThat(spec.sensitiveHeaders()).isEmpty();
+		assertThat(spec.pushEnabled()).isNull();
+	}
+
+	@Test
+	public void headerCacheSizeBadValues() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> builder.headerCacheSize(-1))
+				.withMessage("headerCacheSize: -1 (expected: 0 or greater)");
+	}
+
+	@Test
+	public void sensitiveHeaders() {
+		builder.sensitiveHeaders("Authorization", "cookie");
+		Http2SettingsSpec spec = builder.build();
+		assertThat(spec.headerCacheSize()).isEqualTo(0);
+		assertThat(spec.sensitiveHeaders()).containsExactly("authorization", "cookie");
+	}
+
 	/*
 	@Test
 	public void pushEnabled() {
@@ -15,7 +15,24 @@
  */
 package reactor.netty.http;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2ConnectionHandler;
+import io.netty.handler.codec.http2.Http2ConnectionHandlerBuilder;
+import io.netty.handler.codec.http2.Http2FrameAdapter;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2Headers;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
@@ -27,21 +44,32 @@ import reactor.core.publisher.Mono;
 import reactor.core.publisher.Signal;
 import reactor.netty.ByteBufFlux;
 import reactor.netty.ByteBufMono;
+import reactor.netty.Connection;
 import reactor.netty.DisposableServer;
+import reactor.netty.NettyPipeline;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.http.server.HttpServer;
 import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.TcpClient;
 import reactor.test.StepVerifier;
 import reactor.util.function.Tuple2;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -170,11 +198,57 @@ public class Http2Tests {
 	@Test
 	public void testMaxActiveStreams_1() throws Exception {
 		ConnectionProvider provider = ConnectionProvider.create("testMaxActiveStreams_1", 1);
-		doTestMaxActiveStreams(HttpClient.create(provider), 1, 1, 1);
+		doTestMaxActiveStreams(HttpClient.create(provider), 1, 2, 0);
 		provider.disposeLater()
 		        .block();
 
-		doTestMaxActiveStreams(HttpClient.newConnection(), 1, 1, 1);
+		doTestMaxActiveStreams(HttpClient.newConnection(), 1, 2, 0);
+	}
+
+	@Test
+	public void testMaxActiveStreamsConnectionSet() throws Exception {
+		SelfSignedCertificate cert = new SelfSignedCertificate();
+		SslContextBuilder serverCtx = SslContextBuilder.forServer(cert.certificate(), cert.privateKey());
+		SslContextBuilder clientCtx = SslContextBuilder.forClient()
+		                                               .trustManager(InsecureTrustManagerFactory.INSTANCE);
+		disposableServer =
+				HttpServer.create()
+				          .protocol(HttpProtocol.H2)
+				          .secure(spec -> spec.sslContext(serverCtx))
+				          .route(routes ->
+				              routes.post("/echo", (req, res) -> res.send(req.receive()
+				                                                             .aggregate()
+				                                                             .retain()
+				                                                             .delayElement(Duration.ofMillis(100)))))
+				          .port(0)
+				          .http2Settings(setting -> setting.maxConcurrentStreams(1))
+				          .wiretap(true)
+				          .bindNow();
+
+		Set<Channel> connections = ConcurrentHashMap.newKeySet();
+		HttpClient client =
+				HttpClient.create()
+				          .port(disposableServer.port())
+				          .protocol(HttpProtocol.H2)
+				          .secure(spec -> spec.sslContext(clientCtx))
+				          .doOnRequest((req, conn) -> connections.add(conn.channel().parent()))
+				          .wiretap(true);
+
+		List<String> responses =
+				Flux.range(0, 6)
+				    .flatMap(i ->
+				            client.post()
+				                  .uri("/echo")
+				                  .send(ByteBufFlux.fromString(Mono.just("testMaxActiveStreamsConnectionSet")))
+				                  .responseContent()
+				                  .aggregate()
+				                  .asString())
+				    .collectList()
+				    .block(Duration.ofSeconds(30));
+
+		assertThat(responses).hasSize(6).containsOnly("testMaxActiveStreamsConnectionSet");
+		// The streams are opened on new connections as the opened connections are all saturated
+		assertThat(connections).hasSizeGreaterThan(1);
 	}
 
 	@Test
@@ -189,6 +263,91 @@ public class Http2Tests {
 		doTestMaxActiveStreams(HttpClient.newConnection(), 2, 2, 0);
 	}
 
+	@Test
+	public void testFlowControlAutoTuning() throws Exception {
+		byte[] content = new byte[4 * 1024 * 1024];
+		ThreadLocalRandom.current().nextBytes(content);
+		disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .protocol(HttpProtocol.H2C)
+				          .handle((req, res) -> res.sendByteArray(Flux.range(0, 64)
+				                                                      .map(i -> Arrays.copyOfRange(content, i * 65536, (i + 1) * 65536))))
+				          .bindNow();
+
+		AtomicReference<Channel> connection = new AtomicReference<>();
+		Integer length =
+				HttpClient.newConnection()
+				          .port(disposableServer.port())
+				          .protocol(HttpProtocol.H2C)
+				          .http2Settings(settings -> settings.maxWindowSize(1024 * 1024))
+				          .doOnResponse((res, conn) -> connection.set(conn.channel().parent()))
+				          .get()
+				          .uri("/")
+				          .responseContent()
+				          .aggregate()
+				          .map(ByteBuf::readableBytes)
+				          .block(Duration.ofSeconds(30));
+
+		assertThat(length).isEqualTo(content.length);
+
+		Channel channel = connection.get();
+		assertThat(channel).isNotNull();
+		Http2Connection http2Connection = channel.pipeline().get(Http2FrameCodec.class).connection();
+		int connectionWindowSize =
+				channel.eventLoop()
+				       .submit(() -> http2Connection.local().flowController().initialWindowSize(http2Connection.connectionStream()))
+				       .get(30, TimeUnit.SECONDS);
+		assertThat(connectionWindowSize).isGreaterThan(Http2CodecUtil.DEFAULT_WINDOW_SIZE)
+		                                .isLessThanOrEqualTo(1024 * 1024);
+
+		channel.close();
+	}
+
+	@Test
+	public void testHeaderCache() {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		Metrics.addRegistry(registry);
+		try {
+			disposableServer =
+					HttpServer.create()
+					          .port(0)
+					          .protocol(HttpProtocol.H2C)
+					          .http2Settings(settings -> settings.headerCacheSize(64)
+					                                             .sensitiveHeaders("Authorization"))
+					          .metrics(true, Function.identity())
+					          .handle((req, res) -> res.sendString(Mono.just(req.requestHeaders().get("x-custom"))))
+					          .bindNow();
+
+			List<String> responses =
+					Flux.range(0, 3)
+					    .concatMap(i ->
+					            HttpClient.create()
+					                      .port(disposableServer.port())
+					                      .protocol(HttpProtocol.H2C)
+					                      .headers(h -> h.add("x-custom", "value")
+					                                     .add(HttpHeaderNames.AUTHORIZATION, "secret"))
+					                      .get()
+					                      .uri("/")
+					                      .responseContent()
+					                      .aggregate()
+					                      .asString())
+					    .collectList()
+					    .block(Duration.ofSeconds(30));
+
+			assertThat(responses).containsExactly("value", "value", "value");
+
+			Counter hits = registry.find("reactor.netty.http.server" + reactor.netty.Metrics.HTTP2_HEADER_CACHE_HITS).counter();
+			assertThat(hits).isNotNull();
+			assertThat(hits.count()).isGreaterThan(0);
+		}
+		finally {
+			Metrics.removeRegistry(registry);
+			registry.clear();
+			registry.close();
+		}
+	}
+
 	public void doTestMaxActiveStreams(HttpClient baseClient, int maxActiveStreams, int expectedOnNext, int expectedOnError) throws Exception {
 		SelfSignedCertificate cert = new SelfSignedCertificate();
 		SslContextBuilder serverCtx = SslContextBuilder.forServer(cert.certificate(), cert.privateKey());
@@ -610,4 +769,152 @@ public class Http2Tests {
 		          .expectErrorMessage(expectedMessage)
 		          .verify(Duration.ofSeconds(30));
 	}
+
+	@Test
+	void testPush() throws Exception {
+		disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .protocol(HttpProtocol.H2C)
+				          .handle((req, res) ->
+				                  res.push("/style.css",
+				                          new DefaultHttpHeaders().set(HttpHeaderNames.CONTENT_TYPE, "text/css"),
+				                          ByteBufFlux.fromString(Mono.just("body {}")))
+				                     .then(res.sendString(Mono.just("Hello")).then()))
+				          .wiretap(true)
+				          .bindNow();
+
+		BlockingQueue<String> frames = h2cExchange(disposableServer.port());
+		assertThat(frames.poll(5, TimeUnit.SECONDS)).isEqualTo("PUSH_PROMISE 3 2 GET /style.css");
+		assertThat(frames.poll(5, TimeUnit.SECONDS)).isEqualTo("HEADERS 2 200 text/css");
+		assertThat(frames.poll(5, TimeUnit.SECONDS)).isEqualTo("DATA 2 body {}");
+		assertThat(frames.poll(5, TimeUnit.SECONDS)).isEqualTo("HEADERS 3 200 null");
+		assertThat(frames.poll(5, TimeUnit.SECONDS)).isEqualTo("DATA 3 Hello");
+	}
+
+	@Test
+	void testPushNotAcceptedByClient() {
+		doTestPushNotPerformed(HttpProtocol.H2C);
+	}
+
+	@Test
+	void testPushOverHttp11() {
+		doTestPushNotPerformed(HttpProtocol.HTTP11);
+	}
+
+	private void doTestPushNotPerformed(HttpProtocol protocol) {
+		ByteBuf content = Unpooled.copiedBuffer("body {}", StandardCharsets.UTF_8);
+		disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .protocol(protocol)
+				          .handle((req, res) ->
+				                  res.push("/style.css", new DefaultHttpHeaders(), Mono.just(content))
+				                     .then(res.sendString(Mono.just("Hello")).then()))
+				          .wiretap(true)
+				          .bindNow();
+
+		HttpClient.create()
+		          .port(disposableServer.port())
+		          .protocol(protocol)
+		          .wiretap(true)
+		          .get()
+		          .uri("/")
+		          .responseContent()
+		          .aggregate()
+		          .asString()
+		          .as(StepVerifier::create)
+		          .expectNext("Hello")
+		          .expectComplete()
+		          .verify(Duration.ofSeconds(30));
+
+		// The content that is not pushed is released
+		assertThat(content.refCnt()).isZero();
+	}
+
+	@Test
+	void testEarlyHints() throws Exception {
+		disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .protocol(HttpProtocol.H2C)
+				          .handle((req, res) ->
+				                  res.sendEarlyHints(new DefaultHttpHeaders().set("link", "</style.css>; rel=preload"))
+				                     .then(res.header(HttpHeaderNames.CONTENT_TYPE, "text/plain")
+				                              .sendString(Mono.just("Hello"))
+				                              .then()))
+				          .wiretap(true)
+				          .bindNow();
+
+		BlockingQueue<String> frames = h2cExchange(disposableServer.port());
+		assertThat(frames.poll(5, TimeUnit.SECONDS)).isEqualTo("HEADERS 3 103 null");
+		assertThat(frames.poll(5, TimeUnit.SECONDS)).isEqualTo("HEADERS 3 200 text/plain");
+		assertThat(frames.poll(5, TimeUnit.SECONDS)).isEqualTo("DATA 3 Hello");
+
+		HttpClient.create()
+		          .port(disposableServer.port())
+		          .protocol(HttpProtocol.H2C)
+		          .wiretap(true)
+		          .get()
+		          .uri("/")
+		          .responseSingle((res, bytes) -> bytes.asString().map(body -> res.status().code() + " " + body))
+		          .as(StepVerifier::create)
+		          .expectNext("200 Hello")
+		          .expectComplete()
+		          .verify(Duration.ofSeconds(30));
+	}
+
+	/**
+	 * Sends a request on the stream 3 of a new HTTP/2 connection, with prior knowledge,
+	 * and records the frames received.
+	 */
+	private static BlockingQueue<String> h2cExchange(int port) {
+		BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+		Http2ConnectionHandler handler =
+				new Http2ConnectionHandlerBuilder()
+				        .server(false)
+				        .frameListener(new Http2FrameAdapter() {
+
+				            @Override
+				            public void onPushPromiseRead(ChannelHandlerContext ctx, int streamId, int promisedStreamId,
+				                    Http2Headers headers, int padding) {
+				                frames.add("PUSH_PROMISE " + streamId + " " + promisedStreamId + " " +
+				                        headers.method() + " " + headers.path());
+				            }
+
+				            @Override
+				            public void onHeadersRead(ChannelHandlerContext ctx, int streamId, Http2Headers headers,
+				                    int streamDependency, short weight, boolean exclusive, int padding, boolean endStream) {
+				                frames.add("HEADERS " + streamId + " " + headers.status() + " " +
+				                        headers.get(HttpHeaderNames.CONTENT_TYPE));
+				            }
+
+				            @Override
+				            public int onDataRead(ChannelHandlerContext ctx, int streamId, ByteBuf data, int padding,
+				                    boolean endOfStream) {
+				                if (data.isReadable()) {
+				                    frames.add("DATA " + streamId + " " + data.toString(StandardCharsets.UTF_8));
+				                }
+				                return data.readableBytes() + padding;
+				            }
+				        })
+				        .build();
+
+		Connection connection =
+				TcpClient.create()
+				         .port(port)
+				         .doOnChannelInit((observer, channel, address) ->
+				                 channel.pipeline().addBefore(NettyPipeline.ReactiveBridge, "h2", handler))
+				         .connectNow();
+		// The frames are consumed by the HTTP/2 handler, the subscription enables the reads
+		connection.inbound().receive().subscribe();
+
+		Http2Headers headers = new DefaultHttp2Headers().method("GET").path("/").scheme("http").authority("localhost");
+		connection.channel().eventLoop().execute(() -> {
+			ChannelHandlerContext ctx = connection.channel().pipeline().context(handler);
+			handler.encoder().writeHeaders(ctx, 3, headers, 0, true, ctx.newPromise());
+			ctx.flush();
+		});
+		return frames;
+	}
 }
@@ -16,15 +16,30 @@
 package reactor.netty.http;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.GZIPInputStream;
-
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
@@ -33,13 +48,17 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.netty.DisposableServer;
 import reactor.netty.SocketUtils;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.ContentEncoderFactory;
 import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerState;
 import reactor.test.StepVerifier;
+import reactor.util.annotation.Nullable;
 import reactor.util.function.Tuple2;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -543,4 +562,210 @@ public class HttpCompressionClientServerTests {
 		server1.disposeNow();
 		server2.disposeNow();
 	}
+
+	@ParameterizedCompressionTest
+	public void serverCompressionSettings(HttpServer server, HttpClient client) throws Exception {
+		disposableServer =
+				server.compress(true)
+				      .compressionSettings(spec -> spec.encoders(ContentEncoderFactory.deflate(), ContentEncoderFactory.gzip())
+				                                       .compressionLevel(1)
+				                                       .compressionLevel("image/", 0))
+				      .route(r -> r.get("/text", (req, res) -> res.header(HttpHeaderNames.CONTENT_TYPE, "text/plain")
+				                                                 .sendString(Flux.just("reply ", "in ", "chunks")))
+				                   .get("/image", (req, res) -> res.header(HttpHeaderNames.CONTENT_TYPE, "image/png")
+				                                                  .sendString(Mono.just("reply"))))
+				      .bindNow(Duration.ofSeconds(10));
+
+		// The server order breaks the tie
+		Tuple2<byte[], HttpHeaders> resp = exchange(client, "/text", "gzip, deflate");
+		assertThat(resp.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("deflate");
+		assertThat(decode(resp)).isEqualTo("reply in chunks");
+
+		resp = exchange(client, "/text", "gzip, deflate;q=0.5");
+		assertThat(resp.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(decode(resp)).isEqualTo("reply in chunks");
+
+		resp = exchange(client, "/text", "br");
+		assertThat(resp.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isNull();
+		assertThat(decode(resp)).isEqualTo("reply in chunks");
+
+		// Compression level 0 for images
+		resp = exchange(client, "/image", "gzip, deflate");
+		assertThat(resp.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isNull();
+		assertThat(decode(resp)).isEqualTo("reply");
+	}
+
+	@ParameterizedCompressionTest
+	public void serverCompressionCache(HttpServer server, HttpClient client) throws Exception {
+		AtomicInteger counter = new AtomicInteger();
+		disposableServer =
+				server.compress(true)
+				      .compressionSettings(spec -> spec.cacheMaxSize(1024 * 1024))
+				      .route(r -> r.get("/cached", (req, res) -> res.compressionCacheKey("/cached")
+				                                                   .sendString(Mono.just("reply " + counter.incrementAndGet())))
+				                   .get("/uncached", (req, res) -> res.sendString(Mono.just("reply " + counter.incrementAndGet()))))
+				      .bindNow(Duration.ofSeconds(10));
+
+		Tuple2<byte[], HttpHeaders> resp = exchange(client, "/cached", "gzip");
+		assertThat(resp.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(resp.getT2().getInt(HttpHeaderNames.CONTENT_LENGTH)).isEqualTo(resp.getT1().length);
+		assertThat(decode(resp)).isEqualTo("reply 1");
+
+		// The compressed body is served from the cache
+		resp = exchange(client, "/cached", "gzip");
+		assertThat(resp.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(decode(resp)).isEqualTo("reply 1");
+
+		// The cache is per content coding
+		resp = exchange(client, "/cached", "deflate");
+		assertThat(resp.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("deflate");
+		assertThat(decode(resp)).isEqualTo("reply 3");
+
+		resp = exchange(client, "/cached", "identity");
+		assertThat(resp.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isNull();
+		assertThat(decode(resp)).isEqualTo("reply 4");
+
+		resp = exchange(client, "/uncached", "gzip");
+		assertThat(resp.getT2().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(decode(resp)).isEqualTo("reply 5");
+	}
+
+	@ParameterizedCompressionTest
+	public void serverDecompression(HttpServer server, HttpClient client) throws Exception {
+		disposableServer =
+				server.decompress(1024)
+				      .httpRequestDecoder(spec -> spec.h2cMaxContentLength(1024))
+				      .handle((in, out) -> out.send(in.receive().aggregate().retain()))
+				      .bindNow(Duration.ofSeconds(10));
+
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			body.append("chunk").append(i);
+		}
+		Tuple2<String, Integer> resp = post(client, gzip(body.toString()), "gzip");
+		assertThat(resp.getT2()).isEqualTo(200);
+		assertThat(resp.getT1()).isEqualTo(body.toString());
+
+		// Not compressed
+		resp = post(client, body.toString().getBytes(Charset.defaultCharset()), null);
+		assertThat(resp.getT2()).isEqualTo(200);
+		assertThat(resp.getT1()).isEqualTo(body.toString());
+
+		// Decompressed body larger than 1024 bytes
+		char[] zeros = new char[100_000];
+		Arrays.fill(zeros, '0');
+		resp = post(client, gzip(new String(zeros)), "gzip");
+		assertThat(resp.getT2()).isEqualTo(413);
+	}
+
+	@ParameterizedCompressionTest
+	public void serverDecompressionFailureIsPropagatedToTheHandler(HttpServer server, HttpClient client) throws Exception {
+		Logger logger = (Logger) LoggerFactory.getLogger("reactor.netty");
+		ListAppender<ILoggingEvent> appender = new ListAppender<>();
+		appender.start();
+		logger.addAppender(appender);
+		try {
+			AtomicReference<Throwable> error = new AtomicReference<>();
+			AtomicReference<HttpServerState> state = new AtomicReference<>();
+			disposableServer =
+					server.decompress(1024)
+					      .httpRequestDecoder(spec -> spec.h2cMaxContentLength(1024))
+					      .childObserve((conn, newState) -> {
+					          if (newState == HttpServerState.REQUEST_DECODING_FAILED) {
+					              state.set((HttpServerState) newState);
+					          }
+					      })
+					      .handle((in, out) -> out.send(in.receive()
+					                                       .aggregate()
+					                                       .retain()
+					                                       .doOnError(error::set)))
+					      .bindNow(Duration.ofSeconds(10));
+
+			char[] zeros = new char[100_000];
+			Arrays.fill(zeros, '0');
+			Tuple2<String, Integer> resp = post(client, gzip(new String(zeros)), "gzip");
+			assertThat(resp.getT2()).isEqualTo(413);
+			assertThat(error.get()).isInstanceOf(TooLongFrameException.class);
+			assertThat(state.get()).isEqualTo(HttpServerState.REQUEST_DECODING_FAILED);
+			assertThat(appender.list).noneMatch(event -> event.getLevel() == Level.ERROR);
+		}
+		finally {
+			logger.detachAppender(appender);
+			appender.stop();
+		}
+	}
+
+	@ParameterizedCompressionTest
+	public void serverDecompressionDisabled(HttpServer server, HttpClient client) throws Exception {
+		disposableServer =
+				server.httpRequestDecoder(spec -> spec.h2cMaxContentLength(1024))
+				      .handle((in, out) -> out.send(in.receive().aggregate().retain()))
+				      .bindNow(Duration.ofSeconds(10));
+
+		byte[] gzipped = gzip("reply");
+		Tuple2<String, Integer> resp = post(client, gzipped, "gzip");
+		assertThat(resp.getT2()).isEqualTo(200);
+		assertThat(resp.getT1()).isEqualTo(new String(gzipped, StandardCharsets.ISO_8859_1));
+	}
+
+	Tuple2<String, Integer> post(HttpClient client, byte[] body, @Nullable String contentEncoding) {
+		Tuple2<String, Integer> resp =
+				client.port(disposableServer.port())
+				      .headers(h -> {
+				          if (contentEncoding != null) {
+				              h.add(HttpHeaderNames.CONTENT_ENCODING, contentEncoding);
+				          }
+				      })
+				      .post()
+				      .uri("/")
+				      .send(Mono.fromCallable(() -> Unpooled.wrappedBuffer(body)))
+				      .responseSingle((res, buf) -> buf.asString(StandardCharsets.ISO_8859_1)
+				                                       .defaultIfEmpty("")
+				                                       .zipWith(Mono.just(res.status().code())))
+				      .block(Duration.ofSeconds(10));
+		assertThat(resp).isNotNull();
+		return resp;
+	}
+
+	static byte[] gzip(String content) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(content.getBytes(Charset.defaultCharset()));
+		}
+		return out.toByteArray();
+	}
+
+	Tuple2<byte[], HttpHeaders> exchange(HttpClient client, String uri, String acceptEncoding) {
+		//don't activate compression on the client options to avoid auto-handling (which removes the header)
+		Tuple2<byte[], HttpHeaders> resp =
+				client.port(disposableServer.port())
+				      .compress(false)
+				      .headers(h -> h.add(HttpHeaderNames.ACCEPT_ENCODING, acceptEncoding))
+				      .get()
+				      .uri(uri)
+				      .responseSingle((res, buf) -> buf.asByteArray()
+				                                       .zipWith(Mono.just(res.responseHeaders())))
+				      .block(Duration.ofSeconds(10));
+		assertThat(resp).isNotNull();
+		return resp;
+	}
+
+	static String decode(Tuple2<byte[], HttpHeaders> resp) throws IOException {
+		String contentEncoding = resp.getT2().get(HttpHeaderNames.CONTENT_ENCODING);
+		InputStream in = new ByteArrayInputStream(resp.getT1());
+		if ("gzip".equals(contentEncoding)) {
+			in = new GZIPInputStream(in);
+		}
+		else if ("deflate".equals(contentEncoding)) {
+			in = new InflaterInputStream(in);
+		}
+		byte[] buf = new byte[1024];
+		int length = 0;
+		int read;
+		while ((read = in.read(buf, length, buf.length - length)) > 0) {
+			length += read;
+		}
+		in.close();
+		return new String(buf, 0, length, Charset.defaultCharset());
+	}
 }
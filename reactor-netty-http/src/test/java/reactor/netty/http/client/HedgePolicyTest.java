@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.client;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.netty.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class HedgePolicyTest {
+
+	@Test
+	public void adaptiveDelay() {
+		HedgePolicy policy =
+				HedgePolicy.builder()
+				           .percentile(0.5)
+				           .minDelay(Duration.ofMillis(5))
+				           .maxDelay(Duration.ofSeconds(1))
+				           .build();
+
+		// The maximum delay is used until enough latencies are measured
+		assertThat(policy.delay()).isEqualTo(Duration.ofSeconds(1));
+		for (int i = 1; i < HedgePolicy.UPDATE_INTERVAL; i++) {
+			policy.record(TimeUnit.MILLISECONDS.toNanos(i * 10));
+		}
+		assertThat(policy.delay()).isEqualTo(Duration.ofSeconds(1));
+
+		policy.record(TimeUnit.MILLISECONDS.toNanos(HedgePolicy.UPDATE_INTERVAL * 10));
+		assertThat(policy.delay()).isEqualTo(Duration.ofMillis(160));
+
+		// The delay follows the latencies of the last responses, bounded by the minimum and the maximum delays
+		for (int i = 0; i < HedgePolicy.SAMPLES; i++) {
+			policy.record(TimeUnit.SECONDS.toNanos(5));
+		}
+		assertThat(policy.delay()).isEqualTo(Duration.ofSeconds(1));
+
+		for (int i = 0; i < HedgePolicy.SAMPLES; i++) {
+			policy.record(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		assertThat(policy.delay()).isEqualTo(Duration.ofMillis(5));
+	}
+
+	@Test
+	public void budget() {
+		HedgePolicy policy = HedgePolicy.builder()
+		                                .budget(0.1)
+		                                .build();
+
+		for (int i = 0; i < HedgePolicy.MAX_BUDGET_BALANCE; i++) {
+			assertThat(policy.tryWithdraw()).isTrue();
+		}
+		assertThat(policy.tryWithdraw()).isFalse();
+
+		for (int i = 0; i < 10; i++) {
+			policy.deposit();
+		}
+		assertThat(policy.tryWithdraw()).isTrue();
+		assertThat(policy.tryWithdraw()).isFalse();
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> HedgePolicy.builder().budget(1.5));
+	}
+
+	@Test
+	public void lateLoserIsDisposed() throws InterruptedException {
+		List<CoreSubscriber<? super Connection>> attempts = new CopyOnWriteArrayList<>();
+		Mono<Connection> request = new Mono<Connection>() {
+			@Override
+			public void subscribe(CoreSubscriber<? super Connection> actual) {
+				// Emits even when cancelled, like a connection established while the request is cancelled
+				actual.onSubscribe(Operators.emptySubscription());
+				attempts.add(actual);
+			}
+		};
+
+		Connection original = Connection.from(new EmbeddedChannel());
+		Connection hedged = Connection.from(new EmbeddedChannel());
+
+		HedgePolicy policy = HedgePolicy.fixedDelay(Duration.ZERO);
+		Mono<Connection> hedge = policy.hedge(request);
+		List<Connection> received = new CopyOnWriteArrayList<>();
+		hedge.subscribe(received::add);
+
+		awaitAttempts(attempts, 2);
+		attempts.get(1).onNext(hedged);
+		attempts.get(0).onNext(original);
+
+		assertThat(received).containsExactly(hedged);
+		assertThat(hedged.channel().isOpen()).isTrue();
+		assertThat(original.channel().isOpen()).isFalse();
+		// Both the latency of the hedged request and the elapsed time of the original request are measured
+		assertThat(policy.count).isEqualTo(2);
+	}
+
+	@Test
+	public void hedgeWhenTheOriginalRequestFails() throws InterruptedException {
+		List<CoreSubscriber<? super Connection>> attempts = new CopyOnWriteArrayList<>();
+		Mono<Connection> request = new Mono<Connection>() {
+			@Override
+			public void subscribe(CoreSubscriber<? super Connection> actual) {
+				actual.onSubscribe(Operators.emptySubscription());
+				attempts.add(actual);
+			}
+		};
+
+		HedgePolicy policy = HedgePolicy.fixedDelay(Duration.ofSeconds(30));
+		List<Throwable> errors = new CopyOnWriteArrayList<>();
+		policy.hedge(request)
+		      .subscribe(null, errors::add);
+
+		// The hedged request is sent at once, the error of the original request is propagated
+		IOException error = new IOException("original");
+		attempts.get(0).onError(error);
+		awaitAttempts(attempts, 2);
+		attempts.get(1).onError(new IOException("hedged"));
+
+		assertThat(errors).containsExactly(error);
+	}
+
+	static void awaitAttempts(List<?> attempts, int count) throws InterruptedException {
+		for (int i = 0; i < 500 && attempts.size() < count; i++) {
+			Thread.sleep(10);
+		}
+		assertThat(attempts).hasSize(count);
+	}
+}
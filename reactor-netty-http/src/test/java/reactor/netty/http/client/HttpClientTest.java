@@ -95,6 +95,7 @@ import reactor.netty.DisposableServer;
 import reactor.netty.FutureMono;
 import reactor.netty.NettyPipeline;
 import reactor.netty.SocketUtils;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.server.HttpServer;
 import reactor.netty.resources.ConnectionPoolMetrics;
 import reactor.netty.resources.ConnectionProvider;
@@ -2641,4 +2642,376 @@ public class HttpClientTest {
 		assertThat(m.get()).isNotNull();
 		assertThat(m.get().idleSize()).isEqualTo(expectation);
 	}
+
+	@Test
+	public void testWarmup() throws Exception {
+		doTestWarmup(false);
+	}
+
+	@Test
+	public void testWarmupHttp2() throws Exception {
+		doTestWarmup(true);
+	}
+
+	private void doTestWarmup(boolean h2) throws Exception {
+		SslContextBuilder serverCtx = null;
+		SslContextBuilder clientCtx = null;
+		if (h2) {
+			SelfSignedCertificate ssc = new SelfSignedCertificate();
+			serverCtx = SslContextBuilder.forServer(ssc.certificate(), ssc.privateKey());
+			clientCtx = SslContextBuilder.forClient()
+			                             .trustManager(InsecureTrustManagerFactory.INSTANCE);
+		}
+
+		AtomicInteger accepted = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(2);
+		HttpServer server =
+				HttpServer.create()
+				          .port(0)
+				          .doOnChannelInit((observer, channel, address) -> {
+				              accepted.incrementAndGet();
+				              latch.countDown();
+				          })
+				          .handle((req, res) -> res.sendString(Mono.just("testWarmup")))
+				          .wiretap(true);
+		if (h2) {
+			SslContextBuilder ctx = serverCtx;
+			server = server.protocol(HttpProtocol.H2)
+			               .secure(spec -> spec.sslContext(ctx));
+		}
+		disposableServer = server.bindNow();
+
+		ConnectionProvider provider =
+				ConnectionProvider.builder("testWarmup")
+				                  .maxConnections(4)
+				                  .minConnections(2)
+				                  .build();
+		HttpClient client = createHttpClientForContextWithAddress(provider);
+		try {
+			if (h2) {
+				SslContextBuilder ctx = clientCtx;
+				client = client.protocol(HttpProtocol.H2)
+				               .secure(spec -> spec.sslContext(ctx));
+			}
+
+			client.warmup()
+			      .block(Duration.ofSeconds(30));
+			assertThat(latch.await(30, TimeUnit.SECONDS)).as("latch 30s").isTrue();
+
+			HttpClient c = client;
+			List<String> responses =
+					Flux.range(0, 2)
+					    .flatMap(i -> c.get()
+					                   .uri("/")
+					                   .responseContent()
+					                   .aggregate()
+					                   .asString())
+					    .collectList()
+					    .block(Duration.ofSeconds(30));
+
+			assertThat(responses).containsExactly("testWarmup", "testWarmup");
+			assertThat(accepted.get()).isEqualTo(2);
+		}
+		finally {
+			// Disposes the HTTP/2 connections too
+			client.configuration()
+			      .connectionProvider()
+			      .disposeLater()
+			      .block(Duration.ofSeconds(30));
+		}
+	}
+
+	@Test
+	public void testHttp2ConnectionProviderSharedPerConnectionProvider() {
+		ConnectionProvider provider = ConnectionProvider.create("testHttp2ConnectionProviderSharedPerConnectionProvider", 1);
+		HttpConnectionProvider first = (HttpConnectionProvider) HttpClient.create(provider).configuration().connectionProvider();
+		HttpConnectionProvider second = (HttpConnectionProvider) HttpClient.create(provider).configuration().connectionProvider();
+
+		ConnectionProvider h2ConnectionProvider = first.getOrCreateH2ConnectionProvider();
+		assertThat(second.getOrCreateH2ConnectionProvider()).isSameAs(h2ConnectionProvider);
+
+		second.disposeLater()
+		      .block(Duration.ofSeconds(30));
+		assertThat(HttpConnectionProvider.h2ConnectionProviders).doesNotContainKey(provider);
+	}
+
+	@Test
+	public void testCoalesceRequests() {
+		AtomicInteger received = new AtomicInteger();
+		disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .handle((req, res) -> {
+				              received.incrementAndGet();
+				              return res.sendString(Mono.just("testCoalesceRequests " + req.requestHeaders().get("X-Tenant"))
+				                                        .delayElement(Duration.ofMillis(500)));
+				          })
+				          .wiretap(true)
+				          .bindNow();
+
+		HttpClient client =
+				createHttpClientForContextWithPort()
+				        .coalesceRequests(true);
+
+		List<String> responses =
+				Flux.range(0, 10)
+				    .flatMap(i -> client.headers(h -> h.set("X-Tenant", i % 2))
+				                        .get()
+				                        .uri("/")
+				                        .responseSingle((res, body) -> body.asString()
+				                                                           .map(s -> res.status().code() + " " + s)))
+				    .collectList()
+				    .block(Duration.ofSeconds(30));
+
+		assertThat(responses).hasSize(10)
+		                     .containsOnly("200 testCoalesceRequests 0", "200 testCoalesceRequests 1");
+		assertThat(received.get()).isEqualTo(2);
+
+		String response =
+				client.headers(h -> h.set("X-Tenant", 0))
+				      .get()
+				      .uri("/")
+				      .responseSingle((res, body) -> body.asString())
+				      .block(Duration.ofSeconds(30));
+
+		assertThat(response).isEqualTo("testCoalesceRequests 0");
+		assertThat(received.get()).isEqualTo(3);
+
+		// The requests with different credentials do not share a response
+		List<String> authorized =
+				Flux.range(0, 2)
+				    .flatMap(i -> client.headers(h -> h.set("X-Tenant", 0).set(HttpHeaderNames.AUTHORIZATION, "Bearer " + i))
+				                        .get()
+				                        .uri("/")
+				                        .responseSingle((res, body) -> body.asString()))
+				    .collectList()
+				    .block(Duration.ofSeconds(30));
+
+		assertThat(authorized).hasSize(2);
+		assertThat(received.get()).isEqualTo(5);
+
+		List<String> posts =
+				Flux.range(0, 2)
+				    .flatMap(i -> client.post()
+				                        .uri("/")
+				                        .responseSingle((res, body) -> body.asString()))
+				    .collectList()
+				    .block(Duration.ofSeconds(30));
+
+		assertThat(posts).hasSize(2);
+		assertThat(received.get()).isEqualTo(7);
+	}
+
+	@Test
+	public void testResponseCache() {
+		AtomicInteger received = new AtomicInteger();
+		disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .route(r -> r.get("/fresh", (req, res) -> {
+				                           received.incrementAndGet();
+				                           return res.header(HttpHeaderNames.CACHE_CONTROL, "max-age=60")
+				                                     .header(HttpHeaderNames.VARY, "Accept-Language")
+				                                     .sendString(Mono.just("fresh " + req.requestHeaders().get("Accept-Language")));
+				                       })
+				                       .post("/fresh", (req, res) -> res.status(HttpResponseStatus.NO_CONTENT).send()))
+				          .wiretap(true)
+				          .bindNow();
+
+		HttpClient client =
+				createHttpClientForContextWithPort()
+				        .cache(spec -> spec.maxSize(1024 * 1024));
+
+		Function<String, Tuple2<String, String>> get = language ->
+				client.headers(h -> h.set("Accept-Language", language))
+				      .get()
+				      .uri("/fresh")
+				      .responseSingle((res, body) -> body.asString()
+				                                         .zipWith(Mono.just(res.responseHeaders().get(HttpHeaderNames.AGE, "none"))))
+				      .block(Duration.ofSeconds(30));
+
+		assertThat(get.apply("en").getT1()).isEqualTo("fresh en");
+		assertThat(received.get()).isEqualTo(1);
+
+		Tuple2<String, String> cached = get.apply("en");
+		assertThat(cached.getT1()).isEqualTo("fresh en");
+		assertThat(cached.getT2()).isEqualTo("0");
+		assertThat(received.get()).isEqualTo(1);
+
+		assertThat(get.apply("fr").getT1()).isEqualTo("fresh fr");
+		assertThat(received.get()).isEqualTo(2);
+
+		client.post()
+		      .uri("/fresh")
+		      .responseSingle((res, body) -> Mono.just(res.status().code()))
+		      .block(Duration.ofSeconds(30));
+
+		assertThat(get.apply("fr").getT1()).isEqualTo("fresh fr");
+		assertThat(received.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void testResponseCacheRevalidation() {
+		AtomicInteger received = new AtomicInteger();
+		AtomicInteger notModified = new AtomicInteger();
+		disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .handle((req, res) -> {
+				              received.incrementAndGet();
+				              res.header(HttpHeaderNames.CACHE_CONTROL, "no-cache")
+				                 .header(HttpHeaderNames.ETAG, "\"v1\"");
+				              if ("\"v1\"".equals(req.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH))) {
+				                  notModified.incrementAndGet();
+				                  return res.status(HttpResponseStatus.NOT_MODIFIED).send();
+				              }
+				              return res.sendString(Mono.just("revalidated"));
+				          })
+				          .wiretap(true)
+				          .bindNow();
+
+		HttpClient client =
+				createHttpClientForContextWithPort()
+				        .cache(spec -> spec.maxSize(1024 * 1024));
+
+		List<String> responses =
+				Flux.range(0, 3)
+				    .concatMap(i -> client.get()
+				                          .uri("/")
+				                          .responseSingle((res, body) -> body.asString()
+				                                                             .map(s -> res.status().code() + " " + s)))
+				    .collectList()
+				    .block(Duration.ofSeconds(30));
+
+		assertThat(responses).containsExactly("200 revalidated", "200 revalidated", "200 revalidated");
+		assertThat(received.get()).isEqualTo(3);
+		assertThat(notModified.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void testHedgeRequests() {
+		AtomicInteger received = new AtomicInteger();
+		disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .handle((req, res) -> {
+				              Duration delay = received.incrementAndGet() == 1 ? Duration.ofSeconds(10) : Duration.ofMillis(300);
+				              return res.sendString(Mono.just("testHedgeRequests " + req.method().name())
+				                                        .delayElement(delay));
+				          })
+				          .wiretap(true)
+				          .bindNow();
+
+		HttpClient client =
+				createHttpClientForContextWithPort()
+				        .hedge(HedgePolicy.fixedDelay(Duration.ofMillis(100)));
+
+		long start = System.nanoTime();
+		String response =
+				client.get()
+				      .uri("/")
+				      .responseSingle((res, body) -> body.asString())
+				      .block(Duration.ofSeconds(30));
+
+		assertThat(response).isEqualTo("testHedgeRequests GET");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+		assertThat(received.get()).isEqualTo(2);
+
+		response =
+				client.post()
+				      .uri("/")
+				      .responseSingle((res, body) -> body.asString())
+				      .block(Duration.ofSeconds(30));
+
+		assertThat(response).isEqualTo("testHedgeRequests POST");
+		assertThat(received.get()).isEqualTo(3);
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> HedgePolicy.builder().percentile(0));
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> HedgePolicy.builder()
+				                             .minDelay(Duration.ofSeconds(2))
+				                             .maxDelay(Duration.ofSeconds(1))
+				                             .build());
+	}
+
+	@Test
+	public void testDeadline() {
+		disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .route(r -> r.get("/slow-headers", (req, res) ->
+				                           res.sendString(Mono.just("slow-headers")
+				                                              .delayElement(Duration.ofSeconds(2))))
+				                       .get("/slow-body", (req, res) ->
+				                           res.sendString(Flux.just("slow", "body")
+				                                              .delayElements(Duration.ofSeconds(2))))
+				                       .get("/fast", (req, res) -> res.sendString(Mono.just("fast"))))
+				          .wiretap(true)
+				          .bindNow();
+
+		ConnectionProvider provider = ConnectionProvider.create("testDeadline", 1);
+		HttpClient client =
+				createHttpClientForContextWithPort(provider)
+				        .deadline(Duration.ofMillis(300));
+
+		StepVerifier.create(client.get()
+		                          .uri("/fast")
+		                          .responseContent()
+		                          .aggregate()
+		                          .asString())
+		            .expectNext("fast")
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		StepVerifier.create(client.get()
+		                          .uri("/slow-headers")
+		                          .responseContent()
+		                          .aggregate()
+		                          .asString())
+		            .expectErrorMatches(t -> t instanceof DeadlineExceededException &&
+		                    t.getMessage().endsWith("before the response"))
+		            .verify(Duration.ofSeconds(1));
+
+		StepVerifier.create(client.get()
+		                          .uri("/slow-body")
+		                          .responseContent()
+		                          .aggregate()
+		                          .asString())
+		            .expectErrorMatches(t -> t instanceof DeadlineExceededException &&
+		                    t.getMessage().endsWith("while receiving the response"))
+		            .verify(Duration.ofSeconds(1));
+
+		StepVerifier.create(client.deadline(Duration.ofSeconds(10))
+		                          .get()
+		                          .uri("/slow-headers")
+		                          .responseContent()
+		                          .aggregate()
+		                          .asString()
+		                          .zipWith(client.get()
+		                                         .uri("/fast")
+		                                         .responseContent()
+		                                         .aggregate()
+		                                         .asString()
+		                                         .onErrorResume(DeadlineExceededException.class,
+		                                                 t -> Mono.just(t.getMessage()))))
+		            .expectNextMatches(t -> "slow-headers".equals(t.getT1()) &&
+		                    t.getT2().endsWith("while acquiring the connection"))
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		StepVerifier.create(client.request(HttpMethod.GET)
+		                          .uri("/slow-headers")
+		                          .send((req, out) -> {
+		                              req.deadline(Duration.ofSeconds(10));
+		                              return out;
+		                          })
+		                          .responseSingle((res, body) -> body.asString()))
+		            .expectNext("slow-headers")
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		provider.disposeLater()
+		        .block(Duration.ofSeconds(5));
+	}
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.util.Date;
+import java.util.List;
+
+import io.netty.handler.codec.DateFormatter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ByteRangeTest {
+
+	@Test
+	public void parseRanges() {
+		assertThat(ranges("bytes=0-499", 1000)).containsExactly("0-499");
+		assertThat(ranges("bytes=500-", 1000)).containsExactly("500-999");
+		assertThat(ranges("bytes=-100", 1000)).containsExactly("900-999");
+		assertThat(ranges("bytes=-2000", 1000)).containsExactly("0-999");
+		assertThat(ranges("bytes=900-1999", 1000)).containsExactly("900-999");
+		assertThat(ranges("bytes=0-0, 10-19 ,-1", 1000)).containsExactly("0-0", "10-19", "999-999");
+		// Unsatisfiable ranges are dropped
+		assertThat(ranges("bytes=0-9,2000-", 1000)).containsExactly("0-9");
+	}
+
+	@Test
+	public void overlappingRangesAreCoalesced() {
+		assertThat(ranges("bytes=0-9,5-19", 1000)).containsExactly("0-19");
+		assertThat(ranges("bytes=500-,0-9,10-19", 1000)).containsExactly("0-19", "500-999");
+		assertThat(ranges("bytes=0-,0-,0-", 1000)).containsExactly("0-999");
+		assertThat(ranges("bytes=-100,0-9", 1000)).containsExactly("900-999", "0-9");
+	}
+
+	@Test
+	public void unsatisfiableRanges() {
+		assertThat(ByteRange.parse("bytes=1000-", 1000)).isEmpty();
+		assertThat(ByteRange.parse("bytes=-0", 1000)).isEmpty();
+		assertThat(ByteRange.parse("bytes=0-", 0)).isEmpty();
+	}
+
+	@Test
+	public void invalidRangesAreIgnored() {
+		assertThat(ByteRange.parse("items=0-9", 1000)).isNull();
+		assertThat(ByteRange.parse("bytes=9-0", 1000)).isNull();
+		assertThat(ByteRange.parse("bytes=a-b", 1000)).isNull();
+		assertThat(ByteRange.parse("bytes=10", 1000)).isNull();
+		assertThat(ByteRange.parse("bytes=0-0,1-1,2-2,3-3,4-4,5-5,6-6,7-7,8-8,9-9,10-10,11-11,12-12,13-13,14-14,15-15,16-16", 1000))
+				.isNull();
+	}
+
+	@Test
+	public void ifRange() {
+		long lastModified = 1_600_000_000_123L;
+		String date = DateFormatter.format(new Date(lastModified));
+		assertThat(ByteRange.ifRange(null, "\"a\"", lastModified)).isTrue();
+		assertThat(ByteRange.ifRange("\"a\"", "\"a\"", lastModified)).isTrue();
+		assertThat(ByteRange.ifRange("\"b\"", "\"a\"", lastModified)).isFalse();
+		assertThat(ByteRange.ifRange("W/\"a\"", "\"a\"", lastModified)).isFalse();
+		assertThat(ByteRange.ifRange(date, "\"a\"", lastModified)).isTrue();
+		assertThat(ByteRange.ifRange(DateFormatter.format(new Date(lastModified - 1000)), "\"a\"", lastModified)).isFalse();
+	}
+
+	static String[] ranges(String range, long size) {
+		List<ByteRange> ranges = ByteRange.parse(range, size);
+		assertThat(ranges).isNotNull();
+		return ranges.stream().map(ByteRange::toString).toArray(String[]::new);
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeflaterEncoderTest {
+
+	@Test
+	public void gzip() throws IOException {
+		byte[] encoded = encode(new EmbeddedChannel(ContentEncoderFactory.gzip().newEncoder(6)), "Hello ", "World", "!");
+		assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(encoded)))).isEqualTo("Hello World!");
+	}
+
+	@Test
+	public void deflate() throws IOException {
+		byte[] encoded = encode(new EmbeddedChannel(ContentEncoderFactory.deflate().newEncoder(1)), "Hello ", "World", "!");
+		assertThat(decode(new InflaterInputStream(new ByteArrayInputStream(encoded)))).isEqualTo("Hello World!");
+	}
+
+	@Test
+	public void emptyContent() throws IOException {
+		byte[] encoded = encode(new EmbeddedChannel(ContentEncoderFactory.gzip().newEncoder(6)));
+		assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(encoded)))).isEmpty();
+	}
+
+	@Test
+	public void deflatersArePooled() throws IOException {
+		DeflaterEncoder.GZIP_DEFLATERS.remove();
+		DeflaterEncoder first = new DeflaterEncoder(true, 9);
+		encode(new EmbeddedChannel(first), "Hello World!");
+		assertThat(DeflaterEncoder.GZIP_DEFLATERS.get()).containsExactly(first.deflater);
+
+		DeflaterEncoder second = new DeflaterEncoder(true, 1);
+		assertThat(second.deflater).isSameAs(first.deflater);
+		assertThat(DeflaterEncoder.GZIP_DEFLATERS.get()).isEmpty();
+		byte[] encoded = encode(new EmbeddedChannel(second), "Hello World!");
+		assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(encoded)))).isEqualTo("Hello World!");
+
+		for (int i = 0; i < DeflaterEncoder.MAX_POOLED_DEFLATERS + 1; i++) {
+			DeflaterEncoder.release(new Deflater(6, true), true);
+		}
+		assertThat(DeflaterEncoder.GZIP_DEFLATERS.get()).hasSize(DeflaterEncoder.MAX_POOLED_DEFLATERS);
+		DeflaterEncoder.GZIP_DEFLATERS.remove();
+	}
+
+	static byte[] encode(EmbeddedChannel channel, String... chunks) {
+		for (String chunk : chunks) {
+			channel.writeOutbound(Unpooled.copiedBuffer(chunk, StandardCharsets.UTF_8));
+		}
+		channel.finish();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteBuf buf;
+		while ((buf = channel.readOutbound()) != null) {
+			byte[] bytes = new byte[buf.readableBytes()];
+			buf.readBytes(bytes);
+			out.write(bytes, 0, bytes.length);
+			buf.release();
+		}
+		return out.toByteArray();
+	}
+
+	static String decode(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buf = new byte[1024];
+		int read;
+		while ((read = in.read(buf)) != -1) {
+			out.write(buf, 0, read);
+		}
+		in.close();
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.netty.http.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpRouteIndexTest {
+
+	@Test
+	public void literalAndParameterizedRoutes() {
+		BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> comments = handler();
+		BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> comment = handler();
+		BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> author = handler();
+		HttpRouteIndex index = index(HttpServerRoutes.newRoutes()
+		                                             .get("/comments", comments)
+		                                             .get("/comments/{id}", comment)
+		                                             .get("/comments/{id}/author", author));
+
+		assertThat(find(index, HttpMethod.GET, "/comments")).isSameAs(comments);
+		assertThat(find(index, HttpMethod.GET, "/comments/1")).isSameAs(comment);
+		assertThat(find(index, HttpMethod.GET, "/comments/1?q=reactor")).isSameAs(comment);
+		assertThat(find(index, HttpMethod.GET, "/comments/1/author")).isSameAs(author);
+		assertThat(find(index, HttpMethod.GET, "/comments/1/author/2")).isNull();
+		assertThat(find(index, HttpMethod.GET, "/tags/1")).isNull();
+		assertThat(find(index, HttpMethod.POST, "/comments")).isNull();
+
+		HttpRouteIndex.Route route = index.find(HttpMethod.GET, HttpVersion.HTTP_1_1, "/comments/v1.0/author");
+		assertThat(route).isNotNull();
+		assertThat(route.template.match("/comments/v1.0/author")).containsEntry("id", "v1.0")
+		                                                  .hasSize(1);
+	}
+
+	@Test
+	public void splatRoutes() {
+		BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> all = handler();
+		BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> rest = handler();
+		HttpRouteIndex index = index(HttpServerRoutes.newRoutes()
+		                                             .get("/static/{rest}**", rest)
+		                                             .get("/**", all));
+
+		assertThat(find(index, HttpMethod.GET, "/static")).isSameAs(all);
+		assertThat(find(index, HttpMethod.GET, "/static/")).isSameAs(rest);
+		assertThat(find(index, HttpMethod.GET, "/static/css/main.css")).isSameAs(rest);
+		assertThat(find(index, HttpMethod.GET, "/")).isSameAs(all);
+
+		HttpRouteIndex.Route route = index.find(HttpMethod.GET, HttpVersion.HTTP_1_1, "/static/css/main.css?v=1");
+		assertThat(route).isNotNull();
+		assertThat(route.template.match("/static/css/main.css?v=1")).containsEntry("rest", "css/main.css");
+	}
+
+	@Test
+	public void manyLiteralSiblings() {
+		HttpServerRoutes routes = HttpServerRoutes.newRoutes();
+		List<BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>>> handlers = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> handler = handler();
+			handlers.add(handler);
+			routes.get("/resource" + i + "/{id}", handler);
+		}
+		BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> dotted = handler();
+		routes.get("/resource.1/{id}", dotted);
+		HttpRouteIndex index = index(routes);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(find(index, HttpMethod.GET, "/resource" + i + "/1")).isSameAs(handlers.get(i));
+		}
+		assertThat(find(index, HttpMethod.GET, "/resourceX1/1")).isSameAs(dotted);
+		assertThat(find(index, HttpMethod.GET, "/resource100/1")).isNull();
+	}
+
+	@Test
+	public void declarationOrderIsPreserved() {
+		BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> first = handler();
+		BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> second = handler();
+		BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> third = handler();
+		HttpRouteIndex index = index(HttpServerRoutes.newRoutes()
+		                                             .get("/{collection}/1", first)
+		                                             .get("/comments/{id}", second)
+		                                             .get("/comments/1", third));
+
+		assertThat(find(index, HttpMethod.GET, "/comments/1")).isSameAs(first);
+		assertThat(find(index, HttpMethod.GET, "/comments/2")).isSameAs(second);
+	}
+
+	@Test
+	public void protocolIsMatched() {
+		BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> http10 = handler();
+		BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> any = handler();
+		HttpRouteIndex index = index(HttpServerRoutes.newRoutes()
+		                                             .route(HttpPredicate.http("/test", HttpVersion.HTTP_1_0, HttpMethod.GET), http10)
+		                                             .get("/test", any));
+
+		assertThat(index.find(HttpMethod.GET, HttpVersion.HTTP_1_0, "/test").handler.handler).isSameAs(http10);
+		assertThat(index.find(HttpMethod.GET, HttpVersion.HTTP_1_1, "/test").handler.handler).isSameAs(any);
+	}
+
+	@Test
+	public void nonIndexedRoutesAreKeptInOrder() {
+		HttpRouteIndex index = index(HttpServerRoutes.newRoutes()
+		                                             .route(req -> true, handler())
+		                                             .get("/test/(a|b)", handler())
+		                                             .get("/test/*", handler())
+		                                             .get("/test/{id}.json", handler())
+		                                             .get("/test/**/last", handler())
+		                                             .get("/test", handler()));
+
+		assertThat(index.size).isEqualTo(6);
+		assertThat(index.fallbackOrdinals).containsExactly(0, 1, 2, 3, 4);
+		assertThat(find(index, HttpMethod.GET, "/test")).isNotNull();
+	}
+
+	static HttpRouteIndex index(HttpServerRoutes routes) {
+		return ((DefaultHttpServerRoutes) routes).index();
+	}
+
+	static BiFunction<? super HttpServerRequest, ? super HttpServerResponse, ? extends Publisher<Void>> find(
+			HttpRouteIndex index, HttpMethod method, String uri) {
+		HttpRouteIndex.Route route = index.find(method, HttpVersion.HTTP_1_1, uri);
+		return route != null ? route.handler.handler : null;
+	}
+
+	static BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> handler() {
+		return (req, res) -> Mono.empty();
+	}
+}
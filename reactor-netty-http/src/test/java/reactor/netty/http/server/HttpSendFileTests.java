@@ -17,6 +17,7 @@
 package reactor.netty.http.server;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
@@ -31,6 +32,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.time.Duration;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -39,11 +41,15 @@ import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Level;
+import java.util.zip.GZIPOutputStream;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
 import org.junit.jupiter.api.Test;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
@@ -53,6 +59,9 @@ import reactor.core.publisher.SignalType;
 import reactor.netty.DisposableServer;
 import reactor.netty.NettyOutbound;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -280,6 +289,249 @@ public class HttpSendFileTests {
 		bodyAssertion.accept(body);
 	}
 
+	@Test
+	public void sendPrecompressedFile() throws IOException {
+		Path directory = Files.createTempDirectory(null);
+		Path file = directory.resolve("test.txt");
+		Path variant = directory.resolve("test.txt.gz");
+		Files.write(file, "identity".getBytes(StandardCharsets.UTF_8));
+		try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(variant))) {
+			out.write("precompressed".getBytes(StandardCharsets.UTF_8));
+		}
+		Files.setLastModifiedTime(variant, Files.getLastModifiedTime(file));
+
+		StaticFileHandler staticFiles =
+				new StaticFileHandler(new StaticFileCache(16, 1024 * 1024), new CompressedFileCache(1024 * 1024), true);
+		DefaultHttpServerRoutes routes = new DefaultHttpServerRoutes(staticFiles);
+		DisposableServer context =
+				customizeServerOptions(HttpServer.create())
+				          .handle(routes.directory("/static", directory))
+				          .wiretap(true)
+				          .bindNow();
+
+		try {
+			assertThat(get(context, "/static/test.txt", true)).isEqualTo("precompressed");
+			assertThat(get(context, "/static/test.txt", false)).isEqualTo("identity");
+
+			// The variant is older than the file
+			Files.setLastModifiedTime(variant, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() - 1000));
+			assertThat(get(context, "/static/test.txt", true)).isEqualTo("identity");
+		}
+		finally {
+			context.disposeNow();
+			Files.delete(variant);
+			Files.delete(file);
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void sendCompressedFileFromCache() throws IOException, URISyntaxException {
+		Path largeFile = Paths.get(getClass().getResource("/largeFile.txt").toURI());
+		long lastModified = Files.getLastModifiedTime(largeFile).toMillis();
+		long fileSize = Files.size(largeFile);
+
+		DefaultHttpServerRoutes routes = (DefaultHttpServerRoutes) HttpServerRoutes.newRoutes();
+		DisposableServer context =
+				customizeServerOptions(HttpServer.create())
+				          .compress(true)
+				          .handle(routes.file("/foo", largeFile))
+				          .wiretap(true)
+				          .bindNow();
+
+		try {
+			for (int i = 0; i < 2; i++) {
+				assertThat(get(context, "/foo", true)).startsWith("This is an UTF-8 file that is larger than 1024 bytes.")
+				                                      .endsWith("End of File");
+				ByteBuf cached = routes.staticFiles.compressedFiles.get(largeFile, lastModified, fileSize);
+				assertThat(cached).isNotNull();
+				cached.release();
+			}
+		}
+		finally {
+			context.disposeNow();
+		}
+	}
+
+	@Test
+	public void sendFileCompressedOnTheFly() throws URISyntaxException {
+		Path largeFile = Paths.get(getClass().getResource("/largeFile.txt").toURI());
+
+		// The file is too large to be held in the compressed file cache
+		StaticFileHandler staticFiles =
+				new StaticFileHandler(new StaticFileCache(16, 0), new CompressedFileCache(16), false);
+		DefaultHttpServerRoutes routes = new DefaultHttpServerRoutes(staticFiles);
+		DisposableServer context =
+				customizeServerOptions(HttpServer.create())
+				          .compress(true)
+				          .handle(routes.file("/foo", largeFile))
+				          .wiretap(true)
+				          .bindNow();
+
+		try {
+			Tuple2<HttpClientResponse, String> identity = exchange(context, "/foo", h -> {});
+			String etag = identity.getT1().responseHeaders().get(HttpHeaderNames.ETAG);
+			assertThat(etag).startsWith("\"");
+			assertThat(identity.getT1().responseHeaders().getAll(HttpHeaderNames.VARY))
+					.containsExactly(HttpHeaderNames.ACCEPT_ENCODING.toString());
+
+			Tuple2<HttpClientResponse, String> encoded = exchange(context, "/foo",
+					h -> h.set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP));
+			assertThat(encoded.getT1().responseHeaders().get(HttpHeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+			assertThat(encoded.getT1().responseHeaders().get(HttpHeaderNames.ETAG)).isEqualTo("W/" + etag);
+			assertThat(encoded.getT1().responseHeaders().getAll(HttpHeaderNames.VARY))
+					.containsExactly(HttpHeaderNames.ACCEPT_ENCODING.toString());
+
+			// The weak entity tag is compared with the weak comparison
+			assertThat(exchange(context, "/foo", h -> h.set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP)
+			                                           .set(HttpHeaderNames.IF_NONE_MATCH, "W/" + etag))
+					.getT1().status()).isEqualTo(HttpResponseStatus.NOT_MODIFIED);
+		}
+		finally {
+			context.disposeNow();
+		}
+	}
+
+	@Test
+	public void sendFileConditionalAndRange() throws IOException {
+		Path directory = Files.createTempDirectory(null);
+		Path file = directory.resolve("range.txt");
+		Files.write(file, "0123456789".getBytes(StandardCharsets.UTF_8));
+
+		DisposableServer context =
+				customizeServerOptions(HttpServer.create())
+				          .route(r -> r.directory("/static", directory))
+				          .wiretap(true)
+				          .bindNow();
+
+		try {
+			Tuple2<HttpClientResponse, String> full = exchange(context, "/static/range.txt", h -> {});
+			assertThat(full.getT1().status()).isEqualTo(HttpResponseStatus.OK);
+			assertThat(full.getT2()).isEqualTo("0123456789");
+			assertThat(full.getT1().responseHeaders().get(HttpHeaderNames.ACCEPT_RANGES)).isEqualTo("bytes");
+			String etag = full.getT1().responseHeaders().get(HttpHeaderNames.ETAG);
+			String lastModified = full.getT1().responseHeaders().get(HttpHeaderNames.LAST_MODIFIED);
+			assertThat(etag).isNotNull();
+			assertThat(lastModified).isNotNull();
+
+			assertThat(exchange(context, "/static/range.txt", h -> h.set(HttpHeaderNames.IF_NONE_MATCH, etag))
+					.getT1().status()).isEqualTo(HttpResponseStatus.NOT_MODIFIED);
+			assertThat(exchange(context, "/static/range.txt", h -> h.set(HttpHeaderNames.IF_NONE_MATCH, "\"other\""))
+					.getT1().status()).isEqualTo(HttpResponseStatus.OK);
+			assertThat(exchange(context, "/static/range.txt", h -> h.set(HttpHeaderNames.IF_MODIFIED_SINCE, lastModified))
+					.getT1().status()).isEqualTo(HttpResponseStatus.NOT_MODIFIED);
+
+			Tuple2<HttpClientResponse, String> range = exchange(context, "/static/range.txt", h -> h.set(HttpHeaderNames.RANGE, "bytes=2-5"));
+			assertThat(range.getT1().status()).isEqualTo(HttpResponseStatus.PARTIAL_CONTENT);
+			assertThat(range.getT1().responseHeaders().get(HttpHeaderNames.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+			assertThat(range.getT2()).isEqualTo("2345");
+
+			assertThat(exchange(context, "/static/range.txt", h -> h.set(HttpHeaderNames.RANGE, "bytes=-3")).getT2())
+					.isEqualTo("789");
+			assertThat(exchange(context, "/static/range.txt", h -> h.set(HttpHeaderNames.RANGE, "bytes=20-"))
+					.getT1().status()).isEqualTo(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+
+			Tuple2<HttpClientResponse, String> ranges = exchange(context, "/static/range.txt", h -> h.set(HttpHeaderNames.RANGE, "bytes=0-1,8-"));
+			assertThat(ranges.getT1().status()).isEqualTo(HttpResponseStatus.PARTIAL_CONTENT);
+			assertThat(ranges.getT1().responseHeaders().get(HttpHeaderNames.CONTENT_TYPE)).startsWith("multipart/byteranges; boundary=");
+			assertThat(ranges.getT2()).contains("content-range: bytes 0-1/10\r\n\r\n01\r\n--")
+			                          .contains("content-range: bytes 8-9/10\r\n\r\n89\r\n--");
+
+			// The cached metadata and content are validated on each request
+			Files.write(file, "abcdefghij".getBytes(StandardCharsets.UTF_8));
+			assertThat(get(context, "/static/range.txt", true)).isEqualTo("abcdefghij");
+			assertThat(exchange(context, "/static/range.txt", h -> h.set(HttpHeaderNames.IF_NONE_MATCH, etag))
+					.getT1().status()).isEqualTo(HttpResponseStatus.OK);
+
+			assertThat(exchange(context, "/static/missing.txt", h -> {}).getT1().status())
+					.isEqualTo(HttpResponseStatus.NOT_FOUND);
+		}
+		finally {
+			context.disposeNow();
+			Files.delete(file);
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void sendFileRange() throws URISyntaxException, IOException {
+		Path largeFile = Paths.get(getClass().getResource("/largeFile.txt").toURI());
+		long fileSize = Files.size(largeFile);
+		String content = new String(Files.readAllBytes(largeFile), StandardCharsets.UTF_8);
+
+		DisposableServer context =
+				customizeServerOptions(HttpServer.create())
+				          .compress(true)
+				          .handle((req, resp) -> resp.header(HttpHeaderNames.CONTENT_TYPE, "text/plain")
+				                                     .sendFileRange(largeFile))
+				          .wiretap(true)
+				          .bindNow();
+
+		try {
+			Tuple2<HttpClientResponse, String> single = exchange(context, "/foo", h -> h.set(HttpHeaderNames.RANGE, "bytes=1020-"));
+			assertThat(single.getT1().status()).isEqualTo(HttpResponseStatus.PARTIAL_CONTENT);
+			assertThat(single.getT1().responseHeaders().get(HttpHeaderNames.CONTENT_RANGE))
+					.isEqualTo("bytes 1020-" + (fileSize - 1) + "/" + fileSize);
+			assertThat(single.getT2()).startsWith("e -><- 1024 mark here")
+			                          .endsWith("End of File");
+
+			// A range of the compressed content cannot be served, the range is sent as is
+			Tuple2<HttpClientResponse, String> identity = exchange(context, "/foo",
+					h -> h.set(HttpHeaderNames.RANGE, "bytes=0-3").set(HttpHeaderNames.ACCEPT_ENCODING, "gzip"));
+			assertThat(identity.getT1().status()).isEqualTo(HttpResponseStatus.PARTIAL_CONTENT);
+			assertThat(identity.getT1().responseHeaders().get(HttpHeaderNames.CONTENT_ENCODING)).isNull();
+			assertThat(identity.getT2()).isEqualTo("This");
+
+			Tuple2<HttpClientResponse, String> multi = exchange(context, "/foo", h -> h.set(HttpHeaderNames.RANGE, "bytes=0-3, -11"));
+			assertThat(multi.getT1().status()).isEqualTo(HttpResponseStatus.PARTIAL_CONTENT);
+			String contentType = multi.getT1().responseHeaders().get(HttpHeaderNames.CONTENT_TYPE);
+			assertThat(contentType).startsWith("multipart/byteranges; boundary=");
+			String boundary = contentType.substring("multipart/byteranges; boundary=".length());
+			assertThat(multi.getT2()).isEqualTo(
+					"\r\n--" + boundary + "\r\ncontent-type: text/plain\r\ncontent-range: bytes 0-3/" + fileSize + "\r\n\r\nThis" +
+					"\r\n--" + boundary + "\r\ncontent-type: text/plain\r\ncontent-range: bytes " + (fileSize - 11) + "-" + (fileSize - 1) + "/" + fileSize + "\r\n\r\nEnd of File" +
+					"\r\n--" + boundary + "--\r\n");
+			assertThat(multi.getT1().responseHeaders().getInt(HttpHeaderNames.CONTENT_LENGTH))
+					.isEqualTo(multi.getT2().getBytes(StandardCharsets.UTF_8).length);
+
+			// The If-Range precondition does not hold, the whole file is sent
+			Tuple2<HttpClientResponse, String> full = exchange(context, "/foo",
+					h -> h.set(HttpHeaderNames.RANGE, "bytes=0-3").set(HttpHeaderNames.IF_RANGE, "\"other\""));
+			assertThat(full.getT1().status()).isEqualTo(HttpResponseStatus.OK);
+			assertThat(full.getT2()).isEqualTo(content);
+
+			assertThat(exchange(context, "/foo", h -> h.set(HttpHeaderNames.RANGE, "bytes=" + fileSize + "-"))
+					.getT1().status()).isEqualTo(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+		}
+		finally {
+			context.disposeNow();
+		}
+	}
+
+	private Tuple2<HttpClientResponse, String> exchange(DisposableServer context, String uri, Consumer<HttpHeaders> headers) {
+		return customizeClientOptions(HttpClient.create()
+		                                        .remoteAddress(context::address)
+		                                        .headers(headers))
+		          .wiretap(true)
+		          .get()
+		          .uri(uri)
+		          .responseSingle((res, byteBufMono) -> byteBufMono.asString(StandardCharsets.UTF_8)
+		                                                          .defaultIfEmpty("")
+		                                                          .map(body -> Tuples.of(res, body)))
+		          .block(Duration.ofSeconds(5));
+	}
+
+	private String get(DisposableServer context, String uri, boolean compression) {
+		return customizeClientOptions(HttpClient.create()
+		                                        .remoteAddress(context::address)
+		                                        .compress(compression))
+		          .wiretap(true)
+		          .get()
+		          .uri(uri)
+		          .responseSingle((res, byteBufMono) -> byteBufMono.asString(StandardCharsets.UTF_8))
+		          .block(Duration.ofSeconds(5));
+	}
+
 	@Test
 	public void sendFileAsync4096() throws IOException, URISyntaxException {
 		doTestSendFileAsync((req, resp) -> resp.sendByteArray(req.receive()
@@ -56,6 +56,7 @@ import io.netty.channel.unix.DomainSocketAddress;
 import io.netty.handler.codec.LineBasedFrameDecoder;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.DefaultHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpClientCodec;
@@ -67,6 +68,7 @@ import io.netty.handler.codec.http.HttpMessage;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpObjectDecoder;
 import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.HttpVersion;
@@ -475,6 +477,35 @@ public class HttpServerTests {
 		assertThat(code).isEqualTo(404);
 	}
 
+	@Test
+	public void routesAreSelectedInOrderOfDeclaration() {
+		disposableServer = HttpServer.create()
+		                             .port(0)
+		                             .route(routes ->
+		                                     routes.get("/users/{id}/name", (req, resp) -> resp.sendString(Mono.just("name " + req.param("id"))))
+		                                           .route(req -> req.uri().startsWith("/users/admin"), (req, resp) -> resp.sendString(Mono.just("admin")))
+		                                           .get("/users/{id}", (req, resp) -> resp.sendString(Mono.just("user " + req.param("id"))))
+		                                           .get("/files/{path}**", (req, resp) -> resp.sendString(Mono.just("file " + req.param("path")))))
+		                             .wiretap(true)
+		                             .bindNow();
+
+		HttpClient client = HttpClient.create()
+		                              .port(disposableServer.port())
+		                              .wiretap(true);
+
+		assertThat(client.get().uri("/users/1/name").responseContent().aggregate().asString().block()).isEqualTo("name 1");
+		assertThat(client.get().uri("/users/admin/name").responseContent().aggregate().asString().block()).isEqualTo("name admin");
+		assertThat(client.get().uri("/users/admin").responseContent().aggregate().asString().block()).isEqualTo("admin");
+		assertThat(client.get().uri("/users/2?q=1").responseContent().aggregate().asString().block()).isEqualTo("user 2");
+		assertThat(client.get().uri("/files/a/b.txt").responseContent().aggregate().asString().block()).isEqualTo("file a/b.txt");
+
+		Integer code = client.post()
+		                     .uri("/users/1")
+		                     .responseSingle((res, buf) -> Mono.just(res.status().code()))
+		                     .block();
+		assertThat(code).isEqualTo(404);
+	}
+
 	@Test
 	public void startRouterAndAwait() throws InterruptedException {
 		ExecutorService ex = Executors.newSingleThreadExecutor();
@@ -1997,6 +2028,7 @@ public class HttpServerTests {
 				Connection.from(channel),
 				ConnectionObserver.emptyListener(),
 				null,
+				null,
 				new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/"),
 				null,
 				ServerCookieEncoder.STRICT,
@@ -2316,4 +2348,102 @@ public class HttpServerTests {
 		      .expectErrorMatches(t -> t instanceof IOException || t instanceof AbortedException)
 		      .verify(Duration.ofSeconds(30));
 	}
+
+	@Test
+	public void testEarlyHints() {
+		disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .compress(true)
+				          .handle((req, res) ->
+				                  res.sendEarlyHints(new DefaultHttpHeaders().set("link", "</style.css>; rel=preload"))
+				                     .then(res.sendString(Mono.just("Hello")).then()))
+				          .wiretap(true)
+				          .bindNow();
+
+		DefaultFullHttpRequest request =
+				new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/", Unpooled.EMPTY_BUFFER);
+		request.headers()
+		       .set(HttpHeaderNames.HOST, "localhost")
+		       .set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP);
+
+		Connection client =
+				TcpClient.create()
+				         .port(disposableServer.port())
+				         .wiretap(true)
+				         .connectNow();
+		client.addHandlerFirst(new HttpClientCodec());
+
+		client.outbound()
+		      .sendObject(Mono.just(request))
+		      .then()
+		      .thenMany(client.inbound()
+		                      .receiveObject()
+		                      .ofType(HttpResponse.class)
+		                      .map(res -> res.status().code() + " " + res.headers().get("link") + " " +
+		                              res.headers().get(HttpHeaderNames.CONTENT_ENCODING))
+		                      .take(2))
+		      .as(StepVerifier::create)
+		      .expectNext("103 </style.css>; rel=preload null")
+		      .expectNext("200 null gzip")
+		      .expectComplete()
+		      .verify(Duration.ofSeconds(30));
+
+		client.disposeNow();
+	}
+
+	@Test
+	public void testEarlyHintsHeadAndPipelinedRequests() {
+		disposableServer =
+				HttpServer.create()
+				          .port(0)
+				          .handle((req, res) ->
+				                  res.sendEarlyHints(new DefaultHttpHeaders().set("link", "</style.css>; rel=preload"))
+				                     .then(res.sendString(Mono.just("Hello")).then()))
+				          .wiretap(true)
+				          .bindNow();
+
+		Connection client =
+				TcpClient.create()
+				         .port(disposableServer.port())
+				         .wiretap(true)
+				         .connectNow();
+
+		String text =
+				client.outbound()
+				      .sendString(Mono.just("HEAD / HTTP/1.1\r\nHost: localhost\r\n\r\n" +
+				                            "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n"))
+				      .then()
+				      .thenMany(client.inbound()
+				                      .receive()
+				                      .asString()
+				                      .scan(String::concat)
+				                      .takeUntil(received -> received.lastIndexOf("HTTP/1.1 200 OK") >
+				                              received.indexOf("HTTP/1.1 200 OK") && received.endsWith("Hello")))
+				      .blockLast(Duration.ofSeconds(30));
+
+		client.disposeNow();
+
+		// The response to the HEAD request has no content, the interim responses are not paired
+		// with the methods of the requests
+		assertThat(text).startsWith("HTTP/1.1 103 Early Hints\r\nlink: </style.css>; rel=preload\r\n\r\n" +
+				"HTTP/1.1 200 OK\r\n");
+		String head = text.substring(text.indexOf("\r\n\r\n", text.indexOf("HTTP/1.1 200 OK")) + 4);
+		assertThat(head).startsWith("HTTP/1.1 103 Early Hints\r\n")
+		                .endsWith("\r\n\r\nHello");
+
+		// The interim response received for the HEAD request does not leave the client waiting for content
+		HttpClient.create()
+		          .port(disposableServer.port())
+		          .wiretap(true)
+		          .head()
+		          .uri("/")
+		          .responseSingle((res, bytes) -> bytes.asString()
+		                                               .defaultIfEmpty("")
+		                                               .map(body -> res.status().code() + " " + body))
+		          .as(StepVerifier::create)
+		          .expectNext("200 ")
+		          .expectComplete()
+		          .verify(Duration.ofSeconds(30));
+	}
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011-Present VMware, Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.netty.http.server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.netty.http.server.StaticFileCache.StaticFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StaticFileCacheTest {
+
+	Path directory;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory(null);
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : files.collect(Collectors.toList())) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+
+	@Test
+	public void contentIsLoadedInTheBackground() throws Exception {
+		Path path = write("a.txt", "content");
+		StaticFileCache cache = new StaticFileCache(16, 1024);
+
+		// The first lookup does not read the content
+		StaticFile file = cache.get(path);
+		assertThat(file.exists()).isTrue();
+		assertThat(file.size).isEqualTo(7);
+		assertThat(file.content).isNull();
+
+		StaticFile loaded = awaitContent(cache, path);
+		ByteBuf content = loaded.retainedContent();
+		assertThat(content).isNotNull();
+		assertThat(content.toString(StandardCharsets.UTF_8)).isEqualTo("content");
+		content.release();
+		assertThat(cache.contentBytes.get()).isEqualTo(7);
+		assertThat(cache.get(path)).isSameAs(loaded);
+
+		Files.delete(path);
+		assertThat(cache.get(path).exists()).isFalse();
+		assertThat(cache.entries).isEmpty();
+		assertThat(cache.contentBytes.get()).isEqualTo(0);
+	}
+
+	@Test
+	public void leastRecentlyUsedEntriesAreEvicted() throws Exception {
+		// The content is not held in memory
+		StaticFileCache cache = new StaticFileCache(2, 0);
+		Path a = write("a.txt", "a");
+		Path b = write("b.txt", "b");
+		Path c = write("c.txt", "c");
+
+		cache.get(a);
+		Thread.sleep(1);
+		cache.get(b);
+		Thread.sleep(1);
+		cache.get(a);
+		Thread.sleep(1);
+		cache.get(c);
+
+		assertThat(cache.entries).hasSize(2)
+		                         .containsKeys(a.toAbsolutePath(), c.toAbsolutePath());
+	}
+
+	Path write(String name, String content) throws IOException {
+		return Files.write(directory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	static StaticFile awaitContent(StaticFileCache cache, Path path) throws InterruptedException {
+		for (int i = 0; i < 500; i++) {
+			StaticFile file = cache.get(path);
+			if (file.content != null) {
+				return file;
+			}
+			Thread.sleep(10);
+		}
+		throw new AssertionError("The content of " + path + " is not loaded");
+	}
+}
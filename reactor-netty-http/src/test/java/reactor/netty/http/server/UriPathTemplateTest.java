@@ -16,6 +16,8 @@
 
 package reactor.netty.http.server;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 import reactor.netty.http.server.HttpPredicate.UriPathTemplate;
 
@@ -104,4 +106,26 @@ public class UriPathTemplateTest {
         assertThat(template.match("/tags/v1.0.0").entrySet()).isEmpty();
     }
 
+    @Test
+    public void segmentTemplateShouldResolveParametersFromOffsets() {
+        UriPathTemplate template = new UriPathTemplate("/comments/{id}/{rest}**");
+        assertThat(template.segments).isNotNull();
+        Map<String, String> params = template.match("http://localhost:8080/comments/1/a/b?q=reactor");
+        assertThat(params).isInstanceOf(HttpPredicate.PathParams.class)
+                          .hasSize(2)
+                          .containsEntry("id", "1")
+                          .containsEntry("rest", "a/b");
+        assertThat(params.get("unknown")).isNull();
+        assertThat(template.match("/comments").entrySet()).isEmpty();
+    }
+
+    @Test
+    public void regexTemplateShouldStillBeMatched() {
+        UriPathTemplate template = new UriPathTemplate("/comments/{id}.json");
+        assertThat(template.segments).isNull();
+        assertThat(template.matches("/comments/1.json")).isTrue();
+        assertThat(template.match("/comments/1.json")).containsEntry("id", "1");
+        assertThat(template.matches("/comments/1/a.json")).isFalse();
+    }
+
 }
\ No newline at end of file